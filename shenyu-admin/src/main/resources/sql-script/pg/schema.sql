@@ -505,6 +505,12 @@ ELSE
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'master' || ''', ''' || 'master' || ''', 2, 3, 2, NULL);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'url' || ''', ''' || 'url' || ''', 2, 3, 3, NULL);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'password' || ''', ''' || 'password' || ''', 2, 3, 4, NULL);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'batchWindowMicros' || ''', ''' || 'batchWindowMicros' || ''', 1, 3, 5, ''' || '{"required":"0","defaultValue":"0","placeholder":"0 disables the batch of scripts","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'maxBatchSize' || ''', ''' || 'maxBatchSize' || ''', 1, 3, 6, ''' || '{"required":"0","defaultValue":"128","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'clusterPort' || ''', ''' || 'clusterPort' || ''', 1, 3, 7, ''' || '{"required":"0","defaultValue":"0","placeholder":"0 disables the cluster engine","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'clusterPeers' || ''', ''' || 'clusterPeers' || ''', 2, 3, 8, ''' || '{"required":"0","placeholder":"host:port,host:port","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'clusterRegisterType' || ''', ''' || 'clusterRegisterType' || ''', 2, 3, 9, ''' || '{"required":"0","placeholder":"zookeeper or etcd","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '4' || ''', ''' || 'gossipIntervalMillis' || ''', ''' || 'gossipIntervalMillis' || ''', 1, 3, 10, ''' || '{"required":"0","defaultValue":"100","rule":""}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '11' || ''', ''' || 'protocol' || ''', ''' || 'protocol' || ''', 2, 3, 1, NULL);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '11' || ''', ''' || 'register' || ''', ''' || 'register' || ''', 2, 3, 2, NULL);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id ,  field ,  label ,  data_type ,  type ,  sort ,  ext_obj ) VALUES (''' || '2' || ''', ''' || 'model' || ''', ''' || 'model' || ''', 2, 3, 1, NULL);');
@@ -513,6 +519,10 @@ ELSE
     /*insert "plugin_handle" data for plugin rateLimiter*/
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '4' || ''' ,''' || 'algorithmName' || ''',''' || 'algorithmName' || ''',''' || '3' || ''', 2, 1, ''' || '{"required":"1","defaultValue":"slidingWindow","rule":""}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '4' || ''' ,''' || 'keyResolverName' || ''',''' || 'keyResolverName' || ''',''' || '3' || ''', 2, 4, ''' || '{"required":"1","defaultValue":"WHOLE_KEY_RESOLVER","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '4' || ''' ,''' || 'engine' || ''',''' || 'engine' || ''',''' || '3' || ''', 2, 5, ''' || '{"required":"0","defaultValue":"redis","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '4' || ''' ,''' || 'leasePercent' || ''',''' || 'leasePercent' || ''',''' || '1' || ''', 2, 6, ''' || '{"required":"0","defaultValue":"10","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '4' || ''' ,''' || 'keyName' || ''',''' || 'keyName' || ''',''' || '2' || ''', 2, 7, ''' || '{"required":"0","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '4' || ''' ,''' || 'heavyHitterPercent' || ''',''' || 'heavyHitterPercent' || ''',''' || '1' || ''', 2, 8, ''' || '{"required":"0","defaultValue":"0","rule":""}' || ''');');
 
     /*insert "plugin_handle" data for divide*/
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'upstreamHost' || ''', ''' || 'host' || ''', 2, 1, 0, null);');
@@ -530,6 +540,11 @@ ELSE
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'headerMaxSize' || ''', ''' || 'headerMaxSize' || ''', 1, 2, 3, ''' || '{"defaultValue":"10240","rule":""}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'requestMaxSize' || ''', ''' || 'requestMaxSize' || ''', 1, 2, 4, ''' || '{"defaultValue":"102400","rule":""}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'retryStrategy' || ''', ''' || 'retryStrategy' || ''', 3, 2, 0, ''' || '{"required":"0","defaultValue":"current","placeholder":"retryStrategy","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'maxConnections' || ''', ''' || 'maxConnections' || ''', 1, 2, 5, ''' || '{"required":"0","defaultValue":"0","placeholder":"0 uses the shared pool","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'maxPendingAcquires' || ''', ''' || 'maxPendingAcquires' || ''', 1, 2, 6, ''' || '{"required":"0","defaultValue":"0","placeholder":"0 is unbounded","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'maxIdleTime' || ''', ''' || 'maxIdleTime' || ''', 1, 2, 7, ''' || '{"required":"0","defaultValue":"0","placeholder":"max idle time (ms)","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'maxLifeTime' || ''', ''' || 'maxLifeTime' || ''', 1, 2, 8, ''' || '{"required":"0","defaultValue":"0","placeholder":"max life time (ms)","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '5' || ''', ''' || 'httpProtocol' || ''', ''' || 'httpProtocol' || ''', 3, 2, 9, ''' || '{"required":"0","defaultValue":"","rule":""}' || ''');');
 
     /*insert "plugin_handle" data for tars*/
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '13' || ''', ''' || 'upstreamHost' || ''', ''' || 'host' || ''', 2, 1, 0, null);');
@@ -629,6 +644,18 @@ ELSE
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'maxResponseBody' || ''', ''' || 'maxResponseBody' || ''', 1, 3, 5, ''' || '{"required":"0","defaultValue":524288}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'maxRequestBody' || ''', ''' || 'maxRequestBody' || ''', 1, 3, 6, ''' || '{"required":"0","defaultValue":524288}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'compressAlg' || ''', ''' || 'compressAlg' || ''', 3, 3, 7, ''' || '{"required":"0","defaultValue":"none"}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'bufferQueueSize' || ''', ''' || 'bufferQueueSize' || ''', 1, 3, 8, ''' || '{"required":"0","defaultValue":50000}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'batchSize' || ''', ''' || 'batchSize' || ''', 1, 3, 9, ''' || '{"required":"0","defaultValue":100}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'lingerMillis' || ''', ''' || 'lingerMillis' || ''', 1, 3, 10, ''' || '{"required":"0","defaultValue":100}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'sinkType' || ''', ''' || 'sinkType' || ''', 3, 3, 11, ''' || '{"required":"0","defaultValue":"rocketmq"}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'bootstrapServers' || ''', ''' || 'bootstrapServers' || ''', 2, 3, 12, ''' || '{"required":"0","defaultValue":"","placeholder":"kafka bootstrap servers"}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'logDir' || ''', ''' || 'logDir' || ''', 2, 3, 13, ''' || '{"required":"0","defaultValue":"logs/shenyu-logging/access"}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'segmentBytes' || ''', ''' || 'segmentBytes' || ''', 1, 3, 14, ''' || '{"required":"0","defaultValue":67108864}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'rollMillis' || ''', ''' || 'rollMillis' || ''', 1, 3, 15, ''' || '{"required":"0","defaultValue":600000}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'fsyncPolicy' || ''', ''' || 'fsyncPolicy' || ''', 3, 3, 16, ''' || '{"required":"0","defaultValue":"interval"}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'fsyncIntervalMillis' || ''', ''' || 'fsyncIntervalMillis' || ''', 1, 3, 17, ''' || '{"required":"0","defaultValue":1000}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'spillDir' || ''', ''' || 'spillDir' || ''', 2, 3, 18, ''' || '{"required":"0","defaultValue":"logs/shenyu-logging/spill","placeholder":"blank to disable"}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'spillMaxBytes' || ''', ''' || 'spillMaxBytes' || ''', 1, 3, 19, ''' || '{"required":"0","defaultValue":1073741824}' || ''');');
 
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'topic' || ''', ''' || 'topic' || ''', 2, 1, 1, ''' || '{"required":"0","defaultValue":"","placeholder":"optional"}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '29' || ''', ''' || 'sampleRate' || ''', ''' || 'sampleRate' || ''', 2, 1, 2, ''' || '{"required":"0","defaultValue":"","placeholder":"optional,0,0.01~1"}' || ''');');
@@ -642,7 +669,13 @@ ELSE
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'minIdle' || ''', ''' || 'minIdle' || ''', 1, 3, 8, ''' || '{"required":"0","defaultValue":"0","rule":""}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'maxActive' || ''', ''' || 'maxActive' || ''', 1, 3, 9, ''' || '{"required":"0","defaultValue":"8","rule":""}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'maxWait' || ''', ''' || 'maxWait' || ''', 3, 3, 10, ''' || '{"required":"0","defaultValue":"-1","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'maxBytes' || ''', ''' || 'maxBytes' || ''', 1, 3, 11, ''' || '{"required":"0","defaultValue":"268435456","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'maxResponseBytes' || ''', ''' || 'maxResponseBytes' || ''', 1, 3, 12, ''' || '{"required":"0","defaultValue":"1048576","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'nearTimeoutSeconds' || ''', ''' || 'nearTimeoutSeconds' || ''', 1, 3, 13, ''' || '{"required":"0","defaultValue":"10","rule":""}' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'timeoutSeconds' || ''', ''' || 'timeoutSeconds' || ''', 1, 2, 0, ''' || '{"required":"0","defaultValue":"60","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'singleFlight' || ''', ''' || 'singleFlight' || ''', 3, 2, 1, ''' || '{"required":"0","defaultValue":"false","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'staleSeconds' || ''', ''' || 'staleSeconds' || ''', 1, 2, 2, ''' || '{"required":"0","defaultValue":"0","rule":""}' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO "plugin_handle" ( plugin_id , field , label , data_type , type , sort , ext_obj ) VALUES (''' || '30' || ''', ''' || 'keyTemplate' || ''', ''' || 'keyTemplate' || ''', 2, 2, 3, ''' || '{"required":"0","defaultValue":"{method}:{path}?{query}","placeholder":"{method}:{host}{path}?{query}:{header.X-Tenant}","rule":""}' || ''');');
 
 
 PERFORM public.dblink_exec('init_conn', 'COMMIT');
@@ -994,6 +1027,9 @@ ELSE
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'loadBalance' || ''', ''' || 'LOAD_BALANCE' || ''', ''' || 'roundRobin' || ''', ''' || 'roundRobin' || ''', ''' || 'roundRobin' || ''', 2, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'loadBalance' || ''', ''' || 'LOAD_BALANCE' || ''', ''' || 'random' || ''', ''' || 'random' || ''', ''' || 'random' || ''', 1, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'loadBalance' || ''', ''' || 'LOAD_BALANCE' || ''', ''' || 'hash' || ''', ''' || 'hash' || ''', ''' || 'hash' || ''', 0, 1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'loadBalance' || ''', ''' || 'LOAD_BALANCE' || ''', ''' || 'leastActive' || ''', ''' || 'leastActive' || ''', ''' || 'leastActive' || ''', 3, 1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'loadBalance' || ''', ''' || 'LOAD_BALANCE' || ''', ''' || 'p2c' || ''', ''' || 'p2c' || ''', ''' || 'p2c' || ''', 4, 1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'loadBalance' || ''', ''' || 'LOAD_BALANCE' || ''', ''' || 'shortestResponse' || ''', ''' || 'shortestResponse' || ''', ''' || 'shortestResponse' || ''', 5, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'status' || ''', ''' || 'DIVIDE_STATUS' || ''', ''' || 'close' || ''', ''' || 'false' || ''', ''' || 'close' || ''', 1, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'status' || ''', ''' || 'DIVIDE_STATUS' || ''', ''' || 'open' || ''', ''' || 'true' || ''', ''' || 'open' || ''', 0, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'multiRuleHandle' || ''', ''' || 'MULTI_RULE_HANDLE' || ''', ''' || 'multiple rule' || ''', ''' || '1' || ''', ''' || 'multiple rule' || ''', 1, 1);');
@@ -1019,6 +1055,14 @@ ELSE
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'paramType' || ''', ''' || 'PARAM_TYPE' || ''', ''' || 'req_method' || ''', ''' || 'req_method' || ''', ''' || 'req_method' || ''', 7, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'keyResolverName' || ''',''' || 'WHOLE_KEY_RESOLVER' || ''',''' || 'whole' || ''',''' || 'WHOLE_KEY_RESOLVER' || ''',''' || 'Rate limit by all request' || ''',0,1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'keyResolverName' || ''',''' || 'REMOTE_ADDRESS_KEY_RESOLVER' || ''',''' || 'remoteAddress' || ''',''' || 'REMOTE_ADDRESS_KEY_RESOLVER' || ''',''' || 'Rate limit by remote address' || ''',1,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'keyResolverName' || ''',''' || 'HEADER_KEY_RESOLVER' || ''',''' || 'header' || ''',''' || 'HEADER_KEY_RESOLVER' || ''',''' || 'Rate limit by the header of keyName' || ''',2,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'keyResolverName' || ''',''' || 'QUERY_PARAM_KEY_RESOLVER' || ''',''' || 'queryParam' || ''',''' || 'QUERY_PARAM_KEY_RESOLVER' || ''',''' || 'Rate limit by the query parameter of keyName' || ''',3,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'keyResolverName' || ''',''' || 'JWT_CLAIM_KEY_RESOLVER' || ''',''' || 'jwtClaim' || ''',''' || 'JWT_CLAIM_KEY_RESOLVER' || ''',''' || 'Rate limit by the jwt claim of keyName' || ''',4,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'keyResolverName' || ''',''' || 'APP_KEY_RESOLVER' || ''',''' || 'appKey' || ''',''' || 'APP_KEY_RESOLVER' || ''',''' || 'Rate limit by the appKey of sign plugin' || ''',5,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'engine' || ''',''' || 'RATE_LIMITER_ENGINE' || ''',''' || 'redis' || ''',''' || 'redis' || ''',''' || 'Rate limit by the script of redis' || ''',0,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'engine' || ''',''' || 'RATE_LIMITER_ENGINE' || ''',''' || 'local' || ''',''' || 'local' || ''',''' || 'Rate limit in the memory of the gateway node' || ''',1,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'engine' || ''',''' || 'RATE_LIMITER_ENGINE' || ''',''' || 'hybrid' || ''',''' || 'hybrid' || ''',''' || 'Rate limit by the tokens leased from redis' || ''',2,1);');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'engine' || ''',''' || 'RATE_LIMITER_ENGINE' || ''',''' || 'cluster' || ''',''' || 'cluster' || ''',''' || 'Rate limit by the counters gossiped between the gateway nodes' || ''',3,1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'automaticTransitionFromOpenToHalfOpenEnabled' || ''', ''' || 'AUTOMATIC_HALF_OPEN' || ''', ''' || 'open' || ''', ''' || 'true' || ''', ''' || '' || ''', 1, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'automaticTransitionFromOpenToHalfOpenEnabled' || ''', ''' || 'AUTOMATIC_HALF_OPEN' || ''', ''' || 'close' || ''', ''' || 'false' || ''', ''' || '' || ''', 2, 1);');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO  shenyu_dict  ( type , dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'paramType' || ''', ''' || 'PARAM_TYPE' || ''', ''' || 'domain' || ''', ''' || 'domain' || ''', ''' || 'domain' || ''', 8, 1);');
@@ -1034,6 +1078,12 @@ ELSE
     /*insert dict for dubbo plugin*/
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'gray' || ''', ''' || 'GRAY_STATUS' || ''', ''' || 'close' || ''', ''' || 'false' || ''', ''' || 'close' || ''', ''' || '1' || ''', ''' || '1' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'gray' || ''', ''' || 'GRAY_STATUS' || ''', ''' || 'open' || ''', ''' || 'true' || ''', ''' || 'open' || ''', ''' || '0' || ''', ''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'singleFlight' || ''', ''' || 'SINGLE_FLIGHT' || ''', ''' || 'close' || ''', ''' || 'false' || ''', ''' || 'close' || ''', ''' || '1' || ''', ''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'singleFlight' || ''', ''' || 'SINGLE_FLIGHT' || ''', ''' || 'open' || ''', ''' || 'true' || ''', ''' || 'open' || ''', ''' || '0' || ''', ''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'httpProtocol' || ''', ''' || 'HTTP_PROTOCOL' || ''', ''' || 'h1' || ''', ''' || 'h1' || ''', ''' || 'h1' || ''', ''' || '0' || ''', ''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'httpProtocol' || ''', ''' || 'HTTP_PROTOCOL' || ''', ''' || 'h2' || ''', ''' || 'h2' || ''', ''' || 'h2' || ''', ''' || '1' || ''', ''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'httpProtocol' || ''', ''' || 'HTTP_PROTOCOL' || ''', ''' || 'h2c' || ''', ''' || 'h2c' || ''', ''' || 'h2c' || ''', ''' || '2' || ''', ''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'httpProtocol' || ''', ''' || 'HTTP_PROTOCOL' || ''', ''' || 'auto' || ''', ''' || 'auto' || ''', ''' || 'auto' || ''', ''' || '3' || ''', ''' || '1' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'threadpool' || ''', ''' || 'THREADPOOL' || ''', ''' || 'shared' || ''', ''' || 'shared' || ''', ''' || '' || ''', ''' || '4' || ''', ''' || '1' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'threadpool' || ''', ''' || 'THREADPOOL' || ''', ''' || 'fixed' || ''', ''' || 'fixed' || ''', ''' || '' || ''', ''' || '3' || ''', ''' || '1' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'threadpool' || ''', ''' || 'THREADPOOL' || ''', ''' || 'eager' || ''', ''' || 'eager' || ''', ''' || '' || ''', ''' || '2' || ''', ''' || '1' || ''');');
@@ -1050,9 +1100,16 @@ ELSE
     /* insert dict for compress algorithm  */
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'compressAlg'|| ''', ''' || 'COMPRESS_ALG' || ''', ''' || 'none' || ''',''' ||  'none' ||''',''' || '' ||''',''' || '0' || ''',''' || '1' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'compressAlg'|| ''', ''' || 'COMPRESS_ALG' || ''', ''' || 'LZ4' || ''',''' ||  'LZ4' ||''',''' || '' ||''',''' || '1' || ''',''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'sinkType'|| ''', ''' || 'SINK_TYPE' || ''', ''' || 'rocketmq' || ''',''' ||  'rocketmq' ||''',''' || '' ||''',''' || '0' || ''',''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'sinkType'|| ''', ''' || 'SINK_TYPE' || ''', ''' || 'kafka' || ''',''' ||  'kafka' ||''',''' || '' ||''',''' || '1' || ''',''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'sinkType'|| ''', ''' || 'SINK_TYPE' || ''', ''' || 'file' || ''',''' ||  'file' ||''',''' || '' ||''',''' || '2' || ''',''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'fsyncPolicy'|| ''', ''' || 'FSYNC_POLICY' || ''', ''' || 'none' || ''',''' ||  'none' ||''',''' || '' ||''',''' || '0' || ''',''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'fsyncPolicy'|| ''', ''' || 'FSYNC_POLICY' || ''', ''' || 'append' || ''',''' ||  'append' ||''',''' || '' ||''',''' || '1' || ''',''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'fsyncPolicy'|| ''', ''' || 'FSYNC_POLICY' || ''', ''' || 'interval' || ''',''' ||  'interval' ||''',''' || '' ||''',''' || '2' || ''',''' || '1' || ''');');
 
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'cacheType'|| ''', ''' || 'CACHE_TYPE_MEMORY' || ''', ''' || 'memory' || ''',''' ||  'memory' ||''',''' || 'use memory to cache data' ||''',''' || '0' || ''',''' || '1' || ''');');
     PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'cacheType'|| ''', ''' || 'CACHE_TYPE_REDIS'  || ''', ''' || 'redis'  || ''',''' ||  'redis' ||''','''  || 'use redis to cache data' ||''',''' || '1' || ''',''' || '1' || ''');');
+    PERFORM public.dblink_exec('init_conn',  'INSERT  INTO shenyu_dict ( type ,  dict_code ,  dict_name ,  dict_value ,  "desc" ,  sort ,  enabled ) VALUES (''' || 'cacheType'|| ''', ''' || 'CACHE_TYPE_TIERED'  || ''', ''' || 'tiered'  || ''',''' ||  'tiered' ||''','''  || 'use the memory in front of redis to cache data' ||''',''' || '2' || ''',''' || '1' || ''');');
 
 
 	PERFORM public.dblink_exec('init_conn', 'COMMIT');
@@ -61,6 +61,66 @@ public class ShenyuConfig {
     
     private MetricsConfig metrics = new MetricsConfig();
     
+    private MatchIndexConfig matchIndex = new MatchIndexConfig();
+    
+    private LoadBalance loadBalance = new LoadBalance();
+    
+    private ProfileConfig profile = new ProfileConfig();
+    
+    /**
+     * Gets profile config.
+     *
+     * @return the profile config
+     */
+    public ProfileConfig getProfile() {
+        return profile;
+    }
+    
+    /**
+     * Sets profile config.
+     *
+     * @param profile the profile config
+     */
+    public void setProfile(final ProfileConfig profile) {
+        this.profile = profile;
+    }
+    
+    /**
+     * Gets load balance config.
+     *
+     * @return the load balance config
+     */
+    public LoadBalance getLoadBalance() {
+        return loadBalance;
+    }
+    
+    /**
+     * Sets load balance config.
+     *
+     * @param loadBalance the load balance config
+     */
+    public void setLoadBalance(final LoadBalance loadBalance) {
+        this.loadBalance = loadBalance;
+    }
+    
+    /**
+     * Gets match index config.
+     *
+     * @return the match index config
+     */
+    public MatchIndexConfig getMatchIndex() {
+        return matchIndex;
+    }
+    
+    /**
+     * Sets match index config.
+     *
+     * @param matchIndex the match index config
+     */
+    public void setMatchIndex(final MatchIndexConfig matchIndex) {
+        this.matchIndex = matchIndex;
+    }
+    
     /**
      * Gets metrics.
      *
@@ -670,6 +730,22 @@ public class ShenyuConfig {
         private Boolean printEnabled = true;
         
         private Integer printInterval = 60000;
+        
+        private Integer maxConcurrency = 256;
+        
+        private Double jitter = 0.2;
+        
+        private String httpPath;
+
+        private Boolean outlierEnabled = false;
+
+        private Integer consecutiveErrors = 5;
+
+        private Integer baseEjectionTime = 30000;
+
+        private Integer maxEjectionTime = 300000;
+
+        private Integer maxEjectionPercent = 50;
     
         /**
          * Gets enabled.
@@ -796,6 +872,150 @@ public class ShenyuConfig {
         public void setPrintInterval(final Integer printInterval) {
             this.printInterval = printInterval;
         }
+    
+        /**
+         * Gets the max concurrent probes.
+         *
+         * @return the max concurrency
+         */
+        public Integer getMaxConcurrency() {
+            return maxConcurrency;
+        }
+    
+        /**
+         * Sets the max concurrent probes.
+         *
+         * @param maxConcurrency the max concurrency
+         */
+        public void setMaxConcurrency(final Integer maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    
+        /**
+         * Gets the jitter, the probes of a round are spread over this ratio of the interval.
+         *
+         * @return the jitter
+         */
+        public Double getJitter() {
+            return jitter;
+        }
+    
+        /**
+         * Sets the jitter, the probes of a round are spread over this ratio of the interval.
+         *
+         * @param jitter the jitter
+         */
+        public void setJitter(final Double jitter) {
+            this.jitter = jitter;
+        }
+    
+        /**
+         * Gets the http path to probe, the upstream is only connected when it is blank.
+         *
+         * @return the http path
+         */
+        public String getHttpPath() {
+            return httpPath;
+        }
+    
+        /**
+         * Sets the http path to probe, the upstream is only connected when it is blank.
+         *
+         * @param httpPath the http path
+         */
+        public void setHttpPath(final String httpPath) {
+            this.httpPath = httpPath;
+        }
+    
+        /**
+         * Gets whether the upstream is ejected by the failures of the live traffic.
+         *
+         * @return the outlier enabled
+         */
+        public Boolean getOutlierEnabled() {
+            return outlierEnabled;
+        }
+    
+        /**
+         * Sets whether the upstream is ejected by the failures of the live traffic.
+         *
+         * @param outlierEnabled the outlier enabled
+         */
+        public void setOutlierEnabled(final Boolean outlierEnabled) {
+            this.outlierEnabled = outlierEnabled;
+        }
+    
+        /**
+         * Gets the consecutive failures to eject the upstream.
+         *
+         * @return the consecutive errors
+         */
+        public Integer getConsecutiveErrors() {
+            return consecutiveErrors;
+        }
+    
+        /**
+         * Sets the consecutive failures to eject the upstream.
+         *
+         * @param consecutiveErrors the consecutive errors
+         */
+        public void setConsecutiveErrors(final Integer consecutiveErrors) {
+            this.consecutiveErrors = consecutiveErrors;
+        }
+    
+        /**
+         * Gets the base ejection time in milliseconds, it grows exponentially with the ejections.
+         *
+         * @return the base ejection time
+         */
+        public Integer getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+    
+        /**
+         * Sets the base ejection time in milliseconds, it grows exponentially with the ejections.
+         *
+         * @param baseEjectionTime the base ejection time
+         */
+        public void setBaseEjectionTime(final Integer baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+        }
+    
+        /**
+         * Gets the max ejection time in milliseconds.
+         *
+         * @return the max ejection time
+         */
+        public Integer getMaxEjectionTime() {
+            return maxEjectionTime;
+        }
+    
+        /**
+         * Sets the max ejection time in milliseconds.
+         *
+         * @param maxEjectionTime the max ejection time
+         */
+        public void setMaxEjectionTime(final Integer maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+        }
+    
+        /**
+         * Gets the max percent of the upstreams of a selector to eject.
+         *
+         * @return the max ejection percent
+         */
+        public Integer getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+    
+        /**
+         * Sets the max percent of the upstreams of a selector to eject.
+         *
+         * @param maxEjectionPercent the max ejection percent
+         */
+        public void setMaxEjectionPercent(final Integer maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
     }
     
     /**
@@ -1506,4 +1726,145 @@ public class ShenyuConfig {
             this.props = props;
         }
     }
+    
+    /**
+     * The type Match index config.
+     * when enabled, selectors and rules of the configured plugins are matched through a compiled index
+     * instead of a linear scan, an empty plugin set means every plugin.
+     */
+    public static class MatchIndexConfig {
+    
+        private Boolean enabled = false;
+        
+        private Set<String> plugins = new HashSet<>();
+    
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+    
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(final Boolean enabled) {
+            this.enabled = enabled;
+        }
+    
+        /**
+         * Gets plugins.
+         *
+         * @return the plugins
+         */
+        public Set<String> getPlugins() {
+            return plugins;
+        }
+    
+        /**
+         * Sets plugins.
+         *
+         * @param plugins the plugins
+         */
+        public void setPlugins(final Set<String> plugins) {
+            this.plugins = plugins;
+        }
+    }
+    
+    /**
+     * The type Load balance config.
+     */
+    public static class LoadBalance {
+    
+        private Integer hashVirtualNodes = 160;
+    
+        /**
+         * Gets the virtual node count of each upstream on the hash ring.
+         *
+         * @return the hash virtual nodes
+         */
+        public Integer getHashVirtualNodes() {
+            return hashVirtualNodes;
+        }
+    
+        /**
+         * Sets the virtual node count of each upstream on the hash ring.
+         *
+         * @param hashVirtualNodes the hash virtual nodes
+         */
+        public void setHashVirtualNodes(final Integer hashVirtualNodes) {
+            this.hashVirtualNodes = hashVirtualNodes;
+        }
+    }
+    
+    /**
+     * The type Profile config.
+     * the initial state of the plugin chain profiler, which can be toggled at runtime through the local profile endpoint.
+     */
+    public static class ProfileConfig {
+    
+        private Boolean enabled = false;
+        
+        private Boolean allocation = false;
+        
+        private Integer maxRoutes = 1000;
+    
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+    
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(final Boolean enabled) {
+            this.enabled = enabled;
+        }
+    
+        /**
+         * Gets whether the allocated bytes of the plugins are profiled.
+         *
+         * @return the allocation
+         */
+        public Boolean getAllocation() {
+            return allocation;
+        }
+    
+        /**
+         * Sets whether the allocated bytes of the plugins are profiled.
+         *
+         * @param allocation the allocation
+         */
+        public void setAllocation(final Boolean allocation) {
+            this.allocation = allocation;
+        }
+    
+        /**
+         * Gets the max profiled routes.
+         *
+         * @return the max routes
+         */
+        public Integer getMaxRoutes() {
+            return maxRoutes;
+        }
+    
+        /**
+         * Sets the max profiled routes.
+         *
+         * @param maxRoutes the max routes
+         */
+        public void setMaxRoutes(final Integer maxRoutes) {
+            this.maxRoutes = maxRoutes;
+        }
+    }
 }
@@ -132,6 +132,41 @@ public interface Constants {
      */
     String HTTP_DOMAIN = "httpDomain";
 
+    /**
+     * The constant UPSTREAM.
+     */
+    String UPSTREAM = "upstream";
+
+    /**
+     * The constant UPSTREAM_SELECTOR_ID, the selector of the selected upstream, the call results are reported to it.
+     */
+    String UPSTREAM_SELECTOR_ID = "upstreamSelectorId";
+
+    /**
+     * The constant UPSTREAM_POOL, the dedicated connection pool config of the upstreams.
+     */
+    String UPSTREAM_POOL = "upstreamPool";
+
+    /**
+     * The constant HTTP_PROTOCOL, the http protocol of the upstreams.
+     */
+    String HTTP_PROTOCOL = "httpProtocol";
+
+    /**
+     * The constant MATCHED_SELECTOR_ID, the selector id matched by the last selector plugin.
+     */
+    String MATCHED_SELECTOR_ID = "matchedSelectorId";
+
+    /**
+     * The constant MATCHED_RULE_ID, the rule id matched by the last selector plugin.
+     */
+    String MATCHED_RULE_ID = "matchedRuleId";
+
+    /**
+     * The constant SHENYU_AGENT_TRACE_ID, the trace id put by the shenyu agent.
+     */
+    String SHENYU_AGENT_TRACE_ID = "shenyu-agent-trace-id";
+
     /**
      * The constant RPC_PARAM_TRANSFORM.
      */
@@ -17,6 +17,9 @@
 
 package org.apache.shenyu.common.dto.convert.rule;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -54,6 +57,31 @@ public class RateLimiterHandle {
      */
     private String keyResolverName;
 
+    /**
+     * engine, redis, local or hybrid.
+     */
+    private String engine = "redis";
+
+    /**
+     * the percent of the burst capacity leased from redis in one batch by the hybrid engine.
+     */
+    private double leasePercent = 10.0;
+
+    /**
+     * the name of the header, query parameter or jwt claim resolved as the key.
+     */
+    private String keyName;
+
+    /**
+     * the keys below this percent of the burst capacity are allowed without the per-key state, 0 disables it.
+     */
+    private double heavyHitterPercent;
+
+    /**
+     * the rates formatted as the redis script args, the handle is deserialized once per rule change.
+     */
+    private transient volatile List<String> rateArgs;
+
     /**
      * get algorithmName.
      *
@@ -88,6 +116,7 @@ public class RateLimiterHandle {
      */
     public void setReplenishRate(final double replenishRate) {
         this.replenishRate = replenishRate;
+        this.rateArgs = null;
     }
 
     /**
@@ -106,6 +135,7 @@ public class RateLimiterHandle {
      */
     public void setBurstCapacity(final double burstCapacity) {
         this.burstCapacity = burstCapacity;
+        this.rateArgs = null;
     }
 
     /**
@@ -124,6 +154,7 @@ public class RateLimiterHandle {
      */
     public void setRequestCount(final double requestCount) {
         this.requestCount = requestCount;
+        this.rateArgs = null;
     }
 
     /**
@@ -162,6 +193,92 @@ public class RateLimiterHandle {
         this.keyResolverName = keyResolverName;
     }
 
+    /**
+     * get engine.
+     *
+     * @return engine
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * set engine.
+     *
+     * @param engine engine
+     */
+    public void setEngine(final String engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * get leasePercent.
+     *
+     * @return leasePercent
+     */
+    public double getLeasePercent() {
+        return leasePercent;
+    }
+
+    /**
+     * set leasePercent.
+     *
+     * @param leasePercent leasePercent
+     */
+    public void setLeasePercent(final double leasePercent) {
+        this.leasePercent = leasePercent;
+    }
+
+    /**
+     * get keyName.
+     *
+     * @return keyName
+     */
+    public String getKeyName() {
+        return keyName;
+    }
+
+    /**
+     * set keyName.
+     *
+     * @param keyName keyName
+     */
+    public void setKeyName(final String keyName) {
+        this.keyName = keyName;
+    }
+
+    /**
+     * get heavyHitterPercent.
+     *
+     * @return heavyHitterPercent
+     */
+    public double getHeavyHitterPercent() {
+        return heavyHitterPercent;
+    }
+
+    /**
+     * set heavyHitterPercent.
+     *
+     * @param heavyHitterPercent heavyHitterPercent
+     */
+    public void setHeavyHitterPercent(final double heavyHitterPercent) {
+        this.heavyHitterPercent = heavyHitterPercent;
+    }
+
+    /**
+     * get the replenish rate, burst capacity and request count formatted as the redis script args.
+     *
+     * @return the rate args
+     */
+    public List<String> getRateArgs() {
+        List<String> args = rateArgs;
+        if (Objects.isNull(args)) {
+            args = Collections.unmodifiableList(Arrays.asList(String.valueOf(replenishRate), String.valueOf(burstCapacity), String.valueOf(requestCount)));
+            rateArgs = args;
+        }
+        return args;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -173,12 +290,14 @@ public class RateLimiterHandle {
         RateLimiterHandle that = (RateLimiterHandle) o;
         return Double.compare(that.replenishRate, replenishRate) == 0 && Double.compare(that.burstCapacity, burstCapacity) == 0
                 && Double.compare(that.requestCount, requestCount) == 0 && loged == that.loged
-                && Objects.equals(algorithmName, that.algorithmName) && Objects.equals(keyResolverName, that.keyResolverName);
+                && Objects.equals(algorithmName, that.algorithmName) && Objects.equals(keyResolverName, that.keyResolverName)
+                && Objects.equals(engine, that.engine) && Double.compare(that.leasePercent, leasePercent) == 0
+                && Objects.equals(keyName, that.keyName) && Double.compare(that.heavyHitterPercent, heavyHitterPercent) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(algorithmName, replenishRate, burstCapacity, requestCount, loged, keyResolverName);
+        return Objects.hash(algorithmName, replenishRate, burstCapacity, requestCount, loged, keyResolverName, engine, leasePercent, keyName, heavyHitterPercent);
     }
 
     @Override
@@ -198,6 +317,16 @@ public class RateLimiterHandle {
                 + ", keyResolverName='"
                 + keyResolverName
                 + '\''
+                + ", engine='"
+                + engine
+                + '\''
+                + ", leasePercent="
+                + leasePercent
+                + ", keyName='"
+                + keyName
+                + '\''
+                + ", heavyHitterPercent="
+                + heavyHitterPercent
                 + '}';
     }
 }
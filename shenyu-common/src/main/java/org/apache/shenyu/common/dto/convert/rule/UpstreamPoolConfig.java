@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.common.dto.convert.rule;
+
+import java.util.Objects;
+
+/**
+ * The dedicated connection pool of the upstreams, sized from the rule handle.
+ * The pool is isolated from the shared http client pool, so a slow upstream can only exhaust its own connections.
+ */
+public final class UpstreamPoolConfig {
+
+    private final int maxConnections;
+
+    private final int maxPendingAcquires;
+
+    private final long maxIdleTime;
+
+    private final long maxLifeTime;
+
+    /**
+     * Instantiates a new upstream pool config.
+     *
+     * @param maxConnections the max connections per upstream address
+     * @param maxPendingAcquires the max pending acquires, 0 is unbounded
+     * @param maxIdleTime the max idle time in millis, 0 keeps the idle connections
+     * @param maxLifeTime the max life time in millis, 0 keeps the connections until they are closed
+     */
+    public UpstreamPoolConfig(final int maxConnections, final int maxPendingAcquires, final long maxIdleTime,
+                              final long maxLifeTime) {
+        this.maxConnections = maxConnections;
+        this.maxPendingAcquires = maxPendingAcquires;
+        this.maxIdleTime = maxIdleTime;
+        this.maxLifeTime = maxLifeTime;
+    }
+
+    /**
+     * get maxConnections.
+     *
+     * @return maxConnections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * get maxPendingAcquires.
+     *
+     * @return maxPendingAcquires
+     */
+    public int getMaxPendingAcquires() {
+        return maxPendingAcquires;
+    }
+
+    /**
+     * get maxIdleTime.
+     *
+     * @return maxIdleTime
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * get maxLifeTime.
+     *
+     * @return maxLifeTime
+     */
+    public long getMaxLifeTime() {
+        return maxLifeTime;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UpstreamPoolConfig that = (UpstreamPoolConfig) o;
+        return maxConnections == that.maxConnections && maxPendingAcquires == that.maxPendingAcquires
+                && maxIdleTime == that.maxIdleTime && maxLifeTime == that.maxLifeTime;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxConnections, maxPendingAcquires, maxIdleTime, maxLifeTime);
+    }
+
+    @Override
+    public String toString() {
+        return "UpstreamPoolConfig{"
+                + "maxConnections="
+                + maxConnections
+                + ", maxPendingAcquires="
+                + maxPendingAcquires
+                + ", maxIdleTime="
+                + maxIdleTime
+                + ", maxLifeTime="
+                + maxLifeTime
+                + '}';
+    }
+}
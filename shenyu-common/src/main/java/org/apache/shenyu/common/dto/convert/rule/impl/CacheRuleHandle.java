@@ -29,6 +29,21 @@ public class CacheRuleHandle implements RuleHandle {
      */
     private Long timeoutSeconds = 60L;
 
+    /**
+     * whether the concurrent misses of the same key wait for the first one instead of calling the upstream.
+     */
+    private Boolean singleFlight = false;
+
+    /**
+     * the seconds to serve the expired data while one request refreshes it, 0 is disabled.
+     */
+    private Long staleSeconds = 0L;
+
+    /**
+     * the template of the cache key, such as {method}:{host}{path}?{query}:{header.X-Tenant}, blank is the default.
+     */
+    private String keyTemplate;
+
     /**
      * Get the timeout seconds.
      * @return the timeout seconds
@@ -44,4 +59,52 @@ public class CacheRuleHandle implements RuleHandle {
     public void setTimeoutSeconds(final Long timeoutSeconds) {
         this.timeoutSeconds = timeoutSeconds;
     }
+
+    /**
+     * Get the single flight.
+     * @return the single flight
+     */
+    public Boolean getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Set the single flight.
+     * @param singleFlight the single flight
+     */
+    public void setSingleFlight(final Boolean singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * Get the stale seconds.
+     * @return the stale seconds
+     */
+    public Long getStaleSeconds() {
+        return staleSeconds;
+    }
+
+    /**
+     * Set the stale seconds.
+     * @param staleSeconds the stale seconds
+     */
+    public void setStaleSeconds(final Long staleSeconds) {
+        this.staleSeconds = staleSeconds;
+    }
+
+    /**
+     * Get the key template.
+     * @return the key template
+     */
+    public String getKeyTemplate() {
+        return keyTemplate;
+    }
+
+    /**
+     * Set the key template.
+     * @param keyTemplate the key template
+     */
+    public void setKeyTemplate(final String keyTemplate) {
+        this.keyTemplate = keyTemplate;
+    }
 }
@@ -19,6 +19,8 @@ package org.apache.shenyu.common.dto.convert.rule.impl;
 
 import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.dto.convert.rule.RuleHandle;
+import org.apache.shenyu.common.dto.convert.rule.UpstreamPoolConfig;
+import org.apache.shenyu.common.enums.HttpProtocolEnum;
 import org.apache.shenyu.common.enums.LoadBalanceEnum;
 import org.apache.shenyu.common.enums.RetryEnum;
 
@@ -61,6 +63,37 @@ public class DivideRuleHandle implements RuleHandle {
      */
     private long requestMaxSize = Constants.REQUEST_MAX_SIZE;
 
+    /**
+     * the max connections of the dedicated pool per upstream, 0 uses the shared http client pool.
+     */
+    private int maxConnections;
+
+    /**
+     * the max pending acquires of the dedicated pool, 0 is unbounded.
+     */
+    private int maxPendingAcquires;
+
+    /**
+     * the max idle time of the dedicated pool connections in millis, 0 keeps the idle connections.
+     */
+    private long maxIdleTime;
+
+    /**
+     * the max life time of the dedicated pool connections in millis, 0 keeps the connections until they are closed.
+     */
+    private long maxLifeTime;
+
+    /**
+     * the upstream http protocol, blank uses the protocol of the http client properties.
+     * {@linkplain HttpProtocolEnum}
+     */
+    private String httpProtocol;
+
+    /**
+     * the pool config built from the fields above, the handle is deserialized once per rule change.
+     */
+    private transient volatile UpstreamPoolConfig poolConfig;
+
     /**
      * get loadBalance.
      *
@@ -169,6 +202,117 @@ public class DivideRuleHandle implements RuleHandle {
         this.requestMaxSize = requestMaxSize;
     }
 
+    /**
+     * get maxConnections.
+     *
+     * @return maxConnections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * set maxConnections.
+     *
+     * @param maxConnections maxConnections
+     */
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+        this.poolConfig = null;
+    }
+
+    /**
+     * get maxPendingAcquires.
+     *
+     * @return maxPendingAcquires
+     */
+    public int getMaxPendingAcquires() {
+        return maxPendingAcquires;
+    }
+
+    /**
+     * set maxPendingAcquires.
+     *
+     * @param maxPendingAcquires maxPendingAcquires
+     */
+    public void setMaxPendingAcquires(final int maxPendingAcquires) {
+        this.maxPendingAcquires = maxPendingAcquires;
+        this.poolConfig = null;
+    }
+
+    /**
+     * get maxIdleTime.
+     *
+     * @return maxIdleTime
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * set maxIdleTime.
+     *
+     * @param maxIdleTime maxIdleTime
+     */
+    public void setMaxIdleTime(final long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+        this.poolConfig = null;
+    }
+
+    /**
+     * get maxLifeTime.
+     *
+     * @return maxLifeTime
+     */
+    public long getMaxLifeTime() {
+        return maxLifeTime;
+    }
+
+    /**
+     * set maxLifeTime.
+     *
+     * @param maxLifeTime maxLifeTime
+     */
+    public void setMaxLifeTime(final long maxLifeTime) {
+        this.maxLifeTime = maxLifeTime;
+        this.poolConfig = null;
+    }
+
+    /**
+     * get httpProtocol.
+     *
+     * @return httpProtocol
+     */
+    public String getHttpProtocol() {
+        return httpProtocol;
+    }
+
+    /**
+     * set httpProtocol.
+     *
+     * @param httpProtocol httpProtocol
+     */
+    public void setHttpProtocol(final String httpProtocol) {
+        this.httpProtocol = httpProtocol;
+    }
+
+    /**
+     * get the dedicated pool config.
+     *
+     * @return the pool config, null when the rule uses the shared http client pool
+     */
+    public UpstreamPoolConfig getPoolConfig() {
+        if (maxConnections <= 0) {
+            return null;
+        }
+        UpstreamPoolConfig config = poolConfig;
+        if (Objects.isNull(config)) {
+            config = new UpstreamPoolConfig(maxConnections, maxPendingAcquires, maxIdleTime, maxLifeTime);
+            poolConfig = config;
+        }
+        return config;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -179,13 +323,16 @@ public class DivideRuleHandle implements RuleHandle {
         }
         DivideRuleHandle that = (DivideRuleHandle) o;
         return retry == that.retry && timeout == that.timeout && headerMaxSize == that.headerMaxSize
-                && requestMaxSize == that.requestMaxSize && Objects.equals(loadBalance, that.loadBalance)
-                && Objects.equals(retryStrategy, that.retryStrategy);
+                && requestMaxSize == that.requestMaxSize && maxConnections == that.maxConnections
+                && maxPendingAcquires == that.maxPendingAcquires && maxIdleTime == that.maxIdleTime
+                && maxLifeTime == that.maxLifeTime && Objects.equals(loadBalance, that.loadBalance)
+                && Objects.equals(retryStrategy, that.retryStrategy) && Objects.equals(httpProtocol, that.httpProtocol);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(loadBalance, retryStrategy, retry, timeout, headerMaxSize, requestMaxSize);
+        return Objects.hash(loadBalance, retryStrategy, retry, timeout, headerMaxSize, requestMaxSize,
+                maxConnections, maxPendingAcquires, maxIdleTime, maxLifeTime, httpProtocol);
     }
 
     @Override
@@ -205,6 +352,17 @@ public class DivideRuleHandle implements RuleHandle {
                 + headerMaxSize
                 + ", requestMaxSize="
                 + requestMaxSize
+                + ", maxConnections="
+                + maxConnections
+                + ", maxPendingAcquires="
+                + maxPendingAcquires
+                + ", maxIdleTime="
+                + maxIdleTime
+                + ", maxLifeTime="
+                + maxLifeTime
+                + ", httpProtocol='"
+                + httpProtocol
+                + '\''
                 + '}';
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.common.enums;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * the http protocol of the upstreams.
+ */
+public enum HttpProtocolEnum {
+
+    /**
+     * http/1.1.
+     */
+    H1("h1"),
+
+    /**
+     * http/2 over tls, negotiated by alpn.
+     */
+    H2("h2"),
+
+    /**
+     * http/2 over cleartext with prior knowledge.
+     */
+    H2C("h2c"),
+
+    /**
+     * http/2 when the tls upstream negotiates it by alpn, otherwise http/1.1.
+     */
+    AUTO("auto");
+
+    private static final HttpProtocolEnum[] VALUES = values();
+
+    private final String name;
+
+    /**
+     * all args constructor.
+     *
+     * @param name name
+     */
+    HttpProtocolEnum(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * get name.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * convert by name.
+     *
+     * @param name name
+     * @param defaultProtocol the protocol of the blank or unknown name
+     * @return {@link HttpProtocolEnum }
+     */
+    public static HttpProtocolEnum acquireByName(final String name, final HttpProtocolEnum defaultProtocol) {
+        if (StringUtils.isBlank(name)) {
+            return defaultProtocol;
+        }
+        for (HttpProtocolEnum protocol : VALUES) {
+            if (protocol.name.equalsIgnoreCase(name.trim())) {
+                return protocol;
+            }
+        }
+        return defaultProtocol;
+    }
+}
@@ -35,7 +35,22 @@ public enum LoadBalanceEnum {
     /**
      * Round robin load balance enum.
      */
-    ROUND_ROBIN(3, "roundRobin", true);
+    ROUND_ROBIN(3, "roundRobin", true),
+
+    /**
+     * Least active load balance enum.
+     */
+    LEAST_ACTIVE(4, "leastActive", true),
+
+    /**
+     * Power of two choices load balance enum.
+     */
+    P2C(5, "p2c", true),
+
+    /**
+     * Shortest response load balance enum.
+     */
+    SHORTEST_RESPONSE(6, "shortestResponse", true);
 
     private final int code;
 
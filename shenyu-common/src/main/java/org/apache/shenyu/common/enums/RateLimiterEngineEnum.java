@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.common.enums;
+
+import java.util.Arrays;
+
+/**
+ * The engine of the rate limiter.
+ */
+public enum RateLimiterEngineEnum {
+
+    /**
+     * every request is judged by the script of redis.
+     */
+    REDIS("redis"),
+
+    /**
+     * every request is judged in the memory of the gateway node.
+     */
+    LOCAL("local"),
+
+    /**
+     * the tokens are leased from redis in batches and spent in the memory of the gateway node.
+     */
+    HYBRID("hybrid"),
+
+    /**
+     * the counters are gossiped between the gateway nodes without redis.
+     */
+    CLUSTER("cluster");
+
+    private final String name;
+
+    RateLimiterEngineEnum(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * get the engine by the name, the redis engine is the default.
+     *
+     * @param name the name
+     * @return the engine
+     */
+    public static RateLimiterEngineEnum acquireByName(final String name) {
+        return Arrays.stream(values()).filter(engine -> engine.name.equals(name)).findFirst().orElse(REDIS);
+    }
+}
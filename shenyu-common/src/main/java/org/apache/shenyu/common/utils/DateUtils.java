@@ -41,7 +41,7 @@ public class DateUtils {
      * @see LocalDateTime
      */
     public static LocalDateTime parseLocalDateTime(final String dataTime) {
-        return LocalDateTime.parse(dataTime, DateTimeFormatter.ofPattern(DATE_FORMAT_DATETIME));
+        return LocalDateTime.parse(dataTime, DATE_TIME_FORMATTER);
     }
 
     /**
@@ -20,6 +20,7 @@ package org.apache.shenyu.common.utils;
 import com.google.common.base.Splitter;
 import org.springframework.util.AntPathMatcher;
 
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -50,7 +51,33 @@ public class PathMatchUtils {
      * @return the boolean
      */
     public static boolean match(final String matchUrls, final String path) {
-        return Splitter.on(",").omitEmptyStrings().trimResults().splitToList(matchUrls).stream().anyMatch(url -> reg(url, path));
+        return match(split(matchUrls), path);
+    }
+
+    /**
+     * Match boolean.
+     *
+     * @param patterns the split patterns
+     * @param path     the path
+     * @return the boolean
+     */
+    public static boolean match(final List<String> patterns, final String path) {
+        for (String pattern : patterns) {
+            if (reg(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split the comma separated patterns.
+     *
+     * @param matchUrls the comma separated patterns
+     * @return the patterns
+     */
+    public static List<String> split(final String matchUrls) {
+        return Splitter.on(",").omitEmptyStrings().trimResults().splitToList(matchUrls);
     }
 
     private static boolean reg(final String pattern, final String path) {
@@ -56,4 +56,16 @@ public enum Singleton {
     public <T> T get(final Class<T> clazz) {
         return (T) SINGLES.get(clazz.getName());
     }
+
+    /**
+     * Remove t.
+     *
+     * @param <T>   the type parameter
+     * @param clazz the clazz
+     * @return the removed t
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T remove(final Class<T> clazz) {
+        return (T) SINGLES.remove(clazz.getName());
+    }
 }
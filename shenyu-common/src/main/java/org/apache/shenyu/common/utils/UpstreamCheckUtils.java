@@ -62,6 +62,27 @@ public class UpstreamCheckUtils {
         if (StringUtils.isBlank(url)) {
             return false;
         }
+        return isHostConnector(parseAddress(url), timeout);
+    }
+
+    /**
+     * Parse the address of the url, the host name is resolved.
+     *
+     * @param url the url
+     * @return the socket address
+     */
+    public static InetSocketAddress parseAddress(final String url) {
+        InetSocketAddress address = parseUnresolvedAddress(url);
+        return new InetSocketAddress(address.getHostString(), address.getPort());
+    }
+
+    /**
+     * Parse the address of the url without resolving the host name.
+     *
+     * @param url the url
+     * @return the unresolved socket address
+     */
+    public static InetSocketAddress parseUnresolvedAddress(final String url) {
         String[] hostPort;
         if (url.startsWith(HTTP)) {
             final String[] http = StringUtils.split(url, "\\/\\/");
@@ -71,12 +92,12 @@ public class UpstreamCheckUtils {
         }
         final boolean isHttps = url.startsWith(HTTPS);
         final int port = hostPort.length > 1 ? Integer.parseInt(hostPort[1].trim()) : isHttps ? 443 : 80;
-        return isHostConnector(hostPort[0].trim(), port, timeout);
+        return InetSocketAddress.createUnresolved(hostPort[0].trim(), port);
     }
 
-    private static boolean isHostConnector(final String host, final int port, final int timeout) {
+    private static boolean isHostConnector(final InetSocketAddress address, final int timeout) {
         try (Socket socket = new Socket()) {
-            socket.connect(new InetSocketAddress(host, port), timeout);
+            socket.connect(address, timeout);
         } catch (Exception e) {
             LOG.error("socket connect is error.", e);
             return false;
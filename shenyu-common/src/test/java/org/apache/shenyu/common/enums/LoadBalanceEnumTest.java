@@ -47,4 +47,25 @@ public final class LoadBalanceEnumTest {
         assertEquals("roundRobin", LoadBalanceEnum.ROUND_ROBIN.getName());
         assertTrue(LoadBalanceEnum.ROUND_ROBIN.isSupport());
     }
+
+    @Test
+    public void testLeastActiveLoadBalance() {
+        assertEquals(4, LoadBalanceEnum.LEAST_ACTIVE.getCode());
+        assertEquals("leastActive", LoadBalanceEnum.LEAST_ACTIVE.getName());
+        assertTrue(LoadBalanceEnum.LEAST_ACTIVE.isSupport());
+    }
+
+    @Test
+    public void testP2cLoadBalance() {
+        assertEquals(5, LoadBalanceEnum.P2C.getCode());
+        assertEquals("p2c", LoadBalanceEnum.P2C.getName());
+        assertTrue(LoadBalanceEnum.P2C.isSupport());
+    }
+
+    @Test
+    public void testShortestResponseLoadBalance() {
+        assertEquals(6, LoadBalanceEnum.SHORTEST_RESPONSE.getCode());
+        assertEquals("shortestResponse", LoadBalanceEnum.SHORTEST_RESPONSE.getName());
+        assertTrue(LoadBalanceEnum.SHORTEST_RESPONSE.isSupport());
+    }
 }
@@ -19,6 +19,8 @@ package org.apache.shenyu.common.utils;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -47,6 +49,14 @@ public final class PathMatchUtilsTest {
         assertTrue(PathMatchUtils.match("/test/**", "/test/test"));
     }
 
+    @Test
+    public void testSplitPatternsMatch() {
+        List<String> patterns = PathMatchUtils.split("/http/** , ,/springcloud/**");
+        assertThat(patterns.size(), is(2));
+        assertTrue(PathMatchUtils.match(patterns, "/springcloud/test"));
+        assertFalse(PathMatchUtils.match(patterns, "/dubbo/test"));
+    }
+
     @Test
     public void testPathVariableHandle() {
         //test filter PathVariable
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.disruptor;
+
+import com.lmax.disruptor.IgnoreExceptionHandler;
+import com.lmax.disruptor.LiteTimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.apache.shenyu.disruptor.consumer.QueueBatchConsumer;
+import org.apache.shenyu.disruptor.consumer.QueueBatchEventHandler;
+import org.apache.shenyu.disruptor.event.DataEvent;
+import org.apache.shenyu.disruptor.event.DisruptorEventFactory;
+import org.apache.shenyu.disruptor.provider.DisruptorProvider;
+import org.apache.shenyu.disruptor.thread.DisruptorThreadFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DisruptorBatchProviderManage.
+ * disruptor provider manager whose events are consumed in batches by a single thread.
+ *
+ * @param <T> the type parameter
+ */
+public class DisruptorBatchProviderManage<T> {
+
+    private final QueueBatchConsumer<T> consumer;
+
+    private final String name;
+
+    private final int size;
+
+    private final int batchSize;
+
+    private final long lingerMillis;
+
+    private DisruptorProvider<T> provider;
+
+    /**
+     * Instantiates a new disruptor batch provider manage.
+     *
+     * @param consumer the batch consumer
+     * @param name the name of the consumer thread
+     * @param ringBufferSize the ringBuffer size, rounded up to the power of 2
+     * @param batchSize the max size of the batch
+     * @param lingerMillis the max milliseconds an event waits in the batch
+     */
+    public DisruptorBatchProviderManage(final QueueBatchConsumer<T> consumer, final String name,
+                                        final int ringBufferSize, final int batchSize, final long lingerMillis) {
+        this.consumer = consumer;
+        this.name = name;
+        this.size = ringBufferSize <= 1 ? 1 : Integer.highestOneBit(ringBufferSize - 1) << 1;
+        this.batchSize = batchSize;
+        this.lingerMillis = Math.max(1, lingerMillis);
+    }
+
+    /**
+     * start disruptor.
+     */
+    public void startup() {
+        Disruptor<DataEvent<T>> disruptor = new Disruptor<>(new DisruptorEventFactory<>(),
+                size,
+                DisruptorThreadFactory.create("shenyu_disruptor_batch_" + name, true),
+                ProducerType.MULTI,
+                new LiteTimeoutBlockingWaitStrategy(lingerMillis, TimeUnit.MILLISECONDS));
+        disruptor.handleEventsWith(new QueueBatchEventHandler<>(consumer, batchSize, lingerMillis));
+        disruptor.setDefaultExceptionHandler(new IgnoreExceptionHandler());
+        disruptor.start();
+        provider = new DisruptorProvider<>(disruptor.getRingBuffer(), disruptor, false);
+    }
+
+    /**
+     * Gets provider.
+     *
+     * @return the provider
+     */
+    public DisruptorProvider<T> getProvider() {
+        return provider;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.disruptor.consumer;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.TimeoutHandler;
+import org.apache.shenyu.disruptor.event.DataEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The event handler which gathers the events into batches, the batch is flushed when it is full
+ * or the linger time of its first event is elapsed. The handler runs on a single thread.
+ *
+ * @param <T> the type parameter
+ */
+public class QueueBatchEventHandler<T> implements EventHandler<DataEvent<T>>, TimeoutHandler, LifecycleAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueueBatchEventHandler.class);
+
+    private final QueueBatchConsumer<T> consumer;
+
+    private final int batchSize;
+
+    private final long lingerNanos;
+
+    private final List<T> batch;
+
+    private long firstEventNanos;
+
+    /**
+     * Instantiates a new queue batch event handler.
+     *
+     * @param consumer the batch consumer
+     * @param batchSize the max size of the batch
+     * @param lingerMillis the max milliseconds an event waits in the batch
+     */
+    public QueueBatchEventHandler(final QueueBatchConsumer<T> consumer, final int batchSize, final long lingerMillis) {
+        this.consumer = consumer;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.batch = new ArrayList<>(this.batchSize);
+    }
+
+    @Override
+    public void onEvent(final DataEvent<T> event, final long sequence, final boolean endOfBatch) {
+        T data = event.getData();
+        // help gc, the event is reused by the ring buffer
+        event.setData(null);
+        if (data != null) {
+            if (batch.isEmpty()) {
+                firstEventNanos = System.nanoTime();
+            }
+            batch.add(data);
+        }
+        if (batch.size() >= batchSize || endOfBatch && System.nanoTime() - firstEventNanos >= lingerNanos) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onTimeout(final long sequence) {
+        flush();
+    }
+
+    @Override
+    public void onStart() {
+    }
+
+    @Override
+    public void onShutdown() {
+        flush();
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            consumer.consume(batch);
+        } catch (Exception e) {
+            LOG.error("consume batch error", e);
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -83,6 +83,19 @@ public class DisruptorProvider<T> {
         }
     }
     
+    /**
+     * Try to send a data without waiting for the free slot.
+     *
+     * @param data the data
+     * @return false when the ring buffer is full
+     */
+    public boolean tryOnData(final T data) {
+        if (isOrderly) {
+            throw new IllegalArgumentException("The current provider is  of orderly type. Please use onOrderlyData() method.");
+        }
+        return ringBuffer.tryPublishEvent(translatorOneArg, data);
+    }
+
     /**
      * On orderly data.
      *
@@ -101,6 +114,15 @@ public class DisruptorProvider<T> {
         }
     }
     
+    /**
+     * Gets the number of the published data which is not consumed yet.
+     *
+     * @return the queue depth
+     */
+    public long getQueueDepth() {
+        return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+
     /**
      * Shutdown.
      */
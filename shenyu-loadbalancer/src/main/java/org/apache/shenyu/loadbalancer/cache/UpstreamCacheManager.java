@@ -28,6 +28,7 @@ import org.apache.shenyu.loadbalancer.entity.Upstream;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
@@ -65,6 +66,28 @@ public final class UpstreamCacheManager {
 
     private Integer printInterval;
 
+    /**
+     * probe parameters.
+     */
+    private int maxConcurrency;
+
+    private double jitter;
+
+    private String httpPath;
+
+    /**
+     * outlier detection parameters.
+     */
+    private boolean outlierEnabled;
+
+    private int consecutiveErrors;
+
+    private int baseEjectionTime;
+
+    private int maxEjectionTime;
+
+    private int maxEjectionPercent;
+
     private UpstreamCacheManager() {
         initHealthCheck();
     }
@@ -79,6 +102,14 @@ public final class UpstreamCacheManager {
         checkInterval = upstreamCheck.getInterval();
         printEnable = upstreamCheck.getPrintEnabled();
         printInterval = upstreamCheck.getPrintInterval();
+        maxConcurrency = upstreamCheck.getMaxConcurrency();
+        jitter = upstreamCheck.getJitter();
+        httpPath = upstreamCheck.getHttpPath();
+        outlierEnabled = Boolean.TRUE.equals(upstreamCheck.getOutlierEnabled());
+        consecutiveErrors = upstreamCheck.getConsecutiveErrors();
+        baseEjectionTime = upstreamCheck.getBaseEjectionTime();
+        maxEjectionTime = upstreamCheck.getMaxEjectionTime();
+        maxEjectionPercent = upstreamCheck.getMaxEjectionPercent();
         createTask();
         scheduleHealthCheck();
     }
@@ -88,6 +119,12 @@ public final class UpstreamCacheManager {
         task.setCheckTimeout(checkTimeout);
         task.setHealthyThreshold(healthyThreshold);
         task.setUnhealthyThreshold(unhealthyThreshold);
+        task.setMaxConcurrency(maxConcurrency);
+        task.setJitter(jitter);
+        task.setHttpPath(httpPath);
+        task.setBaseEjectionTime(baseEjectionTime);
+        task.setMaxEjectionTime(maxEjectionTime);
+        task.setMaxEjectionPercent(maxEjectionPercent);
     }
 
     private void scheduleHealthCheck() {
@@ -115,12 +152,29 @@ public final class UpstreamCacheManager {
      * Find upstream list by selector id list.
      *
      * @param selectorId the selector id
-     * @return the list
+     * @return the immutable {@link org.apache.shenyu.loadbalancer.entity.UpstreamSnapshot} of the healthy upstreams
      */
     public List<Upstream> findUpstreamListBySelectorId(final String selectorId) {
         return task.getHealthyUpstream().get(selectorId);
     }
 
+    /**
+     * Report the result of a live call, the upstream with consecutive failures is ejected from the healthy
+     * upstreams of the selector when the outlier detection is enabled.
+     *
+     * @param selectorId the selector id
+     * @param upstream the called upstream
+     * @param success whether the call succeeded
+     */
+    public void reportResult(final String selectorId, final Upstream upstream, final boolean success) {
+        if (!outlierEnabled || Objects.isNull(selectorId) || Objects.isNull(upstream)) {
+            return;
+        }
+        if (upstream.getStats().recordResult(success) >= consecutiveErrors) {
+            task.triggerEject(selectorId, upstream);
+        }
+    }
+
     /**
      * Remove by key.
      *
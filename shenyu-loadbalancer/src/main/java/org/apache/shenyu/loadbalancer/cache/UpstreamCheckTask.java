@@ -17,24 +17,27 @@
 
 package org.apache.shenyu.loadbalancer.cache;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.apache.shenyu.common.timer.TaskEntity;
+import org.apache.shenyu.common.timer.Timer;
+import org.apache.shenyu.common.timer.TimerTask;
+import org.apache.shenyu.common.timer.WheelTimerFactory;
 import org.apache.shenyu.common.utils.GsonUtils;
-import org.apache.shenyu.common.utils.UpstreamCheckUtils;
 import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -49,25 +52,40 @@ public final class UpstreamCheckTask implements Runnable {
      */
     private static final Logger LOG = LoggerFactory.getLogger(UpstreamCheckTask.class);
 
-    private final Map<String, List<Upstream>> healthyUpstream = Maps.newConcurrentMap();
+    private final Map<String, UpstreamSnapshot> healthyUpstream = Maps.newConcurrentMap();
 
-    private final Map<String, List<Upstream>> unhealthyUpstream = Maps.newConcurrentMap();
-
-    private final Object lock = new Object();
+    private final Map<String, UpstreamSnapshot> unhealthyUpstream = Maps.newConcurrentMap();
 
     private final AtomicBoolean checkStarted = new AtomicBoolean(false);
 
-    private final List<CompletableFuture<UpstreamWithSelectorId>> futures = Lists.newArrayList();
+    /**
+     * the upstreams being probed, a slow upstream is skipped by the next rounds until its probe finishes.
+     */
+    private final Set<UpstreamWithSelectorId> probing = ConcurrentHashMap.newKeySet();
 
     private final int checkInterval;
 
-    private ExecutorService executor;
+    private UpstreamProber prober;
 
     private int checkTimeout = 3000;
 
+    private int maxConcurrency = 256;
+
+    private double jitter;
+
+    private String httpPath;
+
     private int healthyThreshold = 1;
 
     private int unhealthyThreshold = 1;
+
+    private long baseEjectionTime = 30000;
+
+    private long maxEjectionTime = 300000;
+
+    private int maxEjectionPercent = 50;
+
+    private Timer ejectionTimer;
     
     /**
      * Instantiates a new Upstream check task.
@@ -96,9 +114,8 @@ public final class UpstreamCheckTask implements Runnable {
         new ScheduledThreadPoolExecutor(1, healthCheckFactory)
                 .scheduleWithFixedDelay(this, 3000, checkInterval, TimeUnit.MILLISECONDS);
 
-        // executor for async request, avoid request block health check thread
-        ThreadFactory requestFactory = ShenyuThreadFactory.create("upstream-health-check-request", true);
-        executor = new ScheduledThreadPoolExecutor(10, requestFactory);
+        // one selector thread probes all the upstreams without blocking the health check thread
+        prober = new UpstreamProber(maxConcurrency, checkTimeout, httpPath);
     }
     
     /**
@@ -127,6 +144,60 @@ public final class UpstreamCheckTask implements Runnable {
     public void setUnhealthyThreshold(final int unhealthyThreshold) {
         this.unhealthyThreshold = unhealthyThreshold;
     }
+    
+    /**
+     * Set the max concurrent probes.
+     *
+     * @param maxConcurrency max concurrency
+     */
+    public void setMaxConcurrency(final int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+    
+    /**
+     * Set the jitter, the probes of a round are spread over this ratio of the check interval.
+     *
+     * @param jitter jitter
+     */
+    public void setJitter(final double jitter) {
+        this.jitter = jitter;
+    }
+    
+    /**
+     * Set the http path to probe, the upstream is only connected when it is blank.
+     *
+     * @param httpPath http path
+     */
+    public void setHttpPath(final String httpPath) {
+        this.httpPath = httpPath;
+    }
+    
+    /**
+     * Set the base ejection time of the outlier detection.
+     *
+     * @param baseEjectionTime milliseconds
+     */
+    public void setBaseEjectionTime(final long baseEjectionTime) {
+        this.baseEjectionTime = baseEjectionTime;
+    }
+    
+    /**
+     * Set the max ejection time of the outlier detection.
+     *
+     * @param maxEjectionTime milliseconds
+     */
+    public void setMaxEjectionTime(final long maxEjectionTime) {
+        this.maxEjectionTime = maxEjectionTime;
+    }
+    
+    /**
+     * Set the max percent of the upstreams of a selector to eject.
+     *
+     * @param maxEjectionPercent max ejection percent
+     */
+    public void setMaxEjectionPercent(final int maxEjectionPercent) {
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
 
     @Override
     public void run() {
@@ -136,14 +207,12 @@ public final class UpstreamCheckTask implements Runnable {
     private void healthCheck() {
         try {
             /*
-             * If there is no synchronized. when check is done and all upstream check result is in the futures list.
-             * In the same time, triggerRemoveAll() called before waitFinish(), there will be dirty data stay in map.
+             * The round only dispatches the probes of the snapshots, every result is put back
+             * when its own probe finishes, so one slow upstream does not delay the others or block registration.
+             * An upstream removed during the check is skipped when the result is put back, see putEntityToMap().
              */
-            synchronized (lock) {
-                if (tryStartHealthCheck()) {
-                    doHealthCheck();
-                    waitFinish();
-                }
+            if (Objects.nonNull(prober) && tryStartHealthCheck()) {
+                doHealthCheck();
             }
         } catch (Exception e) {
             LOG.error("[Health Check] Meet problem: ", e);
@@ -157,19 +226,32 @@ public final class UpstreamCheckTask implements Runnable {
         check(unhealthyUpstream);
     }
 
-    private void check(final Map<String, List<Upstream>> map) {
-        for (Map.Entry<String, List<Upstream>> entry : map.entrySet()) {
+    private void check(final Map<String, UpstreamSnapshot> map) {
+        for (Map.Entry<String, UpstreamSnapshot> entry : map.entrySet()) {
             String key = entry.getKey();
             List<Upstream> value = entry.getValue();
             for (Upstream upstream : value) {
-                CompletableFuture<UpstreamWithSelectorId> future = CompletableFuture.supplyAsync(() -> check(key, upstream), executor);
-                futures.add(future);
+                UpstreamWithSelectorId entity = new UpstreamWithSelectorId(key, upstream);
+                if (!probing.add(entity)) {
+                    continue;
+                }
+                long delay = jitter > 0 ? ThreadLocalRandom.current().nextLong((long) (checkInterval * jitter) + 1) : 0;
+                prober.probe(upstream.getProtocol(), upstream.getUrl(), delay, pass -> {
+                    try {
+                        putEntityToMap(check(key, upstream, pass));
+                    } finally {
+                        probing.remove(entity);
+                    }
+                });
             }
         }
     }
 
-    private UpstreamWithSelectorId check(final String selectorId, final Upstream upstream) {
-        boolean pass = UpstreamCheckUtils.checkUrl(upstream.getUrl(), checkTimeout);
+    private UpstreamWithSelectorId check(final String selectorId, final Upstream upstream, final boolean pass) {
+        if (upstream.getStats().isEjected()) {
+            // the ejected upstream is put back by the outlier detection, see triggerEject()
+            return new UpstreamWithSelectorId(selectorId, upstream);
+        }
         if (pass) {
             if (upstream.isHealthy()) {
                 upstream.setLastHealthTimestamp(System.currentTimeMillis());
@@ -204,24 +286,25 @@ public final class UpstreamCheckTask implements Runnable {
         return checkStarted.compareAndSet(false, true);
     }
 
-    private void waitFinish() throws ExecutionException, InterruptedException {
-        for (CompletableFuture<UpstreamWithSelectorId> future : futures) {
-            UpstreamWithSelectorId entity = future.get();
-            putEntityToMap(entity);
-        }
-
-        futures.clear();
-    }
-
     private void putEntityToMap(final UpstreamWithSelectorId entity) {
         Upstream upstream = entity.getUpstream();
-        if (upstream.isHealthy()) {
-            putToMap(healthyUpstream, entity.getSelectorId(), upstream);
-            removeFromMap(unhealthyUpstream, entity.getSelectorId(), upstream);
-        } else {
-            putToMap(unhealthyUpstream, entity.getSelectorId(), upstream);
-            removeFromMap(healthyUpstream, entity.getSelectorId(), upstream);
-        }
+        healthyUpstream.compute(entity.getSelectorId(), (selectorId, healthy) -> {
+            UpstreamSnapshot unhealthy = unhealthyUpstream.get(selectorId);
+            if (!contains(healthy, upstream) && !contains(unhealthy, upstream)) {
+                // removed during the check
+                return healthy;
+            }
+            if (upstream.isHealthy()) {
+                putUnhealthy(selectorId, without(unhealthy, upstream));
+                return with(selectorId, healthy, upstream);
+            }
+            putUnhealthy(selectorId, with(selectorId, unhealthy, upstream));
+            return without(healthy, upstream);
+        });
+    }
+
+    private static boolean contains(final UpstreamSnapshot snapshot, final Upstream upstream) {
+        return Objects.nonNull(snapshot) && snapshot.contains(upstream);
     }
 
     private void finishHealthCheck() {
@@ -235,7 +318,7 @@ public final class UpstreamCheckTask implements Runnable {
      * @param upstream upstream
      */
     public void triggerAddOne(final String selectorId, final Upstream upstream) {
-        putToMap(healthyUpstream, selectorId, upstream);
+        healthyUpstream.compute(selectorId, (key, healthy) -> with(key, healthy, upstream));
     }
     
     /**
@@ -245,25 +328,96 @@ public final class UpstreamCheckTask implements Runnable {
      * @param upstream upstream
      */
     public void triggerRemoveOne(final String selectorId, final Upstream upstream) {
-        removeFromMap(healthyUpstream, selectorId, upstream);
-        removeFromMap(unhealthyUpstream, selectorId, upstream);
+        healthyUpstream.compute(selectorId, (key, healthy) -> {
+            putUnhealthy(key, without(unhealthyUpstream.get(key), upstream));
+            return without(healthy, upstream);
+        });
     }
 
-    private void putToMap(final Map<String, List<Upstream>> map, final String selectorId, final Upstream upstream) {
-        synchronized (lock) {
-            List<Upstream> list = map.computeIfAbsent(selectorId, k -> Lists.newArrayList());
-            if (!list.contains(upstream)) {
-                list.add(upstream);
+    /**
+     * Eject a healthy upstream by the outlier detection, it is put back when the ejection time is over.
+     * The upstream is kept when the ejected upstreams of the selector would exceed the max ejection percent.
+     *
+     * @param selectorId selectorId
+     * @param upstream upstream
+     * @return whether the upstream is ejected
+     */
+    public boolean triggerEject(final String selectorId, final Upstream upstream) {
+        final long[] ejectionTime = {-1L};
+        healthyUpstream.compute(selectorId, (key, healthy) -> {
+            if (!contains(healthy, upstream)) {
+                // already ejected or removed
+                return healthy;
+            }
+            UpstreamSnapshot unhealthy = unhealthyUpstream.get(key);
+            int total = healthy.size();
+            long ejected = 0;
+            if (Objects.nonNull(unhealthy)) {
+                total += unhealthy.size();
+                ejected = unhealthy.stream().filter(each -> each.getStats().isEjected()).count();
             }
+            if ((ejected + 1) * 100 > (long) total * maxEjectionPercent) {
+                return healthy;
+            }
+            ejectionTime[0] = upstream.getStats().eject(baseEjectionTime, maxEjectionTime);
+            upstream.setHealthy(false);
+            upstream.setLastUnhealthyTimestamp(System.currentTimeMillis());
+            putUnhealthy(key, with(key, unhealthy, upstream));
+            return healthy.without(upstream);
+        });
+        if (ejectionTime[0] < 0) {
+            return false;
+        }
+        LOG.warn("[Outlier Detection] Selector [{}] upstream {} is ejected for {}ms.", selectorId, upstream.getUrl(), ejectionTime[0]);
+        if (Objects.isNull(ejectionTimer)) {
+            ejectionTimer = WheelTimerFactory.getSharedTimer();
         }
+        ejectionTimer.add(new TimerTask(ejectionTime[0]) {
+            @Override
+            public void run(final TaskEntity taskEntity) {
+                readmit(selectorId, upstream);
+            }
+        });
+        return true;
     }
 
-    private void removeFromMap(final Map<String, List<Upstream>> map, final String selectorId, final Upstream upstream) {
-        synchronized (lock) {
-            List<Upstream> list = map.get(selectorId);
-            if (CollectionUtils.isNotEmpty(list)) {
-                list.remove(upstream);
+    private void readmit(final String selectorId, final Upstream upstream) {
+        final boolean[] readmitted = {false};
+        healthyUpstream.compute(selectorId, (key, healthy) -> {
+            UpstreamSnapshot unhealthy = unhealthyUpstream.get(key);
+            if (!contains(unhealthy, upstream)) {
+                // removed during the ejection
+                return healthy;
             }
+            upstream.setHealthy(true);
+            upstream.setLastHealthTimestamp(System.currentTimeMillis());
+            putUnhealthy(key, unhealthy.without(upstream));
+            readmitted[0] = true;
+            return with(key, healthy, upstream);
+        });
+        if (readmitted[0]) {
+            LOG.info("[Outlier Detection] Selector [{}] upstream {} ejection is over, server is back online.", selectorId, upstream.getUrl());
+        }
+    }
+
+    /**
+     * copy on write, the readers always get a complete snapshot without a lock. All the updates of a selector run in
+     * the compute of its healthy snapshot, which serializes them per selector, and the unhealthy snapshot of the
+     * selector is only written inside it.
+     */
+    private static UpstreamSnapshot with(final String selectorId, final UpstreamSnapshot snapshot, final Upstream upstream) {
+        return Objects.isNull(snapshot) ? UpstreamSnapshot.of(selectorId, Collections.singletonList(upstream)) : snapshot.with(upstream);
+    }
+
+    private static UpstreamSnapshot without(final UpstreamSnapshot snapshot, final Upstream upstream) {
+        return Objects.isNull(snapshot) ? null : snapshot.without(upstream);
+    }
+
+    private void putUnhealthy(final String selectorId, final UpstreamSnapshot snapshot) {
+        if (Objects.isNull(snapshot)) {
+            unhealthyUpstream.remove(selectorId);
+        } else {
+            unhealthyUpstream.put(selectorId, snapshot);
         }
     }
     
@@ -273,10 +427,10 @@ public final class UpstreamCheckTask implements Runnable {
      * @param selectorId selectorId
      */
     public void triggerRemoveAll(final String selectorId) {
-        synchronized (lock) {
-            healthyUpstream.remove(selectorId);
-            unhealthyUpstream.remove(selectorId);
-        }
+        healthyUpstream.compute(selectorId, (key, healthy) -> {
+            unhealthyUpstream.remove(key);
+            return null;
+        });
     }
     
     /**
@@ -310,7 +464,7 @@ public final class UpstreamCheckTask implements Runnable {
      *
      * @return healthy map.
      */
-    public Map<String, List<Upstream>> getHealthyUpstream() {
+    public Map<String, UpstreamSnapshot> getHealthyUpstream() {
         return healthyUpstream;
     }
     
@@ -319,7 +473,7 @@ public final class UpstreamCheckTask implements Runnable {
      *
      * @return unhealthy map.
      */
-    public Map<String, List<Upstream>> getUnhealthyUpstream() {
+    public Map<String, UpstreamSnapshot> getUnhealthyUpstream() {
         return unhealthyUpstream;
     }
 }
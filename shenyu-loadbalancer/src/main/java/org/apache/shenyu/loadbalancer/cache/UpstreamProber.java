@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.cache;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.apache.shenyu.common.exception.ShenyuException;
+import org.apache.shenyu.common.utils.UpstreamCheckUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The non-blocking upstream prober.
+ *
+ * <p>One selector thread starts the delayed probes, connects the upstreams, and reads the http status when
+ * a http path is configured, at most {@code maxConcurrency} probes are in flight at the same time.
+ * The https upstreams are only connected, the tls handshake is not probed.
+ *
+ * <p>The host names are resolved by a few resolver threads and cached for a while, so a slow dns server
+ * never stalls the selector thread.
+ */
+public final class UpstreamProber {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UpstreamProber.class);
+
+    private static final String HTTPS = "https";
+
+    private static final int STATUS_LINE_LENGTH = 12;
+
+    private static final int RESOLVER_THREADS = 2;
+
+    private static final long RESOLVED_TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<String, ResolvedHost> resolvedHosts = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor resolver = new ThreadPoolExecutor(RESOLVER_THREADS, RESOLVER_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), ShenyuThreadFactory.create("upstream-health-resolve", true));
+
+    private final Queue<Probe> submitted = new ConcurrentLinkedQueue<>();
+
+    private final PriorityQueue<Probe> waiting = new PriorityQueue<>(Comparator.comparingLong(probe -> probe.startTime));
+
+    private final PriorityQueue<Probe> timeouts = new PriorityQueue<>(Comparator.comparingLong(probe -> probe.deadline));
+
+    private final Selector selector;
+
+    private final int maxConcurrency;
+
+    private final long timeoutNanos;
+
+    private final String httpPath;
+
+    private volatile boolean running = true;
+
+    private int inFlight;
+
+    /**
+     * Instantiates a new upstream prober.
+     *
+     * @param maxConcurrency the max probes in flight
+     * @param timeout the timeout of one probe in milliseconds
+     * @param httpPath the http path to probe, the upstream is only connected when it is blank
+     */
+    public UpstreamProber(final int maxConcurrency, final int timeout, final String httpPath) {
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        this.httpPath = StringUtils.isBlank(httpPath) ? null : (httpPath.startsWith("/") ? httpPath : "/" + httpPath);
+        this.resolver.allowCoreThreadTimeOut(true);
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new ShenyuException(e);
+        }
+        Thread thread = new Thread(this::loop, "upstream-health-probe");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Probe the upstream, the callback is called once with the result on the probe or the resolver thread.
+     *
+     * @param protocol the upstream protocol, such as {@code https://}, nullable
+     * @param url the upstream url
+     * @param delayMs the delay before the probe starts
+     * @param callback the callback
+     */
+    public void probe(final String protocol, final String url, final long delayMs, final Consumer<Boolean> callback) {
+        InetSocketAddress address;
+        try {
+            address = StringUtils.isBlank(url) ? null : UpstreamCheckUtils.parseUnresolvedAddress(url);
+        } catch (RuntimeException e) {
+            LOG.error("[Health Check] upstream url {} is invalid.", url, e);
+            address = null;
+        }
+        if (Objects.isNull(address)) {
+            callback.accept(false);
+            return;
+        }
+        // the url of the upstream is host:port, the scheme is kept in the protocol
+        boolean https = StringUtils.startsWithIgnoreCase(protocol, HTTPS) || StringUtils.startsWithIgnoreCase(url, HTTPS);
+        Probe probe = new Probe(address, Objects.nonNull(httpPath) && !https,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs), callback);
+        ResolvedHost resolved = resolvedHosts.get(address.getHostString());
+        if (Objects.nonNull(resolved) && resolved.expireTime - System.nanoTime() > 0) {
+            submit(probe, resolved.address);
+            return;
+        }
+        try {
+            resolver.execute(() -> resolve(probe));
+        } catch (RejectedExecutionException e) {
+            callback.accept(false);
+        }
+    }
+
+    /**
+     * Close the prober, the probes in flight are failed.
+     */
+    public void close() {
+        running = false;
+        resolver.shutdownNow();
+        selector.wakeup();
+    }
+
+    private void resolve(final Probe probe) {
+        String host = probe.address.getHostString();
+        InetAddress address;
+        try {
+            address = InetAddress.getByName(host);
+        } catch (UnknownHostException e) {
+            resolvedHosts.remove(host);
+            LOG.warn("[Health Check] upstream host {} can not be resolved.", host);
+            probe.callback.accept(false);
+            return;
+        }
+        resolvedHosts.put(host, new ResolvedHost(address, System.nanoTime() + RESOLVED_TTL_NANOS));
+        submit(probe, address);
+    }
+
+    private void submit(final Probe probe, final InetAddress address) {
+        probe.address = new InetSocketAddress(address, probe.address.getPort());
+        submitted.offer(probe);
+        selector.wakeup();
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                long now = System.nanoTime();
+                for (Probe probe = submitted.poll(); Objects.nonNull(probe); probe = submitted.poll()) {
+                    waiting.offer(probe);
+                }
+                while (inFlight < maxConcurrency && !waiting.isEmpty() && waiting.peek().startTime <= now) {
+                    start(waiting.poll(), now);
+                }
+                while (!timeouts.isEmpty() && (timeouts.peek().done || timeouts.peek().deadline <= now)) {
+                    finish(timeouts.poll(), false);
+                }
+                long waitMillis = waitMillis(now);
+                if (waitMillis > 0) {
+                    selector.select(waitMillis);
+                } else if (waitMillis == 0) {
+                    selector.select();
+                } else {
+                    selector.selectNow();
+                }
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    handle(key);
+                }
+            } catch (Throwable e) {
+                LOG.error("[Health Check] probe loop meet problem: ", e);
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            finish((Probe) key.attachment(), false);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            LOG.warn("[Health Check] close selector failed.", e);
+        }
+    }
+
+    /**
+     * the millis to wait, 0 to wait for a wakeup and -1 for no wait.
+     */
+    private long waitMillis(final long now) {
+        long next = Long.MAX_VALUE;
+        if (inFlight < maxConcurrency && !waiting.isEmpty()) {
+            next = waiting.peek().startTime;
+        }
+        if (!timeouts.isEmpty()) {
+            next = Math.min(next, timeouts.peek().deadline);
+        }
+        if (next == Long.MAX_VALUE) {
+            return 0;
+        }
+        if (next <= now) {
+            return -1;
+        }
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(next - now), 1);
+    }
+
+    private void start(final Probe probe, final long now) {
+        inFlight++;
+        probe.deadline = now + timeoutNanos;
+        timeouts.offer(probe);
+        try {
+            SocketChannel channel = SocketChannel.open();
+            probe.channel = channel;
+            channel.configureBlocking(false);
+            if (channel.connect(probe.address)) {
+                connected(probe);
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            }
+        } catch (IOException e) {
+            finish(probe, false);
+        }
+    }
+
+    private void handle(final SelectionKey key) {
+        Probe probe = (Probe) key.attachment();
+        if (!key.isValid() || probe.done) {
+            return;
+        }
+        try {
+            if (key.isConnectable()) {
+                if (probe.channel.finishConnect()) {
+                    connected(probe);
+                }
+            } else if (key.isWritable()) {
+                write(probe);
+            } else if (key.isReadable()) {
+                read(probe);
+            }
+        } catch (IOException e) {
+            finish(probe, false);
+        }
+    }
+
+    private void connected(final Probe probe) throws IOException {
+        if (!probe.http) {
+            finish(probe, true);
+            return;
+        }
+        String request = "GET " + httpPath + " HTTP/1.1\r\nHost: " + probe.address.getHostString() + ":" + probe.address.getPort()
+                + "\r\nConnection: close\r\n\r\n";
+        probe.buffer = ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII));
+        write(probe);
+    }
+
+    private void write(final Probe probe) throws IOException {
+        probe.channel.write(probe.buffer);
+        if (probe.buffer.hasRemaining()) {
+            interest(probe, SelectionKey.OP_WRITE);
+            return;
+        }
+        probe.buffer = ByteBuffer.allocate(STATUS_LINE_LENGTH);
+        interest(probe, SelectionKey.OP_READ);
+    }
+
+    private void read(final Probe probe) throws IOException {
+        if (probe.channel.read(probe.buffer) < 0) {
+            finish(probe, false);
+            return;
+        }
+        if (probe.buffer.hasRemaining()) {
+            return;
+        }
+        // HTTP/1.1 200
+        String statusLine = new String(probe.buffer.array(), StandardCharsets.US_ASCII);
+        int status = StringUtils.isNumeric(statusLine.substring(9, 12)) ? Integer.parseInt(statusLine.substring(9, 12)) : 0;
+        finish(probe, statusLine.startsWith("HTTP/") && status >= 200 && status < 400);
+    }
+
+    private void interest(final Probe probe, final int ops) throws IOException {
+        SelectionKey key = probe.channel.keyFor(selector);
+        if (Objects.isNull(key)) {
+            probe.channel.register(selector, ops, probe);
+        } else {
+            key.interestOps(ops);
+        }
+    }
+
+    private void finish(final Probe probe, final boolean pass) {
+        if (probe.done) {
+            return;
+        }
+        probe.done = true;
+        inFlight--;
+        if (Objects.nonNull(probe.channel)) {
+            try {
+                probe.channel.close();
+            } catch (IOException e) {
+                LOG.warn("[Health Check] close channel failed.", e);
+            }
+        }
+        try {
+            probe.callback.accept(pass);
+        } catch (RuntimeException e) {
+            LOG.error("[Health Check] probe callback meet problem: ", e);
+        }
+    }
+
+    private static final class Probe {
+
+        private final boolean http;
+
+        private final long startTime;
+
+        private final Consumer<Boolean> callback;
+
+        private InetSocketAddress address;
+
+        private long deadline;
+
+        private SocketChannel channel;
+
+        private ByteBuffer buffer;
+
+        private boolean done;
+
+        Probe(final InetSocketAddress address, final boolean http, final long startTime, final Consumer<Boolean> callback) {
+            this.address = address;
+            this.http = http;
+            this.startTime = startTime;
+            this.callback = callback;
+        }
+    }
+
+    private static final class ResolvedHost {
+
+        private final InetAddress address;
+
+        private final long expireTime;
+
+        ResolvedHost(final InetAddress address, final long expireTime) {
+            this.address = address;
+            this.expireTime = expireTime;
+        }
+    }
+}
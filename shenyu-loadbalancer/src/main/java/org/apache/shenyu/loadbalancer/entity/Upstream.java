@@ -81,6 +81,11 @@ public final class Upstream {
      */
     private String version;
 
+    /**
+     * the live call statistics.
+     */
+    private final UpstreamStats stats = new UpstreamStats();
+
     private Upstream(final Builder builder) {
         this.protocol = builder.protocol;
         this.url = builder.url;
@@ -254,6 +259,15 @@ public final class Upstream {
         this.version = version;
     }
 
+    /**
+     * Gets the live call statistics.
+     *
+     * @return the stats
+     */
+    public UpstreamStats getStats() {
+        return stats;
+    }
+
     /**
      * build request domain.
      *
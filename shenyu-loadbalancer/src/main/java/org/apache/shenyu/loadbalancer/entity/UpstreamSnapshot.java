@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.entity;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The immutable upstream list of one selector.
+ *
+ * <p>Every change publishes a new snapshot with a new version, so the request threads never see a torn list,
+ * and the load balancers can cache the structures derived from a snapshot by its version.
+ */
+public final class UpstreamSnapshot extends AbstractList<Upstream> implements RandomAccess {
+
+    private static final AtomicLong VERSION_GENERATOR = new AtomicLong();
+
+    private static final Upstream[] EMPTY = new Upstream[0];
+
+    private final String selectorId;
+
+    private final long version;
+
+    private final Upstream[] upstreams;
+
+    private UpstreamSnapshot(final String selectorId, final Upstream[] upstreams) {
+        this.selectorId = selectorId;
+        this.version = VERSION_GENERATOR.incrementAndGet();
+        this.upstreams = upstreams;
+    }
+
+    /**
+     * Create a snapshot of the upstream list.
+     *
+     * @param selectorId the selector id
+     * @param upstreamList the upstream list
+     * @return the snapshot
+     */
+    public static UpstreamSnapshot of(final String selectorId, final List<Upstream> upstreamList) {
+        return new UpstreamSnapshot(selectorId, upstreamList.toArray(EMPTY));
+    }
+
+    /**
+     * Create a snapshot with the upstream added.
+     *
+     * @param upstream the upstream
+     * @return this when the upstream exists, otherwise a new snapshot
+     */
+    public UpstreamSnapshot with(final Upstream upstream) {
+        if (contains(upstream)) {
+            return this;
+        }
+        Upstream[] newUpstreams = Arrays.copyOf(upstreams, upstreams.length + 1);
+        newUpstreams[upstreams.length] = upstream;
+        return new UpstreamSnapshot(selectorId, newUpstreams);
+    }
+
+    /**
+     * Create a snapshot with the upstream removed.
+     *
+     * @param upstream the upstream
+     * @return this when the upstream does not exist, otherwise a new snapshot
+     */
+    public UpstreamSnapshot without(final Upstream upstream) {
+        int index = indexOf(upstream);
+        if (index < 0) {
+            return this;
+        }
+        Upstream[] newUpstreams = new Upstream[upstreams.length - 1];
+        System.arraycopy(upstreams, 0, newUpstreams, 0, index);
+        System.arraycopy(upstreams, index + 1, newUpstreams, index, upstreams.length - index - 1);
+        return new UpstreamSnapshot(selectorId, newUpstreams);
+    }
+
+    /**
+     * Gets selector id.
+     *
+     * @return the selector id
+     */
+    public String getSelectorId() {
+        return selectorId;
+    }
+
+    /**
+     * Gets the version, unique among all snapshots.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public Upstream get(final int index) {
+        return upstreams[index];
+    }
+
+    @Override
+    public int size() {
+        return upstreams.length;
+    }
+}
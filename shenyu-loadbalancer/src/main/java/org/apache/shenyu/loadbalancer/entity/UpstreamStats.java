@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.entity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live call statistics of one upstream, updated by the plugins when a call starts and ends.
+ */
+public final class UpstreamStats {
+
+    /**
+     * the decay time of the latency ewma.
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * the least latency taken into the ewma for a failed call.
+     */
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder succeededElapsed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final AtomicReference<Ewma> ewma = new AtomicReference<>(new Ewma(0, System.nanoTime()));
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile long ejectedUntil;
+
+    private int ejections;
+
+    /**
+     * Begin a call.
+     *
+     * @return the begin time in nanoseconds
+     */
+    public long begin() {
+        active.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * End a call. A failed call is taken into the latency ewma as at least twice the current ewma and
+     * at least one second, so an upstream failing fast does not look like a fast one.
+     *
+     * @param beginNanos the begin time returned by {@link #begin()}
+     * @param success whether the call succeeded
+     */
+    public void end(final long beginNanos, final boolean success) {
+        final long now = System.nanoTime();
+        final long elapsed = now - beginNanos;
+        active.decrementAndGet();
+        if (success) {
+            succeeded.increment();
+            succeededElapsed.add(elapsed);
+        } else {
+            failed.increment();
+        }
+        Ewma prev;
+        Ewma next;
+        do {
+            prev = ewma.get();
+            next = prev.update(success ? elapsed : Math.max(elapsed, Math.max(FAILURE_PENALTY_NANOS, (long) (prev.value * 2))), now);
+        } while (!ewma.compareAndSet(prev, next));
+    }
+
+    /**
+     * Record the result of a call for the outlier detection.
+     *
+     * @param success whether the call succeeded
+     * @return the consecutive failures, 0 when the call succeeded
+     */
+    public int recordResult(final boolean success) {
+        if (success) {
+            // skip the write of the shared counter on the common path
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            return 0;
+        }
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Eject the upstream, the ejection time doubles with every ejection and it is reset when the upstream
+     * has stayed healthy for longer than the max ejection time.
+     *
+     * @param baseEjectionTime the base ejection time in milliseconds
+     * @param maxEjectionTime the max ejection time in milliseconds
+     * @return the ejection time in milliseconds
+     */
+    public synchronized long eject(final long baseEjectionTime, final long maxEjectionTime) {
+        final long now = System.currentTimeMillis();
+        if (now - ejectedUntil > maxEjectionTime) {
+            ejections = 0;
+        }
+        final long ejectionTime = Math.min(baseEjectionTime << Math.min(ejections, 30), maxEjectionTime);
+        ejections++;
+        ejectedUntil = now + ejectionTime;
+        consecutiveFailures.set(0);
+        return ejectionTime;
+    }
+
+    /**
+     * Whether the upstream is ejected by the outlier detection.
+     *
+     * @return true when the ejection time is not over
+     */
+    public boolean isEjected() {
+        return System.currentTimeMillis() < ejectedUntil;
+    }
+
+    /**
+     * Gets the in-flight calls.
+     *
+     * @return the active count
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * Gets the succeeded calls.
+     *
+     * @return the succeeded count
+     */
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    /**
+     * Gets the failed calls.
+     *
+     * @return the failed count
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets the average elapsed nanoseconds of the succeeded calls.
+     *
+     * @return the average elapsed, 0 when there is no succeeded call
+     */
+    public long getAverageElapsed() {
+        long count = succeeded.sum();
+        return count == 0 ? 0 : succeededElapsed.sum() / count;
+    }
+
+    /**
+     * Gets the peak-sensitive ewma of the call latency in nanoseconds.
+     *
+     * @return the latency ewma
+     */
+    public double getEwma() {
+        return ewma.get().value;
+    }
+
+    /**
+     * the immutable ewma value, a higher latency is taken at once and a lower one decays in.
+     */
+    private static final class Ewma {
+
+        private final double value;
+
+        private final long timestamp;
+
+        Ewma(final double value, final long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+
+        Ewma update(final long elapsed, final long now) {
+            if (elapsed > value) {
+                return new Ewma(elapsed, now);
+            }
+            double weight = Math.exp(-Math.max(now - timestamp, 0) / DECAY_NANOS);
+            return new Ewma(value * weight + elapsed * (1 - weight), now);
+        }
+    }
+}
@@ -18,13 +18,21 @@
 package org.apache.shenyu.loadbalancer.spi;
 
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.SortedMap;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.stream.IntStream;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.apache.shenyu.common.config.ShenyuConfig;
+import org.apache.shenyu.common.exception.ShenyuException;
+import org.apache.shenyu.common.utils.Singleton;
 import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamSnapshot;
 import org.apache.shenyu.spi.Join;
 
 /**
@@ -33,10 +41,29 @@ import org.apache.shenyu.spi.Join;
 @Join
 public class HashLoadBalancer extends AbstractLoadBalancer {
 
+    /**
+     * max cached rings, the ring is keyed by the snapshot version or the upstream urls,
+     * so a list changed by submit or health check gets a new one.
+     */
+    private static final int MAX_RING_SIZE = 4096;
+
     /**
      * virtual node used to solve unbalanced load.
      */
-    private static final int VIRTUAL_NODE_NUM = 5;
+    private final int virtualNodeNum;
+
+    private final Cache<Object, HashRing> ringCache = CacheBuilder.newBuilder().maximumSize(MAX_RING_SIZE).build();
+
+    /**
+     * Instantiates a new hash load balancer.
+     */
+    public HashLoadBalancer() {
+        this.virtualNodeNum = Optional.ofNullable(Singleton.INST.get(ShenyuConfig.class))
+                .map(ShenyuConfig::getLoadBalance)
+                .map(ShenyuConfig.LoadBalance::getHashVirtualNodes)
+                .filter(num -> num > 0)
+                .orElseGet(() -> new ShenyuConfig.LoadBalance().getHashVirtualNodes());
+    }
 
     /**
      * consistent hash with virtual node to select upstream.
@@ -47,37 +74,62 @@ public class HashLoadBalancer extends AbstractLoadBalancer {
      */
     @Override
     public Upstream doSelect(final List<Upstream> upstreamList, final String ip) {
-        final ConcurrentSkipListMap<Long, Upstream> treeMap = new ConcurrentSkipListMap<>();
-        upstreamList.forEach(upstream -> IntStream.range(0, VIRTUAL_NODE_NUM).forEach(i -> {
-            long addressHash = hash("SHENYU-" + upstream.getUrl() + "-HASH-" + i);
-            treeMap.put(addressHash, upstream);
-        }));
-        long hash = hash(ip);
-        SortedMap<Long, Upstream> lastRing = treeMap.tailMap(hash);
-        if (!lastRing.isEmpty()) {
-            return lastRing.get(lastRing.firstKey());
+        final Object key = upstreamList instanceof UpstreamSnapshot ? ((UpstreamSnapshot) upstreamList).getVersion() : urls(upstreamList);
+        HashRing ring;
+        try {
+            ring = ringCache.get(key, () -> new HashRing(urls(upstreamList), virtualNodeNum));
+        } catch (ExecutionException e) {
+            throw new ShenyuException(e.getCause());
+        }
+        return upstreamList.get(ring.select(hash(ip)));
+    }
+
+    private static List<String> urls(final List<Upstream> upstreamList) {
+        String[] urls = new String[upstreamList.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = upstreamList.get(i).getUrl();
         }
-        return treeMap.firstEntry().getValue();
+        return Arrays.asList(urls);
     }
 
     private static long hash(final String key) {
-        // md5 byte
-        MessageDigest md5;
-        try {
-            md5 = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 not supported", e);
+        return Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+
+    /**
+     * the immutable hash ring of one upstream list, the nodes point to the index of the upstream in the list.
+     */
+    private static final class HashRing {
+
+        private final long[] hashes;
+
+        private final int[] indexes;
+
+        HashRing(final List<String> urls, final int virtualNodeNum) {
+            SortedMap<Long, Integer> treeMap = new TreeMap<>();
+            for (int i = 0; i < urls.size(); i++) {
+                for (int j = 0; j < virtualNodeNum; j++) {
+                    treeMap.put(hash("SHENYU-" + urls.get(i) + "-HASH-" + j), i);
+                }
+            }
+            this.hashes = new long[treeMap.size()];
+            this.indexes = new int[treeMap.size()];
+            int pos = 0;
+            for (Map.Entry<Long, Integer> entry : treeMap.entrySet()) {
+                hashes[pos] = entry.getKey();
+                indexes[pos++] = entry.getValue();
+            }
+        }
+
+        /**
+         * select the first node clockwise from the hash.
+         */
+        int select(final long hash) {
+            int pos = Arrays.binarySearch(hashes, hash);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            return indexes[pos == hashes.length ? 0 : pos];
         }
-        md5.reset();
-        byte[] keyBytes;
-        keyBytes = key.getBytes(StandardCharsets.UTF_8);
-        md5.update(keyBytes);
-        byte[] digest = md5.digest();
-        // hash code, Truncate to 32-bits
-        long hashCode = (long) (digest[3] & 0xFF) << 24
-                | ((long) (digest[2] & 0xFF) << 16)
-                | ((long) (digest[1] & 0xFF) << 8)
-                | (digest[0] & 0xFF);
-        return hashCode & 0xffffffffL;
     }
 }
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.spi;
+
+import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamStats;
+import org.apache.shenyu.spi.Join;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * power of two choices algorithm impl, pick two random upstreams and select the one with the lower load,
+ * the load is the latency ewma multiplied by the in-flight calls and divided by the weight.
+ */
+@Join
+public class P2cLoadBalancer extends AbstractLoadBalancer {
+
+    @Override
+    public Upstream doSelect(final List<Upstream> upstreamList, final String ip) {
+        int length = upstreamList.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(length);
+        int second = random.nextInt(length - 1);
+        if (second >= first) {
+            second++;
+        }
+        Upstream firstUpstream = upstreamList.get(first);
+        Upstream secondUpstream = upstreamList.get(second);
+        return load(firstUpstream) <= load(secondUpstream) ? firstUpstream : secondUpstream;
+    }
+
+    private double load(final Upstream upstream) {
+        int weight = getWeight(upstream);
+        if (weight <= 0) {
+            return Double.MAX_VALUE;
+        }
+        UpstreamStats stats = upstream.getStats();
+        // plus one so that the upstreams without calls are still ordered by the other factor
+        return (stats.getEwma() + 1) * (stats.getActive() + 1) / weight;
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.shenyu.loadbalancer.spi;
 
 import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamSnapshot;
 import org.apache.shenyu.spi.Join;
 
 import java.util.List;
@@ -41,7 +42,8 @@ public class RoundRobinLoadBalancer extends AbstractLoadBalancer {
 
     @Override
     public Upstream doSelect(final List<Upstream> upstreamList, final String ip) {
-        String key = upstreamList.get(0).getUrl();
+        // the snapshot of the selector keeps the weights apart from other selectors sharing the first upstream
+        String key = upstreamList instanceof UpstreamSnapshot ? ((UpstreamSnapshot) upstreamList).getSelectorId() : upstreamList.get(0).getUrl();
         ConcurrentMap<String, WeightedRoundRobin> map = methodWeightMap.get(key);
         if (Objects.isNull(map)) {
             methodWeightMap.putIfAbsent(key, new ConcurrentHashMap<>(16));
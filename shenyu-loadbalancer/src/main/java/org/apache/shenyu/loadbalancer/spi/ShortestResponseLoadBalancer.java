@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.spi;
+
+import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamStats;
+import org.apache.shenyu.spi.Join;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * shortest response algorithm impl, select the upstream with the shortest estimated response,
+ * which is the average succeeded elapsed multiplied by the in-flight calls,
+ * the upstreams with the same estimate are selected by weight.
+ */
+@Join
+public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
+
+    @Override
+    public Upstream doSelect(final List<Upstream> upstreamList, final String ip) {
+        int length = upstreamList.size();
+        long shortestResponse = Long.MAX_VALUE;
+        int shortestCount = 0;
+        int[] shortestIndexes = new int[length];
+        int[] weights = new int[length];
+        int totalWeight = 0;
+        int firstWeight = 0;
+        boolean sameWeight = true;
+        for (int i = 0; i < length; i++) {
+            Upstream upstream = upstreamList.get(i);
+            UpstreamStats stats = upstream.getStats();
+            long estimateResponse = stats.getAverageElapsed() * (stats.getActive() + 1);
+            int weight = getWeight(upstream);
+            weights[i] = weight;
+            if (estimateResponse < shortestResponse) {
+                shortestResponse = estimateResponse;
+                shortestCount = 1;
+                shortestIndexes[0] = i;
+                totalWeight = weight;
+                firstWeight = weight;
+                sameWeight = true;
+            } else if (estimateResponse == shortestResponse) {
+                shortestIndexes[shortestCount++] = i;
+                totalWeight += weight;
+                if (sameWeight && weight != firstWeight) {
+                    sameWeight = false;
+                }
+            }
+        }
+        if (shortestCount == 1) {
+            return upstreamList.get(shortestIndexes[0]);
+        }
+        if (!sameWeight && totalWeight > 0) {
+            int offsetWeight = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (int i = 0; i < shortestCount; i++) {
+                int shortestIndex = shortestIndexes[i];
+                offsetWeight -= weights[shortestIndex];
+                if (offsetWeight < 0) {
+                    return upstreamList.get(shortestIndex);
+                }
+            }
+        }
+        return upstreamList.get(shortestIndexes[ThreadLocalRandom.current().nextInt(shortestCount)]);
+    }
+}
@@ -20,15 +20,22 @@ package org.apache.shenyu.loadbalancer.cache;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.shenyu.common.dto.SelectorData;
 import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamSnapshot;
+import org.apache.shenyu.loadbalancer.entity.UpstreamStats;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -70,6 +77,7 @@ public class UpstreamCheckTaskTest {
           But mocked static method is not valid across thread. Because `UpstreamCheckUtils.checkUrl` is called in
           HealthCheckTask inner thread pool, but mocked in current thread. So we turn to do like below.
          */
+        when(upstream.getStats()).thenReturn(new UpstreamStats());
         when(upstream.getUrl()).thenReturn("");
         when(upstream.isHealthy()).thenReturn(true).thenReturn(false);
 
@@ -122,4 +130,85 @@ public class UpstreamCheckTaskTest {
         healthCheckTask.triggerRemoveAll(selectorId);
         assertFalse(healthCheckTask.getHealthyUpstream().containsKey(selectorId));
     }
+
+    /**
+     * Test the published snapshot is not changed by the later triggers.
+     */
+    @Test
+    @Timeout(30)
+    public void testConcurrentRegistration() throws InterruptedException {
+        final int threads = 8;
+        final int upstreams = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            final String selectorId = "selector-" + i % 2;
+            final int thread = i;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < upstreams; j++) {
+                    Upstream upstream = Upstream.builder().url("upstream-" + thread + "-" + j).build();
+                    healthCheckTask.triggerAddOne(selectorId, upstream);
+                    if (j % 2 == 1) {
+                        healthCheckTask.triggerRemoveOne(selectorId, upstream);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+        assertThat(healthCheckTask.getHealthyUpstream().get("selector-0").size(), is(threads / 2 * upstreams / 2));
+        assertThat(healthCheckTask.getHealthyUpstream().get("selector-1").size(), is(threads / 2 * upstreams / 2));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final String selectorId = "s1";
+        final Upstream upstream1 = Upstream.builder().url("upstream-1").build();
+        final Upstream upstream2 = Upstream.builder().url("upstream-2").build();
+        healthCheckTask.triggerAddOne(selectorId, upstream1);
+        UpstreamSnapshot snapshot = healthCheckTask.getHealthyUpstream().get(selectorId);
+        healthCheckTask.triggerAddOne(selectorId, upstream1);
+        assertSame(snapshot, healthCheckTask.getHealthyUpstream().get(selectorId));
+        healthCheckTask.triggerAddOne(selectorId, upstream2);
+        UpstreamSnapshot newSnapshot = healthCheckTask.getHealthyUpstream().get(selectorId);
+        assertThat(snapshot.size(), is(1));
+        assertThat(newSnapshot.size(), is(2));
+        assertTrue(newSnapshot.getVersion() > snapshot.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> newSnapshot.add(upstream1));
+        healthCheckTask.triggerRemoveOne(selectorId, upstream1);
+        assertThat(newSnapshot.size(), is(2));
+        assertThat(healthCheckTask.getHealthyUpstream().get(selectorId).get(0), is(upstream2));
+    }
+
+    /**
+     * Test the outlier is ejected within the max ejection percent and put back when the ejection time is over.
+     */
+    @Test
+    @Timeout(30)
+    public void testTriggerEject() {
+        final String selectorId = "s1";
+        final Upstream upstream1 = Upstream.builder().url("upstream-1").build();
+        final Upstream upstream2 = Upstream.builder().url("upstream-2").build();
+        healthCheckTask.setBaseEjectionTime(200);
+        healthCheckTask.setMaxEjectionPercent(50);
+        healthCheckTask.triggerAddOne(selectorId, upstream1);
+        assertFalse(healthCheckTask.triggerEject(selectorId, upstream1));
+        healthCheckTask.triggerAddOne(selectorId, upstream2);
+        assertTrue(healthCheckTask.triggerEject(selectorId, upstream1));
+        assertTrue(upstream1.getStats().isEjected());
+        assertFalse(healthCheckTask.triggerEject(selectorId, upstream2));
+        assertThat(healthCheckTask.getHealthyUpstream().get(selectorId).size(), is(1));
+        assertTrue(healthCheckTask.getUnhealthyUpstream().get(selectorId).contains(upstream1));
+        Awaitility.await().atMost(10, TimeUnit.SECONDS)
+                .until(() -> healthCheckTask.getHealthyUpstream().get(selectorId).contains(upstream1));
+        assertFalse(upstream1.getStats().isEjected());
+        assertTrue(CollectionUtils.isEmpty(healthCheckTask.getUnhealthyUpstream().get(selectorId)));
+    }
 }
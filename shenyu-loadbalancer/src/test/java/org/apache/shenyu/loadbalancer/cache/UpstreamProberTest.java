@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The type Upstream prober test.
+ */
+public final class UpstreamProberTest {
+
+    private ServerSocket serverSocket;
+
+    private volatile String status;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        status = "200 OK";
+        Thread thread = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    OutputStream outputStream = socket.getOutputStream();
+                    outputStream.write(("HTTP/1.1 " + status + "\r\nContent-Length: 0\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                    outputStream.flush();
+                } catch (IOException ignored) {
+                }
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        serverSocket.close();
+    }
+
+    @Test
+    public void testTcpProbe() throws Exception {
+        UpstreamProber prober = new UpstreamProber(2, 3000, null);
+        assertTrue(probe(prober, "127.0.0.1:" + serverSocket.getLocalPort(), 0));
+        assertTrue(probe(prober, "http://127.0.0.1:" + serverSocket.getLocalPort(), 100));
+        assertFalse(probe(prober, "", 0));
+        assertFalse(probe(prober, "127.0.0.1:" + closedPort(), 0));
+        assertFalse(probe(prober, "unknown.invalid:" + serverSocket.getLocalPort(), 0));
+        prober.close();
+    }
+
+    @Test
+    public void testHttpProbe() throws Exception {
+        UpstreamProber prober = new UpstreamProber(2, 3000, "actuator/health");
+        assertTrue(probe(prober, "127.0.0.1:" + serverSocket.getLocalPort(), 0));
+        status = "503 Service Unavailable";
+        assertFalse(probe(prober, "127.0.0.1:" + serverSocket.getLocalPort(), 0));
+        prober.close();
+    }
+
+    @Test
+    public void testHttpsUpstreamIsOnlyConnected() throws Exception {
+        UpstreamProber prober = new UpstreamProber(2, 3000, "actuator/health");
+        // the plaintext status would fail the probe, the https upstream is not sent a http request
+        status = "503 Service Unavailable";
+        assertTrue(probe(prober, "https://", "127.0.0.1:" + serverSocket.getLocalPort(), 0));
+        assertFalse(probe(prober, "http://", "127.0.0.1:" + serverSocket.getLocalPort(), 0));
+        assertFalse(probe(prober, "https://", "127.0.0.1:" + closedPort(), 0));
+        prober.close();
+    }
+
+    private boolean probe(final UpstreamProber prober, final String url, final long delay) throws Exception {
+        return probe(prober, null, url, delay);
+    }
+
+    private boolean probe(final UpstreamProber prober, final String protocol, final String url, final long delay) throws Exception {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        prober.probe(protocol, url, delay, future::complete);
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
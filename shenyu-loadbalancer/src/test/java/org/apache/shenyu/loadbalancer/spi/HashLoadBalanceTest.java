@@ -17,6 +17,7 @@
 
 package org.apache.shenyu.loadbalancer.spi;
 
+import org.apache.shenyu.common.config.ShenyuConfig;
 import org.apache.shenyu.loadbalancer.entity.Upstream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,12 +30,15 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 /**
  * The type Hash balance test.
  */
 public final class HashLoadBalanceTest {
 
+    private static final int VIRTUAL_NODE_NUM = new ShenyuConfig.LoadBalance().getHashVirtualNodes();
+
     private Method hash;
 
     private List<Upstream> hashLoadBalancesOrdered;
@@ -72,21 +76,21 @@ public final class HashLoadBalanceTest {
         this.treeMapDisordered = new ConcurrentSkipListMap<>();
         this.treeMapReversed = new ConcurrentSkipListMap<>();
         for (Upstream address : hashLoadBalancesOrdered) {
-            for (int i = 0; i < 5; i++) {
+            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
                 String hashKey = "SHENYU-" + address.getUrl() + "-HASH-" + i;
                 Object o = hash.invoke(null, hashKey);
                 treeMapOrdered.put(Long.parseLong(o.toString()), address);
             }
         }
         for (Upstream address : hashLoadBalancesReversed) {
-            for (int i = 0; i < 5; i++) {
+            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
                 String hashKey = "SHENYU-" + address.getUrl() + "-HASH-" + i;
                 Object o = hash.invoke(null, hashKey);
                 treeMapReversed.put(Long.parseLong(o.toString()), address);
             }
         }
         for (Upstream address : hashLoadBalancesDisordered) {
-            for (int i = 0; i < 5; i++) {
+            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
                 String hashKey = "SHENYU-" + address.getUrl() + "-HASH-" + i;
                 Object o = hash.invoke(null, hashKey);
                 treeMapDisordered.put(Long.parseLong(o.toString()), address);
@@ -131,4 +135,38 @@ public final class HashLoadBalanceTest {
         final Upstream assertUp = lastRing.get(lastRing.firstKey());
         assertEquals(assertUp.getUrl(), divideUpstream.getUrl());
     }
+
+    @Test
+    public void hashLoadBalanceUpstreamChangedTest() throws Exception {
+        final HashLoadBalancer hashLoadBalance = new HashLoadBalancer();
+        final List<Upstream> upstreamList = Stream.of(1, 2, 3, 4, 5)
+                .map(weight -> Upstream.builder()
+                        .url("upstream-" + weight)
+                        .build())
+                .collect(Collectors.toList());
+        String ip = null;
+        Upstream selected = null;
+        for (int i = 0; i < 256; i++) {
+            selected = hashLoadBalance.select(upstreamList, "10.0.0." + i);
+            if (!"upstream-5".equals(selected.getUrl())) {
+                ip = "10.0.0." + i;
+                break;
+            }
+        }
+        assertNotEquals("upstream-5", selected.getUrl());
+        // the same list hits the cached ring
+        assertEquals(selected, hashLoadBalance.select(upstreamList, ip));
+        // the ring is rebuilt when the selected upstream goes offline
+        final Upstream offline = selected;
+        final List<Upstream> healthyList = upstreamList.stream().filter(upstream -> upstream != offline).collect(Collectors.toList());
+        final Upstream reselected = hashLoadBalance.select(healthyList, ip);
+        assertNotEquals(offline.getUrl(), reselected.getUrl());
+        // the requests of the other upstreams are not moved
+        for (int i = 0; i < 256; i++) {
+            Upstream before = hashLoadBalance.select(upstreamList, "10.0.1." + i);
+            if (before != offline) {
+                assertEquals(before, hashLoadBalance.select(healthyList, "10.0.1." + i));
+            }
+        }
+    }
 }
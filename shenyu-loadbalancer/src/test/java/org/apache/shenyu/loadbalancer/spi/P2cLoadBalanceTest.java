@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.spi;
+
+import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The type power of two choices balance test.
+ */
+public final class P2cLoadBalanceTest {
+
+    private List<Upstream> upstreamList;
+
+    @BeforeEach
+    public void setUp() {
+        this.upstreamList = Stream.of(1, 2)
+                .map(index -> Upstream.builder()
+                        .url("upstream-" + index)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void p2cLoadBalanceTest() {
+        final P2cLoadBalancer p2cLoadBalancer = new P2cLoadBalancer();
+        UpstreamStats slowStats = upstreamList.get(0).getStats();
+        slowStats.end(slowStats.begin() - TimeUnit.SECONDS.toNanos(1), true);
+        UpstreamStats fastStats = upstreamList.get(1).getStats();
+        fastStats.end(fastStats.begin() - TimeUnit.MILLISECONDS.toNanos(10), true);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("upstream-2", p2cLoadBalancer.select(upstreamList, "").getUrl());
+        }
+    }
+
+    @Test
+    public void p2cLoadBalanceFailureTest() {
+        final P2cLoadBalancer p2cLoadBalancer = new P2cLoadBalancer();
+        UpstreamStats failingStats = upstreamList.get(0).getStats();
+        failingStats.end(failingStats.begin(), false);
+        UpstreamStats slowStats = upstreamList.get(1).getStats();
+        slowStats.end(slowStats.begin() - TimeUnit.MILLISECONDS.toNanos(100), true);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("upstream-2", p2cLoadBalancer.select(upstreamList, "").getUrl());
+        }
+    }
+
+    @Test
+    public void p2cLoadBalanceActiveTest() {
+        final P2cLoadBalancer p2cLoadBalancer = new P2cLoadBalancer();
+        upstreamList.get(0).getStats().begin();
+        assertEquals("upstream-2", p2cLoadBalancer.select(upstreamList, "").getUrl());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.loadbalancer.spi;
+
+import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The type shortest response balance test.
+ */
+public final class ShortestResponseLoadBalanceTest {
+
+    private List<Upstream> upstreamList;
+
+    @BeforeEach
+    public void setUp() {
+        this.upstreamList = Stream.of(10, 50, 40)
+                .map(weight -> Upstream.builder()
+                        .url("upstream-" + weight)
+                        .weight(weight)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void shortestResponseLoadBalanceTest() {
+        final ShortestResponseLoadBalancer shortestResponseLoadBalancer = new ShortestResponseLoadBalancer();
+        call(upstreamList.get(0).getStats(), 10);
+        call(upstreamList.get(1).getStats(), 200);
+        call(upstreamList.get(2).getStats(), 100);
+        assertEquals("upstream-10", shortestResponseLoadBalancer.select(upstreamList, "").getUrl());
+        // the in-flight calls multiply the estimated response
+        for (int i = 0; i < 30; i++) {
+            upstreamList.get(0).getStats().begin();
+        }
+        assertEquals("upstream-40", shortestResponseLoadBalancer.select(upstreamList, "").getUrl());
+    }
+
+    @Test
+    public void upstreamStatsTest() {
+        final UpstreamStats stats = upstreamList.get(0).getStats();
+        call(stats, 10);
+        stats.end(stats.begin(), false);
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getSucceeded());
+        assertEquals(1, stats.getFailed());
+        assertTrue(stats.getAverageElapsed() >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(stats.getEwma() > 0);
+    }
+
+    private void call(final UpstreamStats stats, final long elapsedMillis) {
+        stats.end(stats.begin() - TimeUnit.MILLISECONDS.toNanos(elapsedMillis), true);
+    }
+}
@@ -18,9 +18,10 @@
 package org.apache.shenyu.plugin.api;
 
 import org.apache.commons.lang3.ArrayUtils;
-import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.enums.RpcTypeEnum;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
@@ -91,7 +92,7 @@ public interface ShenyuPlugin {
         if (ArrayUtils.isEmpty(rpcTypes)) {
             return false;
         }
-        ShenyuContext shenyuContext = exchange.getAttribute(Constants.CONTEXT);
+        ShenyuContext shenyuContext = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.CONTEXT);
         assert shenyuContext != null;
         String rpcType = shenyuContext.getRpcType();
         for (final RpcTypeEnum type : rpcTypes) {
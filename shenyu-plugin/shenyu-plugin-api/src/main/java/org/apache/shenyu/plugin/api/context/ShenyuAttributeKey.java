@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.context;
+
+import org.apache.shenyu.common.constant.Constants;
+
+import java.util.Objects;
+
+/**
+ * The well-known exchange attributes which are stored in slots of {@link ShenyuExchangeAttributes}.
+ */
+public enum ShenyuAttributeKey {
+
+    /**
+     * the shenyu context.
+     */
+    CONTEXT(Constants.CONTEXT),
+
+    /**
+     * the http uri.
+     */
+    HTTP_URI(Constants.HTTP_URI),
+
+    /**
+     * the http domain.
+     */
+    HTTP_DOMAIN(Constants.HTTP_DOMAIN),
+
+    /**
+     * the http timeout, stored as a primitive long.
+     */
+    HTTP_TIME_OUT(Constants.HTTP_TIME_OUT),
+
+    /**
+     * the http retry times, stored as a primitive int.
+     */
+    HTTP_RETRY(Constants.HTTP_RETRY),
+
+    /**
+     * the retry strategy.
+     */
+    RETRY_STRATEGY(Constants.RETRY_STRATEGY),
+
+    /**
+     * the load balance.
+     */
+    LOAD_BALANCE(Constants.LOAD_BALANCE),
+
+    /**
+     * the divide selector id.
+     */
+    DIVIDE_SELECTOR_ID(Constants.DIVIDE_SELECTOR_ID),
+
+    /**
+     * the selected upstream of the load balancer.
+     */
+    UPSTREAM(Constants.UPSTREAM),
+
+    /**
+     * the selector of the selected upstream.
+     */
+    UPSTREAM_SELECTOR_ID(Constants.UPSTREAM_SELECTOR_ID),
+
+    /**
+     * the dedicated connection pool config of the upstreams.
+     */
+    UPSTREAM_POOL(Constants.UPSTREAM_POOL),
+
+    /**
+     * the http protocol of the upstreams.
+     */
+    HTTP_PROTOCOL(Constants.HTTP_PROTOCOL),
+
+    /**
+     * the selector id matched by the last selector plugin.
+     */
+    MATCHED_SELECTOR_ID(Constants.MATCHED_SELECTOR_ID),
+
+    /**
+     * the rule id matched by the last selector plugin.
+     */
+    MATCHED_RULE_ID(Constants.MATCHED_RULE_ID),
+
+    /**
+     * the client response.
+     */
+    CLIENT_RESPONSE_ATTR(Constants.CLIENT_RESPONSE_ATTR);
+
+    /**
+     * the open addressing table of the keys indexed by the cached hash of the attribute name, it is much larger than
+     * the keys so an unknown attribute name usually stops at the first empty bucket.
+     */
+    private static final ShenyuAttributeKey[] TABLE = new ShenyuAttributeKey[64];
+
+    private static final int MASK = TABLE.length - 1;
+
+    static {
+        for (ShenyuAttributeKey attributeKey : values()) {
+            int index = index(attributeKey.key.hashCode());
+            while (Objects.nonNull(TABLE[index])) {
+                index = (index + 1) & MASK;
+            }
+            TABLE[index] = attributeKey;
+        }
+    }
+
+    private final String key;
+
+    ShenyuAttributeKey(final String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the attribute name.
+     *
+     * @return the attribute name
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Find the attribute key by the attribute name.
+     *
+     * @param key the attribute name
+     * @return the attribute key, null if it is not a well-known attribute
+     */
+    public static ShenyuAttributeKey of(final Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String name = (String) key;
+        for (int index = index(name.hashCode()); Objects.nonNull(TABLE[index]); index = (index + 1) & MASK) {
+            if (TABLE[index].key.equals(name)) {
+                return TABLE[index];
+            }
+        }
+        return null;
+    }
+
+    private static int index(final int hash) {
+        return (hash ^ (hash >>> 16)) & MASK;
+    }
+}
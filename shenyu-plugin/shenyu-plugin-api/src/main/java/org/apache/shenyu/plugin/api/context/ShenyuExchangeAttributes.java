@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.context;
+
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The exchange attributes of shenyu.
+ *
+ * <p>The well-known attributes of {@link ShenyuAttributeKey} are kept in slots indexed by the enum ordinal, the
+ * timeout and retry times as primitives. A slot is filled lazily, the first access moves the attribute out of the
+ * original attributes, so the slots are the only store of the well-known attributes during the exchange.
+ * {@link #sync()} moves them back once, at the boundary of the exchange, for the code holding the unwrapped exchange.
+ */
+public final class ShenyuExchangeAttributes extends AbstractMap<String, Object> {
+
+    private static final ShenyuAttributeKey[] KEYS = ShenyuAttributeKey.values();
+
+    private static final long ALL_LOADED = (1L << KEYS.length) - 1;
+
+    private final Map<String, Object> delegate;
+
+    private final Object[] slots = new Object[KEYS.length];
+
+    private long loaded;
+
+    private long timeout;
+
+    private boolean timeoutPresent;
+
+    private int retry;
+
+    private boolean retryPresent;
+
+    private Set<Entry<String, Object>> entrySet;
+
+    /**
+     * Instantiates a new shenyu exchange attributes.
+     *
+     * @param delegate the original attributes
+     */
+    public ShenyuExchangeAttributes(final Map<String, Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Get the well-known attribute.
+     *
+     * @param exchange the exchange
+     * @param attributeKey the attribute key
+     * @param <T> the attribute type
+     * @return the attribute value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getAttribute(final ServerWebExchange exchange, final ShenyuAttributeKey attributeKey) {
+        Map<String, Object> attributes = exchange.getAttributes();
+        if (attributes instanceof ShenyuExchangeAttributes) {
+            return (T) ((ShenyuExchangeAttributes) attributes).getSlot(attributeKey);
+        }
+        return exchange.getAttribute(attributeKey.getKey());
+    }
+
+    /**
+     * Put the well-known attribute.
+     *
+     * @param exchange the exchange
+     * @param attributeKey the attribute key
+     * @param value the attribute value, not null
+     */
+    public static void putAttribute(final ServerWebExchange exchange, final ShenyuAttributeKey attributeKey, final Object value) {
+        Map<String, Object> attributes = exchange.getAttributes();
+        if (attributes instanceof ShenyuExchangeAttributes) {
+            ((ShenyuExchangeAttributes) attributes).putSlot(attributeKey, Objects.requireNonNull(value));
+        } else {
+            attributes.put(attributeKey.getKey(), value);
+        }
+    }
+
+    /**
+     * Get the http timeout.
+     *
+     * @param exchange the exchange
+     * @param defaultValue the default timeout
+     * @return the http timeout
+     */
+    public static long getTimeout(final ServerWebExchange exchange, final long defaultValue) {
+        Map<String, Object> attributes = exchange.getAttributes();
+        if (attributes instanceof ShenyuExchangeAttributes) {
+            ShenyuExchangeAttributes shenyuAttributes = (ShenyuExchangeAttributes) attributes;
+            shenyuAttributes.load(ShenyuAttributeKey.HTTP_TIME_OUT);
+            return shenyuAttributes.timeoutPresent ? shenyuAttributes.timeout : defaultValue;
+        }
+        Object value = exchange.getAttribute(ShenyuAttributeKey.HTTP_TIME_OUT.getKey());
+        return Objects.isNull(value) ? defaultValue : ((Number) value).longValue();
+    }
+
+    /**
+     * Put the http timeout.
+     *
+     * @param exchange the exchange
+     * @param timeout the http timeout
+     */
+    public static void putTimeout(final ServerWebExchange exchange, final long timeout) {
+        Map<String, Object> attributes = exchange.getAttributes();
+        if (attributes instanceof ShenyuExchangeAttributes) {
+            ShenyuExchangeAttributes shenyuAttributes = (ShenyuExchangeAttributes) attributes;
+            shenyuAttributes.load(ShenyuAttributeKey.HTTP_TIME_OUT);
+            shenyuAttributes.timeout = timeout;
+            shenyuAttributes.timeoutPresent = true;
+        } else {
+            attributes.put(ShenyuAttributeKey.HTTP_TIME_OUT.getKey(), timeout);
+        }
+    }
+
+    /**
+     * Get the http retry times.
+     *
+     * @param exchange the exchange
+     * @param defaultValue the default retry times
+     * @return the http retry times
+     */
+    public static int getRetry(final ServerWebExchange exchange, final int defaultValue) {
+        Map<String, Object> attributes = exchange.getAttributes();
+        if (attributes instanceof ShenyuExchangeAttributes) {
+            ShenyuExchangeAttributes shenyuAttributes = (ShenyuExchangeAttributes) attributes;
+            shenyuAttributes.load(ShenyuAttributeKey.HTTP_RETRY);
+            return shenyuAttributes.retryPresent ? shenyuAttributes.retry : defaultValue;
+        }
+        Object value = exchange.getAttribute(ShenyuAttributeKey.HTTP_RETRY.getKey());
+        return Objects.isNull(value) ? defaultValue : ((Number) value).intValue();
+    }
+
+    /**
+     * Put the http retry times.
+     *
+     * @param exchange the exchange
+     * @param retry the http retry times
+     */
+    public static void putRetry(final ServerWebExchange exchange, final int retry) {
+        Map<String, Object> attributes = exchange.getAttributes();
+        if (attributes instanceof ShenyuExchangeAttributes) {
+            ShenyuExchangeAttributes shenyuAttributes = (ShenyuExchangeAttributes) attributes;
+            shenyuAttributes.load(ShenyuAttributeKey.HTTP_RETRY);
+            shenyuAttributes.retry = retry;
+            shenyuAttributes.retryPresent = true;
+        } else {
+            attributes.put(ShenyuAttributeKey.HTTP_RETRY.getKey(), retry);
+        }
+    }
+
+    /**
+     * Move the well-known attributes of the slots back to the original attributes, the slots are filled again
+     * lazily if the attributes are still used.
+     */
+    public void sync() {
+        for (ShenyuAttributeKey attributeKey : KEYS) {
+            if ((loaded & (1L << attributeKey.ordinal())) != 0) {
+                Object value = slotValue(attributeKey);
+                if (Objects.nonNull(value)) {
+                    delegate.put(attributeKey.getKey(), value);
+                }
+                setSlot(attributeKey, null);
+            }
+        }
+        loaded = 0L;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        ShenyuAttributeKey attributeKey = ShenyuAttributeKey.of(key);
+        return Objects.isNull(attributeKey) ? delegate.get(key) : getSlot(attributeKey);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        ShenyuAttributeKey attributeKey = ShenyuAttributeKey.of(key);
+        return Objects.isNull(attributeKey) ? delegate.containsKey(key) : Objects.nonNull(getSlot(attributeKey));
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        ShenyuAttributeKey attributeKey = ShenyuAttributeKey.of(key);
+        if (Objects.isNull(attributeKey)) {
+            return delegate.put(key, value);
+        }
+        return putSlot(attributeKey, Objects.requireNonNull(value));
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        ShenyuAttributeKey attributeKey = ShenyuAttributeKey.of(key);
+        if (Objects.isNull(attributeKey)) {
+            return delegate.remove(key);
+        }
+        return putSlot(attributeKey, null);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        for (ShenyuAttributeKey attributeKey : KEYS) {
+            setSlot(attributeKey, null);
+        }
+        loaded = ALL_LOADED;
+    }
+
+    @Override
+    public int size() {
+        loadAll();
+        int size = delegate.size();
+        for (ShenyuAttributeKey attributeKey : KEYS) {
+            if (Objects.nonNull(slotValue(attributeKey))) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (Objects.isNull(entrySet)) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private void load(final ShenyuAttributeKey attributeKey) {
+        long bit = 1L << attributeKey.ordinal();
+        if ((loaded & bit) == 0) {
+            loaded |= bit;
+            Object value = delegate.remove(attributeKey.getKey());
+            if (Objects.nonNull(value)) {
+                setSlot(attributeKey, value);
+            }
+        }
+    }
+
+    private void loadAll() {
+        if (loaded != ALL_LOADED) {
+            for (ShenyuAttributeKey attributeKey : KEYS) {
+                load(attributeKey);
+            }
+        }
+    }
+
+    private Object getSlot(final ShenyuAttributeKey attributeKey) {
+        load(attributeKey);
+        return slotValue(attributeKey);
+    }
+
+    private Object slotValue(final ShenyuAttributeKey attributeKey) {
+        switch (attributeKey) {
+            case HTTP_TIME_OUT:
+                return timeoutPresent ? timeout : null;
+            case HTTP_RETRY:
+                return retryPresent ? retry : null;
+            default:
+                return slots[attributeKey.ordinal()];
+        }
+    }
+
+    private Object putSlot(final ShenyuAttributeKey attributeKey, final Object value) {
+        Object previous = getSlot(attributeKey);
+        setSlot(attributeKey, value);
+        return previous;
+    }
+
+    private void setSlot(final ShenyuAttributeKey attributeKey, final Object value) {
+        switch (attributeKey) {
+            case HTTP_TIME_OUT:
+                timeoutPresent = Objects.nonNull(value);
+                timeout = timeoutPresent ? ((Number) value).longValue() : 0L;
+                break;
+            case HTTP_RETRY:
+                retryPresent = Objects.nonNull(value);
+                retry = retryPresent ? ((Number) value).intValue() : 0;
+                break;
+            default:
+                slots[attributeKey.ordinal()] = value;
+                break;
+        }
+    }
+
+    /**
+     * The read-only entries of the slots and the original attributes, iterated over a snapshot.
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            loadAll();
+            List<Entry<String, Object>> entries = new ArrayList<>(KEYS.length + delegate.size());
+            for (ShenyuAttributeKey attributeKey : KEYS) {
+                Object value = slotValue(attributeKey);
+                if (Objects.nonNull(value)) {
+                    entries.add(new SimpleImmutableEntry<>(attributeKey.getKey(), value));
+                }
+            }
+            delegate.forEach((key, value) -> entries.add(new SimpleImmutableEntry<>(key, value)));
+            return Collections.unmodifiableList(entries).iterator();
+        }
+
+        @Override
+        public int size() {
+            return ShenyuExchangeAttributes.this.size();
+        }
+    }
+}
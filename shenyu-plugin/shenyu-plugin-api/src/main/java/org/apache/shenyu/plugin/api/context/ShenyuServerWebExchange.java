@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.context;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The server web exchange whose attributes are {@link ShenyuExchangeAttributes}, the mutated exchanges share them.
+ */
+public final class ShenyuServerWebExchange extends ServerWebExchangeDecorator {
+
+    private final ShenyuExchangeAttributes attributes;
+
+    private ShenyuServerWebExchange(final ServerWebExchange delegate, final ShenyuExchangeAttributes attributes) {
+        super(delegate);
+        this.attributes = attributes;
+    }
+
+    /**
+     * Wrap the exchange, an exchange which already has {@link ShenyuExchangeAttributes} is returned as it is.
+     *
+     * @param exchange the exchange
+     * @return the wrapped exchange
+     */
+    public static ServerWebExchange wrap(final ServerWebExchange exchange) {
+        if (exchange.getAttributes() instanceof ShenyuExchangeAttributes) {
+            return exchange;
+        }
+        return new ShenyuServerWebExchange(exchange, new ShenyuExchangeAttributes(exchange.getAttributes()));
+    }
+
+    @Override
+    @NonNull
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    @NonNull
+    public ServerWebExchange.Builder mutate() {
+        return new Builder(getDelegate().mutate());
+    }
+
+    private final class Builder implements ServerWebExchange.Builder {
+
+        private final ServerWebExchange.Builder delegate;
+
+        Builder(final ServerWebExchange.Builder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        @NonNull
+        public ServerWebExchange.Builder request(@NonNull final Consumer<ServerHttpRequest.Builder> requestBuilderConsumer) {
+            delegate.request(requestBuilderConsumer);
+            return this;
+        }
+
+        @Override
+        @NonNull
+        public ServerWebExchange.Builder request(@NonNull final ServerHttpRequest request) {
+            delegate.request(request);
+            return this;
+        }
+
+        @Override
+        @NonNull
+        public ServerWebExchange.Builder response(@NonNull final ServerHttpResponse response) {
+            delegate.response(response);
+            return this;
+        }
+
+        @Override
+        @NonNull
+        public ServerWebExchange.Builder principal(@NonNull final Mono<Principal> principalMono) {
+            delegate.principal(principalMono);
+            return this;
+        }
+
+        @Override
+        @NonNull
+        public ServerWebExchange build() {
+            return new ShenyuServerWebExchange(delegate.build(), attributes);
+        }
+    }
+}
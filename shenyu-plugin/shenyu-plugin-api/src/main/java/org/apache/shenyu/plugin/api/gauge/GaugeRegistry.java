@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.gauge;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the sampled gauges, the plugins register the state they own, such as the connection pools,
+ * without depending on the metrics plugin.
+ */
+public final class GaugeRegistry {
+
+    private static final GaugeRegistry INSTANCE = new GaugeRegistry();
+
+    private final Map<String, SampledGauge> gauges = new ConcurrentHashMap<>();
+
+    private GaugeRegistry() {
+    }
+
+    /**
+     * get the instance.
+     *
+     * @return the gauge registry
+     */
+    public static GaugeRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * register the gauge, a gauge of the same series is replaced.
+     *
+     * @param gauge the gauge
+     */
+    public void register(final SampledGauge gauge) {
+        gauges.put(gauge.getKey(), gauge);
+    }
+
+    /**
+     * unregister the gauge, only when it is still the registered one of its series.
+     *
+     * @param gauge the gauge
+     */
+    public void unregister(final SampledGauge gauge) {
+        gauges.remove(gauge.getKey(), gauge);
+    }
+
+    /**
+     * get the registered gauges.
+     *
+     * @return the gauges
+     */
+    public Collection<SampledGauge> getGauges() {
+        return Collections.unmodifiableCollection(gauges.values());
+    }
+}
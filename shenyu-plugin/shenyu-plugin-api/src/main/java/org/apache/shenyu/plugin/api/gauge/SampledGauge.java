@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.gauge;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * The gauge sampled by the metrics plugin, the owner keeps the value and the metrics plugin reads it periodically.
+ */
+public final class SampledGauge {
+
+    private final String name;
+
+    private final String document;
+
+    private final String[] labelNames;
+
+    private final String[] labelValues;
+
+    private final LongSupplier supplier;
+
+    private final String key;
+
+    /**
+     * Instantiates a new sampled gauge.
+     *
+     * @param name the metric name
+     * @param document the document
+     * @param labelNames the label names
+     * @param labelValues the label values
+     * @param supplier the value supplier
+     */
+    public SampledGauge(final String name, final String document, final String[] labelNames,
+                        final String[] labelValues, final LongSupplier supplier) {
+        this.name = name;
+        this.document = document;
+        this.labelNames = labelNames;
+        this.labelValues = labelValues;
+        this.supplier = supplier;
+        this.key = name + Arrays.toString(labelValues);
+    }
+
+    /**
+     * get name.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * get document.
+     *
+     * @return document
+     */
+    public String getDocument() {
+        return document;
+    }
+
+    /**
+     * get labelNames.
+     *
+     * @return labelNames
+     */
+    public String[] getLabelNames() {
+        return labelNames;
+    }
+
+    /**
+     * get labelValues.
+     *
+     * @return labelValues
+     */
+    public String[] getLabelValues() {
+        return labelValues;
+    }
+
+    /**
+     * get the key of the series, the name with the label values.
+     *
+     * @return key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * sample the current value.
+     *
+     * @return the value
+     */
+    public long sample() {
+        return supplier.getAsLong();
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.profile;
+
+import org.apache.shenyu.common.config.ShenyuConfig.ProfileConfig;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * The profiler of the plugin chain, off by default and toggled at runtime.
+ *
+ * <p>The plugin time is the synchronous time of {@code ShenyuPlugin#execute}, the next plugins are deferred by the chain,
+ * so it is the self time of the plugin. The allocated bytes are read from the thread allocation counter of the jvm,
+ * when it is supported.
+ */
+public final class PluginProfiler {
+    
+    private static final PluginProfiler INSTANCE = new PluginProfiler();
+    
+    private final Map<ProfileType, Map<String, ProfileStats>> statsMap = new EnumMap<>(ProfileType.class);
+    
+    private final List<ProfileListener> listeners = new CopyOnWriteArrayList<>();
+    
+    private final com.sun.management.ThreadMXBean allocationBean;
+    
+    private volatile boolean enabled;
+    
+    private volatile boolean allocation;
+    
+    private volatile int maxRoutes = 1000;
+    
+    private PluginProfiler() {
+        for (ProfileType type : ProfileType.values()) {
+            statsMap.put(type, new ConcurrentHashMap<>());
+        }
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        } else {
+            allocationBean = null;
+        }
+    }
+    
+    /**
+     * Gets instance.
+     *
+     * @return the instance
+     */
+    public static PluginProfiler getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Apply the profile config.
+     *
+     * @param config the profile config
+     */
+    public void config(final ProfileConfig config) {
+        this.maxRoutes = config.getMaxRoutes();
+        this.allocation = Boolean.TRUE.equals(config.getAllocation());
+        this.enabled = Boolean.TRUE.equals(config.getEnabled());
+    }
+    
+    /**
+     * Gets enabled.
+     *
+     * @return the enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Sets enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Gets whether the allocated bytes are profiled.
+     *
+     * @return the allocation
+     */
+    public boolean isAllocation() {
+        return allocation;
+    }
+    
+    /**
+     * Sets whether the allocated bytes are profiled, ignored if the jvm does not support it.
+     *
+     * @param allocation the allocation
+     */
+    public void setAllocation(final boolean allocation) {
+        this.allocation = allocation;
+    }
+    
+    /**
+     * Add listener.
+     *
+     * @param listener the listener
+     */
+    public void addListener(final ProfileListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Remove listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(final ProfileListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Start a section.
+     *
+     * @return the start nanos, 0 when the profiler is disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+    
+    /**
+     * The allocated bytes of the current thread.
+     *
+     * @return the allocated bytes, 0 when the allocation is not profiled
+     */
+    public long allocatedBytes() {
+        if (enabled && allocation && Objects.nonNull(allocationBean)) {
+            return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0L;
+    }
+    
+    /**
+     * Stop a section.
+     *
+     * @param type the profile type
+     * @param name the name
+     * @param start the start nanos of {@link #start()}
+     */
+    public void stop(final ProfileType type, final String name, final long start) {
+        stop(type, name, start, 0L);
+    }
+    
+    /**
+     * Stop a section with the allocated bytes.
+     *
+     * @param type the profile type
+     * @param name the name
+     * @param start the start nanos of {@link #start()}
+     * @param startBytes the allocated bytes of {@link #allocatedBytes()} at start
+     */
+    public void stop(final ProfileType type, final String name, final long start, final long startBytes) {
+        if (start == 0L || !enabled) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = startBytes == 0L ? 0L : allocatedBytes() - startBytes;
+        record(type, name, nanos, bytes);
+    }
+    
+    /**
+     * Stop the route section of the exchange, the route is the matched selector and rule.
+     *
+     * @param exchange the exchange
+     * @param start the start nanos of {@link #start()}
+     */
+    public void stopRoute(final ServerWebExchange exchange, final long start) {
+        if (start == 0L || !enabled) {
+            return;
+        }
+        String selectorId = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.MATCHED_SELECTOR_ID);
+        String ruleId = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.MATCHED_RULE_ID);
+        if (Objects.isNull(selectorId) || Objects.isNull(ruleId)) {
+            return;
+        }
+        record(ProfileType.ROUTE, selectorId + ":" + ruleId, System.nanoTime() - start, 0L);
+    }
+    
+    /**
+     * The slowest stats by the total time.
+     *
+     * @param type the profile type
+     * @param limit the limit
+     * @return the stats
+     */
+    public List<ProfileStats> top(final ProfileType type, final int limit) {
+        return statsMap.get(type).values().stream()
+                .sorted(Comparator.comparingLong(ProfileStats::getTotalNanos).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Reset the stats.
+     */
+    public void reset() {
+        statsMap.values().forEach(Map::clear);
+    }
+    
+    private void record(final ProfileType type, final String name, final long nanos, final long bytes) {
+        Map<String, ProfileStats> typeStats = statsMap.get(type);
+        ProfileStats stats = typeStats.get(name);
+        if (Objects.isNull(stats)) {
+            // the routes are bounded, the plugins are bounded by themselves
+            if (type == ProfileType.ROUTE && typeStats.size() >= maxRoutes) {
+                return;
+            }
+            stats = typeStats.computeIfAbsent(name, ProfileStats::new);
+        }
+        stats.record(nanos, bytes);
+        for (ProfileListener listener : listeners) {
+            listener.onProfile(type, name, nanos, bytes);
+        }
+    }
+}
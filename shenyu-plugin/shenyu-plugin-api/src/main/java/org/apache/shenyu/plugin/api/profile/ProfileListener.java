@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.profile;
+
+/**
+ * The listener of the profiled sections, such as a metrics exporter.
+ */
+public interface ProfileListener {
+    
+    /**
+     * On a section profiled.
+     *
+     * @param type the profile type
+     * @param name the plugin name, or the route of {@link ProfileType#ROUTE}
+     * @param nanos the elapsed nanos
+     * @param allocatedBytes the allocated bytes, 0 if the allocation is not profiled
+     */
+    void onProfile(ProfileType type, String name, long nanos, long allocatedBytes);
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.profile;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The accumulated stats of a profiled plugin or route.
+ */
+public final class ProfileStats {
+    
+    private final String name;
+    
+    private final LongAdder count = new LongAdder();
+    
+    private final LongAdder totalNanos = new LongAdder();
+    
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    
+    private final LongAdder allocatedBytes = new LongAdder();
+    
+    /**
+     * Instantiates a new profile stats.
+     *
+     * @param name the name
+     */
+    public ProfileStats(final String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Record once.
+     *
+     * @param nanos the elapsed nanos
+     * @param bytes the allocated bytes
+     */
+    public void record(final long nanos, final long bytes) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (bytes > 0) {
+            allocatedBytes.add(bytes);
+        }
+    }
+    
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Gets count.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+    
+    /**
+     * Gets total nanos.
+     *
+     * @return the total nanos
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+    
+    /**
+     * Gets average nanos.
+     *
+     * @return the average nanos
+     */
+    public long getAverageNanos() {
+        long current = count.sum();
+        return current == 0 ? 0 : totalNanos.sum() / current;
+    }
+    
+    /**
+     * Gets max nanos.
+     *
+     * @return the max nanos
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+    
+    /**
+     * Gets allocated bytes.
+     *
+     * @return the allocated bytes
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+}
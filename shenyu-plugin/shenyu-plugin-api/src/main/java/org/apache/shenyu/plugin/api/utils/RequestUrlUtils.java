@@ -19,7 +19,9 @@ package org.apache.shenyu.plugin.api.utils;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shenyu.common.constant.Constants;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.springframework.web.server.ServerWebExchange;
 
 import java.net.URI;
@@ -45,7 +47,7 @@ public final class RequestUrlUtils {
         if (StringUtils.isNoneBlank(rewriteUri)) {
             path = path + rewriteUri;
         } else {
-            ShenyuContext shenyuContext = exchange.getAttribute(Constants.CONTEXT);
+            ShenyuContext shenyuContext = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.CONTEXT);
             assert shenyuContext != null;
             String realUrl = shenyuContext.getRealUrl();
             if (StringUtils.isNoneBlank(realUrl)) {
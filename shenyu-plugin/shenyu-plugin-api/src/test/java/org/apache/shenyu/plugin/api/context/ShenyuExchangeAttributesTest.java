@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.context;
+
+import org.apache.shenyu.common.constant.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test cases for ShenyuExchangeAttributes.
+ */
+public final class ShenyuExchangeAttributesTest {
+
+    @Test
+    public void testSlotsAndCompatibleView() {
+        MockServerWebExchange original = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").build());
+        ShenyuContext shenyuContext = new ShenyuContext();
+        original.getAttributes().put(Constants.CONTEXT, shenyuContext);
+        original.getAttributes().put("custom", "value");
+        ServerWebExchange exchange = ShenyuServerWebExchange.wrap(original);
+        assertTrue(exchange.getAttributes() instanceof ShenyuExchangeAttributes);
+        assertSame(exchange, ShenyuServerWebExchange.wrap(exchange));
+        // the slots are filled lazily
+        assertSame(shenyuContext, original.getAttribute(Constants.CONTEXT));
+        assertSame(shenyuContext, ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.CONTEXT));
+        assertEquals("value", exchange.getAttribute("custom"));
+
+        ShenyuExchangeAttributes.putTimeout(exchange, 5000L);
+        ShenyuExchangeAttributes.putRetry(exchange, 2);
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.LOAD_BALANCE, "hash");
+        assertEquals(5000L, ShenyuExchangeAttributes.getTimeout(exchange, 3000L));
+        assertEquals(2, ShenyuExchangeAttributes.getRetry(exchange, 0));
+        assertEquals(5000L, (Long) exchange.getAttribute(Constants.HTTP_TIME_OUT));
+        assertEquals(2, (Integer) exchange.getAttribute(Constants.HTTP_RETRY));
+        assertEquals("hash", exchange.getAttribute(Constants.LOAD_BALANCE));
+        ServerWebExchange mutated = exchange.mutate().request(original.getRequest()).build();
+        assertSame(exchange.getAttributes(), mutated.getAttributes());
+        assertEquals("hash", mutated.getAttribute(Constants.LOAD_BALANCE));
+        // the slots are the only store of the well-known attributes until the exchange is synchronized
+        assertNull(original.getAttribute(Constants.LOAD_BALANCE));
+        assertNull(original.getAttribute(Constants.CONTEXT));
+        assertEquals(original.getAttributes().size() + 4, exchange.getAttributes().size());
+        ((ShenyuExchangeAttributes) exchange.getAttributes()).sync();
+        assertEquals("hash", original.getAttribute(Constants.LOAD_BALANCE));
+        assertSame(shenyuContext, original.getAttribute(Constants.CONTEXT));
+        assertEquals(5000L, (Long) original.getAttribute(Constants.HTTP_TIME_OUT));
+        assertEquals(original.getAttributes().size(), exchange.getAttributes().size());
+        assertEquals("hash", exchange.getAttribute(Constants.LOAD_BALANCE));
+
+        exchange.getAttributes().put(Constants.HTTP_TIME_OUT, 1000L);
+        assertEquals(1000L, ShenyuExchangeAttributes.getTimeout(exchange, 3000L));
+        exchange.getAttributes().remove(Constants.HTTP_TIME_OUT);
+        assertEquals(3000L, ShenyuExchangeAttributes.getTimeout(exchange, 3000L));
+        assertFalse(exchange.getAttributes().containsKey(Constants.HTTP_TIME_OUT));
+        ((ShenyuExchangeAttributes) exchange.getAttributes()).sync();
+        assertFalse(original.getAttributes().containsKey(Constants.HTTP_TIME_OUT));
+        assertTrue(exchange.getAttributes().keySet().containsAll(Arrays.asList(Constants.CONTEXT, Constants.HTTP_RETRY, Constants.LOAD_BALANCE, "custom")));
+    }
+
+    @Test
+    public void testAttributeKey() {
+        for (ShenyuAttributeKey attributeKey : ShenyuAttributeKey.values()) {
+            assertSame(attributeKey, ShenyuAttributeKey.of(new String(attributeKey.getKey().toCharArray())));
+        }
+        assertNull(ShenyuAttributeKey.of("custom"));
+        assertNull(ShenyuAttributeKey.of(1));
+        assertNull(ShenyuAttributeKey.of(null));
+    }
+
+    @Test
+    public void testWithoutWrap() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").build());
+        ShenyuExchangeAttributes.putTimeout(exchange, 5000L);
+        ShenyuExchangeAttributes.putRetry(exchange, 2);
+        assertEquals(5000L, (Long) exchange.getAttribute(Constants.HTTP_TIME_OUT));
+        assertEquals(2, ShenyuExchangeAttributes.getRetry(exchange, 0));
+        assertNull(ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.HTTP_URI));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.api.profile;
+
+import org.apache.shenyu.common.config.ShenyuConfig.ProfileConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Test cases for PluginProfiler.
+ */
+public final class PluginProfilerTest {
+
+    private final PluginProfiler profiler = PluginProfiler.getInstance();
+
+    @AfterEach
+    public void tearDown() {
+        profiler.config(new ProfileConfig());
+        profiler.reset();
+    }
+
+    @Test
+    public void testDisabled() {
+        long start = profiler.start();
+        assertThat(start, is(0L));
+        profiler.stop(ProfileType.PLUGIN, "divide", start);
+        assertThat(profiler.top(ProfileType.PLUGIN, 10), is(empty()));
+    }
+
+    @Test
+    public void testTop() {
+        profiler.setEnabled(true);
+        List<String> profiled = new ArrayList<>();
+        ProfileListener listener = (type, name, nanos, allocatedBytes) -> profiled.add(name);
+        profiler.addListener(listener);
+        record("sign", 1);
+        record("divide", 3);
+        record("divide", 3);
+        profiler.removeListener(listener);
+        List<ProfileStats> top = profiler.top(ProfileType.PLUGIN, 1);
+        assertThat(top.size(), is(1));
+        assertThat(top.get(0).getName(), is("divide"));
+        assertThat(top.get(0).getCount(), is(2L));
+        assertThat(top.get(0).getMaxNanos(), greaterThan(0L));
+        assertThat(profiled.size(), is(3));
+    }
+
+    @Test
+    public void testAllocation() {
+        ProfileConfig config = new ProfileConfig();
+        config.setEnabled(true);
+        config.setAllocation(true);
+        profiler.config(config);
+        long startBytes = profiler.allocatedBytes();
+        long start = profiler.start();
+        byte[] bytes = new byte[1 << 16];
+        profiler.stop(ProfileType.PLUGIN, "allocation", start, startBytes);
+        assertThat(bytes.length, is(1 << 16));
+        if (startBytes > 0) {
+            assertThat(profiler.top(ProfileType.PLUGIN, 1).get(0).getAllocatedBytes(), greaterThan(0L));
+        }
+    }
+
+    private void record(final String name, final long millis) {
+        long start = profiler.start();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        profiler.stop(ProfileType.PLUGIN, name, start);
+    }
+}
@@ -24,7 +24,13 @@ import org.apache.shenyu.common.dto.SelectorData;
 import org.apache.shenyu.common.enums.SelectorTypeEnum;
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
+import org.apache.shenyu.plugin.api.profile.PluginProfiler;
+import org.apache.shenyu.plugin.api.profile.ProfileType;
 import org.apache.shenyu.plugin.base.cache.BaseDataCache;
+import org.apache.shenyu.plugin.base.cache.MatchIndexCache;
+import org.apache.shenyu.plugin.base.condition.index.MatchIndex;
 import org.apache.shenyu.plugin.base.condition.strategy.MatchStrategyFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,7 +80,10 @@ public abstract class AbstractShenyuPlugin implements ShenyuPlugin {
             }
 
             // 查询对应的选择器
-            SelectorData selectorData = matchSelector(exchange, selectors);
+            PluginProfiler profiler = PluginProfiler.getInstance();
+            long selectorStart = profiler.start();
+            SelectorData selectorData = matchSelector(pluginName, exchange, selectors);
+            profiler.stop(ProfileType.SELECTOR_MATCH, pluginName, selectorStart);
             if (Objects.isNull(selectorData)) {
                 return handleSelectorIfNull(pluginName, exchange, chain);
             }
@@ -88,12 +97,19 @@ public abstract class AbstractShenyuPlugin implements ShenyuPlugin {
                 //get last
                 rule = rules.get(rules.size() - 1);
             } else {
-                rule = matchRule(exchange, rules);
+                long ruleStart = profiler.start();
+                rule = matchRule(pluginName, selectorData.getId(), exchange, rules);
+                profiler.stop(ProfileType.RULE_MATCH, pluginName, ruleStart);
             }
             if (Objects.isNull(rule)) {
                 return handleRuleIfNull(pluginName, exchange, chain);
             }
             ruleLog(rule, pluginName);
+            // the later plugins overwrite the route, so the proxy plugin owns it when the response is committed
+            if (Objects.nonNull(selectorData.getId()) && Objects.nonNull(rule.getId())) {
+                ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.MATCHED_SELECTOR_ID, selectorData.getId());
+                ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.MATCHED_RULE_ID, rule.getId());
+            }
             return doExecute(exchange, chain, selectorData, rule);
         }
         return chain.execute(exchange);
@@ -107,7 +123,11 @@ public abstract class AbstractShenyuPlugin implements ShenyuPlugin {
         return chain.execute(exchange);
     }
 
-    private SelectorData matchSelector(final ServerWebExchange exchange, final Collection<SelectorData> selectors) {
+    private SelectorData matchSelector(final String pluginName, final ServerWebExchange exchange, final Collection<SelectorData> selectors) {
+        MatchIndex<SelectorData> index = MatchIndexCache.getInstance().obtainSelectorIndex(pluginName);
+        if (Objects.nonNull(index)) {
+            return index.match(exchange, (selector, serverWebExchange) -> selector.getEnabled() && filterSelector(selector, serverWebExchange));
+        }
         return selectors.stream()
                 .filter(selector -> selector.getEnabled() && filterSelector(selector, exchange))
                 .findFirst().orElse(null);
@@ -123,7 +143,11 @@ public abstract class AbstractShenyuPlugin implements ShenyuPlugin {
         return true;
     }
 
-    private RuleData matchRule(final ServerWebExchange exchange, final Collection<RuleData> rules) {
+    private RuleData matchRule(final String pluginName, final String selectorId, final ServerWebExchange exchange, final Collection<RuleData> rules) {
+        MatchIndex<RuleData> index = MatchIndexCache.getInstance().obtainRuleIndex(pluginName, selectorId);
+        if (Objects.nonNull(index)) {
+            return index.match(exchange, this::filterRule);
+        }
         return rules.stream().filter(rule -> filterRule(rule, exchange)).findFirst().orElse(null);
     }
 
@@ -22,11 +22,13 @@ import com.google.common.collect.Maps;
 import org.apache.shenyu.common.dto.PluginData;
 import org.apache.shenyu.common.dto.RuleData;
 import org.apache.shenyu.common.dto.SelectorData;
+import org.apache.shenyu.plugin.base.condition.judge.PredicateJudgeFactory;
 
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -51,6 +53,11 @@ public final class BaseDataCache {
      */
     private static final ConcurrentMap<String, List<RuleData>> RULE_MAP = Maps.newConcurrentMap();
 
+    /**
+     * increased on every plugin data change.
+     */
+    private static final AtomicLong PLUGIN_DATA_VERSION = new AtomicLong();
+
     private BaseDataCache() {
     }
     
@@ -69,7 +76,10 @@ public final class BaseDataCache {
      * @param pluginData the plugin data
      */
     public void cachePluginData(final PluginData pluginData) {
-        Optional.ofNullable(pluginData).ifPresent(data -> PLUGIN_MAP.put(data.getName(), data));
+        Optional.ofNullable(pluginData).ifPresent(data -> {
+            PLUGIN_MAP.put(data.getName(), data);
+            PLUGIN_DATA_VERSION.incrementAndGet();
+        });
     }
     
     /**
@@ -78,7 +88,10 @@ public final class BaseDataCache {
      * @param pluginData the plugin data
      */
     public void removePluginData(final PluginData pluginData) {
-        Optional.ofNullable(pluginData).ifPresent(data -> PLUGIN_MAP.remove(data.getName()));
+        Optional.ofNullable(pluginData).ifPresent(data -> {
+            PLUGIN_MAP.remove(data.getName());
+            PLUGIN_DATA_VERSION.incrementAndGet();
+        });
     }
     
     /**
@@ -88,6 +101,7 @@ public final class BaseDataCache {
      */
     public void removePluginDataByPluginName(final String pluginName) {
         PLUGIN_MAP.remove(pluginName);
+        PLUGIN_DATA_VERSION.incrementAndGet();
     }
     
     /**
@@ -95,6 +109,7 @@ public final class BaseDataCache {
      */
     public void cleanPluginData() {
         PLUGIN_MAP.clear();
+        PLUGIN_DATA_VERSION.incrementAndGet();
     }
     
     /**
@@ -116,6 +131,15 @@ public final class BaseDataCache {
         return PLUGIN_MAP.get(pluginName);
     }
     
+    /**
+     * Obtain the plugin data version, it changes whenever any plugin data is cached or removed.
+     *
+     * @return the plugin data version
+     */
+    public long obtainPluginDataVersion() {
+        return PLUGIN_DATA_VERSION.get();
+    }
+    
     /**
      * Cache select data.
      *
@@ -234,6 +258,7 @@ public final class BaseDataCache {
      * @param data the rule data
      */
     private void ruleAccept(final RuleData data) {
+        PredicateJudgeFactory.precompile(data.getConditionDataList());
         String selectorId = data.getSelectorId();
         synchronized (RULE_MAP) {
             if (RULE_MAP.containsKey(selectorId)) {
@@ -254,6 +279,7 @@ public final class BaseDataCache {
      * @param data the selector data
      */
     private void selectorAccept(final SelectorData data) {
+        PredicateJudgeFactory.precompile(data.getConditionList());
 
         // 获取插件的名称
         String key = data.getPluginName();
@@ -121,6 +121,7 @@ public class CommonPluginDataSubscriber implements PluginDataSubscriber {
     @Override
     public void refreshSelectorDataAll() {
         BaseDataCache.getInstance().cleanSelectorData();
+        MatchIndexCache.getInstance().cleanSelectorIndex();
     }
     
     @Override
@@ -129,6 +130,7 @@ public class CommonPluginDataSubscriber implements PluginDataSubscriber {
             return;
         }
         BaseDataCache.getInstance().cleanSelectorDataSelf(selectorDataList);
+        MatchIndexCache.getInstance().cleanSelectorIndexSelf(selectorDataList);
     }
     
     @Override
@@ -144,6 +146,7 @@ public class CommonPluginDataSubscriber implements PluginDataSubscriber {
     @Override
     public void refreshRuleDataAll() {
         BaseDataCache.getInstance().cleanRuleData();
+        MatchIndexCache.getInstance().cleanRuleIndex();
     }
     
     @Override
@@ -152,6 +155,7 @@ public class CommonPluginDataSubscriber implements PluginDataSubscriber {
             return;
         }
         BaseDataCache.getInstance().cleanRuleDataSelf(ruleDataList);
+        MatchIndexCache.getInstance().cleanRuleIndexSelf(ruleDataList);
     }
     
     private <T> void subscribeDataHandler(final T classData, final DataEventTypeEnum dataType) {
@@ -182,12 +186,14 @@ public class CommonPluginDataSubscriber implements PluginDataSubscriber {
         } else if (data instanceof SelectorData) {
             SelectorData selectorData = (SelectorData) data;
             BaseDataCache.getInstance().cacheSelectData(selectorData);
+            MatchIndexCache.getInstance().refreshSelectorIndex(selectorData.getPluginName());
             Optional.ofNullable(handlerMap.get(selectorData.getPluginName()))
                     .ifPresent(handler -> handler.handlerSelector(selectorData));
             
         } else if (data instanceof RuleData) {
             RuleData ruleData = (RuleData) data;
             BaseDataCache.getInstance().cacheRuleData(ruleData);
+            MatchIndexCache.getInstance().refreshRuleIndex(ruleData.getPluginName(), ruleData.getSelectorId());
             Optional.ofNullable(handlerMap.get(ruleData.getPluginName()))
                     .ifPresent(handler -> handler.handlerRule(ruleData));
             
@@ -225,12 +231,15 @@ public class CommonPluginDataSubscriber implements PluginDataSubscriber {
         } else if (data instanceof SelectorData) {
             SelectorData selectorData = (SelectorData) data;
             BaseDataCache.getInstance().removeSelectData(selectorData);
+            MatchIndexCache.getInstance().refreshSelectorIndex(selectorData.getPluginName());
+            MatchIndexCache.getInstance().removeRuleIndex(selectorData.getId());
             Optional.ofNullable(handlerMap.get(selectorData.getPluginName()))
                     .ifPresent(handler -> handler.removeSelector(selectorData));
             
         } else if (data instanceof RuleData) {
             RuleData ruleData = (RuleData) data;
             BaseDataCache.getInstance().removeRuleData(ruleData);
+            MatchIndexCache.getInstance().refreshRuleIndex(ruleData.getPluginName(), ruleData.getSelectorId());
             Optional.ofNullable(handlerMap.get(ruleData.getPluginName()))
                     .ifPresent(handler -> handler.removeRule(ruleData));
             
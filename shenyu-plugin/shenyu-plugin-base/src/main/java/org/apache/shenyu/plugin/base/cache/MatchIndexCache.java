@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.base.cache;
+
+import com.google.common.collect.Maps;
+import org.apache.shenyu.common.config.ShenyuConfig;
+import org.apache.shenyu.common.dto.RuleData;
+import org.apache.shenyu.common.dto.SelectorData;
+import org.apache.shenyu.plugin.base.condition.index.MatchIndex;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The compiled selector and rule match index cache, rebuilt from {@link BaseDataCache} on every data change.
+ */
+public final class MatchIndexCache {
+
+    private static final MatchIndexCache INSTANCE = new MatchIndexCache();
+
+    /**
+     * pluginName -> selector index.
+     */
+    private static final ConcurrentMap<String, MatchIndex<SelectorData>> SELECTOR_INDEX_MAP = Maps.newConcurrentMap();
+
+    /**
+     * selectorId -> rule index.
+     */
+    private static final ConcurrentMap<String, MatchIndex<RuleData>> RULE_INDEX_MAP = Maps.newConcurrentMap();
+
+    private volatile boolean enabled;
+
+    private volatile Set<String> plugins = Collections.emptySet();
+
+    private MatchIndexCache() {
+    }
+
+    /**
+     * Gets instance.
+     *
+     * @return the instance
+     */
+    public static MatchIndexCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Apply the match index config.
+     *
+     * @param config the match index config
+     */
+    public void config(final ShenyuConfig.MatchIndexConfig config) {
+        this.plugins = Objects.isNull(config.getPlugins()) ? Collections.emptySet() : new HashSet<>(config.getPlugins());
+        this.enabled = Boolean.TRUE.equals(config.getEnabled());
+        SELECTOR_INDEX_MAP.clear();
+        RULE_INDEX_MAP.clear();
+    }
+
+    /**
+     * Whether the plugin matches through the index.
+     *
+     * @param pluginName the plugin name
+     * @return true if enabled for the plugin
+     */
+    public boolean isEnabled(final String pluginName) {
+        return enabled && (plugins.isEmpty() || plugins.contains(pluginName));
+    }
+
+    /**
+     * Obtain selector index, build it when absent.
+     *
+     * @param pluginName the plugin name
+     * @return the selector index, null if the plugin does not use the index
+     */
+    public MatchIndex<SelectorData> obtainSelectorIndex(final String pluginName) {
+        if (!isEnabled(pluginName)) {
+            return null;
+        }
+        return SELECTOR_INDEX_MAP.computeIfAbsent(pluginName, name -> MatchIndex.ofSelectors(BaseDataCache.getInstance().obtainSelectorData(name)));
+    }
+
+    /**
+     * Obtain rule index, build it when absent.
+     *
+     * @param pluginName the plugin name
+     * @param selectorId the selector id
+     * @return the rule index, null if the plugin does not use the index
+     */
+    public MatchIndex<RuleData> obtainRuleIndex(final String pluginName, final String selectorId) {
+        if (!isEnabled(pluginName)) {
+            return null;
+        }
+        return RULE_INDEX_MAP.computeIfAbsent(selectorId, id -> MatchIndex.ofRules(BaseDataCache.getInstance().obtainRuleData(id)));
+    }
+
+    /**
+     * Rebuild selector index of the plugin.
+     *
+     * @param pluginName the plugin name
+     */
+    public void refreshSelectorIndex(final String pluginName) {
+        if (isEnabled(pluginName)) {
+            SELECTOR_INDEX_MAP.put(pluginName, MatchIndex.ofSelectors(BaseDataCache.getInstance().obtainSelectorData(pluginName)));
+        } else {
+            SELECTOR_INDEX_MAP.remove(pluginName);
+        }
+    }
+
+    /**
+     * Rebuild rule index of the selector.
+     *
+     * @param pluginName the plugin name
+     * @param selectorId the selector id
+     */
+    public void refreshRuleIndex(final String pluginName, final String selectorId) {
+        if (isEnabled(pluginName)) {
+            RULE_INDEX_MAP.put(selectorId, MatchIndex.ofRules(BaseDataCache.getInstance().obtainRuleData(selectorId)));
+        } else {
+            RULE_INDEX_MAP.remove(selectorId);
+        }
+    }
+
+    /**
+     * Remove the selector index of the plugin.
+     *
+     * @param pluginName the plugin name
+     */
+    public void removeSelectorIndex(final String pluginName) {
+        SELECTOR_INDEX_MAP.remove(pluginName);
+    }
+
+    /**
+     * Remove the rule index of the selector.
+     *
+     * @param selectorId the selector id
+     */
+    public void removeRuleIndex(final String selectorId) {
+        RULE_INDEX_MAP.remove(selectorId);
+    }
+
+    /**
+     * Clean selector index.
+     */
+    public void cleanSelectorIndex() {
+        SELECTOR_INDEX_MAP.clear();
+    }
+
+    /**
+     * Clean rule index.
+     */
+    public void cleanRuleIndex() {
+        RULE_INDEX_MAP.clear();
+    }
+
+    /**
+     * Remove the selector indexes of the selectors' plugins.
+     *
+     * @param selectorDataList the selector data list
+     */
+    public void cleanSelectorIndexSelf(final List<SelectorData> selectorDataList) {
+        if (Objects.nonNull(selectorDataList)) {
+            selectorDataList.forEach(selector -> SELECTOR_INDEX_MAP.remove(selector.getPluginName()));
+        }
+    }
+
+    /**
+     * Remove the rule indexes of the rules' selectors.
+     *
+     * @param ruleDataList the rule data list
+     */
+    public void cleanRuleIndexSelf(final List<RuleData> ruleDataList) {
+        if (Objects.nonNull(ruleDataList)) {
+            ruleDataList.forEach(rule -> RULE_INDEX_MAP.remove(rule.getSelectorId()));
+        }
+    }
+}
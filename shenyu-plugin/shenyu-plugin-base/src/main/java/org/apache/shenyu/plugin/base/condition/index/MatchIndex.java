@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.base.condition.index;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.dto.ConditionData;
+import org.apache.shenyu.common.dto.RuleData;
+import org.apache.shenyu.common.dto.SelectorData;
+import org.apache.shenyu.common.enums.MatchModeEnum;
+import org.apache.shenyu.common.enums.OperatorEnum;
+import org.apache.shenyu.common.enums.ParamTypeEnum;
+import org.apache.shenyu.common.enums.SelectorTypeEnum;
+import org.apache.shenyu.plugin.base.condition.data.ParameterDataFactory;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * The compiled match index of selectors or rules.
+ *
+ * <p>Every entry keeps its position in the sorted source list. The index only narrows the candidates by
+ * one necessary condition of each entry (uri equals, uri ant-path prefix, host equals or header equals),
+ * the candidates are then checked in their original order, so the first match is the same as a linear scan.
+ *
+ * @param <T> the entry type, {@link SelectorData} or {@link RuleData}
+ */
+public final class MatchIndex<T> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final List<T> entries;
+
+    private final int[] unindexed;
+
+    private final Map<String, int[]> uriEquals;
+
+    private final TrieNode uriPrefix;
+
+    private final Map<String, int[]> hostEquals;
+
+    private final Map<String, Map<String, int[]>> headerEquals;
+
+    private MatchIndex(final Builder<T> builder) {
+        this.entries = Collections.unmodifiableList(builder.entries);
+        this.unindexed = toArray(builder.unindexed);
+        this.uriEquals = freeze(builder.uriEquals);
+        this.uriPrefix = builder.uriPrefix.freeze();
+        this.hostEquals = freeze(builder.hostEquals);
+        Map<String, Map<String, int[]>> headers = new HashMap<>(builder.headerEquals.size());
+        builder.headerEquals.forEach((name, values) -> headers.put(name, freeze(values)));
+        this.headerEquals = headers;
+    }
+
+    /**
+     * Build the match index of selectors.
+     *
+     * @param selectors the sorted selectors
+     * @return the match index
+     */
+    public static MatchIndex<SelectorData> ofSelectors(final List<SelectorData> selectors) {
+        return build(selectors, selector -> Objects.equals(selector.getType(), SelectorTypeEnum.CUSTOM_FLOW.getCode())
+                ? requiredConditions(selector.getMatchMode(), selector.getConditionList()) : null);
+    }
+
+    /**
+     * Build the match index of rules.
+     *
+     * @param rules the sorted rules
+     * @return the match index
+     */
+    public static MatchIndex<RuleData> ofRules(final List<RuleData> rules) {
+        return build(rules, rule -> requiredConditions(rule.getMatchMode(), rule.getConditionDataList()));
+    }
+
+    /**
+     * Build the match index.
+     *
+     * @param items the sorted items
+     * @param requiredConditions the conditions which all must pass for an item to match, null if unknown
+     * @param <T> the entry type
+     * @return the match index
+     */
+    public static <T> MatchIndex<T> build(final List<T> items, final Function<T, List<ConditionData>> requiredConditions) {
+        Builder<T> builder = new Builder<>();
+        if (Objects.nonNull(items)) {
+            items.forEach(item -> builder.add(item, requiredConditions.apply(item)));
+        }
+        return new MatchIndex<>(builder);
+    }
+
+    /**
+     * Find the first entry, in the original order, which passes the filter.
+     *
+     * @param exchange the exchange
+     * @param filter the full condition check of an entry
+     * @return the first matched entry or null
+     */
+    public T match(final ServerWebExchange exchange, final BiPredicate<T, ServerWebExchange> filter) {
+        List<int[]> candidates = new ArrayList<>(4);
+        addCandidates(candidates, unindexed);
+        if (!uriEquals.isEmpty() || uriPrefix.hasChildren()) {
+            String path = ParameterDataFactory.builderData(ParamTypeEnum.URI.getName(), null, exchange);
+            if (Objects.nonNull(path)) {
+                addCandidates(candidates, uriEquals.get(path));
+                uriPrefix.collect(path, candidates);
+            }
+        }
+        if (!hostEquals.isEmpty()) {
+            addCandidates(candidates, hostEquals.get(ParameterDataFactory.builderData(ParamTypeEnum.HOST.getName(), null, exchange)));
+        }
+        for (Map.Entry<String, Map<String, int[]>> header : headerEquals.entrySet()) {
+            addCandidates(candidates, header.getValue().get(ParameterDataFactory.builderData(ParamTypeEnum.HEADER.getName(), header.getKey(), exchange)));
+        }
+        return firstMatch(candidates, exchange, filter);
+    }
+
+    /**
+     * Gets the indexed entries in their original order.
+     *
+     * @return the entries
+     */
+    public List<T> getEntries() {
+        return entries;
+    }
+
+    private T firstMatch(final List<int[]> candidates, final ServerWebExchange exchange, final BiPredicate<T, ServerWebExchange> filter) {
+        int size = candidates.size();
+        int[] cursors = new int[size];
+        int last = -1;
+        while (true) {
+            int min = Integer.MAX_VALUE;
+            int which = -1;
+            for (int i = 0; i < size; i++) {
+                int[] ids = candidates.get(i);
+                if (cursors[i] < ids.length && ids[cursors[i]] < min) {
+                    min = ids[cursors[i]];
+                    which = i;
+                }
+            }
+            if (which < 0) {
+                return null;
+            }
+            cursors[which]++;
+            if (min == last) {
+                continue;
+            }
+            last = min;
+            T entry = entries.get(min);
+            if (filter.test(entry, exchange)) {
+                return entry;
+            }
+        }
+    }
+
+    private static void addCandidates(final List<int[]> candidates, final int[] ids) {
+        if (Objects.nonNull(ids) && ids.length > 0) {
+            candidates.add(ids);
+        }
+    }
+
+    private static List<ConditionData> requiredConditions(final Integer matchMode, final List<ConditionData> conditions) {
+        if (CollectionUtils.isEmpty(conditions)) {
+            return null;
+        }
+        if (Objects.equals(matchMode, MatchModeEnum.AND.getCode()) || conditions.size() == 1) {
+            return conditions;
+        }
+        return null;
+    }
+
+    private static List<String> tokenize(final String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int length = path.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    private static List<String> literalPrefix(final String pattern) {
+        List<String> prefix = new ArrayList<>();
+        for (String segment : tokenize(pattern)) {
+            if (StringUtils.containsAny(segment, '*', '?', '{')) {
+                break;
+            }
+            prefix.add(segment);
+        }
+        return prefix;
+    }
+
+    private static int[] toArray(final List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return EMPTY;
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Map<String, int[]> freeze(final Map<String, List<Integer>> source) {
+        Map<String, int[]> result = new HashMap<>(source.size());
+        source.forEach((key, ids) -> result.put(key, toArray(ids)));
+        return result;
+    }
+
+    private static final class Builder<T> {
+
+        private final List<T> entries = new ArrayList<>();
+
+        private final List<Integer> unindexed = new ArrayList<>();
+
+        private final Map<String, List<Integer>> uriEquals = new HashMap<>();
+
+        private final TrieNode uriPrefix = new TrieNode();
+
+        private final Map<String, List<Integer>> hostEquals = new HashMap<>();
+
+        private final Map<String, Map<String, List<Integer>>> headerEquals = new HashMap<>();
+
+        void add(final T item, final List<ConditionData> conditions) {
+            int id = entries.size();
+            entries.add(item);
+            if (Objects.isNull(conditions) || !(indexUriEquals(id, conditions) || indexUriPrefix(id, conditions)
+                    || indexHostEquals(id, conditions) || indexHeaderEquals(id, conditions))) {
+                unindexed.add(id);
+            }
+        }
+
+        private boolean indexUriEquals(final int id, final List<ConditionData> conditions) {
+            ConditionData condition = find(conditions, ParamTypeEnum.URI, OperatorEnum.EQ);
+            if (Objects.isNull(condition)) {
+                return false;
+            }
+            uriEquals.computeIfAbsent(condition.getParamValue().trim(), key -> new ArrayList<>()).add(id);
+            return true;
+        }
+
+        private boolean indexUriPrefix(final int id, final List<ConditionData> conditions) {
+            ConditionData condition = find(conditions, ParamTypeEnum.URI, OperatorEnum.MATCH);
+            if (Objects.isNull(condition)) {
+                return false;
+            }
+            Set<List<String>> prefixes = new LinkedHashSet<>();
+            for (String pattern : StringUtils.split(condition.getParamValue(), ',')) {
+                if (StringUtils.isBlank(pattern)) {
+                    continue;
+                }
+                List<String> prefix = literalPrefix(pattern.trim());
+                if (prefix.isEmpty()) {
+                    return false;
+                }
+                prefixes.add(prefix);
+            }
+            if (prefixes.isEmpty()) {
+                return false;
+            }
+            prefixes.forEach(prefix -> uriPrefix.add(prefix, id));
+            return true;
+        }
+
+        private boolean indexHostEquals(final int id, final List<ConditionData> conditions) {
+            ConditionData condition = find(conditions, ParamTypeEnum.HOST, OperatorEnum.EQ);
+            if (Objects.isNull(condition)) {
+                return false;
+            }
+            hostEquals.computeIfAbsent(condition.getParamValue().trim(), key -> new ArrayList<>()).add(id);
+            return true;
+        }
+
+        private boolean indexHeaderEquals(final int id, final List<ConditionData> conditions) {
+            ConditionData condition = find(conditions, ParamTypeEnum.HEADER, OperatorEnum.EQ);
+            if (Objects.isNull(condition) || StringUtils.isBlank(condition.getParamName())) {
+                return false;
+            }
+            headerEquals.computeIfAbsent(condition.getParamName(), key -> new HashMap<>())
+                    .computeIfAbsent(condition.getParamValue().trim(), key -> new ArrayList<>()).add(id);
+            return true;
+        }
+
+        private static ConditionData find(final List<ConditionData> conditions, final ParamTypeEnum paramType, final OperatorEnum operator) {
+            return conditions.stream()
+                    .filter(condition -> Objects.equals(paramType.getName(), condition.getParamType())
+                            && Objects.equals(operator.getAlias(), condition.getOperator())
+                            && StringUtils.isNotBlank(condition.getParamValue()))
+                    .findFirst().orElse(null);
+        }
+    }
+
+    private static final class TrieNode {
+
+        private Map<String, TrieNode> children = new HashMap<>();
+
+        private List<Integer> pending = new ArrayList<>();
+
+        private int[] ids = EMPTY;
+
+        void add(final List<String> segments, final int id) {
+            TrieNode node = this;
+            for (String segment : segments) {
+                node = node.children.computeIfAbsent(segment, key -> new TrieNode());
+            }
+            node.pending.add(id);
+        }
+
+        TrieNode freeze() {
+            ids = toArray(pending);
+            pending = null;
+            children.values().forEach(TrieNode::freeze);
+            if (children.isEmpty()) {
+                children = Collections.emptyMap();
+            }
+            return this;
+        }
+
+        boolean hasChildren() {
+            return !children.isEmpty();
+        }
+
+        void collect(final String path, final List<int[]> candidates) {
+            TrieNode node = this;
+            addCandidates(candidates, node.ids);
+            int start = 0;
+            int length = path.length();
+            for (int i = 0; i <= length && !node.children.isEmpty(); i++) {
+                if (i == length || path.charAt(i) == '/') {
+                    if (i > start) {
+                        node = node.children.get(path.substring(start, i));
+                        if (Objects.isNull(node)) {
+                            return;
+                        }
+                        addCandidates(candidates, node.ids);
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+    }
+}
@@ -22,7 +22,9 @@ import org.apache.shenyu.common.enums.ParamTypeEnum;
 import org.apache.shenyu.common.utils.PathMatchUtils;
 import org.apache.shenyu.spi.Join;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 /**
  * Match predicate judge.
@@ -37,4 +39,14 @@ public class MatchPredicateJudge implements PredicateJudge {
         }
         return realData.contains(conditionData.getParamValue().trim());
     }
+
+    @Override
+    public Predicate<String> compile(final ConditionData conditionData) {
+        final String value = conditionData.getParamValue().trim();
+        if (Objects.equals(ParamTypeEnum.URI.getName(), conditionData.getParamType())) {
+            final List<String> patterns = PathMatchUtils.split(value);
+            return realData -> PathMatchUtils.match(patterns, realData);
+        }
+        return realData -> realData.contains(value);
+    }
 }
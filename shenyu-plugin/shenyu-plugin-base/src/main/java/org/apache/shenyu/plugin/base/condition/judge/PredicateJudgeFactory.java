@@ -17,18 +17,32 @@
 
 package org.apache.shenyu.plugin.base.condition.judge;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shenyu.common.dto.ConditionData;
 import org.apache.shenyu.common.enums.OperatorEnum;
 import org.apache.shenyu.spi.ExtensionLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 /**
  * Predicate judge factory.
  */
 public final class PredicateJudgeFactory {
     
+    private static final Logger LOG = LoggerFactory.getLogger(PredicateJudgeFactory.class);
+    
+    /**
+     * conditionData -> compiled predicate, weak keys so the conditions of replaced selectors and rules are collected.
+     */
+    private static final Cache<ConditionData, CompiledPredicate> COMPILED_CACHE = CacheBuilder.newBuilder().weakKeys().build();
+    
     private PredicateJudgeFactory() {
     }
     
@@ -53,7 +67,47 @@ public final class PredicateJudgeFactory {
         if (Objects.isNull(conditionData) || StringUtils.isBlank(realData)) {
             return false;
         }
-        return newInstance(conditionData.getOperator()).judge(conditionData, realData);
+        CompiledPredicate compiled = COMPILED_CACHE.getIfPresent(conditionData);
+        if (Objects.isNull(compiled) || !compiled.isCompiledFrom(conditionData)) {
+            compiled = compile(conditionData);
+            COMPILED_CACHE.put(conditionData, compiled);
+        }
+        return compiled.predicate.test(realData);
+    }
+    
+    /**
+     * compile the conditions ahead of the requests, called when the selector or rule is cached.
+     *
+     * @param conditionDataList condition data list
+     */
+    public static void precompile(final List<ConditionData> conditionDataList) {
+        if (CollectionUtils.isEmpty(conditionDataList)) {
+            return;
+        }
+        for (ConditionData conditionData : conditionDataList) {
+            if (Objects.isNull(conditionData)) {
+                continue;
+            }
+            try {
+                COMPILED_CACHE.put(conditionData, compile(conditionData));
+            } catch (RuntimeException e) {
+                LOG.warn("precompile condition failed, operator:{}", conditionData.getOperator(), e);
+            }
+        }
+    }
+    
+    private static CompiledPredicate compile(final ConditionData conditionData) {
+        PredicateJudge predicateJudge = newInstance(conditionData.getOperator());
+        Predicate<String> predicate;
+        try {
+            predicate = predicateJudge.compile(conditionData);
+        } catch (RuntimeException e) {
+            // keep the judge behavior of the request path, such as a wrong regex or date
+            LOG.warn("compile condition failed, paramType:{}, operator:{}, paramValue:{}", conditionData.getParamType(),
+                    conditionData.getOperator(), conditionData.getParamValue(), e);
+            predicate = realData -> predicateJudge.judge(conditionData, realData);
+        }
+        return new CompiledPredicate(conditionData, predicate);
     }
 
     /**
@@ -65,4 +119,36 @@ public final class PredicateJudgeFactory {
     private static String processSpecialOperator(final String operator) {
         return "=".equals(operator) ? "equals" : operator;
     }
+    
+    /**
+     * the predicate compiled from one version of the condition fields.
+     */
+    private static final class CompiledPredicate {
+        
+        private final String paramType;
+        
+        private final String operator;
+        
+        private final String paramName;
+        
+        private final String paramValue;
+        
+        private final Predicate<String> predicate;
+        
+        CompiledPredicate(final ConditionData conditionData, final Predicate<String> predicate) {
+            this.paramType = conditionData.getParamType();
+            this.operator = conditionData.getOperator();
+            this.paramName = conditionData.getParamName();
+            this.paramValue = conditionData.getParamValue();
+            this.predicate = predicate;
+        }
+        
+        /**
+         * the condition data is replaced on sync, the reference check only guards the mutated ones.
+         */
+        boolean isCompiledFrom(final ConditionData conditionData) {
+            return paramType == conditionData.getParamType() && operator == conditionData.getOperator()
+                    && paramName == conditionData.getParamName() && paramValue == conditionData.getParamValue();
+        }
+    }
 }
@@ -18,9 +18,11 @@
 package org.apache.shenyu.plugin.base.cache;
 
 import com.google.common.collect.Lists;
+import org.apache.shenyu.common.config.ShenyuConfig;
 import org.apache.shenyu.common.dto.PluginData;
 import org.apache.shenyu.common.dto.RuleData;
 import org.apache.shenyu.common.dto.SelectorData;
+import org.apache.shenyu.plugin.base.condition.index.MatchIndex;
 import org.apache.shenyu.plugin.base.handler.PluginDataHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,7 +32,9 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Test cases for CommonPluginDataSubscriber.
@@ -132,6 +136,26 @@ public final class CommonPluginDataSubscriberTest {
         assertEquals(Lists.newArrayList(), baseDataCache.obtainSelectorData(selectorData.getPluginName()));
     }
 
+    @Test
+    public void testUnSelectorSubscribeRemovesRuleIndex() {
+        ShenyuConfig.MatchIndexConfig config = new ShenyuConfig.MatchIndexConfig();
+        config.setEnabled(true);
+        MatchIndexCache.getInstance().config(config);
+        try {
+            SelectorData selectorData = SelectorData.builder().id(mockSelectorId1).pluginName(mockPluginName1).build();
+            commonPluginDataSubscriber.onSelectorSubscribe(selectorData);
+            baseDataCache.cacheRuleData(RuleData.builder().id("1").selectorId(mockSelectorId1).pluginName(mockPluginName1).sort(1).build());
+            MatchIndex<RuleData> ruleIndex = MatchIndexCache.getInstance().obtainRuleIndex(mockPluginName1, mockSelectorId1);
+            assertSame(ruleIndex, MatchIndexCache.getInstance().obtainRuleIndex(mockPluginName1, mockSelectorId1));
+
+            commonPluginDataSubscriber.unSelectorSubscribe(selectorData);
+            assertNotSame(ruleIndex, MatchIndexCache.getInstance().obtainRuleIndex(mockPluginName1, mockSelectorId1));
+        } finally {
+            MatchIndexCache.getInstance().config(new ShenyuConfig.MatchIndexConfig());
+            baseDataCache.cleanRuleData();
+        }
+    }
+
     @Test
     public void testRefreshSelectorDataAll() {
         baseDataCache.cleanSelectorData();
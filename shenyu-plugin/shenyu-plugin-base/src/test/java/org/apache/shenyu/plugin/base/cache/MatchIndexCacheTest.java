@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.base.cache;
+
+import com.google.common.collect.Sets;
+import org.apache.shenyu.common.config.ShenyuConfig;
+import org.apache.shenyu.common.dto.RuleData;
+import org.apache.shenyu.common.dto.SelectorData;
+import org.apache.shenyu.plugin.base.condition.index.MatchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test cases for MatchIndexCache.
+ */
+public final class MatchIndexCacheTest {
+
+    @AfterEach
+    public void tearDown() {
+        MatchIndexCache.getInstance().config(new ShenyuConfig.MatchIndexConfig());
+        BaseDataCache.getInstance().cleanSelectorData();
+        BaseDataCache.getInstance().cleanRuleData();
+    }
+
+    @Test
+    public void testIsEnabled() {
+        assertFalse(MatchIndexCache.getInstance().isEnabled("divide"));
+        ShenyuConfig.MatchIndexConfig config = new ShenyuConfig.MatchIndexConfig();
+        config.setEnabled(true);
+        MatchIndexCache.getInstance().config(config);
+        assertTrue(MatchIndexCache.getInstance().isEnabled("divide"));
+        config.setPlugins(Sets.newHashSet("divide"));
+        MatchIndexCache.getInstance().config(config);
+        assertTrue(MatchIndexCache.getInstance().isEnabled("divide"));
+        assertFalse(MatchIndexCache.getInstance().isEnabled("waf"));
+        assertNull(MatchIndexCache.getInstance().obtainSelectorIndex("waf"));
+    }
+
+    @Test
+    public void testRefreshIndex() {
+        ShenyuConfig.MatchIndexConfig config = new ShenyuConfig.MatchIndexConfig();
+        config.setEnabled(true);
+        MatchIndexCache.getInstance().config(config);
+        BaseDataCache.getInstance().cacheSelectData(SelectorData.builder().id("1").pluginName("divide").sort(1).build());
+        MatchIndex<SelectorData> index = MatchIndexCache.getInstance().obtainSelectorIndex("divide");
+        assertEquals(1, index.getEntries().size());
+        assertSame(index, MatchIndexCache.getInstance().obtainSelectorIndex("divide"));
+        BaseDataCache.getInstance().cacheSelectData(SelectorData.builder().id("2").pluginName("divide").sort(2).build());
+        MatchIndexCache.getInstance().refreshSelectorIndex("divide");
+        assertNotSame(index, MatchIndexCache.getInstance().obtainSelectorIndex("divide"));
+        assertEquals(2, MatchIndexCache.getInstance().obtainSelectorIndex("divide").getEntries().size());
+
+        BaseDataCache.getInstance().cacheRuleData(RuleData.builder().id("1").selectorId("1").pluginName("divide").sort(1).build());
+        assertEquals(1, MatchIndexCache.getInstance().obtainRuleIndex("divide", "1").getEntries().size());
+        BaseDataCache.getInstance().cacheRuleData(RuleData.builder().id("2").selectorId("1").pluginName("divide").sort(2).build());
+        MatchIndexCache.getInstance().refreshRuleIndex("divide", "1");
+        assertEquals(2, MatchIndexCache.getInstance().obtainRuleIndex("divide", "1").getEntries().size());
+    }
+}
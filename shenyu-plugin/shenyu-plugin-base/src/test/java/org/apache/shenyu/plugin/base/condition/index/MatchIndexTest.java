@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.base.condition.index;
+
+import com.google.common.collect.Lists;
+import org.apache.shenyu.common.dto.ConditionData;
+import org.apache.shenyu.common.dto.SelectorData;
+import org.apache.shenyu.common.enums.MatchModeEnum;
+import org.apache.shenyu.common.enums.SelectorTypeEnum;
+import org.apache.shenyu.plugin.base.condition.strategy.MatchStrategyFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test cases for MatchIndex.
+ */
+public final class MatchIndexTest {
+
+    private static final BiPredicate<SelectorData, ServerWebExchange> FILTER = (selector, exchange) -> selector.getEnabled()
+            && (selector.getType() == SelectorTypeEnum.FULL_FLOW.getCode()
+            || MatchStrategyFactory.match(selector.getMatchMode(), selector.getConditionList(), exchange));
+
+    private List<SelectorData> selectors;
+
+    @BeforeEach
+    public void setUp() {
+        selectors = Lists.newArrayList(
+                selector("1", MatchModeEnum.AND, condition("uri", "=", null, "/http/order/findById")),
+                selector("2", MatchModeEnum.AND, condition("uri", "match", null, "/http/order/**")),
+                selector("3", MatchModeEnum.AND, condition("header", "=", "tenant", "shenyu"), condition("uri", "match", null, "/http/**")),
+                selector("4", MatchModeEnum.OR, condition("uri", "match", null, "/dubbo/**"), condition("uri", "match", null, "/sofa/**")),
+                selector("5", MatchModeEnum.AND, condition("uri", "match", null, "/http/**,/springcloud/**")),
+                selector("6", MatchModeEnum.AND, condition("uri", "match", null, "/**/detail")));
+    }
+
+    @Test
+    public void testMatchKeepsOrder() {
+        MatchIndex<SelectorData> index = MatchIndex.ofSelectors(selectors);
+        assertEquals("1", index.match(exchange("/http/order/findById"), FILTER).getId());
+        assertEquals("2", index.match(exchange("/http/order/save"), FILTER).getId());
+        assertEquals("2", index.match(exchange("/http/order"), FILTER).getId());
+        assertEquals("5", index.match(exchange("/http/user/save"), FILTER).getId());
+        assertEquals("5", index.match(exchange("/springcloud/user"), FILTER).getId());
+        assertEquals("4", index.match(exchange("/sofa/user"), FILTER).getId());
+        assertEquals("6", index.match(exchange("/motan/user/detail"), FILTER).getId());
+        assertNull(index.match(exchange("/motan/user"), FILTER));
+    }
+
+    @Test
+    public void testMatchHeader() {
+        MatchIndex<SelectorData> index = MatchIndex.ofSelectors(selectors);
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/http/user/save").header("tenant", "shenyu").build());
+        assertEquals("3", index.match(exchange, FILTER).getId());
+    }
+
+    @Test
+    public void testMatchSameAsLinearScan() {
+        selectors.add(0, selector("0", MatchModeEnum.AND));
+        selectors.get(0).setType(SelectorTypeEnum.FULL_FLOW.getCode());
+        selectors.get(0).setEnabled(false);
+        MatchIndex<SelectorData> index = MatchIndex.ofSelectors(selectors);
+        for (String path : new String[]{"/http/order/findById", "/http/order/save", "/dubbo/a", "/springcloud", "/a/detail", "/none"}) {
+            ServerWebExchange exchange = exchange(path);
+            SelectorData expected = selectors.stream().filter(selector -> FILTER.test(selector, exchange)).findFirst().orElse(null);
+            assertEquals(expected, index.match(exchange, FILTER));
+        }
+    }
+
+    private static ServerWebExchange exchange(final String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+    }
+
+    private static SelectorData selector(final String id, final MatchModeEnum matchMode, final ConditionData... conditions) {
+        return SelectorData.builder().id(id).pluginName("divide").enabled(true)
+                .type(SelectorTypeEnum.CUSTOM_FLOW.getCode()).matchMode(matchMode.getCode())
+                .conditionList(Lists.newArrayList(conditions)).build();
+    }
+
+    private static ConditionData condition(final String paramType, final String operator, final String paramName, final String paramValue) {
+        ConditionData conditionData = new ConditionData();
+        conditionData.setParamType(paramType);
+        conditionData.setOperator(operator);
+        conditionData.setParamName(paramName);
+        conditionData.setParamValue(paramValue);
+        return conditionData;
+    }
+}
@@ -23,7 +23,11 @@ import org.apache.shenyu.common.enums.ParamTypeEnum;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+import java.util.regex.PatternSyntaxException;
+
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -84,6 +88,25 @@ public final class PredicateJudgeFactoryTest {
         assertFalse(PredicateJudgeFactory.judge(conditionData, "/http?/test"));
     }
     
+    @Test
+    public void testPrecompile() {
+        conditionData.setOperator(OperatorEnum.REGEX.getAlias());
+        conditionData.setParamValue("[/a-zA-Z0-9]+");
+        PredicateJudgeFactory.precompile(Collections.singletonList(conditionData));
+        assertTrue(PredicateJudgeFactory.judge(conditionData, "/http/test"));
+        conditionData.setParamValue("[0-9]+");
+        assertFalse(PredicateJudgeFactory.judge(conditionData, "/http/test"));
+        assertTrue(PredicateJudgeFactory.judge(conditionData, "123"));
+    }
+
+    @Test
+    public void testPrecompileWrongRegex() {
+        conditionData.setOperator(OperatorEnum.REGEX.getAlias());
+        conditionData.setParamValue("[");
+        PredicateJudgeFactory.precompile(Collections.singletonList(conditionData));
+        assertThrows(PatternSyntaxException.class, () -> PredicateJudgeFactory.judge(conditionData, "/http/test"));
+    }
+    
     @Test
     public void testTimerBeforeJudge() {
         conditionData.setOperator(OperatorEnum.TIME_BEFORE.getAlias());
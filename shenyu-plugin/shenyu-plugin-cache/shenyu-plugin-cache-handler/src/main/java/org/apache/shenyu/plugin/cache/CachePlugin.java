@@ -21,43 +21,132 @@ import org.apache.shenyu.common.dto.RuleData;
 import org.apache.shenyu.common.dto.SelectorData;
 import org.apache.shenyu.common.dto.convert.rule.impl.CacheRuleHandle;
 import org.apache.shenyu.common.enums.PluginEnum;
+import org.apache.shenyu.common.utils.Singleton;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
 import org.apache.shenyu.plugin.base.AbstractShenyuPlugin;
 import org.apache.shenyu.plugin.base.utils.CacheKeyUtils;
+import org.apache.shenyu.plugin.cache.config.CacheConfig;
 import org.apache.shenyu.plugin.cache.handler.CachePluginDataHandler;
 import org.apache.shenyu.plugin.cache.utils.CacheUtils;
 import org.reactivestreams.Publisher;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 import reactor.util.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * CacheWritePlugin.
  */
 public class CachePlugin extends AbstractShenyuPlugin {
 
+    /**
+     * data key -> the completion of the request fetching the data from the upstream.
+     */
+    private final Map<String, MonoProcessor<Void>> inFlight = new ConcurrentHashMap<>();
+
     @Override
     protected Mono<Void> doExecute(final ServerWebExchange exchange,
                                    final ShenyuPluginChain chain,
                                    final SelectorData selector,
                                    final RuleData rule) {
-        ICache cache = CacheUtils.getCache();
-        byte[] bytes;
-        if (Objects.nonNull(cache) && Objects.nonNull(bytes = cache.getData(CacheUtils.dataKey(exchange)))) {
-            exchange.getResponse().getHeaders().setContentType(cache.getContentType(CacheUtils.contentTypeKey(exchange)));
-            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse()
-                    .bufferFactory().wrap(bytes))
-                    .doOnNext(data -> exchange.getResponse().getHeaders().setContentLength(data.readableByteCount())));
+        final CacheRuleHandle cacheRuleHandle = CachePluginDataHandler.CACHED_HANDLE.get().obtainHandle(CacheKeyUtils.INST.getKey(rule));
+        final ICache cache = CacheUtils.getCache();
+        if (Objects.isNull(cache) || Objects.isNull(cacheRuleHandle)) {
+            return chain.execute(exchange);
+        }
+        final String baseKey = CacheUtils.dataKey(exchange, cacheRuleHandle.getKeyTemplate());
+        final CachedResponse base = CachedResponse.decode(cache.getBuffer(baseKey));
+        final String dataKey = dataKey(exchange, baseKey, base);
+        final CachedResponse cached = isVary(base) ? CachedResponse.decode(cache.getBuffer(dataKey)) : base;
+        if (Objects.nonNull(cached)) {
+            if (!cached.isStale(System.currentTimeMillis())) {
+                return writeCache(exchange, cached);
+            }
+            // stale while revalidate, only one request refreshes the data and the others are served with the stale data
+            final MonoProcessor<Void> refresh = MonoProcessor.create();
+            if (Objects.nonNull(inFlight.putIfAbsent(dataKey, refresh))) {
+                return writeCache(exchange, cached);
+            }
+            return fetch(exchange, chain, cacheRuleHandle, baseKey, dataKey, refresh);
+        }
+        if (!Boolean.TRUE.equals(cacheRuleHandle.getSingleFlight())) {
+            return chain.execute(exchange.mutate().response(new CacheHttpResponse(exchange, cacheRuleHandle, baseKey)).build());
+        }
+        final MonoProcessor<Void> flight = MonoProcessor.create();
+        final MonoProcessor<Void> leader = inFlight.putIfAbsent(dataKey, flight);
+        if (Objects.isNull(leader)) {
+            return fetch(exchange, chain, cacheRuleHandle, baseKey, dataKey, flight);
+        }
+        // wait for the same request in flight and serve its data, call the upstream only when it is not cached
+        return leader.then(Mono.defer(() -> {
+            // the response of the leader may vary by the request headers
+            final CachedResponse fetchedBase = CachedResponse.decode(cache.getBuffer(baseKey));
+            final CachedResponse fetched = isVary(fetchedBase)
+                    ? CachedResponse.decode(cache.getBuffer(dataKey(exchange, baseKey, fetchedBase))) : fetchedBase;
+            if (Objects.nonNull(fetched) && !fetched.isVary()) {
+                return writeCache(exchange, fetched);
+            }
+            return chain.execute(exchange.mutate().response(new CacheHttpResponse(exchange, cacheRuleHandle, baseKey)).build());
+        }));
+    }
+
+    private Mono<Void> fetch(final ServerWebExchange exchange,
+                             final ShenyuPluginChain chain,
+                             final CacheRuleHandle cacheRuleHandle,
+                             final String baseKey,
+                             final String dataKey,
+                             final MonoProcessor<Void> flight) {
+        return chain.execute(exchange.mutate().response(new CacheHttpResponse(exchange, cacheRuleHandle, baseKey)).build())
+                .doFinally(signal -> {
+                    inFlight.remove(dataKey, flight);
+                    flight.onComplete();
+                });
+    }
+
+    /**
+     * the data key of the request, which is the variant key when the base key holds the vary marker.
+     */
+    private static String dataKey(final ServerWebExchange exchange, final String baseKey, final CachedResponse base) {
+        return isVary(base) ? CacheUtils.variantKey(exchange, baseKey, base.getVaryNames()) : baseKey;
+    }
+
+    private static boolean isVary(final CachedResponse cached) {
+        return Objects.nonNull(cached) && cached.isVary();
+    }
+
+    private Mono<Void> writeCache(final ServerWebExchange exchange, final CachedResponse cached) {
+        final HttpHeaders headers = exchange.getResponse().getHeaders();
+        final String etag = cached.getEtag();
+        if (Objects.nonNull(etag)) {
+            headers.setETag(etag);
+            // answer the conditional request without the body
+            if (CacheUtils.etagMatches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), etag)) {
+                exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+                return exchange.getResponse().setComplete();
+            }
         }
-        CacheRuleHandle cacheRuleHandle = CachePluginDataHandler.CACHED_HANDLE.get().obtainHandle(CacheKeyUtils.INST.getKey(rule));
-        return chain.execute(exchange.mutate()
-                .response(new CacheHttpResponse(exchange, cacheRuleHandle)).build());
+        final ByteBuffer data = cached.getBody();
+        headers.setContentType(cached.getContentType());
+        headers.setContentLength(data.remaining());
+        // wrap the cached memory without a copy
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(data)));
     }
 
     @Override
@@ -76,11 +165,15 @@ public class CachePlugin extends AbstractShenyuPlugin {
 
         private final CacheRuleHandle cacheRuleHandle;
 
+        private final String baseKey;
+
         CacheHttpResponse(final ServerWebExchange exchange,
-                          final CacheRuleHandle cacheRuleHandle) {
+                          final CacheRuleHandle cacheRuleHandle,
+                          final String baseKey) {
             super(exchange.getResponse());
             this.exchange = exchange;
             this.cacheRuleHandle = cacheRuleHandle;
+            this.baseKey = baseKey;
         }
 
         @Override
@@ -92,14 +185,155 @@ public class CachePlugin extends AbstractShenyuPlugin {
         @NonNull
         private Flux<? extends DataBuffer> cacheResponse(final Publisher<? extends DataBuffer> body) {
             final ICache cache = CacheUtils.getCache();
-            if (Objects.nonNull(cache)) {
-                final MediaType contentType = this.getHeaders().getContentType();
-                return Flux.from(body).doOnNext(buffer -> {
-                    cache.cacheData(CacheUtils.dataKey(this.exchange), buffer.asByteBuffer().array(), this.cacheRuleHandle.getTimeoutSeconds());
-                    cache.cacheContentType(CacheUtils.contentTypeKey(this.exchange), contentType, this.cacheRuleHandle.getTimeoutSeconds());
-                });
+            if (Objects.isNull(cache)) {
+                return Flux.from(body);
+            }
+            // the response headers are complete once the body is written
+            final long timeoutSeconds = CacheUtils.cacheSeconds(this.getStatusCode(), this.getHeaders(), this.cacheRuleHandle.getTimeoutSeconds());
+            if (timeoutSeconds <= 0) {
+                return Flux.from(body);
+            }
+            final MediaType contentType = this.getHeaders().getContentType();
+            final String upstreamEtag = this.getHeaders().getETag();
+            final String varyNames = String.join(",", this.getHeaders().getVary());
+            final long maxResponseBytes = Optional.ofNullable(Singleton.INST.get(CacheConfig.class))
+                    .map(CacheConfig::getMaxResponseBytes).orElseGet(() -> new CacheConfig().getMaxResponseBytes());
+            final BodyCapture capture = new BodyCapture(bufferFactory(), this.getHeaders().getContentLength(), maxResponseBytes);
+            // the whole body is cached only when the stream completes, the chunks are not cached one by one
+            return Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> capture.commit(data -> {
+                        final long staleSeconds = Optional.ofNullable(this.cacheRuleHandle.getStaleSeconds()).orElse(0L);
+                        // the data is kept for the stale seconds after it is not fresh
+                        final long keepSeconds = timeoutSeconds + staleSeconds;
+                        final long freshUntil = staleSeconds > 0 ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutSeconds) : 0;
+                        // the response without a vary replaces the vary marker of the base key
+                        if (!varyNames.isEmpty()) {
+                            cache.cacheData(this.baseKey, CachedResponse.vary(varyNames), keepSeconds);
+                        }
+                        final String etag = Objects.nonNull(upstreamEtag) ? upstreamEtag : CacheUtils.etag(data);
+                        cache.cacheData(CacheUtils.variantKey(this.exchange, this.baseKey, varyNames),
+                                CachedResponse.entry(contentType, etag, freshUntil, data), keepSeconds);
+                    }))
+                    .doFinally(signal -> capture.release());
+        }
+    }
+
+    /**
+     * the response body captured into one buffer of the response buffer factory, which is pooled and
+     * off-heap with netty. The chunks are copied by their slices, so the written chunks are not changed.
+     *
+     * <p>The append and commit hold the buffer by one state, a release arriving with a cancel in the meantime
+     * is left to the holder, so the buffer is never released in the middle of a copy.
+     */
+    static final class BodyCapture {
+
+        private static final int IDLE = 0;
+
+        private static final int BUSY = 1;
+
+        private static final int RELEASE_PENDING = 2;
+
+        private static final int RELEASED = 3;
+
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+
+        private final DataBufferFactory bufferFactory;
+
+        private final long contentLength;
+
+        private final long maxBytes;
+
+        private DataBuffer captured;
+
+        private boolean overflow;
+
+        BodyCapture(final DataBufferFactory bufferFactory, final long contentLength, final long maxBytes) {
+            this.bufferFactory = bufferFactory;
+            this.contentLength = contentLength;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * append a chunk, the capture is given up once the body is larger than the max bytes.
+         *
+         * @param buffer the chunk
+         */
+        void append(final DataBuffer buffer) {
+            if (!state.compareAndSet(IDLE, BUSY)) {
+                return;
+            }
+            try {
+                if (overflow) {
+                    return;
+                }
+                final int readable = buffer.readableByteCount();
+                final long size = Objects.isNull(captured) ? 0 : captured.readableByteCount();
+                if (size + readable > maxBytes) {
+                    overflow = true;
+                    free();
+                    return;
+                }
+                if (Objects.isNull(captured)) {
+                    // allocate the whole body at once when the length is known
+                    captured = bufferFactory.allocateBuffer((int) Math.max(readable, Math.min(contentLength, maxBytes)));
+                }
+                captured.write(buffer.slice(buffer.readPosition(), readable));
+            } finally {
+                exit();
+            }
+        }
+
+        /**
+         * commit the captured body.
+         *
+         * @param consumer the consumer of the body
+         */
+        void commit(final Consumer<ByteBuffer> consumer) {
+            if (!state.compareAndSet(IDLE, BUSY)) {
+                return;
+            }
+            try {
+                if (!overflow && Objects.nonNull(captured) && captured.readableByteCount() > 0) {
+                    consumer.accept(captured.asByteBuffer());
+                }
+            } finally {
+                exit();
+            }
+        }
+
+        /**
+         * release the captured body, it is released by the append or commit in progress when there is one.
+         */
+        void release() {
+            while (true) {
+                final int current = state.get();
+                if (current == IDLE && state.compareAndSet(IDLE, RELEASED)) {
+                    free();
+                    return;
+                }
+                if (current == BUSY && state.compareAndSet(BUSY, RELEASE_PENDING)) {
+                    return;
+                }
+                if (current == RELEASE_PENDING || current == RELEASED) {
+                    return;
+                }
+            }
+        }
+
+        private void exit() {
+            if (!state.compareAndSet(BUSY, IDLE)) {
+                // released in the meantime
+                state.set(RELEASED);
+                free();
+            }
+        }
+
+        private void free() {
+            if (Objects.nonNull(captured)) {
+                DataBufferUtils.release(captured);
+                captured = null;
             }
-            return Flux.from(body);
         }
     }
 }
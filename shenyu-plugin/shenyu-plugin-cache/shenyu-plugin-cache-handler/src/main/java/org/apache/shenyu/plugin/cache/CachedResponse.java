@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.cache;
+
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * The cached response stored as one value, so a hit costs one lookup of the cache.
+ *
+ * <p>The value is {@code magic(1) kind(1) freshUntil(8) metaLength(2) meta etagLength(2) etag body}. The meta is
+ * the content type of an entry, or the comma separated header names of a vary marker, which is stored with the
+ * base key and points to the variant keys of the response.
+ *
+ * <p>The header and the body are encoded into the buffer that the cache keeps, so the body is copied once out of
+ * the pooled capture buffer. The value is a heap buffer, the direct memory is not used for the entries since it
+ * is only freed after a gc, a hit still wraps the cached memory without a copy.
+ */
+final class CachedResponse {
+
+    private static final byte MAGIC = (byte) 0xC5;
+
+    private static final byte ENTRY = 0;
+
+    private static final byte VARY = 1;
+
+    private static final int HEADER_BYTES = 14;
+
+    private final byte kind;
+
+    private final long freshUntil;
+
+    private final String meta;
+
+    private final String etag;
+
+    private final ByteBuffer body;
+
+    private CachedResponse(final byte kind, final long freshUntil, final String meta, final String etag, final ByteBuffer body) {
+        this.kind = kind;
+        this.freshUntil = freshUntil;
+        this.meta = meta;
+        this.etag = etag;
+        this.body = body;
+    }
+
+    /**
+     * encode the response entry, the body is copied into the encoded value which is kept by the cache.
+     *
+     * @param contentType the content type, may be null
+     * @param etag the entity tag, may be null
+     * @param freshUntil the epoch millis the entry is fresh until, 0 is always fresh
+     * @param body the body
+     * @return the encoded value
+     */
+    static ByteBuffer entry(final MediaType contentType, final String etag, final long freshUntil, final ByteBuffer body) {
+        return encode(ENTRY, freshUntil, Objects.isNull(contentType) ? "" : contentType.toString(), Objects.isNull(etag) ? "" : etag, body);
+    }
+
+    /**
+     * encode the vary marker.
+     *
+     * @param varyNames the comma separated header names
+     * @return the encoded value
+     */
+    static ByteBuffer vary(final String varyNames) {
+        return encode(VARY, 0, varyNames, "", ByteBuffer.allocate(0));
+    }
+
+    /**
+     * decode the cached value, the body is a view of the value without a copy.
+     *
+     * @param value the cached value
+     * @return the cached response, null when the value is absent or not encoded by this class
+     */
+    static CachedResponse decode(final ByteBuffer value) {
+        if (Objects.isNull(value) || value.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        final ByteBuffer buffer = value.duplicate();
+        if (buffer.get() != MAGIC) {
+            return null;
+        }
+        final byte kind = buffer.get();
+        final long freshUntil = buffer.getLong();
+        final String meta = readString(buffer);
+        if (Objects.isNull(meta) || buffer.remaining() < 2) {
+            return null;
+        }
+        final String etag = readString(buffer);
+        if (Objects.isNull(etag)) {
+            return null;
+        }
+        return new CachedResponse(kind, freshUntil, meta, etag, buffer.slice());
+    }
+
+    /**
+     * whether it is the vary marker.
+     *
+     * @return vary or not
+     */
+    boolean isVary() {
+        return kind == VARY;
+    }
+
+    /**
+     * the header names of the vary marker.
+     *
+     * @return the comma separated header names
+     */
+    String getVaryNames() {
+        return meta;
+    }
+
+    /**
+     * the content type of the entry.
+     *
+     * @return the content type, json when it is not stored
+     */
+    MediaType getContentType() {
+        return meta.isEmpty() ? MediaType.APPLICATION_JSON : MediaType.valueOf(meta);
+    }
+
+    /**
+     * the entity tag of the entry.
+     *
+     * @return the entity tag, null when it is not stored
+     */
+    String getEtag() {
+        return etag.isEmpty() ? null : etag;
+    }
+
+    /**
+     * whether the entry is stale.
+     *
+     * @param now the epoch millis
+     * @return stale or not
+     */
+    boolean isStale(final long now) {
+        return freshUntil > 0 && now >= freshUntil;
+    }
+
+    /**
+     * the body.
+     *
+     * @return the read only body
+     */
+    ByteBuffer getBody() {
+        return body.asReadOnlyBuffer();
+    }
+
+    private static ByteBuffer encode(final byte kind, final long freshUntil, final String meta, final String etag, final ByteBuffer body) {
+        final byte[] metaBytes = meta.getBytes(StandardCharsets.UTF_8);
+        final byte[] etagBytes = etag.getBytes(StandardCharsets.UTF_8);
+        // the only copy of the body, the cache keeps this buffer as it is
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + metaBytes.length + etagBytes.length + body.remaining());
+        buffer.put(MAGIC).put(kind).putLong(freshUntil)
+                .putShort((short) metaBytes.length).put(metaBytes)
+                .putShort((short) etagBytes.length).put(etagBytes)
+                .put(body.duplicate());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = Short.toUnsignedInt(buffer.getShort());
+        if (buffer.remaining() < length) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -34,6 +34,11 @@ public class CacheConfig {
      */
     private String config;
 
+    /**
+     * the max bytes of a response body to cache, default 1MB.
+     */
+    private Long maxResponseBytes = 1024L * 1024;
+
     /**
      * Get cache type.
      * @return the cache type
@@ -66,6 +71,22 @@ public class CacheConfig {
         this.config = config;
     }
 
+    /**
+     * Get the max bytes of a response body to cache.
+     * @return the max response bytes
+     */
+    public Long getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    /**
+     * Set the max bytes of a response body to cache.
+     * @param maxResponseBytes the max response bytes
+     */
+    public void setMaxResponseBytes(final Long maxResponseBytes) {
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
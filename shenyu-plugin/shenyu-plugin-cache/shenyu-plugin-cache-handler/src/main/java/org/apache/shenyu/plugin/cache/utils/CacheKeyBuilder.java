@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.cache.utils;
+
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Build the cache key by the key template of the rule, such as {@code {method}:{host}{path}?{query}:{header.X-Tenant}}.
+ *
+ * <p>The variables are {@code {method}}, {@code {scheme}}, {@code {host}}, {@code {path}}, {@code {query}} with the
+ * parameters sorted by name, {@code {param.name}}, {@code {header.name}} and {@code {cookie.name}}, the other text
+ * is kept as it is. The template is compiled once and the key is hashed with the 128-bit murmur3.
+ */
+public final class CacheKeyBuilder {
+
+    /**
+     * the default template, the method is a part of the key so a HEAD request does not get the cached GET body.
+     */
+    public static final String DEFAULT_TEMPLATE = "{method}:{path}?{query}";
+
+    private static final Map<String, List<BiConsumer<ServerHttpRequest, StringBuilder>>> COMPILED = new ConcurrentHashMap<>();
+
+    private CacheKeyBuilder() {
+    }
+
+    /**
+     * Build the hashed cache key.
+     *
+     * @param exchange the exchange
+     * @param template the key template, the default template is used when it is blank
+     * @return the cache key
+     */
+    public static String build(final ServerWebExchange exchange, final String template) {
+        final List<BiConsumer<ServerHttpRequest, StringBuilder>> parts = COMPILED.computeIfAbsent(
+                StringUtils.isBlank(template) ? DEFAULT_TEMPLATE : template, CacheKeyBuilder::compile);
+        final StringBuilder key = new StringBuilder(128);
+        final ServerHttpRequest request = exchange.getRequest();
+        for (BiConsumer<ServerHttpRequest, StringBuilder> part : parts) {
+            part.accept(request, key);
+        }
+        return hash(key.toString());
+    }
+
+    /**
+     * Hash the key with the 128-bit murmur3.
+     *
+     * @param key the key
+     * @return the hex of the hash
+     */
+    public static String hash(final String key) {
+        return Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).toString();
+    }
+
+    private static List<BiConsumer<ServerHttpRequest, StringBuilder>> compile(final String template) {
+        final List<BiConsumer<ServerHttpRequest, StringBuilder>> parts = new ArrayList<>();
+        int index = 0;
+        while (index < template.length()) {
+            final int start = template.indexOf('{', index);
+            final int end = start < 0 ? -1 : template.indexOf('}', start);
+            if (end < 0) {
+                final String literal = template.substring(index);
+                parts.add((request, key) -> key.append(literal));
+                break;
+            }
+            if (start > index) {
+                final String literal = template.substring(index, start);
+                parts.add((request, key) -> key.append(literal));
+            }
+            parts.add(variable(template.substring(start + 1, end).trim()));
+            index = end + 1;
+        }
+        return parts;
+    }
+
+    private static BiConsumer<ServerHttpRequest, StringBuilder> variable(final String name) {
+        switch (name) {
+            case "method":
+                return (request, key) -> key.append(request.getMethodValue());
+            case "scheme":
+                return (request, key) -> key.append(request.getURI().getScheme());
+            case "host":
+                return (request, key) -> key.append(request.getURI().getHost());
+            case "path":
+                return (request, key) -> key.append(request.getURI().getRawPath());
+            case "query":
+                return (request, key) -> appendQuery(request.getQueryParams(), key);
+            default:
+                break;
+        }
+        final String argument = StringUtils.substringAfter(name, ".");
+        if (name.startsWith("param.")) {
+            return (request, key) -> key.append(StringUtils.defaultString(request.getQueryParams().getFirst(argument)));
+        }
+        if (name.startsWith("header.")) {
+            return (request, key) -> key.append(StringUtils.defaultString(request.getHeaders().getFirst(argument)));
+        }
+        if (name.startsWith("cookie.")) {
+            return (request, key) -> {
+                final HttpCookie cookie = request.getCookies().getFirst(argument);
+                key.append(Objects.isNull(cookie) ? "" : cookie.getValue());
+            };
+        }
+        // keep the unknown variable as it is
+        final String literal = "{" + name + "}";
+        return (request, key) -> key.append(literal);
+    }
+
+    private static void appendQuery(final MultiValueMap<String, String> params, final StringBuilder key) {
+        if (params.isEmpty()) {
+            return;
+        }
+        final List<String> names = params.keySet().stream().sorted().collect(Collectors.toList());
+        for (String name : names) {
+            for (String value : params.get(name)) {
+                key.append(name).append('=').append(StringUtils.defaultString(value)).append('&');
+            }
+        }
+        key.setLength(key.length() - 1);
+    }
+}
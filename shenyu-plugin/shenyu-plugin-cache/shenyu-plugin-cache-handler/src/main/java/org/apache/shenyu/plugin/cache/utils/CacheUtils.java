@@ -17,45 +17,142 @@
 
 package org.apache.shenyu.plugin.cache.utils;
 
-import org.apache.shenyu.common.utils.Md5Utils;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.shenyu.common.utils.Singleton;
 import org.apache.shenyu.plugin.cache.ICache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.server.ServerWebExchange;
 
-import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CacheUtils.
  */
 public final class CacheUtils {
 
-    private static final String CONTENT_TYPEKEY_SUFFIX = "contentType";
-
-    private static final String KEY_JOIN_RULE = "-";
+    private static final String WEAK_PREFIX = "W/";
 
     private CacheUtils() {
     }
 
     /**
-     * the cache data key.
+     * the cache data key built by the key template of the rule.
      *
      * @param exchange the exchange.
+     * @param keyTemplate the key template, the default template is used when it is blank
      * @return data key
      */
-    public static String dataKey(final ServerWebExchange exchange) {
-        //// todo 2022/3/16 current use the request path, maybe use the key from admin config.
-        URI uri = exchange.getRequest().getURI();
-        return Md5Utils.md5(String.join(KEY_JOIN_RULE, uri.getQuery(), uri.getPath()));
+    public static String dataKey(final ServerWebExchange exchange, final String keyTemplate) {
+        return CacheKeyBuilder.build(exchange, keyTemplate);
     }
 
     /**
-     * the cache data content type key.
+     * the data key of the variant selected by the request headers named in the {@code Vary} of the response.
      *
      * @param exchange the exchange
-     * @return the content type key
+     * @param baseKey the data key built by the key template
+     * @param varyNames the comma separated header names, the base key is the variant when it is blank
+     * @return the variant data key
+     */
+    public static String variantKey(final ServerWebExchange exchange, final String baseKey, final String varyNames) {
+        if (StringUtils.isBlank(varyNames)) {
+            return baseKey;
+        }
+        final ServerHttpRequest request = exchange.getRequest();
+        final StringBuilder key = new StringBuilder(baseKey);
+        for (String name : StringUtils.split(varyNames, ',')) {
+            key.append(':').append(StringUtils.defaultString(request.getHeaders().getFirst(name.trim())));
+        }
+        return CacheKeyBuilder.hash(key.toString());
+    }
+
+    /**
+     * the seconds to cache the response by its {@code Cache-Control} and {@code Expires}.
+     * {@code s-maxage} is preferred to {@code max-age}, then {@code Expires}, then the timeout of the rule.
+     *
+     * @param status the response status, null is 200
+     * @param headers the response headers
+     * @param defaultSeconds the timeout seconds of the rule
+     * @return the seconds, negative when the response must not be cached
+     */
+    public static long cacheSeconds(final HttpStatus status, final HttpHeaders headers, final long defaultSeconds) {
+        if (Objects.nonNull(status) && status != HttpStatus.OK) {
+            return -1;
+        }
+        if (headers.containsKey(HttpHeaders.SET_COOKIE) || "*".equals(StringUtils.trim(headers.getFirst(HttpHeaders.VARY)))) {
+            return -1;
+        }
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        final String cacheControl = headers.getCacheControl();
+        if (StringUtils.isNotBlank(cacheControl)) {
+            for (String directive : StringUtils.split(cacheControl.toLowerCase(Locale.ROOT), ',')) {
+                final String name = StringUtils.substringBefore(directive, "=").trim();
+                switch (name) {
+                    case "no-store":
+                    case "no-cache":
+                    case "private":
+                        return -1;
+                    case "max-age":
+                        maxAge = parseSeconds(directive);
+                        break;
+                    case "s-maxage":
+                        sharedMaxAge = parseSeconds(directive);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (sharedMaxAge >= 0) {
+            return sharedMaxAge > 0 ? sharedMaxAge : -1;
+        }
+        if (maxAge >= 0) {
+            return maxAge > 0 ? maxAge : -1;
+        }
+        if (headers.containsKey(HttpHeaders.EXPIRES)) {
+            final long expires = headers.getExpires();
+            final long seconds = TimeUnit.MILLISECONDS.toSeconds(expires - System.currentTimeMillis());
+            return expires > 0 && seconds > 0 ? seconds : -1;
+        }
+        return defaultSeconds;
+    }
+
+    /**
+     * generate the strong entity tag of the data.
+     *
+     * @param data the data
+     * @return the entity tag
      */
-    public static String contentTypeKey(final ServerWebExchange exchange) {
-        return String.join(KEY_JOIN_RULE, dataKey(exchange), CONTENT_TYPEKEY_SUFFIX);
+    public static String etag(final ByteBuffer data) {
+        return "\"" + Hashing.murmur3_128().hashBytes(data.duplicate()) + "\"";
+    }
+
+    /**
+     * whether the {@code If-None-Match} of the request matches the entity tag by the weak comparison.
+     *
+     * @param ifNoneMatch the if none match header
+     * @param etag the entity tag
+     * @return match or not
+     */
+    public static boolean etagMatches(final String ifNoneMatch, final String etag) {
+        if (StringUtils.isBlank(ifNoneMatch) || StringUtils.isBlank(etag)) {
+            return false;
+        }
+        final String opaque = StringUtils.removeStart(etag.trim(), WEAK_PREFIX);
+        for (String candidate : StringUtils.split(ifNoneMatch, ',')) {
+            final String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || opaque.equals(StringUtils.removeStart(trimmed, WEAK_PREFIX))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -66,4 +163,13 @@ public final class CacheUtils {
     public static ICache getCache() {
         return Singleton.INST.get(ICache.class);
     }
+
+    private static long parseSeconds(final String directive) {
+        final String value = StringUtils.remove(StringUtils.substringAfter(directive, "=").trim(), '"');
+        try {
+            return Math.max(0, Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 }
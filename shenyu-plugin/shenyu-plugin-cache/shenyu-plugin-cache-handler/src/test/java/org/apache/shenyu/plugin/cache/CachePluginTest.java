@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.cache;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.apache.shenyu.common.dto.RuleData;
+import org.apache.shenyu.common.dto.convert.rule.impl.CacheRuleHandle;
+import org.apache.shenyu.common.utils.Singleton;
+import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.base.utils.CacheKeyUtils;
+import org.apache.shenyu.plugin.cache.config.CacheConfig;
+import org.apache.shenyu.plugin.cache.handler.CachePluginDataHandler;
+import org.apache.shenyu.plugin.cache.memory.MemoryCache;
+import org.apache.shenyu.plugin.cache.utils.CacheUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * CachePluginTest.
+ */
+public final class CachePluginTest {
+
+    private MemoryCache cache;
+
+    private MockServerWebExchange exchange;
+
+    private RuleData rule;
+
+    private CacheRuleHandle cacheRuleHandle;
+
+    private String dataKey;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new MemoryCache();
+        Singleton.INST.single(ICache.class, cache);
+        exchange = newExchange();
+        dataKey = CacheUtils.dataKey(exchange, null);
+        rule = new RuleData();
+        rule.setSelectorId("cache");
+        rule.setName("cache");
+        cacheRuleHandle = new CacheRuleHandle();
+        cacheRuleHandle.setTimeoutSeconds(10L);
+        CachePluginDataHandler.CACHED_HANDLE.get().cachedHandle(CacheKeyUtils.INST.getKey(rule), cacheRuleHandle);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.close();
+        Singleton.INST.single(CacheConfig.class, new CacheConfig());
+    }
+
+    @Test
+    public void testCacheWholeBody() {
+        StepVerifier.create(newResponse().writeWith(chunks("{\"a\":", "\"b\"", "}"))).verifyComplete();
+        final CachedResponse cached = CachedResponse.decode(cache.getBuffer(dataKey));
+        assertEquals("{\"a\":\"b\"}", body(cached));
+        assertEquals(MediaType.APPLICATION_JSON, cached.getContentType());
+    }
+
+    @Test
+    public void testSkipLargeBody() {
+        final CacheConfig cacheConfig = new CacheConfig();
+        cacheConfig.setMaxResponseBytes(4L);
+        Singleton.INST.single(CacheConfig.class, cacheConfig);
+        StepVerifier.create(newResponse().writeWith(chunks("abc", "def"))).verifyComplete();
+        assertFalse(cache.isExist(dataKey));
+    }
+
+    @Test
+    public void testSkipFailedBody() {
+        final Flux<DataBuffer> body = chunks("abc").concatWith(Flux.error(new IllegalStateException("broken")));
+        StepVerifier.create(newResponse().writeWith(body)).verifyError(IllegalStateException.class);
+        assertFalse(cache.isExist(dataKey));
+    }
+
+    @Test
+    public void testReleaseWhileAppending() {
+        final List<NettyDataBuffer> allocated = new ArrayList<>();
+        final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT) {
+            @Override
+            public NettyDataBuffer allocateBuffer(final int initialCapacity) {
+                final NettyDataBuffer buffer = super.allocateBuffer(initialCapacity);
+                allocated.add(buffer);
+                return buffer;
+            }
+        };
+        final CachePlugin.BodyCapture capture = new CachePlugin.BodyCapture(bufferFactory, -1, 1024);
+        final DataBuffer chunk = spy(new DefaultDataBufferFactory().wrap("abc".getBytes(StandardCharsets.UTF_8)));
+        // the cancel arrives while the chunk is being copied
+        doAnswer(invocation -> {
+            capture.release();
+            return invocation.callRealMethod();
+        }).when(chunk).slice(anyInt(), anyInt());
+        capture.append(chunk);
+        assertEquals(1, allocated.size());
+        assertEquals(0, allocated.get(0).getNativeBuffer().refCnt());
+        final AtomicInteger committed = new AtomicInteger();
+        capture.append(chunks("def").blockFirst());
+        capture.commit(data -> committed.incrementAndGet());
+        assertEquals(1, allocated.size());
+        assertEquals(0, committed.get());
+    }
+
+    @Test
+    public void testReleaseWhileCommitting() {
+        final CachePlugin.BodyCapture capture = new CachePlugin.BodyCapture(new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT), -1, 1024);
+        capture.append(chunks("abc").blockFirst());
+        final AtomicInteger committed = new AtomicInteger();
+        capture.commit(data -> {
+            capture.release();
+            // the buffer is still readable until the commit returns
+            assertEquals("abc", StandardCharsets.UTF_8.decode(data).toString());
+            committed.incrementAndGet();
+        });
+        assertEquals(1, committed.get());
+        capture.release();
+    }
+
+    @Test
+    public void testCancelReleasesCapture() {
+        StepVerifier.create(newResponse().writeWith(chunks("abc").concatWith(Flux.never())))
+                .thenAwait(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+        assertFalse(cache.isExist(dataKey));
+    }
+
+    @Test
+    public void testServeFromCache() {
+        cache.cacheData(dataKey, entry("cached", 0), 10);
+        StepVerifier.create(new CachePlugin().doExecute(exchange, null, null, rule)).verifyComplete();
+        assertEquals(6, exchange.getResponse().getHeaders().getContentLength());
+        StepVerifier.create(exchange.getResponse().getBodyAsString()).expectNext("cached").verifyComplete();
+    }
+
+    @Test
+    public void testSingleFlight() {
+        cacheRuleHandle.setSingleFlight(true);
+        final AtomicInteger calls = new AtomicInteger();
+        final ShenyuPluginChain chain = newChain(calls, "fetched");
+        final CachePlugin cachePlugin = new CachePlugin();
+        final MockServerWebExchange follower = newExchange();
+        StepVerifier.create(Mono.when(cachePlugin.doExecute(exchange, chain, null, rule), cachePlugin.doExecute(follower, chain, null, rule)))
+                .verifyComplete();
+        assertEquals(1, calls.get());
+        StepVerifier.create(follower.getResponse().getBodyAsString()).expectNext("fetched").verifyComplete();
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        cacheRuleHandle.setStaleSeconds(60L);
+        // the data without the fresh mark is stale
+        cache.cacheData(dataKey, entry("stale", System.currentTimeMillis() - 1), 60);
+        final AtomicInteger calls = new AtomicInteger();
+        final ShenyuPluginChain chain = newChain(calls, "fresh");
+        final CachePlugin cachePlugin = new CachePlugin();
+        final MockServerWebExchange other = newExchange();
+        StepVerifier.create(Mono.when(cachePlugin.doExecute(exchange, chain, null, rule), cachePlugin.doExecute(other, chain, null, rule)))
+                .verifyComplete();
+        assertEquals(1, calls.get());
+        StepVerifier.create(other.getResponse().getBodyAsString()).expectNext("stale").verifyComplete();
+        final CachedResponse refreshed = CachedResponse.decode(cache.getBuffer(dataKey));
+        assertEquals("fresh", body(refreshed));
+        assertFalse(refreshed.isStale(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void testKeyTemplate() {
+        final String template = "{method}:{host}{path}?{query}:{header.X-Tenant}";
+        final String sorted = CacheUtils.dataKey(MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/cache?b=2&a=1")
+                .header("X-Tenant", "t1").build()), template);
+        final String reordered = CacheUtils.dataKey(MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/cache?a=1&b=2")
+                .header("X-Tenant", "t1").build()), template);
+        final String tenant = CacheUtils.dataKey(MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/cache?a=1&b=2")
+                .header("X-Tenant", "t2").build()), template);
+        final String head = CacheUtils.dataKey(MockServerWebExchange.from(MockServerHttpRequest.head("http://localhost/cache?a=1&b=2")
+                .header("X-Tenant", "t1").build()), template);
+        assertEquals(sorted, reordered);
+        assertNotEquals(sorted, tenant);
+        assertNotEquals(sorted, head);
+        assertEquals(32, sorted.length());
+    }
+
+    @Test
+    public void testCacheControl() {
+        exchange.getResponse().getHeaders().setCacheControl("no-store");
+        StepVerifier.create(newResponse().writeWith(chunks("abc"))).verifyComplete();
+        assertFalse(cache.isExist(dataKey));
+        exchange = newExchange();
+        exchange.getResponse().getHeaders().setCacheControl("public, max-age=0");
+        StepVerifier.create(newResponse().writeWith(chunks("abc"))).verifyComplete();
+        assertFalse(cache.isExist(dataKey));
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60, s-maxage=30");
+        assertEquals(30, CacheUtils.cacheSeconds(HttpStatus.OK, headers, 10));
+        headers.setCacheControl("max-age=60");
+        assertEquals(60, CacheUtils.cacheSeconds(null, headers, 10));
+        assertEquals(-1, CacheUtils.cacheSeconds(HttpStatus.NOT_FOUND, new HttpHeaders(), 10));
+        headers.remove(HttpHeaders.CACHE_CONTROL);
+        headers.setExpires(System.currentTimeMillis() + 120_000);
+        assertTrue(CacheUtils.cacheSeconds(HttpStatus.OK, headers, 10) > 100);
+    }
+
+    @Test
+    public void testNotModified() {
+        StepVerifier.create(newResponse().writeWith(chunks("cached"))).verifyComplete();
+        final String etag = CachedResponse.decode(cache.getBuffer(dataKey)).getEtag();
+        final MockServerWebExchange conditional = MockServerWebExchange.from(MockServerHttpRequest.get("localhost/http/cache")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag).build());
+        StepVerifier.create(new CachePlugin().doExecute(conditional, null, null, rule)).verifyComplete();
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(etag, conditional.getResponse().getHeaders().getETag());
+        StepVerifier.create(conditional.getResponse().getBodyAsString()).expectNext("").verifyComplete();
+        final MockServerWebExchange unconditional = newExchange();
+        StepVerifier.create(new CachePlugin().doExecute(unconditional, null, null, rule)).verifyComplete();
+        StepVerifier.create(unconditional.getResponse().getBodyAsString()).expectNext("cached").verifyComplete();
+    }
+
+    @Test
+    public void testVary() {
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost/http/cache").header(HttpHeaders.ACCEPT_ENCODING, "gzip").build());
+        exchange.getResponse().getHeaders().setVary(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING));
+        StepVerifier.create(newResponse().writeWith(chunks("gzip"))).verifyComplete();
+        final MockServerWebExchange gzip = MockServerWebExchange.from(MockServerHttpRequest.get("localhost/http/cache")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip").build());
+        StepVerifier.create(new CachePlugin().doExecute(gzip, null, null, rule)).verifyComplete();
+        StepVerifier.create(gzip.getResponse().getBodyAsString()).expectNext("gzip").verifyComplete();
+        final AtomicInteger calls = new AtomicInteger();
+        final MockServerWebExchange identity = newExchange();
+        StepVerifier.create(new CachePlugin().doExecute(identity, newChain(calls, "identity"), null, rule)).verifyComplete();
+        assertEquals(1, calls.get());
+    }
+
+    private ShenyuPluginChain newChain(final AtomicInteger calls, final String body) {
+        return chainExchange -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).then(chainExchange.getResponse().writeWith(chunks(body)));
+        };
+    }
+
+    private MockServerWebExchange newExchange() {
+        final MockServerWebExchange mockExchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost/http/cache").build());
+        mockExchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return mockExchange;
+    }
+
+    private CachePlugin.CacheHttpResponse newResponse() {
+        return new CachePlugin.CacheHttpResponse(exchange, cacheRuleHandle, dataKey);
+    }
+
+    private ByteBuffer entry(final String body, final long freshUntil) {
+        return CachedResponse.entry(MediaType.APPLICATION_JSON, null, freshUntil, ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String body(final CachedResponse cached) {
+        return StandardCharsets.UTF_8.decode(cached.getBody()).toString();
+    }
+
+    private Flux<DataBuffer> chunks(final String... chunks) {
+        return Flux.fromArray(chunks).map(chunk -> new DefaultDataBufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/*
+ * This file is derived from the FrequencySketch of Caffeine, https://github.com/ben-manes/caffeine,
+ * with the modifications of the table sizing and the key hashing.
+ *
+ * Copyright 2015 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0.
+ */
+
+package org.apache.shenyu.plugin.cache.memory;
+
+/**
+ * The count-min sketch of the access frequency, four 4-bit counters of every key are spread in the table
+ * and all the counters are halved after a sample period, so the old popularity fades away.
+ * It follows the frequency sketch of Caffeine.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private final long[] table;
+
+    private final int tableMask;
+
+    private final int sampleSize;
+
+    private int size;
+
+    /**
+     * Instantiates a new frequency sketch.
+     *
+     * @param expectedEntries the expected entries of the cache
+     */
+    FrequencySketch(final int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(expectedEntries, 16) - 1) << 1;
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    /**
+     * Increment the frequency of the key, the counters stop at 15.
+     *
+     * @param hashCode the hash code of the key
+     */
+    void increment(final int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Get the estimated frequency of the key.
+     *
+     * @param hashCode the hash code of the key
+     * @return the frequency, at most 15
+     */
+    int frequency(final int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int count = (int) ((table[indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    private boolean incrementAt(final int index, final int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private int indexOf(final int hash, final int seedIndex) {
+        long index = (hash + SEEDS[seedIndex]) * SEEDS[seedIndex];
+        index += index >>> 32;
+        return (int) index & tableMask;
+    }
+
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (odd >>> 2)) >>> 1;
+    }
+
+    private static int spread(final int hashCode) {
+        int hash = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -17,28 +17,123 @@
 
 package org.apache.shenyu.plugin.cache.memory;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
 import org.apache.shenyu.plugin.cache.ICache;
 
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.NavigableSet;
 import java.util.Objects;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * MemoryCache.
+ *
+ * <p>A single cache bounded by the bytes of the entries with the W-TinyLFU policy: a new entry stays in
+ * a small LRU window, then it has to beat the LRU victim of the main space by the access frequency of
+ * {@link FrequencySketch} to be admitted, and the entries read again in the probation segment are
+ * promoted to the protected segment. The reads are lock free, they are recorded into a lossy buffer
+ * and replayed under the lock with the writes. Every entry expires with its own time, the expired
+ * entries are also removed in background, not only when they are read. The cache takes the buffers
+ * of the callers without a copy, the callers copy the data once into heap buffers, the direct memory
+ * is not used since it is only freed by the cleaner after a gc, which fails the puts with the max
+ * direct memory under a high churn of entries.
  */
 public final class MemoryCache implements ICache {
 
-    private final Map<String, Cache<String, byte[]>> mainCache;
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private static final int DRAIN_READS_MASK = 31;
+
+    /**
+     * the estimated bytes of the key, node and map entry besides the data.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * the sketch is sized by an estimated average entry of 8KB.
+     */
+    private static final int ESTIMATED_ENTRY_SHIFT = 13;
+
+    private static final int WINDOW = 0;
+
+    private static final int PROBATION = 1;
+
+    private static final int PROTECTED = 2;
+
+    private static final Comparator<Node> EXPIRY_ORDER = Comparator.<Node>comparingLong(node -> node.expireAt).thenComparingLong(node -> node.id);
+
+    private final ConcurrentMap<String, Node> data = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicReferenceArray<Node> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+    private final AtomicLong reads = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final NodeDeque window = new NodeDeque();
+
+    private final NodeDeque probation = new NodeDeque();
+
+    private final NodeDeque protectedSegment = new NodeDeque();
+
+    private final NavigableSet<Node> expiryOrder = new TreeSet<>(EXPIRY_ORDER);
+
+    private final FrequencySketch sketch;
+
+    private final long maximumWeight;
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    private final ScheduledExecutorService expiryExecutor;
+
+    private long weight;
+
+    private long windowWeight;
+
+    private long protectedWeight;
+
+    private long nodeId;
 
     public MemoryCache() {
-        this.mainCache = new ConcurrentHashMap<>();
+        this(new MemoryConfigProperties().getMaxBytes());
+    }
+
+    /**
+     * Instantiates a new memory cache.
+     *
+     * @param maxBytes the max bytes of the cached data
+     */
+    public MemoryCache(final long maxBytes) {
+        this.maximumWeight = maxBytes;
+        this.windowMaximum = Math.max(1, maxBytes / 100);
+        this.protectedMaximum = (maxBytes - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch((int) Math.min(maxBytes >>> ESTIMATED_ENTRY_SHIFT, 1 << 20));
+        this.expiryExecutor = Executors.newSingleThreadScheduledExecutor(ShenyuThreadFactory.create("memory-cache-expiry", true));
+        this.expiryExecutor.scheduleWithFixedDelay(this::cleanUp, 1, 1, TimeUnit.SECONDS);
     }
 
     /**
-     * Cache the data with the key.
+     * Cache the data with the key, the array is kept without a copy.
      *
      * @param key            the cache key
      * @param bytes          the data
@@ -47,9 +142,43 @@ public final class MemoryCache implements ICache {
      */
     @Override
     public boolean cacheData(final String key, final byte[] bytes, final long timeoutSeconds) {
-        final Cache<String, byte[]> cache = CacheBuilder.newBuilder().expireAfterWrite(timeoutSeconds, TimeUnit.SECONDS).build();
-        cache.put(key, bytes);
-        this.mainCache.put(key, cache);
+        return cacheData(key, ByteBuffer.wrap(bytes), timeoutSeconds);
+    }
+
+    /**
+     * Cache the remaining data of the buffer with the key, the buffer is kept without a copy.
+     *
+     * @param key            the cache key
+     * @param buffer         the data
+     * @param timeoutSeconds the timeout seconds
+     * @return success or not
+     */
+    @Override
+    public boolean cacheData(final String key, final ByteBuffer buffer, final long timeoutSeconds) {
+        final long weigh = (long) buffer.remaining() + key.length() * 2L + ENTRY_OVERHEAD;
+        if (timeoutSeconds <= 0 || weigh > maximumWeight) {
+            return false;
+        }
+        final Node node = new Node(key, buffer.slice().asReadOnlyBuffer(), (int) Math.min(weigh, Integer.MAX_VALUE),
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds));
+        lock.lock();
+        try {
+            drainReadBuffer();
+            node.id = ++nodeId;
+            final Node prior = data.put(key, node);
+            if (Objects.nonNull(prior)) {
+                unlink(prior);
+            }
+            sketch.increment(key.hashCode());
+            node.queue = WINDOW;
+            window.addLast(node);
+            windowWeight += node.weight;
+            weight += node.weight;
+            expiryOrder.add(node);
+            evict();
+        } finally {
+            lock.unlock();
+        }
         return true;
     }
 
@@ -61,13 +190,8 @@ public final class MemoryCache implements ICache {
      */
     @Override
     public boolean isExist(final String key) {
-        final Cache<String, byte[]> cache = this.mainCache.get(key);
-        if (Objects.isNull(cache) || !cache.asMap().containsKey(key)) {
-            // remove from main cache
-            this.mainCache.remove(key);
-            return false;
-        }
-        return true;
+        final Node node = data.get(key);
+        return Objects.nonNull(node) && Objects.nonNull(node.value) && !node.isExpired(System.nanoTime());
     }
 
     /**
@@ -78,10 +202,52 @@ public final class MemoryCache implements ICache {
      */
     @Override
     public byte[] getData(final String key) {
-        if (!isExist(key)) {
+        final ByteBuffer value = getBuffer(key);
+        if (Objects.isNull(value)) {
             return null;
         }
-        return this.mainCache.get(key).asMap().get(key);
+        final byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Get data with the key as a read-only view of the cached buffer.
+     *
+     * @param key the cache key
+     * @return the data
+     */
+    @Override
+    public ByteBuffer getBuffer(final String key) {
+        final Node node = data.get(key);
+        if (Objects.nonNull(node)) {
+            final ByteBuffer value = node.value;
+            if (Objects.nonNull(value) && !node.isExpired(System.nanoTime())) {
+                hitCount.increment();
+                afterRead(node);
+                return value.duplicate();
+            }
+        }
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * Remove the data with the key.
+     *
+     * @param key the cache key
+     */
+    public void invalidate(final String key) {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            final Node node = data.remove(key);
+            if (Objects.nonNull(node)) {
+                unlink(node);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -89,6 +255,266 @@ public final class MemoryCache implements ICache {
      */
     @Override
     public void close() {
-        this.mainCache.clear();
+        expiryExecutor.shutdownNow();
+        lock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            expiryOrder.clear();
+            weight = 0;
+            windowWeight = 0;
+            protectedWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the hit count.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get the miss count.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get the count of the entries evicted by the size, the expired entries are not counted.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Get the weighted size in bytes.
+     *
+     * @return the weighted size
+     */
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replay the reads and remove the expired entries.
+     */
+    void cleanUp() {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            expire(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void afterRead(final Node node) {
+        final long index = reads.getAndIncrement();
+        readBuffer.lazySet((int) index & READ_BUFFER_MASK, node);
+        if ((index & DRAIN_READS_MASK) == DRAIN_READS_MASK && lock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffer() {
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            final Node node = readBuffer.getAndSet(i, null);
+            if (Objects.nonNull(node) && node.alive) {
+                onAccess(node);
+            }
+        }
+    }
+
+    private void onAccess(final Node node) {
+        sketch.increment(node.key.hashCode());
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToBack(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedSegment.addLast(node);
+                protectedWeight += node.weight;
+                demoteFromProtected();
+                break;
+            default:
+                protectedSegment.moveToBack(node);
+                break;
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeight > protectedMaximum) {
+            final Node demoted = protectedSegment.peekFirst();
+            protectedSegment.remove(demoted);
+            protectedWeight -= demoted.weight;
+            demoted.queue = PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    private void evict() {
+        // the entries out of the window become the candidates of the probation
+        while (windowWeight > windowMaximum) {
+            final Node candidate = window.peekFirst();
+            window.remove(candidate);
+            windowWeight -= candidate.weight;
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+        }
+        while (weight > maximumWeight) {
+            final Node victim = probation.peekFirst();
+            final Node candidate = probation.peekLast();
+            final Node evicted;
+            if (Objects.isNull(victim)) {
+                evicted = Objects.nonNull(protectedSegment.peekFirst()) ? protectedSegment.peekFirst() : window.peekFirst();
+            } else if (victim == candidate) {
+                evicted = victim;
+            } else {
+                // the tiny lfu admission, the candidate is admitted only when it is more frequent than the victim
+                evicted = sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode()) ? victim : candidate;
+            }
+            data.remove(evicted.key, evicted);
+            unlink(evicted);
+            evictionCount.increment();
+        }
+    }
+
+    private void expire(final long now) {
+        while (!expiryOrder.isEmpty() && expiryOrder.first().isExpired(now)) {
+            final Node expired = expiryOrder.first();
+            data.remove(expired.key, expired);
+            unlink(expired);
+        }
+    }
+
+    private void unlink(final Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            default:
+                protectedSegment.remove(node);
+                protectedWeight -= node.weight;
+                break;
+        }
+        weight -= node.weight;
+        expiryOrder.remove(node);
+        node.alive = false;
+        node.value = null;
+    }
+
+    private static final class Node {
+
+        private final String key;
+
+        private final int weight;
+
+        private final long expireAt;
+
+        private volatile ByteBuffer value;
+
+        private long id;
+
+        private int queue;
+
+        private boolean alive = true;
+
+        private Node prev;
+
+        private Node next;
+
+        Node(final String key, final ByteBuffer value, final int weight, final long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(final long now) {
+            return expireAt - now <= 0;
+        }
+    }
+
+    /**
+     * the intrusive doubly linked list in the access order, the head is the least recently used.
+     */
+    private static final class NodeDeque {
+
+        private Node head;
+
+        private Node tail;
+
+        Node peekFirst() {
+            return head;
+        }
+
+        Node peekLast() {
+            return tail;
+        }
+
+        void addLast(final Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (Objects.isNull(tail)) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(final Node node) {
+            if (Objects.isNull(node.prev)) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (Objects.isNull(node.next)) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(final Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
     }
 }
@@ -17,10 +17,13 @@
 
 package org.apache.shenyu.plugin.cache.memory;
 
+import org.apache.shenyu.common.utils.GsonUtils;
 import org.apache.shenyu.plugin.cache.ICache;
 import org.apache.shenyu.plugin.cache.ICacheBuilder;
 import org.apache.shenyu.spi.Join;
 
+import java.util.Optional;
+
 /**
  * MemoryCacheBuilder.
  */
@@ -35,6 +38,10 @@ public class MemoryCacheBuilder implements ICacheBuilder {
      */
     @Override
     public ICache builderCache(final String cacheConfig) {
-        return new MemoryCache();
+        MemoryConfigProperties memoryConfigProperties = Optional.ofNullable(cacheConfig)
+                .map(config -> GsonUtils.getInstance().fromJson(config, MemoryConfigProperties.class))
+                .orElseGet(MemoryConfigProperties::new);
+        long maxBytes = Optional.ofNullable(memoryConfigProperties.getMaxBytes()).orElseGet(() -> new MemoryConfigProperties().getMaxBytes());
+        return new MemoryCache(maxBytes);
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.cache.memory;
+
+/**
+ * The memory cache config, read from the config of the cache plugin.
+ */
+public class MemoryConfigProperties {
+
+    /**
+     * the max bytes of the cached data, default 256MB.
+     */
+    private Long maxBytes = 256L * 1024 * 1024;
+
+    /**
+     * Get the max bytes.
+     *
+     * @return the max bytes
+     */
+    public Long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Set the max bytes.
+     *
+     * @param maxBytes the max bytes
+     */
+    public void setMaxBytes(final Long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+}
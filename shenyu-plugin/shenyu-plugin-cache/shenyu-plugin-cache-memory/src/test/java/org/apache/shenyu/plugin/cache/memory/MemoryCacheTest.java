@@ -17,13 +17,18 @@
 
 package org.apache.shenyu.plugin.cache.memory;
 
+import org.awaitility.Awaitility;
 import org.junit.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * MemoryCacheTest.
@@ -43,4 +48,92 @@ public class MemoryCacheTest {
         assertEquals("data", new String(data, StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void testCacheBuffer() {
+        final MemoryCache memoryCache = new MemoryCache();
+        final byte[] bytes = "--data".getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(2);
+        assertTrue(memoryCache.cacheData("data", buffer, 10));
+        assertEquals(2, buffer.position());
+        // the buffer is kept without a copy
+        bytes[2] = 'D';
+        final ByteBuffer cached = memoryCache.getBuffer("data");
+        assertTrue(cached.isReadOnly());
+        assertEquals(4, cached.remaining());
+        assertEquals('D', cached.get(0));
+        memoryCache.close();
+    }
+
+    @Test
+    public void testInvalidate() {
+        final MemoryCache memoryCache = new MemoryCache(64 * 1024);
+        memoryCache.cacheData("data", new byte[1024], 10);
+        memoryCache.invalidate("data");
+        assertFalse(memoryCache.isExist("data"));
+        assertEquals(0, memoryCache.getWeightedSize());
+        memoryCache.close();
+    }
+
+    @Test
+    public void testMaxBytes() {
+        final MemoryCache memoryCache = new MemoryCache(64 * 1024);
+        final byte[] bytes = new byte[1024];
+        for (int i = 0; i < 1000; i++) {
+            memoryCache.cacheData("key" + i, bytes, 10);
+        }
+        assertTrue(memoryCache.getWeightedSize() <= 64 * 1024);
+        assertTrue(memoryCache.getEvictionCount() > 0);
+        assertFalse(memoryCache.cacheData("large", new byte[128 * 1024], 10));
+        memoryCache.close();
+    }
+
+    @Test
+    public void testFrequentDataRetained() {
+        final MemoryCache memoryCache = new MemoryCache(64 * 1024);
+        final byte[] bytes = new byte[1024];
+        for (int i = 0; i < 10; i++) {
+            memoryCache.cacheData("hot" + i, bytes, 10);
+        }
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 10; i++) {
+                memoryCache.getData("hot" + i);
+            }
+            memoryCache.cleanUp();
+        }
+        // a scan of the data read only once does not flush the frequent data
+        for (int i = 0; i < 1000; i++) {
+            memoryCache.cacheData("scan" + i, bytes, 10);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(memoryCache.isExist("hot" + i));
+        }
+        memoryCache.close();
+    }
+
+    @Test
+    public void testExpiry() {
+        final MemoryCache memoryCache = new MemoryCache();
+        memoryCache.cacheData("expired", "data".getBytes(StandardCharsets.UTF_8), 1);
+        memoryCache.cacheData("alive", "data".getBytes(StandardCharsets.UTF_8), 60);
+        final long weightedSize = memoryCache.getWeightedSize();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> memoryCache.getWeightedSize() < weightedSize);
+        assertFalse(memoryCache.isExist("expired"));
+        assertTrue(memoryCache.isExist("alive"));
+        assertEquals(0, memoryCache.getEvictionCount());
+        memoryCache.close();
+    }
+
+    @Test
+    public void testStats() {
+        final MemoryCache memoryCache = new MemoryCache();
+        memoryCache.cacheData("data", "data".getBytes(StandardCharsets.UTF_8), 10);
+        memoryCache.getData("data");
+        memoryCache.getData("data");
+        memoryCache.getData("none");
+        assertEquals(2, memoryCache.getHitCount());
+        assertEquals(1, memoryCache.getMissCount());
+        memoryCache.close();
+    }
+
 }
@@ -71,6 +71,14 @@ public final class RedisCache implements ICache {
         return this.redisTemplate.opsForValue().get(key).block();
     }
 
+    /**
+     * Get the redis template.
+     * @return the redis template
+     */
+    ReactiveRedisTemplate<String, byte[]> getRedisTemplate() {
+        return redisTemplate;
+    }
+
     /**
      * close the redis cache.
      */
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.cache.redis;
+
+import org.apache.shenyu.plugin.cache.ICache;
+import org.apache.shenyu.plugin.cache.memory.MemoryCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * TieredCache.
+ *
+ * <p>The near {@link MemoryCache} in front of the {@link RedisCache}, the hot keys are served by the near cache
+ * without a round trip. A write goes to both tiers, then the key is published to the invalidation channel and
+ * the other gateway nodes drop it from their near caches, so they read the new data from redis. The data stays
+ * in the near cache at most the near timeout seconds, which bounds the staleness when a message is lost, and
+ * the data read from redis never outlives its time to live in redis.
+ */
+public final class TieredCache implements ICache {
+
+    /**
+     * the channel of the invalidated keys.
+     */
+    static final String INVALIDATION_CHANNEL = "shenyu:cache:invalidation";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TieredCache.class);
+
+    private static final char SEPARATOR = ' ';
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final MemoryCache nearCache;
+
+    private final RedisCache redisCache;
+
+    private final long nearTimeoutSeconds;
+
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+
+    private final Disposable subscription;
+
+    public TieredCache(final TieredConfigProperties tieredConfigProperties) {
+        final TieredConfigProperties defaultProperties = new TieredConfigProperties();
+        this.nearCache = new MemoryCache(Optional.ofNullable(tieredConfigProperties.getMaxBytes()).orElseGet(defaultProperties::getMaxBytes));
+        this.nearTimeoutSeconds = Optional.ofNullable(tieredConfigProperties.getNearTimeoutSeconds()).orElseGet(defaultProperties::getNearTimeoutSeconds);
+        this.redisCache = new RedisCache(tieredConfigProperties);
+        this.listenerContainer = new ReactiveRedisMessageListenerContainer(redisCache.getRedisTemplate().getConnectionFactory());
+        this.subscription = listenerContainer.receive(ChannelTopic.of(INVALIDATION_CHANNEL))
+                .subscribe(message -> onInvalidation(message.getMessage()),
+                    throwable -> LOG.error("the near cache invalidation is stopped", throwable));
+    }
+
+    /**
+     * Cache the data with the key.
+     * @param key the cache key
+     * @param bytes the data
+     * @param timeoutSeconds value valid time
+     * @return success or not
+     */
+    @Override
+    public boolean cacheData(final String key, final byte[] bytes, final long timeoutSeconds) {
+        return cacheData(key, ByteBuffer.wrap(bytes), timeoutSeconds);
+    }
+
+    /**
+     * Cache the data with the key, the other nodes are notified after redis is written.
+     * @param key the cache key
+     * @param data the data
+     * @param timeoutSeconds value valid time
+     * @return success or not
+     */
+    @Override
+    public boolean cacheData(final String key, final ByteBuffer data, final long timeoutSeconds) {
+        nearCache.cacheData(key, data, Math.min(timeoutSeconds, nearTimeoutSeconds));
+        final byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        final ReactiveRedisTemplate<String, byte[]> redisTemplate = redisCache.getRedisTemplate();
+        final byte[] message = (nodeId + SEPARATOR + key).getBytes(StandardCharsets.UTF_8);
+        redisTemplate.opsForValue().set(key, bytes, Duration.ofSeconds(timeoutSeconds))
+                .then(redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message))
+                .subscribe(null, throwable -> LOG.error("cache the data of {} failed", key, throwable));
+        return true;
+    }
+
+    /**
+     * Check the cache is existed or not.
+     * @param key the cache key
+     * @return true exist
+     */
+    @Override
+    public boolean isExist(final String key) {
+        return nearCache.isExist(key) || redisCache.isExist(key);
+    }
+
+    /**
+     * Get data with the key.
+     * @param key the cache key
+     * @return the data
+     */
+    @Override
+    public byte[] getData(final String key) {
+        final byte[] near = nearCache.getData(key);
+        if (Objects.nonNull(near)) {
+            return near;
+        }
+        return readThrough(key);
+    }
+
+    /**
+     * Get data with the key, the near data is a view without a copy.
+     * @param key the cache key
+     * @return the data
+     */
+    @Override
+    public ByteBuffer getBuffer(final String key) {
+        final ByteBuffer near = nearCache.getBuffer(key);
+        if (Objects.nonNull(near)) {
+            return near;
+        }
+        final byte[] data = readThrough(key);
+        return Objects.isNull(data) ? null : ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the near cache.
+     * @return the near cache
+     */
+    MemoryCache getNearCache() {
+        return nearCache;
+    }
+
+    /**
+     * close the tiered cache.
+     */
+    @Override
+    public void close() {
+        subscription.dispose();
+        listenerContainer.destroy();
+        nearCache.close();
+        redisCache.close();
+    }
+
+    /**
+     * read the data with its time to live from redis, the near cache keeps it no longer than redis does.
+     */
+    private byte[] readThrough(final String key) {
+        final ReactiveRedisTemplate<String, byte[]> redisTemplate = redisCache.getRedisTemplate();
+        // both commands are sent at once on the shared connection
+        final Tuple2<byte[], Duration> data = Mono.zip(redisTemplate.opsForValue().get(key), redisTemplate.getExpire(key)).block();
+        if (Objects.isNull(data)) {
+            return null;
+        }
+        // the zero duration is a key without the time to live
+        final Duration ttl = data.getT2();
+        final long timeoutSeconds = ttl.isZero() ? nearTimeoutSeconds : Math.min(nearTimeoutSeconds, ttl.getSeconds());
+        if (timeoutSeconds > 0) {
+            nearCache.cacheData(key, data.getT1(), timeoutSeconds);
+        }
+        return data.getT1();
+    }
+
+    private void onInvalidation(final String message) {
+        final int index = message.indexOf(SEPARATOR);
+        // the node has written its own near cache
+        if (index > 0 && !(index == nodeId.length() && message.startsWith(nodeId))) {
+            nearCache.invalidate(message.substring(index + 1));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.cache.redis;
+
+/**
+ * The configuration for the tiered cache, the redis configuration with the near cache in front of it.
+ */
+public class TieredConfigProperties extends RedisConfigProperties {
+
+    /**
+     * the max bytes of the near cache, default is 64MB.
+     */
+    private Long maxBytes = 64L * 1024 * 1024;
+
+    /**
+     * the max seconds of the data in the near cache, which bounds the staleness when an invalidation is lost.
+     */
+    private Long nearTimeoutSeconds = 10L;
+
+    /**
+     * Gets the max bytes.
+     *
+     * @return the max bytes
+     */
+    public Long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Sets the max bytes.
+     *
+     * @param maxBytes the max bytes
+     */
+    public void setMaxBytes(final Long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the near timeout seconds.
+     *
+     * @return the near timeout seconds
+     */
+    public Long getNearTimeoutSeconds() {
+        return nearTimeoutSeconds;
+    }
+
+    /**
+     * Sets the near timeout seconds.
+     *
+     * @param nearTimeoutSeconds the near timeout seconds
+     */
+    public void setNearTimeoutSeconds(final Long nearTimeoutSeconds) {
+        this.nearTimeoutSeconds = nearTimeoutSeconds;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.cache.redis;
+
+import org.apache.shenyu.common.enums.RedisModeEnum;
+import org.apache.shenyu.common.utils.GsonUtils;
+import org.apache.shenyu.plugin.cache.ICache;
+import org.apache.shenyu.plugin.cache.ICacheBuilder;
+import org.apache.shenyu.spi.ExtensionLoader;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import redis.embedded.RedisServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TieredCacheTest.
+ */
+public final class TieredCacheTest {
+
+    private static RedisServer redisServer;
+
+    @BeforeAll
+    public static void startup() {
+        redisServer = RedisServer.builder()
+                .port(63794)
+                .setting("maxmemory 64m")
+                .build();
+        redisServer.start();
+    }
+
+    @AfterAll
+    public static void end() {
+        redisServer.stop();
+    }
+
+    @Test
+    public void testReadThrough() {
+        final String testKey = "testReadThrough";
+        final TieredCache writer = new TieredCache(getConfig());
+        final TieredCache reader = new TieredCache(getConfig());
+        try {
+            assertFalse(reader.isExist(testKey));
+            writer.cacheData(testKey, bytes("value"), 100);
+            assertTrue(writer.getNearCache().isExist(testKey));
+            await().atMost(5, TimeUnit.SECONDS).until(() -> reader.isExist(testKey));
+            assertEquals("value", new String(reader.getData(testKey), StandardCharsets.UTF_8));
+            // the next read is served by the near cache
+            assertTrue(reader.getNearCache().isExist(testKey));
+            final long hits = reader.getNearCache().getHitCount();
+            assertEquals("value", StandardCharsets.UTF_8.decode(reader.getBuffer(testKey)).toString());
+            assertEquals(hits + 1, reader.getNearCache().getHitCount());
+        } finally {
+            writer.close();
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testInvalidation() {
+        final String testKey = "testInvalidation";
+        final TieredCache writer = new TieredCache(getConfig());
+        final TieredCache reader = new TieredCache(getConfig());
+        try {
+            writer.cacheData(testKey, bytes("old"), 100);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> reader.isExist(testKey));
+            assertEquals("old", new String(reader.getData(testKey), StandardCharsets.UTF_8));
+            // the subscription of the reader is established in background, so the write is repeated until it is received
+            await().atMost(5, TimeUnit.SECONDS).pollInterval(100, TimeUnit.MILLISECONDS).until(() -> {
+                writer.cacheData(testKey, bytes("new"), 100);
+                return "new".equals(new String(reader.getData(testKey), StandardCharsets.UTF_8));
+            });
+        } finally {
+            writer.close();
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testNearTimeoutCappedByRedis() {
+        final String testKey = "testNearTimeoutCappedByRedis";
+        final TieredConfigProperties config = getConfig();
+        config.setNearTimeoutSeconds(100L);
+        final TieredCache writer = new TieredCache(config);
+        final TieredCache reader = new TieredCache(config);
+        try {
+            writer.cacheData(testKey, bytes("value"), 2);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> Objects.nonNull(reader.getData(testKey)));
+            assertTrue(reader.getNearCache().isExist(testKey));
+            // the near data expires with the data in redis, not after the near timeout
+            await().atMost(5, TimeUnit.SECONDS).until(() -> Objects.isNull(reader.getData(testKey)));
+            assertFalse(reader.getNearCache().isExist(testKey));
+        } finally {
+            writer.close();
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testLoadTieredCache() {
+        final ICacheBuilder cacheBuilder = ExtensionLoader.getExtensionLoader(ICacheBuilder.class).getJoin("tiered");
+        final ICache cache = cacheBuilder.builderCache(GsonUtils.getInstance().toJson(getConfig()));
+        try {
+            assertTrue(cache instanceof TieredCache);
+            final String testKey = "testLoadTieredCache";
+            cache.cacheData(testKey, bytes(testKey), 100);
+            assertEquals(testKey, new String(cache.getData(testKey), StandardCharsets.UTF_8));
+        } finally {
+            cache.close();
+        }
+    }
+
+    private byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private TieredConfigProperties getConfig() {
+        TieredConfigProperties config = new TieredConfigProperties();
+        config.setMode(RedisModeEnum.STANDALONE.getName());
+        config.setUrl("127.0.0.1:63794");
+        config.setMaxBytes(1024L * 1024);
+        return config;
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.shenyu.plugin.cache;
 
 import org.springframework.http.MediaType;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
@@ -36,6 +37,20 @@ public interface ICache {
      */
     boolean cacheData(String key, byte[] bytes, long timeoutSeconds);
 
+    /**
+     * Cache the remaining data of the buffer with the key, the position of the buffer is not changed.
+     * The cache may keep the buffer without a copy, so its content must not be changed after it is cached.
+     * @param key the cache key
+     * @param data the data
+     * @param timeoutSeconds value valid time
+     * @return success or not
+     */
+    default boolean cacheData(final String key, final ByteBuffer data, final long timeoutSeconds) {
+        final byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return cacheData(key, bytes, timeoutSeconds);
+    }
+
     /**
      * Check the cache is existed or not.
      * @param key the cache key
@@ -50,6 +65,16 @@ public interface ICache {
      */
     byte[] getData(String key);
 
+    /**
+     * Get data with the key as a read-only buffer, the cache may return its own memory without a copy.
+     * @param key the cache key
+     * @return the data
+     */
+    default ByteBuffer getBuffer(final String key) {
+        final byte[] data = getData(key);
+        return Objects.isNull(data) ? null : ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
     /**
      * cache the content type.
      * @param key the key
@@ -18,9 +18,11 @@
 package org.apache.shenyu.plugin.divide;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.dto.RuleData;
 import org.apache.shenyu.common.dto.SelectorData;
+import org.apache.shenyu.common.dto.convert.rule.UpstreamPoolConfig;
 import org.apache.shenyu.common.dto.convert.rule.impl.DivideRuleHandle;
 import org.apache.shenyu.common.enums.PluginEnum;
 import org.apache.shenyu.common.enums.RpcTypeEnum;
@@ -28,7 +30,9 @@ import org.apache.shenyu.loadbalancer.cache.UpstreamCacheManager;
 import org.apache.shenyu.loadbalancer.entity.Upstream;
 import org.apache.shenyu.loadbalancer.factory.LoadBalancerFactory;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.apache.shenyu.plugin.api.result.ShenyuResultEnum;
 import org.apache.shenyu.plugin.api.result.ShenyuResultWrap;
 import org.apache.shenyu.plugin.api.utils.WebFluxResultUtils;
@@ -87,14 +91,24 @@ public class DividePlugin extends AbstractShenyuPlugin {
         }
         // set the http url
         String domain = upstream.buildDomain();
-        exchange.getAttributes().put(Constants.HTTP_DOMAIN, domain);
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.HTTP_DOMAIN, domain);
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.UPSTREAM, upstream);
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.UPSTREAM_SELECTOR_ID, selector.getId());
         // set the http timeout
-        exchange.getAttributes().put(Constants.HTTP_TIME_OUT, ruleHandle.getTimeout());
-        exchange.getAttributes().put(Constants.HTTP_RETRY, ruleHandle.getRetry());
+        ShenyuExchangeAttributes.putTimeout(exchange, ruleHandle.getTimeout());
+        ShenyuExchangeAttributes.putRetry(exchange, ruleHandle.getRetry());
         // set retry strategy stuff
-        exchange.getAttributes().put(Constants.RETRY_STRATEGY, ruleHandle.getRetryStrategy());
-        exchange.getAttributes().put(Constants.LOAD_BALANCE, ruleHandle.getLoadBalance());
-        exchange.getAttributes().put(Constants.DIVIDE_SELECTOR_ID, selector.getId());
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.RETRY_STRATEGY, ruleHandle.getRetryStrategy());
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.LOAD_BALANCE, ruleHandle.getLoadBalance());
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.DIVIDE_SELECTOR_ID, selector.getId());
+        // isolate the upstreams of the selector in a dedicated connection pool
+        UpstreamPoolConfig poolConfig = ruleHandle.getPoolConfig();
+        if (Objects.nonNull(poolConfig)) {
+            ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.UPSTREAM_POOL, poolConfig);
+        }
+        if (StringUtils.isNotBlank(ruleHandle.getHttpProtocol())) {
+            ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.HTTP_PROTOCOL, ruleHandle.getHttpProtocol());
+        }
         return chain.execute(exchange);
     }
 
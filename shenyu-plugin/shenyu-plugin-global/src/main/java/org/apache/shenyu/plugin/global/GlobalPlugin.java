@@ -17,12 +17,13 @@
 
 package org.apache.shenyu.plugin.global;
 
-import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.enums.PluginEnum;
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
 import org.apache.shenyu.plugin.api.context.ShenyuContextBuilder;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
@@ -45,7 +46,7 @@ public class GlobalPlugin implements ShenyuPlugin {
     @Override
     public Mono<Void> execute(final ServerWebExchange exchange, final ShenyuPluginChain chain) {
         ShenyuContext shenyuContext = builder.build(exchange);
-        exchange.getAttributes().put(Constants.CONTEXT, shenyuContext);
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.CONTEXT, shenyuContext);
         return chain.execute(exchange);
     }
     
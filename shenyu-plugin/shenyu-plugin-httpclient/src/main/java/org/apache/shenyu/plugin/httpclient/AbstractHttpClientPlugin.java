@@ -21,15 +21,17 @@ import com.google.common.collect.Sets;
 import io.netty.channel.ConnectTimeoutException;
 import io.netty.handler.timeout.ReadTimeoutException;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.enums.RetryEnum;
 import org.apache.shenyu.common.exception.ShenyuException;
 import org.apache.shenyu.loadbalancer.cache.UpstreamCacheManager;
 import org.apache.shenyu.loadbalancer.entity.Upstream;
+import org.apache.shenyu.loadbalancer.entity.UpstreamStats;
 import org.apache.shenyu.loadbalancer.factory.LoadBalancerFactory;
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.apache.shenyu.plugin.api.result.ShenyuResultEnum;
 import org.apache.shenyu.plugin.api.result.ShenyuResultWrap;
 import org.apache.shenyu.plugin.api.utils.RequestUrlUtils;
@@ -43,6 +45,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import reactor.retry.Backoff;
 import reactor.retry.Retry;
 
@@ -65,22 +68,21 @@ public abstract class AbstractHttpClientPlugin<R> implements ShenyuPlugin {
 
     @Override
     public final Mono<Void> execute(final ServerWebExchange exchange, final ShenyuPluginChain chain) {
-        final ShenyuContext shenyuContext = exchange.getAttribute(Constants.CONTEXT);
+        final ShenyuContext shenyuContext = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.CONTEXT);
         assert shenyuContext != null;
-        final URI uri = exchange.getAttribute(Constants.HTTP_URI);
+        final URI uri = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.HTTP_URI);
         if (Objects.isNull(uri)) {
             Object error = ShenyuResultWrap.error(exchange, ShenyuResultEnum.CANNOT_FIND_URL, null);
             return WebFluxResultUtils.result(exchange, error);
         }
-        final long timeout = (long) Optional.ofNullable(exchange.getAttribute(Constants.HTTP_TIME_OUT)).orElse(3000L);
+        final long timeout = ShenyuExchangeAttributes.getTimeout(exchange, 3000L);
         final Duration duration = Duration.ofMillis(timeout);
-        final int retryTimes = (int) Optional.ofNullable(exchange.getAttribute(Constants.HTTP_RETRY)).orElse(0);
-        final String retryStrategy = (String) Optional.ofNullable(exchange.getAttribute(Constants.RETRY_STRATEGY)).orElseGet(RetryEnum.CURRENT::getName);
+        final int retryTimes = ShenyuExchangeAttributes.getRetry(exchange, 0);
+        final String retryStrategy = Optional.ofNullable(ShenyuExchangeAttributes.<String>getAttribute(exchange, ShenyuAttributeKey.RETRY_STRATEGY)).orElseGet(RetryEnum.CURRENT::getName);
         LOG.info("The request urlPath is {}, retryTimes is {}, retryStrategy is {}", uri.toASCIIString(), retryTimes, retryStrategy);
         final HttpHeaders httpHeaders = buildHttpHeaders(exchange);
-        final Mono<R> response = doRequest(exchange, exchange.getRequest().getMethodValue(), uri, httpHeaders, exchange.getRequest().getBody())
-                .timeout(duration, Mono.error(new TimeoutException("Response took longer than timeout: " + duration)))
-                .doOnError(e -> LOG.error(e.getMessage(), e));
+        final Upstream upstream = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.UPSTREAM);
+        final Mono<R> response = request(exchange, upstream, uri, httpHeaders, duration);
         if (RetryEnum.CURRENT.getName().equals(retryStrategy)) {
             //old version of DividePlugin and SpringCloudPlugin will run on this
             return response.retryWhen(Retry.anyOf(TimeoutException.class, ConnectTimeoutException.class, ReadTimeoutException.class, IllegalStateException.class)
@@ -115,8 +117,8 @@ public abstract class AbstractHttpClientPlugin<R> implements ShenyuPlugin {
                            final Set<URI> exclude) {
         // does it necessary to add backoff interval time ?
         return response.onErrorResume(th -> {
-            final String selectorId = exchange.getAttribute(Constants.DIVIDE_SELECTOR_ID);
-            final String loadBalance = exchange.getAttribute(Constants.LOAD_BALANCE);
+            final String selectorId = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.DIVIDE_SELECTOR_ID);
+            final String loadBalance = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.LOAD_BALANCE);
             //always query the latest available list
             final List<Upstream> upstreamList = UpstreamCacheManager.getInstance().findUpstreamListBySelectorId(selectorId)
                     .stream().filter(data -> {
@@ -142,9 +144,46 @@ public abstract class AbstractHttpClientPlugin<R> implements ShenyuPlugin {
             final URI newUri = RequestUrlUtils.buildRequestUri(exchange, upstream.buildDomain());
             // in order not to affect the next retry call, newUri needs to be excluded
             exclude.add(newUri);
-            return doRequest(exchange, exchange.getRequest().getMethodValue(), newUri, httpHeaders, exchange.getRequest().getBody())
-                    .timeout(duration, Mono.error(new TimeoutException("Response took longer than timeout: " + duration)))
-                    .doOnError(e -> LOG.error(e.getMessage(), e));
+            return request(exchange, upstream, newUri, httpHeaders, duration);
+        });
+    }
+
+    private Mono<R> request(final ServerWebExchange exchange,
+                            final Upstream upstream,
+                            final URI uri,
+                            final HttpHeaders httpHeaders,
+                            final Duration duration) {
+        final Mono<R> request = doRequest(exchange, exchange.getRequest().getMethodValue(), uri, httpHeaders, exchange.getRequest().getBody())
+                .timeout(duration, Mono.error(new TimeoutException("Response took longer than timeout: " + duration)));
+        return track(exchange, upstream, request).doOnError(e -> LOG.error(e.getMessage(), e));
+    }
+
+    /**
+     * track the in-flight calls and the latency of the upstream selected by the load balancer.
+     * the connect errors, timeouts and 5xx responses are reported to the outlier detection,
+     * a call cancelled by the client is only counted as failed.
+     *
+     * @param exchange the current server exchange
+     * @param upstream the selected upstream, may be null
+     * @param request the request
+     * @return the tracked request
+     */
+    private Mono<R> track(final ServerWebExchange exchange, final Upstream upstream, final Mono<R> request) {
+        if (Objects.isNull(upstream)) {
+            return request;
+        }
+        final UpstreamStats stats = upstream.getStats();
+        final String selectorId = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.UPSTREAM_SELECTOR_ID);
+        return Mono.defer(() -> {
+            final long beginNanos = stats.begin();
+            return request.doFinally(signal -> {
+                final HttpStatus status = exchange.getResponse().getStatusCode();
+                final boolean success = signal == SignalType.ON_COMPLETE && (Objects.isNull(status) || !status.is5xxServerError());
+                stats.end(beginNanos, success);
+                if (signal != SignalType.CANCEL) {
+                    UpstreamCacheManager.getInstance().reportResult(selectorId, upstream, success);
+                }
+            });
         });
     }
 
@@ -17,12 +17,22 @@
 
 package org.apache.shenyu.plugin.httpclient;
 
+import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shenyu.common.constant.Constants;
+import org.apache.shenyu.common.dto.convert.rule.UpstreamPoolConfig;
+import org.apache.shenyu.common.enums.HttpProtocolEnum;
 import org.apache.shenyu.common.enums.PluginEnum;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
+import org.apache.shenyu.plugin.httpclient.http2.Http2ClientResponse;
+import org.apache.shenyu.plugin.httpclient.http2.Http2ConnectionManager;
+import org.apache.shenyu.plugin.httpclient.http2.Http2StreamConnection;
+import org.apache.shenyu.plugin.httpclient.pool.UpstreamPoolManager;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.AbstractServerHttpResponse;
@@ -30,11 +40,13 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.client.HttpClientResponse;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,13 +57,41 @@ public class NettyHttpClientPlugin extends AbstractHttpClientPlugin<HttpClientRe
 
     private final HttpClient httpClient;
 
+    private final UpstreamPoolManager poolManager;
+
+    private final Http2ConnectionManager http2ConnectionManager;
+
     /**
      * Instantiates a new Netty http client plugin.
      *
      * @param httpClient the http client
      */
     public NettyHttpClientPlugin(final HttpClient httpClient) {
+        this(httpClient, null);
+    }
+
+    /**
+     * Instantiates a new Netty http client plugin with the dedicated upstream pools.
+     *
+     * @param httpClient the shared http client
+     * @param poolManager the upstream pool manager, nullable
+     */
+    public NettyHttpClientPlugin(final HttpClient httpClient, final UpstreamPoolManager poolManager) {
+        this(httpClient, poolManager, null);
+    }
+
+    /**
+     * Instantiates a new Netty http client plugin with the dedicated upstream pools and the http/2 connections.
+     *
+     * @param httpClient the shared http client
+     * @param poolManager the upstream pool manager, nullable
+     * @param http2ConnectionManager the http/2 connection manager, nullable
+     */
+    public NettyHttpClientPlugin(final HttpClient httpClient, final UpstreamPoolManager poolManager,
+                                 final Http2ConnectionManager http2ConnectionManager) {
         this.httpClient = httpClient;
+        this.poolManager = poolManager;
+        this.http2ConnectionManager = http2ConnectionManager;
     }
 
     @Override
@@ -71,31 +111,65 @@ public class NettyHttpClientPlugin extends AbstractHttpClientPlugin<HttpClientRe
     @Override
     protected Mono<HttpClientResponse> doRequest(final ServerWebExchange exchange, final String httpMethod, final URI uri,
                                 final HttpHeaders httpHeaders, final Flux<DataBuffer> body) {
-        return Mono.from(httpClient.headers(headers -> httpHeaders.forEach(headers::add))
+        final Mono<HttpClientResponse> http1 = Mono.defer(() -> Mono.from(obtainHttpClient(exchange).headers(headers -> httpHeaders.forEach(headers::add))
                 .request(HttpMethod.valueOf(httpMethod)).uri(uri.toASCIIString())
                 .send((req, nettyOutbound) -> nettyOutbound.send(body.map(dataBuffer -> ((NettyDataBuffer) dataBuffer).getNativeBuffer())))
-                .responseConnection((res, connection) -> {
-                    exchange.getAttributes().put(Constants.CLIENT_RESPONSE_ATTR, res);
-                    exchange.getAttributes().put(Constants.CLIENT_RESPONSE_CONN_ATTR, connection);
-                    ServerHttpResponse response = exchange.getResponse();
-                    HttpHeaders headers = new HttpHeaders();
-                    res.responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
-                    String contentTypeValue = headers.getFirst(HttpHeaders.CONTENT_TYPE);
-                    if (StringUtils.isNotBlank(contentTypeValue)) {
-                        exchange.getAttributes().put(Constants.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentTypeValue);
-                    }
-                    HttpStatus status = HttpStatus.resolve(res.status().code());
-                    if (status != null) {
-                        response.setStatusCode(status);
-                    } else if (response instanceof AbstractServerHttpResponse) {
-                        ((AbstractServerHttpResponse) response)
-                                .setStatusCodeValue(res.status().code());
-                    } else {
-                        throw new IllegalStateException("Unable to set status code on response: " + res.status().code() + ", " + response.getClass());
-                    }
-                    response.getHeaders().putAll(headers);
-                    return Mono.just(res);
-                }));
+                .responseConnection((res, connection) -> Mono.just(handleResponse(exchange, res, connection)))));
+        if (Objects.isNull(http2ConnectionManager)) {
+            return http1;
+        }
+        final HttpProtocolEnum protocol = http2ConnectionManager.resolve(ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.HTTP_PROTOCOL));
+        if (!http2ConnectionManager.isHttp2(protocol, uri)) {
+            return http1;
+        }
+        final DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        httpHeaders.forEach(headers::add);
+        final HttpMethod method = HttpMethod.valueOf(httpMethod);
+        // the auto protocol falls back to http/1.1 when the upstream does not negotiate h2
+        return http2ConnectionManager.request(protocol, method, uri, headers, body.map(NettyDataBufferFactory::toByteBuf))
+                .map(res -> handleResponse(exchange, new Http2ClientResponse(res, method, uri.toASCIIString()), new Http2StreamConnection(res)))
+                .switchIfEmpty(http1);
+    }
+
+    private HttpClientResponse handleResponse(final ServerWebExchange exchange, final HttpClientResponse res, final Connection connection) {
+        exchange.getAttributes().put(Constants.CLIENT_RESPONSE_ATTR, res);
+        exchange.getAttributes().put(Constants.CLIENT_RESPONSE_CONN_ATTR, connection);
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = new HttpHeaders();
+        res.responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+        String contentTypeValue = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (StringUtils.isNotBlank(contentTypeValue)) {
+            exchange.getAttributes().put(Constants.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentTypeValue);
+        }
+        HttpStatus status = HttpStatus.resolve(res.status().code());
+        if (status != null) {
+            response.setStatusCode(status);
+        } else if (response instanceof AbstractServerHttpResponse) {
+            ((AbstractServerHttpResponse) response)
+                    .setStatusCodeValue(res.status().code());
+        } else {
+            throw new IllegalStateException("Unable to set status code on response: " + res.status().code() + ", " + response.getClass());
+        }
+        response.getHeaders().putAll(headers);
+        return res;
+    }
+
+    /**
+     * obtain the http client of the dedicated pool when the rule configures one, otherwise the shared one.
+     *
+     * @param exchange the current server exchange
+     * @return the http client
+     */
+    private HttpClient obtainHttpClient(final ServerWebExchange exchange) {
+        if (Objects.isNull(poolManager)) {
+            return httpClient;
+        }
+        final UpstreamPoolConfig poolConfig = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.UPSTREAM_POOL);
+        final String selectorId = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.DIVIDE_SELECTOR_ID);
+        if (Objects.isNull(poolConfig) || Objects.isNull(selectorId)) {
+            return httpClient;
+        }
+        return poolManager.obtain(selectorId, poolConfig);
     }
 
     @Override
@@ -21,6 +21,9 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.enums.PluginEnum;
 import org.apache.shenyu.common.enums.ResultEnum;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
+import org.apache.shenyu.plugin.httpclient.http2.Http2ClientHttpConnector;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -33,6 +36,7 @@ import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -70,19 +74,24 @@ public class WebClientPlugin extends AbstractHttpClientPlugin<ClientResponse> {
     @Override
     protected Mono<ClientResponse> doRequest(final ServerWebExchange exchange, final String httpMethod, final URI uri,
                                              final HttpHeaders httpHeaders, final Flux<DataBuffer> body) {
-        return webClient.method(HttpMethod.valueOf(httpMethod)).uri(uri)
+        final String protocol = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.HTTP_PROTOCOL);
+        Mono<ClientResponse> response = webClient.method(HttpMethod.valueOf(httpMethod)).uri(uri)
                 .headers(headers -> headers.addAll(httpHeaders))
                 .body(BodyInserters.fromDataBuffers(body))
-                .exchange()
-                .doOnSuccess(res -> {
-                    if (res.statusCode().is2xxSuccessful()) {
-                        exchange.getAttributes().put(Constants.CLIENT_RESPONSE_RESULT_TYPE, ResultEnum.SUCCESS.getName());
-                    } else {
-                        exchange.getAttributes().put(Constants.CLIENT_RESPONSE_RESULT_TYPE, ResultEnum.ERROR.getName());
-                    }
-                    exchange.getResponse().setStatusCode(res.statusCode());
-                    exchange.getAttributes().put(Constants.CLIENT_RESPONSE_ATTR, res);
-                });
+                .exchange();
+        if (Objects.nonNull(protocol)) {
+            // the connector sends the request over http/2 by the protocol of the rule
+            response = response.subscriberContext(context -> context.put(Http2ClientHttpConnector.PROTOCOL_KEY, protocol));
+        }
+        return response.doOnSuccess(res -> {
+            if (res.statusCode().is2xxSuccessful()) {
+                exchange.getAttributes().put(Constants.CLIENT_RESPONSE_RESULT_TYPE, ResultEnum.SUCCESS.getName());
+            } else {
+                exchange.getAttributes().put(Constants.CLIENT_RESPONSE_RESULT_TYPE, ResultEnum.ERROR.getName());
+            }
+            exchange.getResponse().setStatusCode(res.statusCode());
+            exchange.getAttributes().put(Constants.CLIENT_RESPONSE_ATTR, res);
+        });
     }
 
     @Override
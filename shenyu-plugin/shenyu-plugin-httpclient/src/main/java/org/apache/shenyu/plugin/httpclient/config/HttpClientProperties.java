@@ -17,7 +17,9 @@
 
 package org.apache.shenyu.plugin.httpclient.config;
 
+import io.netty.handler.codec.http2.Http2CodecUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.enums.HttpProtocolEnum;
 import org.apache.shenyu.common.exception.ShenyuException;
 import org.springframework.util.ResourceUtils;
 import reactor.netty.ReactorNetty;
@@ -51,6 +53,12 @@ public class HttpClientProperties {
      */
     private String strategy;
 
+    /**
+     * the default http protocol of the upstreams, one of h1, h2, h2c and auto, the default is h1.
+     * the divide rule handle overrides it per rule.
+     */
+    private String protocol = HttpProtocolEnum.H1.getName();
+
     /**
      * The connection timeout in millis, the default is 45s.
      */
@@ -106,6 +114,11 @@ public class HttpClientProperties {
      */
     private Ssl ssl = new Ssl();
 
+    /**
+     * Http2 configuration for the multiplexed upstream connections.
+     */
+    private Http2 http2 = new Http2();
+
     /**
      * Enables wiretap debugging for Netty HttpClient.
      */
@@ -134,6 +147,24 @@ public class HttpClientProperties {
         this.strategy = strategy;
     }
 
+    /**
+     * Gets protocol.
+     *
+     * @return the protocol
+     */
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Sets protocol.
+     *
+     * @param protocol the protocol
+     */
+    public void setProtocol(final String protocol) {
+        this.protocol = protocol;
+    }
+
     /**
      * Gets connect timeout.
      *
@@ -333,6 +364,24 @@ public class HttpClientProperties {
         this.ssl = ssl;
     }
     
+    /**
+     * Gets http2.
+     *
+     * @return the http2
+     */
+    public Http2 getHttp2() {
+        return http2;
+    }
+
+    /**
+     * Sets http2.
+     *
+     * @param http2 the http2
+     */
+    public void setHttp2(final Http2 http2) {
+        this.http2 = http2;
+    }
+
     /**
      * Is wiretap boolean.
      *
@@ -612,6 +661,152 @@ public class HttpClientProperties {
         }
     }
     
+    /**
+     * The type Http2, the requests to an upstream address are multiplexed as streams over a few connections.
+     */
+    public static class Http2 {
+
+        /**
+         * The connections per upstream address, defaults to 1.
+         */
+        private Integer maxConnections = 1;
+
+        /**
+         * The max concurrent streams per connection, defaults to 100,
+         * a lower SETTINGS_MAX_CONCURRENT_STREAMS of the upstream wins.
+         */
+        private Integer maxConcurrentStreams = 100;
+
+        /**
+         * The initial flow control window of each stream in bytes, defaults to 65535.
+         */
+        private Integer initialWindowSize = Http2CodecUtil.DEFAULT_WINDOW_SIZE;
+
+        /**
+         * The flow control window of each connection in bytes, defaults to 65535,
+         * it is at least the initial window size of the streams.
+         */
+        private Integer connectionWindowSize = Http2CodecUtil.DEFAULT_WINDOW_SIZE;
+
+        /**
+         * The max frame size in bytes the upstream may send, defaults to 16384.
+         */
+        private Integer maxFrameSize = Http2CodecUtil.DEFAULT_MAX_FRAME_SIZE;
+
+        /**
+         * The max header list size in bytes the upstream may send, defaults to 8192.
+         */
+        private Long maxHeaderListSize = Http2CodecUtil.DEFAULT_HEADER_LIST_SIZE;
+
+        /**
+         * Gets max connections.
+         *
+         * @return the max connections
+         */
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        /**
+         * Sets max connections.
+         *
+         * @param maxConnections the max connections
+         */
+        public void setMaxConnections(final Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        /**
+         * Gets max concurrent streams.
+         *
+         * @return the max concurrent streams
+         */
+        public Integer getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        /**
+         * Sets max concurrent streams.
+         *
+         * @param maxConcurrentStreams the max concurrent streams
+         */
+        public void setMaxConcurrentStreams(final Integer maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        /**
+         * Gets initial window size.
+         *
+         * @return the initial window size
+         */
+        public Integer getInitialWindowSize() {
+            return initialWindowSize;
+        }
+
+        /**
+         * Sets initial window size.
+         *
+         * @param initialWindowSize the initial window size
+         */
+        public void setInitialWindowSize(final Integer initialWindowSize) {
+            this.initialWindowSize = initialWindowSize;
+        }
+
+        /**
+         * Gets connection window size.
+         *
+         * @return the connection window size
+         */
+        public Integer getConnectionWindowSize() {
+            return connectionWindowSize;
+        }
+
+        /**
+         * Sets connection window size.
+         *
+         * @param connectionWindowSize the connection window size
+         */
+        public void setConnectionWindowSize(final Integer connectionWindowSize) {
+            this.connectionWindowSize = connectionWindowSize;
+        }
+
+        /**
+         * Gets max frame size.
+         *
+         * @return the max frame size
+         */
+        public Integer getMaxFrameSize() {
+            return maxFrameSize;
+        }
+
+        /**
+         * Sets max frame size.
+         *
+         * @param maxFrameSize the max frame size
+         */
+        public void setMaxFrameSize(final Integer maxFrameSize) {
+            this.maxFrameSize = maxFrameSize;
+        }
+
+        /**
+         * Gets max header list size.
+         *
+         * @return the max header list size
+         */
+        public Long getMaxHeaderListSize() {
+            return maxHeaderListSize;
+        }
+
+        /**
+         * Sets max header list size.
+         *
+         * @param maxHeaderListSize the max header list size
+         */
+        public void setMaxHeaderListSize(final Long maxHeaderListSize) {
+            this.maxHeaderListSize = maxHeaderListSize;
+        }
+    }
+
     /**
      * The type Proxy.
      */
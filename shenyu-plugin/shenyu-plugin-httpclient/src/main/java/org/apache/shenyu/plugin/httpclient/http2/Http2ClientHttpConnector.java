@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.apache.shenyu.common.enums.HttpProtocolEnum;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.function.Function;
+
+/**
+ * The connector of the web client sends the requests over http/2 by the protocol in the subscriber context,
+ * the others and the ones left to http/1.1 are sent by the delegate.
+ */
+public final class Http2ClientHttpConnector implements ClientHttpConnector {
+
+    /**
+     * the subscriber context key of the protocol name of the rule.
+     */
+    public static final String PROTOCOL_KEY = Http2ClientHttpConnector.class.getName() + ".protocol";
+
+    private final ClientHttpConnector delegate;
+
+    private final Http2ConnectionManager connectionManager;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    /**
+     * Instantiates a new http/2 client http connector.
+     *
+     * @param delegate the http/1.1 connector
+     * @param connectionManager the http/2 connection manager
+     */
+    public Http2ClientHttpConnector(final ClientHttpConnector delegate, final Http2ConnectionManager connectionManager) {
+        this.delegate = delegate;
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public Mono<ClientHttpResponse> connect(final HttpMethod method, final URI uri,
+                                           final Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        return Mono.subscriberContext().flatMap(context -> {
+            HttpProtocolEnum protocol = connectionManager.resolve(context.getOrDefault(PROTOCOL_KEY, null));
+            if (!connectionManager.isHttp2(protocol, uri)) {
+                return delegate.connect(method, uri, requestCallback);
+            }
+            Http2ClientHttpRequest request = new Http2ClientHttpRequest(method, uri, bufferFactory);
+            return requestCallback.apply(request)
+                    .then(Mono.defer(() -> connectionManager.request(protocol, io.netty.handler.codec.http.HttpMethod.valueOf(method.name()),
+                            uri, request.getNettyHeaders(), request.getBody())))
+                    .<ClientHttpResponse>map(response -> new Http2ClientHttpResponse(response, bufferFactory))
+                    .switchIfEmpty(Mono.defer(() -> delegate.connect(method, uri, requestCallback)));
+        });
+    }
+}
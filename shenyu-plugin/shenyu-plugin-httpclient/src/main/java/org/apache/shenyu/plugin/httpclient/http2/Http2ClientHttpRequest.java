@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
+import io.netty.handler.codec.http.cookie.DefaultCookie;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.AbstractClientHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collection;
+
+/**
+ * The request of the web client sent over http/2, the body is kept until the stream is opened.
+ */
+final class Http2ClientHttpRequest extends AbstractClientHttpRequest {
+
+    private final HttpMethod method;
+
+    private final URI uri;
+
+    private final NettyDataBufferFactory bufferFactory;
+
+    private final DefaultHttpHeaders nettyHeaders = new DefaultHttpHeaders();
+
+    private Flux<ByteBuf> body = Flux.empty();
+
+    Http2ClientHttpRequest(final HttpMethod method, final URI uri, final NettyDataBufferFactory bufferFactory) {
+        this.method = method;
+        this.uri = uri;
+        this.bufferFactory = bufferFactory;
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    @Override
+    public URI getURI() {
+        return uri;
+    }
+
+    @Override
+    public DataBufferFactory bufferFactory() {
+        return bufferFactory;
+    }
+
+    @Override
+    public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+        this.body = Flux.from(body).map(NettyDataBufferFactory::toByteBuf);
+        return doCommit();
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).concatMap(Flux::from));
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        return doCommit();
+    }
+
+    @Override
+    protected void applyHeaders() {
+        getHeaders().forEach(nettyHeaders::set);
+    }
+
+    @Override
+    protected void applyCookies() {
+        getCookies().values().stream().flatMap(Collection::stream)
+                .map(cookie -> new DefaultCookie(cookie.getName(), cookie.getValue()))
+                .forEach(cookie -> nettyHeaders.add(HttpHeaderNames.COOKIE, ClientCookieEncoder.STRICT.encode(cookie)));
+    }
+
+    /**
+     * get the netty headers applied on commit.
+     *
+     * @return the headers
+     */
+    DefaultHttpHeaders getNettyHeaders() {
+        return nettyHeaders;
+    }
+
+    /**
+     * get the body written by the request callback.
+     *
+     * @return the body
+     */
+    Flux<ByteBuf> getBody() {
+        return body;
+    }
+}
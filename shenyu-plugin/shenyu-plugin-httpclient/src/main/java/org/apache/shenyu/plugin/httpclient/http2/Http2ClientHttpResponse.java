@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.handler.codec.http.cookie.Cookie;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Flux;
+
+/**
+ * The response of the web client received over http/2.
+ */
+final class Http2ClientHttpResponse implements ClientHttpResponse {
+
+    private final Http2Response response;
+
+    private final NettyDataBufferFactory bufferFactory;
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    Http2ClientHttpResponse(final Http2Response response, final NettyDataBufferFactory bufferFactory) {
+        this.response = response;
+        this.bufferFactory = bufferFactory;
+        response.headers().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.valueOf(getRawStatusCode());
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return response.status().code();
+    }
+
+    @Override
+    public MultiValueMap<String, ResponseCookie> getCookies() {
+        MultiValueMap<String, ResponseCookie> cookies = new LinkedMultiValueMap<>();
+        for (Cookie cookie : response.cookies()) {
+            cookies.add(cookie.name(), ResponseCookie.from(cookie.name(), cookie.value())
+                    .domain(cookie.domain())
+                    .path(cookie.path())
+                    .maxAge(cookie.maxAge())
+                    .secure(cookie.isSecure())
+                    .httpOnly(cookie.isHttpOnly())
+                    .build());
+        }
+        return cookies;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public Flux<DataBuffer> getBody() {
+        return response.body().<DataBuffer>map(bufferFactory::wrap).doOnCancel(response::dispose);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.cookie.Cookie;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.util.context.Context;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link HttpClientResponse} view of a http/2 response for the netty http client plugin.
+ */
+public final class Http2ClientResponse implements HttpClientResponse {
+
+    private static final HttpVersion HTTP_2 = HttpVersion.valueOf("HTTP/2.0");
+
+    private static final String[] NO_REDIRECTS = new String[0];
+
+    private final Http2Response response;
+
+    private final HttpMethod method;
+
+    private final String uri;
+
+    /**
+     * Instantiates a new http/2 client response.
+     *
+     * @param response the http/2 response
+     * @param method the request method
+     * @param uri the request uri
+     */
+    public Http2ClientResponse(final Http2Response response, final HttpMethod method, final String uri) {
+        this.response = response;
+        this.method = method;
+        this.uri = uri;
+    }
+
+    @Override
+    public Context currentContext() {
+        return Context.empty();
+    }
+
+    @Override
+    public String[] redirectedFrom() {
+        return NO_REDIRECTS;
+    }
+
+    @Override
+    public HttpHeaders responseHeaders() {
+        return response.headers();
+    }
+
+    @Override
+    public HttpResponseStatus status() {
+        return response.status();
+    }
+
+    @Override
+    public Map<CharSequence, Set<Cookie>> cookies() {
+        Map<CharSequence, Set<Cookie>> cookies = new HashMap<>();
+        for (Cookie cookie : response.cookies()) {
+            cookies.computeIfAbsent(cookie.name(), name -> new HashSet<>()).add(cookie);
+        }
+        return cookies;
+    }
+
+    @Override
+    public boolean isKeepAlive() {
+        return true;
+    }
+
+    @Override
+    public boolean isWebsocket() {
+        return false;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return method;
+    }
+
+    @Override
+    public String uri() {
+        return uri;
+    }
+
+    @Override
+    public HttpVersion version() {
+        return HTTP_2;
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.DefaultHttp2WindowUpdateFrame;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.shenyu.common.enums.HttpProtocolEnum;
+import org.apache.shenyu.common.exception.ShenyuException;
+import org.apache.shenyu.plugin.httpclient.config.HttpClientProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.netty.resources.LoopResources;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The manager of the http/2 upstream connections, the requests to an upstream address are multiplexed as streams
+ * over a few long lived connections instead of a connection per in-flight request.
+ *
+ * <p>h2 negotiates http/2 over tls by alpn, h2c speaks http/2 over cleartext with prior knowledge,
+ * auto negotiates h2 with the https upstreams and remembers the ones choosing http/1.1, the requests of
+ * http/1.1 are left to the http/1.1 client. The proxy of the http client properties is not applied.
+ */
+public final class Http2ConnectionManager implements AutoCloseable {
+
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 10;
+
+    private static final String HTTPS = "https";
+
+    /**
+     * the push promise is disabled, the streams initiated by the upstream are closed.
+     */
+    private static final ChannelHandler REJECT_INBOUND_STREAMS = new ChannelInitializer<Channel>() {
+        @Override
+        protected void initChannel(final Channel channel) {
+            channel.close();
+        }
+    };
+
+    private final HttpClientProperties properties;
+
+    private final HttpProtocolEnum defaultProtocol;
+
+    private final Http2Settings settings;
+
+    private final Cache<String, Http2Upstream> upstreams = CacheBuilder.newBuilder()
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .removalListener((RemovalNotification<String, Http2Upstream> notification) -> notification.getValue().dispose())
+            .build();
+
+    private volatile LoopResources loopResources;
+
+    private volatile SslContext sslContext;
+
+    /**
+     * Instantiates a new http/2 connection manager.
+     *
+     * @param properties the http client properties
+     */
+    public Http2ConnectionManager(final HttpClientProperties properties) {
+        this.properties = properties;
+        this.defaultProtocol = HttpProtocolEnum.acquireByName(properties.getProtocol(), HttpProtocolEnum.H1);
+        HttpClientProperties.Http2 http2 = properties.getHttp2();
+        this.settings = new Http2Settings()
+                .pushEnabled(false)
+                .maxConcurrentStreams(http2.getMaxConcurrentStreams())
+                .initialWindowSize(http2.getInitialWindowSize())
+                .maxFrameSize(http2.getMaxFrameSize())
+                .maxHeaderListSize(http2.getMaxHeaderListSize());
+    }
+
+    /**
+     * resolve the protocol of the rule, blank uses the protocol of the http client properties.
+     *
+     * @param protocol the protocol name of the rule
+     * @return the protocol
+     */
+    public HttpProtocolEnum resolve(final String protocol) {
+        return HttpProtocolEnum.acquireByName(protocol, defaultProtocol);
+    }
+
+    /**
+     * whether the request to the uri is sent over http/2.
+     *
+     * @param protocol the protocol
+     * @param uri the request uri
+     * @return whether it is sent over http/2
+     */
+    public boolean isHttp2(final HttpProtocolEnum protocol, final URI uri) {
+        switch (protocol) {
+            case H2:
+            case H2C:
+                return true;
+            case AUTO:
+                if (!HTTPS.equalsIgnoreCase(uri.getScheme())) {
+                    return false;
+                }
+                Http2Upstream upstream = upstreams.getIfPresent(upstreamName(protocol, uri));
+                return Objects.isNull(upstream) || !upstream.isHttp1();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * send the request over http/2.
+     *
+     * @param protocol the protocol
+     * @param method the request method
+     * @param uri the request uri
+     * @param headers the request headers
+     * @param body the request body, the buffers are released when they are written
+     * @return the response, empty when the request is left to the http/1.1 client
+     */
+    public Mono<Http2Response> request(final HttpProtocolEnum protocol, final HttpMethod method, final URI uri,
+                                       final HttpHeaders headers, final Flux<ByteBuf> body) {
+        return Mono.defer(() -> {
+            if (!isHttp2(protocol, uri)) {
+                return Mono.empty();
+            }
+            // the absolute uri carries the authority when there is no host header
+            DefaultHttpRequest head = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, uri.toASCIIString(), headers);
+            return obtain(protocol, uri).request(head, body);
+        });
+    }
+
+    /**
+     * get the upstreams.
+     *
+     * @return the upstreams
+     */
+    public Collection<Http2Upstream> getUpstreams() {
+        return upstreams.asMap().values();
+    }
+
+    /**
+     * close all the connections.
+     */
+    @Override
+    public void close() {
+        upstreams.invalidateAll();
+        upstreams.cleanUp();
+        LoopResources loops = loopResources;
+        if (Objects.nonNull(loops)) {
+            loops.dispose();
+        }
+    }
+
+    private Http2Upstream obtain(final HttpProtocolEnum protocol, final URI uri) {
+        String name = upstreamName(protocol, uri);
+        Http2Upstream upstream = upstreams.getIfPresent(name);
+        if (Objects.nonNull(upstream)) {
+            return upstream;
+        }
+        try {
+            return upstreams.get(name, () -> new Http2Upstream(protocol, uri.getHost(), port(uri),
+                    properties.getHttp2().getMaxConnections(), this::connect));
+        } catch (ExecutionException e) {
+            throw new ShenyuException(e.getCause());
+        }
+    }
+
+    private Mono<Http2UpstreamConnection> connect(final Http2Upstream upstream) {
+        return Mono.create(sink -> {
+            LoopResources loops = loopResources();
+            EventLoopGroup group = loops.onClient(loops.preferNative());
+            Bootstrap bootstrap = new Bootstrap()
+                    .group(group)
+                    .channel(loops.onChannel(group))
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .handler(new ChannelInitializer<Channel>() {
+                        @Override
+                        protected void initChannel(final Channel channel) {
+                            if (upstream.isSecure()) {
+                                channel.pipeline().addLast(newSslHandler(channel, upstream), new ProtocolNegotiationHandler(upstream, sink));
+                            }
+                        }
+                    });
+            if (Objects.nonNull(properties.getConnectTimeout())) {
+                bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeout());
+            }
+            ChannelFuture connect = bootstrap.connect(InetSocketAddress.createUnresolved(upstream.getHost(), upstream.getPort()));
+            connect.addListener(future -> {
+                if (!future.isSuccess()) {
+                    sink.error(future.cause());
+                } else if (!upstream.isSecure()) {
+                    sink.success(configure(connect.channel()));
+                }
+            });
+        });
+    }
+
+    /**
+     * add the http/2 handlers to the connected channel, the connection window is enlarged by a WINDOW_UPDATE
+     * since it is not a setting.
+     *
+     * @param channel the connected channel
+     * @return the connection
+     */
+    private Http2UpstreamConnection configure(final Channel channel) {
+        Http2FrameCodec codec = Http2FrameCodecBuilder.forClient().initialSettings(settings).build();
+        channel.pipeline().addLast(codec, new Http2MultiplexHandler(REJECT_INBOUND_STREAMS));
+        Http2Connection connection = codec.connection();
+        int delta = properties.getHttp2().getConnectionWindowSize()
+                - connection.local().flowController().windowSize(connection.connectionStream());
+        if (delta > 0) {
+            channel.writeAndFlush(new DefaultHttp2WindowUpdateFrame(delta));
+        }
+        return new Http2UpstreamConnection(channel, codec, properties.getHttp2().getMaxConcurrentStreams());
+    }
+
+    private SslHandler newSslHandler(final Channel channel, final Http2Upstream upstream) {
+        HttpClientProperties.Ssl ssl = properties.getSsl();
+        SslHandler sslHandler = sslContext().newHandler(channel.alloc(), upstream.getHost(), upstream.getPort());
+        if (!ssl.isUseInsecureTrustManager()) {
+            SSLEngine engine = sslHandler.engine();
+            SSLParameters parameters = engine.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            engine.setSSLParameters(parameters);
+        }
+        sslHandler.setHandshakeTimeoutMillis(ssl.getHandshakeTimeout().toMillis());
+        sslHandler.setCloseNotifyFlushTimeoutMillis(ssl.getCloseNotifyFlushTimeout().toMillis());
+        sslHandler.setCloseNotifyReadTimeoutMillis(ssl.getCloseNotifyReadTimeout().toMillis());
+        return sslHandler;
+    }
+
+    private SslContext sslContext() {
+        SslContext context = sslContext;
+        if (Objects.isNull(context)) {
+            synchronized (this) {
+                context = sslContext;
+                if (Objects.isNull(context)) {
+                    context = buildSslContext();
+                    sslContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    private SslContext buildSslContext() {
+        HttpClientProperties.Ssl ssl = properties.getSsl();
+        SslContextBuilder builder = SslContextBuilder.forClient()
+                .sslProvider(SslProvider.isAlpnSupported(SslProvider.OPENSSL) ? SslProvider.OPENSSL : SslProvider.JDK)
+                .applicationProtocolConfig(new ApplicationProtocolConfig(ApplicationProtocolConfig.Protocol.ALPN,
+                        ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                        ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                        ApplicationProtocolNames.HTTP_2, ApplicationProtocolNames.HTTP_1_1));
+        X509Certificate[] trustedX509Certificates = ssl.getTrustedX509CertificatesForTrustManager();
+        if (ArrayUtils.isNotEmpty(trustedX509Certificates)) {
+            builder.trustManager(trustedX509Certificates);
+        } else if (ssl.isUseInsecureTrustManager()) {
+            builder.trustManager(InsecureTrustManagerFactory.INSTANCE);
+        }
+        builder.keyManager(ssl.getKeyManagerFactory());
+        try {
+            return builder.build();
+        } catch (SSLException e) {
+            throw new ShenyuException(e);
+        }
+    }
+
+    private LoopResources loopResources() {
+        LoopResources loops = loopResources;
+        if (Objects.isNull(loops)) {
+            synchronized (this) {
+                loops = loopResources;
+                if (Objects.isNull(loops)) {
+                    // own loops, replacing the tcp resources would dispose the loops of the http/1.1 client
+                    HttpClientProperties.ThreadPool threadPool = properties.getThreadPool();
+                    loops = LoopResources.create(threadPool.getPrefix() + "-http2", threadPool.getWorkerCount(), threadPool.getDaemon());
+                    loopResources = loops;
+                }
+            }
+        }
+        return loops;
+    }
+
+    private static String upstreamName(final HttpProtocolEnum protocol, final URI uri) {
+        return protocol.getName() + "://" + uri.getHost() + ":" + port(uri);
+    }
+
+    private static int port(final URI uri) {
+        if (uri.getPort() > 0) {
+            return uri.getPort();
+        }
+        return HTTPS.equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    /**
+     * the handler configures the connection by the protocol negotiated by alpn.
+     */
+    private final class ProtocolNegotiationHandler extends ApplicationProtocolNegotiationHandler {
+
+        private final Http2Upstream upstream;
+
+        private final MonoSink<Http2UpstreamConnection> sink;
+
+        ProtocolNegotiationHandler(final Http2Upstream upstream, final MonoSink<Http2UpstreamConnection> sink) {
+            super(ApplicationProtocolNames.HTTP_1_1);
+            this.upstream = upstream;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void configurePipeline(final ChannelHandlerContext ctx, final String protocol) {
+            if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                sink.success(configure(ctx.channel()));
+                return;
+            }
+            ctx.close();
+            if (upstream.getProtocol() == HttpProtocolEnum.AUTO) {
+                upstream.markHttp1();
+                sink.success();
+            } else {
+                sink.error(new ShenyuException("the upstream " + upstream.getName() + " negotiated " + protocol + " instead of h2"));
+            }
+        }
+
+        @Override
+        protected void handshakeFailure(final ChannelHandlerContext ctx, final Throwable cause) {
+            sink.error(cause);
+            ctx.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The response of a http/2 stream, the body is read from the stream as it is requested.
+ * The buffers of the body are owned by the subscriber.
+ */
+public final class Http2Response {
+
+    private final HttpResponse head;
+
+    private final Http2StreamChannel stream;
+
+    private final Http2StreamHandler handler;
+
+    Http2Response(final HttpResponse head, final Http2StreamChannel stream, final Http2StreamHandler handler) {
+        this.head = head;
+        this.stream = stream;
+        this.handler = handler;
+    }
+
+    /**
+     * get the response status.
+     *
+     * @return the status
+     */
+    public HttpResponseStatus status() {
+        return head.status();
+    }
+
+    /**
+     * get the response headers.
+     *
+     * @return the headers
+     */
+    public HttpHeaders headers() {
+        return head.headers();
+    }
+
+    /**
+     * decode the cookies of the response.
+     *
+     * @return the cookies
+     */
+    public List<Cookie> cookies() {
+        List<Cookie> cookies = new ArrayList<>();
+        for (String header : head.headers().getAll(HttpHeaderNames.SET_COOKIE)) {
+            Cookie cookie = ClientCookieDecoder.STRICT.decode(header);
+            if (Objects.nonNull(cookie)) {
+                cookies.add(cookie);
+            }
+        }
+        return cookies;
+    }
+
+    /**
+     * get the stream channel.
+     *
+     * @return the stream channel
+     */
+    public Http2StreamChannel channel() {
+        return stream;
+    }
+
+    /**
+     * get the response body, it can only be subscribed once.
+     *
+     * @return the body
+     */
+    public Flux<ByteBuf> body() {
+        return handler.body();
+    }
+
+    /**
+     * dispose the response, the stream is reset when the body is not completed and the unread buffers are released.
+     */
+    public void dispose() {
+        handler.dispose();
+    }
+}
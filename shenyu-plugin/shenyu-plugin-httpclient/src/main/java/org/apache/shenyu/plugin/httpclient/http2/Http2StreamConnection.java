@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.ReferenceCountUtil;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.Connection;
+import reactor.netty.NettyInbound;
+
+import java.util.function.Consumer;
+
+/**
+ * The {@link Connection} view of a http/2 stream, so the response body is written back like the one of http/1.1.
+ * As the inbound of reactor netty, the buffers are released after they are delivered, the subscriber retains
+ * the ones it keeps.
+ */
+public final class Http2StreamConnection implements Connection, NettyInbound {
+
+    private final Http2Response response;
+
+    /**
+     * Instantiates a new http/2 stream connection.
+     *
+     * @param response the http/2 response
+     */
+    public Http2StreamConnection(final Http2Response response) {
+        this.response = response;
+    }
+
+    @Override
+    public Channel channel() {
+        return response.channel();
+    }
+
+    @Override
+    public NettyInbound inbound() {
+        return this;
+    }
+
+    @Override
+    public ByteBufFlux receive() {
+        // one at a time, so a buffer is released only after the subscriber has handled it
+        Flux<ByteBuf> body = response.body()
+                .concatMap(buf -> Mono.just(buf).doFinally(signal -> ReferenceCountUtil.release(buf)), 1)
+                .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease);
+        return ByteBufFlux.fromInbound(body, channel().alloc());
+    }
+
+    @Override
+    public Flux<?> receiveObject() {
+        return receive();
+    }
+
+    @Override
+    public NettyInbound withConnection(final Consumer<? super Connection> withConnection) {
+        withConnection.accept(this);
+        return this;
+    }
+
+    @Override
+    public void dispose() {
+        response.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return !channel().isActive();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.UnicastProcessor;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The handler of a http/2 stream, it writes the request and reads the response.
+ *
+ * <p>The stream does not read automatically, the response body is read as the subscriber requests it,
+ * so the flow control window of the stream is only updated when the body is consumed.
+ */
+final class Http2StreamHandler extends ChannelInboundHandlerAdapter {
+
+    private final MonoSink<Http2Response> sink;
+
+    private final UnicastProcessor<ByteBuf> processor = UnicastProcessor.create();
+
+    private final AtomicLong demand = new AtomicLong();
+
+    private final AtomicBoolean responded = new AtomicBoolean();
+
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private final RequestBodySubscriber requestBody = new RequestBodySubscriber();
+
+    private volatile Http2StreamChannel stream;
+
+    private volatile boolean disposed;
+
+    Http2StreamHandler(final MonoSink<Http2Response> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * write the request on the opened stream and start reading the response.
+     *
+     * @param stream the stream channel
+     * @param head the request head
+     * @param body the request body
+     */
+    void send(final Http2StreamChannel stream, final HttpRequest head, final Flux<ByteBuf> body) {
+        this.stream = stream;
+        if (disposed) {
+            stream.close();
+            return;
+        }
+        stream.writeAndFlush(head).addListener(future -> {
+            if (!future.isSuccess()) {
+                fail(future.cause());
+                stream.close();
+            }
+        });
+        stream.read();
+        body.subscribe(requestBody);
+    }
+
+    /**
+     * get the response body.
+     *
+     * @return the body
+     */
+    Flux<ByteBuf> body() {
+        return processor.doOnRequest(this::request)
+                .doOnCancel(this::dispose)
+                .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease);
+    }
+
+    /**
+     * dispose the stream, it is reset when it is still open.
+     */
+    void dispose() {
+        disposed = true;
+        requestBody.dispose();
+        Http2StreamChannel channel = stream;
+        if (Objects.nonNull(channel)) {
+            channel.close();
+        }
+        if (responded.get() && !processor.hasDownstreams()) {
+            // nobody reads the body, release the buffers already read
+            processor.subscribe(ReferenceCountUtil::safeRelease, error -> { });
+        }
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+        try {
+            if (msg instanceof HttpResponse) {
+                HttpResponse head = (HttpResponse) msg;
+                if (head.status().codeClass() == HttpStatusClass.INFORMATIONAL) {
+                    return;
+                }
+                if (responded.compareAndSet(false, true)) {
+                    sink.success(new Http2Response(head, stream, this));
+                }
+            }
+            if (msg instanceof HttpContent && !processor.isDisposed()) {
+                ByteBuf content = ((HttpContent) msg).content();
+                if (content.isReadable()) {
+                    demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+                    processor.onNext(content.retain());
+                }
+                if (msg instanceof LastHttpContent && completed.compareAndSet(false, true)) {
+                    processor.onComplete();
+                }
+            }
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @Override
+    public void channelReadComplete(final ChannelHandlerContext ctx) {
+        if (!responded.get() || !completed.get() && demand.get() > 0) {
+            ctx.read();
+        }
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) {
+        requestBody.dispose();
+        fail(new IOException("the http/2 stream is closed before the response is completed"));
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+        fail(cause);
+        ctx.close();
+    }
+
+    private void request(final long n) {
+        demand.getAndUpdate(current -> Operators.addCap(current, n));
+        Http2StreamChannel channel = stream;
+        if (Objects.nonNull(channel)) {
+            channel.read();
+        }
+    }
+
+    private void fail(final Throwable cause) {
+        if (responded.compareAndSet(false, true)) {
+            completed.set(true);
+            if (!disposed) {
+                sink.error(cause);
+            }
+        } else if (completed.compareAndSet(false, true)) {
+            processor.onError(cause);
+        }
+    }
+
+    /**
+     * the subscriber writes the request body, the next buffer is requested when the previous one is written.
+     */
+    private final class RequestBodySubscriber extends BaseSubscriber<ByteBuf> {
+
+        @Override
+        protected void hookOnSubscribe(final Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(final ByteBuf buffer) {
+            if (!buffer.isReadable()) {
+                buffer.release();
+                request(1);
+                return;
+            }
+            stream.writeAndFlush(new DefaultHttpContent(buffer)).addListener(future -> {
+                if (future.isSuccess()) {
+                    request(1);
+                } else {
+                    cancel();
+                    fail(future.cause());
+                    stream.close();
+                }
+            });
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            stream.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        }
+
+        @Override
+        protected void hookOnError(final Throwable throwable) {
+            fail(throwable);
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpRequest;
+import org.apache.shenyu.common.enums.HttpProtocolEnum;
+import org.apache.shenyu.plugin.api.gauge.GaugeRegistry;
+import org.apache.shenyu.plugin.api.gauge.SampledGauge;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * The http/2 connections to an upstream address, a new connection is opened when the streams of the others are
+ * exhausted, up to the max connections.
+ */
+public final class Http2Upstream {
+
+    /**
+     * the connections gauge name.
+     */
+    public static final String CONNECTIONS = "shenyu_upstream_http2_connections";
+
+    /**
+     * the active streams gauge name.
+     */
+    public static final String ACTIVE_STREAMS = "shenyu_upstream_http2_active_streams";
+
+    private static final String[] LABEL_NAMES = {"upstream"};
+
+    private final String name;
+
+    private final HttpProtocolEnum protocol;
+
+    private final String host;
+
+    private final int port;
+
+    private final int maxConnections;
+
+    private final Function<Http2Upstream, Mono<Http2UpstreamConnection>> connector;
+
+    private final List<Http2UpstreamConnection> connections = new CopyOnWriteArrayList<>();
+
+    private final List<SampledGauge> gauges;
+
+    private volatile boolean http1;
+
+    private Mono<Http2UpstreamConnection> connecting;
+
+    /**
+     * Instantiates a new http/2 upstream.
+     *
+     * @param protocol the protocol, h2 or h2c, or auto for h2 negotiated over tls
+     * @param host the host
+     * @param port the port
+     * @param maxConnections the max connections
+     * @param connector the connector opens a connection, empty when the upstream negotiates http/1.1
+     */
+    Http2Upstream(final HttpProtocolEnum protocol, final String host, final int port, final int maxConnections,
+                  final Function<Http2Upstream, Mono<Http2UpstreamConnection>> connector) {
+        this.name = protocol.getName() + "://" + host + ":" + port;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.maxConnections = Math.max(maxConnections, 1);
+        this.connector = connector;
+        String[] labelValues = {name};
+        this.gauges = Arrays.asList(
+                new SampledGauge(CONNECTIONS, "the http/2 connections of the upstream", LABEL_NAMES, labelValues, this::getConnections),
+                new SampledGauge(ACTIVE_STREAMS, "the active http/2 streams of the upstream", LABEL_NAMES, labelValues, this::getActiveStreams));
+        gauges.forEach(GaugeRegistry.getInstance()::register);
+    }
+
+    /**
+     * send the request on a stream.
+     *
+     * @param head the request head
+     * @param body the request body
+     * @return the response, empty when the upstream negotiates http/1.1
+     */
+    Mono<Http2Response> request(final HttpRequest head, final Flux<ByteBuf> body) {
+        return acquire().flatMap(connection -> connection.request(head, body));
+    }
+
+    /**
+     * get the upstream name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * get the protocol.
+     *
+     * @return the protocol
+     */
+    public HttpProtocolEnum getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * get the host.
+     *
+     * @return the host
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * get the port.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * whether the connections use tls.
+     *
+     * @return whether the connections use tls
+     */
+    public boolean isSecure() {
+        return protocol != HttpProtocolEnum.H2C;
+    }
+
+    /**
+     * whether the upstream negotiated http/1.1 instead of h2.
+     *
+     * @return whether the upstream only speaks http/1.1
+     */
+    public boolean isHttp1() {
+        return http1;
+    }
+
+    /**
+     * get the open connections.
+     *
+     * @return the connections
+     */
+    public long getConnections() {
+        return connections.size();
+    }
+
+    /**
+     * get the active streams of the connections.
+     *
+     * @return the active streams
+     */
+    public long getActiveStreams() {
+        long active = 0;
+        for (Http2UpstreamConnection connection : connections) {
+            active += connection.getActiveStreams();
+        }
+        return active;
+    }
+
+    /**
+     * mark the upstream as http/1.1, the requests of the auto protocol fall back to the http/1.1 client.
+     */
+    void markHttp1() {
+        this.http1 = true;
+    }
+
+    /**
+     * dispose the upstream, the connections are closed and the gauges are unregistered.
+     */
+    void dispose() {
+        gauges.forEach(GaugeRegistry.getInstance()::unregister);
+        connections.forEach(connection -> connection.getChannel().close());
+    }
+
+    private Mono<Http2UpstreamConnection> acquire() {
+        return Mono.defer(() -> {
+            if (http1) {
+                return Mono.empty();
+            }
+            int usable = 0;
+            for (Http2UpstreamConnection connection : connections) {
+                if (connection.tryReserve()) {
+                    return Mono.just(connection);
+                }
+                if (connection.isUsable()) {
+                    usable++;
+                } else {
+                    connection.closeIfDrained();
+                }
+            }
+            Mono<Http2UpstreamConnection> pending;
+            synchronized (this) {
+                if (Objects.isNull(connecting)) {
+                    if (usable >= maxConnections) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                "the http/2 streams of " + name + " are exhausted"));
+                    }
+                    // cleared before the waiters are signaled, so they do not wait on the completed connect again
+                    connecting = connector.apply(this).doOnSuccess(this::onConnected).doOnError(error -> clearConnecting()).cache();
+                }
+                pending = connecting;
+            }
+            // the waiters of the new connection may exceed its streams, they open the next one
+            return pending.flatMap(connection -> connection.tryReserve() ? Mono.just(connection) : acquire());
+        });
+    }
+
+    private void onConnected(final Http2UpstreamConnection connection) {
+        if (Objects.nonNull(connection)) {
+            connections.add(connection);
+            connection.getChannel().closeFuture().addListener(future -> connections.remove(connection));
+        }
+        clearConnecting();
+    }
+
+    private synchronized void clearConnecting() {
+        connecting = null;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.util.concurrent.Future;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A http/2 connection to an upstream address, the requests are multiplexed as streams over it.
+ */
+final class Http2UpstreamConnection {
+
+    private final Channel channel;
+
+    private final Http2FrameCodec codec;
+
+    private final int maxConcurrentStreams;
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    Http2UpstreamConnection(final Channel channel, final Http2FrameCodec codec, final int maxConcurrentStreams) {
+        this.channel = channel;
+        this.codec = codec;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    /**
+     * reserve a stream, the lower of the local and the upstream max concurrent streams is the limit.
+     *
+     * @return whether the stream is reserved
+     */
+    boolean tryReserve() {
+        for (;;) {
+            int active = activeStreams.get();
+            if (!isUsable() || active >= Math.min(maxConcurrentStreams, codec.connection().local().maxActiveStreams())) {
+                return false;
+            }
+            if (activeStreams.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * whether new streams can be opened, the connection is drained after the upstream sends a GOAWAY.
+     *
+     * @return whether the connection is usable
+     */
+    boolean isUsable() {
+        return channel.isActive() && !codec.connection().goAwayReceived();
+    }
+
+    /**
+     * close the drained connection without active streams.
+     */
+    void closeIfDrained() {
+        if (!isUsable() && activeStreams.get() == 0) {
+            channel.close();
+        }
+    }
+
+    /**
+     * get the active streams.
+     *
+     * @return the active streams
+     */
+    int getActiveStreams() {
+        return activeStreams.get();
+    }
+
+    /**
+     * get the connection channel.
+     *
+     * @return the channel
+     */
+    Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * send the request on a new stream of the reserved ones.
+     *
+     * @param head the request head
+     * @param body the request body
+     * @return the response
+     */
+    Mono<Http2Response> request(final HttpRequest head, final Flux<ByteBuf> body) {
+        return Mono.create(sink -> {
+            Http2StreamHandler handler = new Http2StreamHandler(sink);
+            sink.onCancel(handler::dispose);
+            Future<Http2StreamChannel> open = new Http2StreamChannelBootstrap(channel)
+                    .option(ChannelOption.AUTO_READ, false)
+                    .handler(new ChannelInitializer<Http2StreamChannel>() {
+                        @Override
+                        protected void initChannel(final Http2StreamChannel stream) {
+                            stream.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(false), handler);
+                        }
+                    }).open();
+            open.addListener(future -> {
+                if (!open.isSuccess()) {
+                    activeStreams.decrementAndGet();
+                    sink.error(open.cause());
+                    return;
+                }
+                Http2StreamChannel stream = open.getNow();
+                stream.closeFuture().addListener(closed -> activeStreams.decrementAndGet());
+                handler.send(stream, head, body);
+            });
+        });
+    }
+}
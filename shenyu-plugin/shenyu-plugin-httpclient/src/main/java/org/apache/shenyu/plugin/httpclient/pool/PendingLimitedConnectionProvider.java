@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The connection provider bounds the pending acquires of the delegate, the acquires beyond the limit fail fast
+ * with 503 instead of queueing behind a slow upstream.
+ */
+public final class PendingLimitedConnectionProvider implements ConnectionProvider {
+
+    private final ConnectionProvider delegate;
+
+    private final int maxPendingAcquires;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Instantiates a new pending limited connection provider.
+     *
+     * @param delegate the delegate provider
+     * @param maxPendingAcquires the max pending acquires, 0 is unbounded
+     */
+    public PendingLimitedConnectionProvider(final ConnectionProvider delegate, final int maxPendingAcquires) {
+        this.delegate = delegate;
+        this.maxPendingAcquires = maxPendingAcquires;
+    }
+
+    @Override
+    public Mono<? extends Connection> acquire(final Bootstrap bootstrap) {
+        return Mono.defer(() -> {
+            int current = pending.incrementAndGet();
+            if (maxPendingAcquires > 0 && current > maxPendingAcquires) {
+                pending.decrementAndGet();
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Pending acquires of the upstream pool reached the limit: " + maxPendingAcquires));
+            }
+            return delegate.acquire(bootstrap).doFinally(signal -> pending.decrementAndGet());
+        });
+    }
+
+    /**
+     * get the pending acquires.
+     *
+     * @return the pending acquires
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    @Override
+    public void disposeWhen(final SocketAddress address) {
+        delegate.disposeWhen(address);
+    }
+
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+
+    @Override
+    public Mono<Void> disposeLater() {
+        return delegate.disposeLater();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate.isDisposed();
+    }
+
+    @Override
+    public int maxConnections() {
+        return delegate.maxConnections();
+    }
+}
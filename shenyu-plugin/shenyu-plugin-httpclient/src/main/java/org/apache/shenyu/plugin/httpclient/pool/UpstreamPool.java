@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.pool;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import org.apache.shenyu.common.dto.convert.rule.UpstreamPoolConfig;
+import org.apache.shenyu.plugin.api.gauge.GaugeRegistry;
+import org.apache.shenyu.plugin.api.gauge.SampledGauge;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The dedicated connection pool of the upstreams of a selector, the connections of each upstream address
+ * are bounded by the max connections of the config.
+ *
+ * <p>The active connections are tracked by the connection states, a connection is active from acquired to released.
+ * The connections beyond the max life time are closed when they are released to the pool.
+ */
+public final class UpstreamPool {
+
+    /**
+     * the active connections gauge name.
+     */
+    public static final String ACTIVE_CONNECTIONS = "shenyu_upstream_pool_active_connections";
+
+    /**
+     * the idle connections gauge name.
+     */
+    public static final String IDLE_CONNECTIONS = "shenyu_upstream_pool_idle_connections";
+
+    /**
+     * the pending acquires gauge name.
+     */
+    public static final String PENDING_ACQUIRES = "shenyu_upstream_pool_pending_acquires";
+
+    private static final String[] LABEL_NAMES = {"selector", "pool"};
+
+    private static final AttributeKey<Long> CONNECTED_NANOS = AttributeKey.valueOf("shenyuUpstreamPoolConnectedNanos");
+
+    private static final AttributeKey<Boolean> IN_USE = AttributeKey.valueOf("shenyuUpstreamPoolInUse");
+
+    private final String name;
+
+    private final UpstreamPoolConfig config;
+
+    private final PendingLimitedConnectionProvider provider;
+
+    private final HttpClient httpClient;
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final List<SampledGauge> gauges;
+
+    /**
+     * Instantiates a new upstream pool.
+     *
+     * @param selectorId the selector id
+     * @param name the pool name
+     * @param config the pool config
+     * @param acquireTimeout the acquire timeout millis
+     * @param clientFactory the factory configures the http client on the connection provider
+     */
+    public UpstreamPool(final String selectorId, final String name, final UpstreamPoolConfig config, final long acquireTimeout,
+                        final Function<ConnectionProvider, HttpClient> clientFactory) {
+        this.name = name;
+        this.config = config;
+        Duration maxIdleTime = config.getMaxIdleTime() > 0 ? Duration.ofMillis(config.getMaxIdleTime()) : null;
+        this.provider = new PendingLimitedConnectionProvider(ConnectionProvider.fixed(name, config.getMaxConnections(), acquireTimeout, maxIdleTime),
+                config.getMaxPendingAcquires());
+        this.httpClient = clientFactory.apply(provider).observe(this::onStateChange);
+        String[] labelValues = {selectorId, name};
+        this.gauges = Arrays.asList(
+                new SampledGauge(ACTIVE_CONNECTIONS, "the active connections of the upstream pool", LABEL_NAMES, labelValues, this::getActive),
+                new SampledGauge(IDLE_CONNECTIONS, "the idle connections of the upstream pool", LABEL_NAMES, labelValues, this::getIdle),
+                new SampledGauge(PENDING_ACQUIRES, "the pending acquires of the upstream pool", LABEL_NAMES, labelValues, this::getPending));
+        gauges.forEach(GaugeRegistry.getInstance()::register);
+    }
+
+    /**
+     * get the http client of the pool.
+     *
+     * @return the http client
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * get the pool name.
+     *
+     * @return the pool name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * get the pool config.
+     *
+     * @return the pool config
+     */
+    public UpstreamPoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * get the active connections.
+     *
+     * @return the active connections
+     */
+    public long getActive() {
+        return active.get();
+    }
+
+    /**
+     * get the idle connections.
+     *
+     * @return the idle connections
+     */
+    public long getIdle() {
+        return Math.max(total.get() - active.get(), 0);
+    }
+
+    /**
+     * get the pending acquires.
+     *
+     * @return the pending acquires
+     */
+    public long getPending() {
+        return provider.getPending();
+    }
+
+    /**
+     * dispose the pool, the connections are closed and the gauges are unregistered.
+     */
+    public void dispose() {
+        gauges.forEach(GaugeRegistry.getInstance()::unregister);
+        provider.disposeLater().subscribe();
+    }
+
+    private void onStateChange(final Connection connection, final ConnectionObserver.State state) {
+        Channel channel = connection.channel();
+        if (state == ConnectionObserver.State.CONNECTED) {
+            channel.attr(CONNECTED_NANOS).set(System.nanoTime());
+            total.incrementAndGet();
+            markInUse(channel);
+            channel.closeFuture().addListener(future -> {
+                total.decrementAndGet();
+                markIdle(channel);
+            });
+        } else if (state == ConnectionObserver.State.ACQUIRED) {
+            markInUse(channel);
+        } else if (state == ConnectionObserver.State.RELEASED) {
+            markIdle(channel);
+            if (isExpired(channel)) {
+                channel.close();
+            }
+        }
+    }
+
+    private void markInUse(final Channel channel) {
+        if (!Boolean.TRUE.equals(channel.attr(IN_USE).getAndSet(Boolean.TRUE))) {
+            active.incrementAndGet();
+        }
+    }
+
+    private void markIdle(final Channel channel) {
+        if (Boolean.TRUE.equals(channel.attr(IN_USE).getAndSet(Boolean.FALSE))) {
+            active.decrementAndGet();
+        }
+    }
+
+    private boolean isExpired(final Channel channel) {
+        Long connectedNanos = channel.attr(CONNECTED_NANOS).get();
+        return config.getMaxLifeTime() > 0 && connectedNanos != null
+                && System.nanoTime() - connectedNanos >= TimeUnit.MILLISECONDS.toNanos(config.getMaxLifeTime());
+    }
+}
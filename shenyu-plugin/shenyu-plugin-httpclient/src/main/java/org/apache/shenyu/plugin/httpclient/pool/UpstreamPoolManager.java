@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.pool;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.apache.shenyu.common.dto.convert.rule.UpstreamPoolConfig;
+import org.apache.shenyu.common.exception.ShenyuException;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The manager of the dedicated upstream pools, a pool is created lazily on the first request of a selector
+ * with the pool config of the rule handle, and disposed when it is not used for a while.
+ */
+public final class UpstreamPoolManager implements AutoCloseable {
+
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 10;
+
+    private final Function<ConnectionProvider, HttpClient> clientFactory;
+
+    private final long acquireTimeout;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private final Cache<PoolKey, UpstreamPool> pools = CacheBuilder.newBuilder()
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .removalListener((RemovalNotification<PoolKey, UpstreamPool> notification) -> notification.getValue().dispose())
+            .build();
+
+    /**
+     * Instantiates a new upstream pool manager.
+     *
+     * @param clientFactory the factory configures the http client on the connection provider
+     * @param acquireTimeout the acquire timeout millis of the pools
+     */
+    public UpstreamPoolManager(final Function<ConnectionProvider, HttpClient> clientFactory, final long acquireTimeout) {
+        this.clientFactory = clientFactory;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * obtain the http client of the dedicated pool.
+     *
+     * @param selectorId the selector id
+     * @param config the pool config
+     * @return the http client
+     */
+    public HttpClient obtain(final String selectorId, final UpstreamPoolConfig config) {
+        PoolKey key = new PoolKey(selectorId, config);
+        UpstreamPool pool = pools.getIfPresent(key);
+        if (Objects.nonNull(pool)) {
+            return pool.getHttpClient();
+        }
+        try {
+            return pools.get(key, () -> new UpstreamPool(selectorId, selectorId + "-" + sequence.incrementAndGet(),
+                    config, acquireTimeout, clientFactory)).getHttpClient();
+        } catch (ExecutionException e) {
+            throw new ShenyuException(e.getCause());
+        }
+    }
+
+    /**
+     * get the pools.
+     *
+     * @return the pools
+     */
+    public Collection<UpstreamPool> getPools() {
+        return pools.asMap().values();
+    }
+
+    /**
+     * dispose all the pools.
+     */
+    @Override
+    public void close() {
+        pools.invalidateAll();
+        pools.cleanUp();
+    }
+
+    private static final class PoolKey {
+
+        private final String selectorId;
+
+        private final UpstreamPoolConfig config;
+
+        PoolKey(final String selectorId, final UpstreamPoolConfig config) {
+            this.selectorId = selectorId;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PoolKey that = (PoolKey) o;
+            return Objects.equals(selectorId, that.selectorId) && Objects.equals(config, that.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(selectorId, config);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.http2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import org.apache.shenyu.common.enums.HttpProtocolEnum;
+import org.apache.shenyu.plugin.httpclient.config.HttpClientProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The test case for {@link Http2ConnectionManager}.
+ */
+public final class Http2ConnectionManagerTest {
+
+    private DisposableServer server;
+
+    private Http2ConnectionManager connectionManager;
+
+    @BeforeEach
+    public void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/delay", (request, response) -> response.sendString(Mono.just("ok").delayElement(Duration.ofMillis(200))))
+                        .post("/echo", (request, response) -> response.sendString(request.receive().aggregate().asString())))
+                .bindNow();
+        connectionManager = new Http2ConnectionManager(new HttpClientProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionManager.close();
+        server.disposeNow();
+    }
+
+    @Test
+    public void testMultiplexOverOneConnection() {
+        List<String> bodies = Flux.range(0, 10)
+                .flatMap(i -> request(HttpProtocolEnum.H2C, HttpMethod.GET, "/delay", Flux.empty()))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(10, bodies.size());
+        assertTrue(bodies.stream().allMatch("ok"::equals));
+        Http2Upstream upstream = connectionManager.getUpstreams().iterator().next();
+        assertEquals(1, upstream.getConnections());
+        assertEquals(0, upstream.getActiveStreams());
+    }
+
+    @Test
+    public void testRequestBody() {
+        Flux<ByteBuf> body = Flux.just("hello", " ", "http/2").map(part -> Unpooled.copiedBuffer(part, StandardCharsets.UTF_8));
+        assertEquals("hello http/2", request(HttpProtocolEnum.H2C, HttpMethod.POST, "/echo", body).block(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void testHttp1IsLeftToHttpClient() {
+        URI uri = uri("/delay");
+        assertFalse(connectionManager.isHttp2(HttpProtocolEnum.H1, uri));
+        assertFalse(connectionManager.isHttp2(HttpProtocolEnum.AUTO, uri));
+        assertTrue(connectionManager.isHttp2(HttpProtocolEnum.AUTO, URI.create("https://localhost/delay")));
+        assertEquals(HttpProtocolEnum.H1, connectionManager.resolve(null));
+        assertEquals(HttpProtocolEnum.H2C, connectionManager.resolve("H2C"));
+        assertNull(connectionManager.request(HttpProtocolEnum.H1, HttpMethod.GET, uri, new DefaultHttpHeaders(), Flux.empty()).block());
+        assertTrue(connectionManager.getUpstreams().isEmpty());
+    }
+
+    @Test
+    public void testStreamsExhausted() {
+        connectionManager.close();
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getHttp2().setMaxConcurrentStreams(1);
+        connectionManager = new Http2ConnectionManager(properties);
+        Mono<String> first = request(HttpProtocolEnum.H2C, HttpMethod.GET, "/delay", Flux.empty());
+        Mono<String> second = request(HttpProtocolEnum.H2C, HttpMethod.GET, "/delay", Flux.empty())
+                .delaySubscription(Duration.ofMillis(100))
+                .onErrorResume(ResponseStatusException.class, e -> Mono.just(String.valueOf(e.getStatus().value())));
+        List<String> results = Flux.merge(first, second).collectList().block(Duration.ofSeconds(10));
+        assertTrue(results.contains("ok"));
+        assertTrue(results.contains(String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value())));
+    }
+
+    private Mono<String> request(final HttpProtocolEnum protocol, final HttpMethod method, final String path, final Flux<ByteBuf> body) {
+        return connectionManager.request(protocol, method, uri(path), new DefaultHttpHeaders(), body)
+                .flatMap(response -> response.body()
+                        .map(buf -> {
+                            try {
+                                return buf.toString(StandardCharsets.UTF_8);
+                            } finally {
+                                buf.release();
+                            }
+                        })
+                        .collectList()
+                        .map(parts -> String.join("", parts)));
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + server.port() + path);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The test case for {@link PendingLimitedConnectionProvider}.
+ */
+public final class PendingLimitedConnectionProviderTest {
+
+    @Test
+    public void testPendingLimit() {
+        ConnectionProvider never = bootstrap -> Mono.never();
+        PendingLimitedConnectionProvider provider = new PendingLimitedConnectionProvider(never, 1);
+        final Disposable pending = provider.acquire(new Bootstrap()).subscribe();
+        assertEquals(1, provider.getPending());
+        StepVerifier.create(provider.acquire(new Bootstrap()))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                        && ((ResponseStatusException) e).getStatus() == HttpStatus.SERVICE_UNAVAILABLE)
+                .verify();
+        assertEquals(1, provider.getPending());
+        pending.dispose();
+        assertEquals(0, provider.getPending());
+    }
+
+    @Test
+    public void testUnbounded() {
+        PendingLimitedConnectionProvider provider = new PendingLimitedConnectionProvider(bootstrap -> Mono.never(), 0);
+        Disposable first = provider.acquire(new Bootstrap()).subscribe();
+        Disposable second = provider.acquire(new Bootstrap()).subscribe();
+        assertEquals(2, provider.getPending());
+        first.dispose();
+        second.dispose();
+        assertEquals(0, provider.getPending());
+    }
+}
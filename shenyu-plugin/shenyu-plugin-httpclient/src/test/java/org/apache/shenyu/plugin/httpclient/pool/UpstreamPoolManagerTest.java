@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.httpclient.pool;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.apache.shenyu.common.dto.convert.rule.UpstreamPoolConfig;
+import org.apache.shenyu.plugin.api.gauge.GaugeRegistry;
+import org.apache.shenyu.plugin.api.gauge.SampledGauge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The test case for {@link UpstreamPoolManager}.
+ */
+public final class UpstreamPoolManagerTest {
+
+    private WireMockServer wireMockServer;
+
+    private UpstreamPoolManager poolManager;
+
+    @BeforeEach
+    public void setUp() {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlEqualTo("/test")).willReturn(aResponse().withStatus(200).withBody("ok")));
+        poolManager = new UpstreamPoolManager(HttpClient::create, 3000L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        poolManager.close();
+        wireMockServer.stop();
+    }
+
+    @Test
+    public void testObtainByConfig() {
+        UpstreamPoolConfig config = new UpstreamPoolConfig(2, 0, 0, 0);
+        HttpClient client = poolManager.obtain("selector", config);
+        assertSame(client, poolManager.obtain("selector", new UpstreamPoolConfig(2, 0, 0, 0)));
+        assertNotSame(client, poolManager.obtain("selector", new UpstreamPoolConfig(4, 0, 0, 0)));
+        assertNotSame(client, poolManager.obtain("other", config));
+        assertEquals(3, poolManager.getPools().size());
+    }
+
+    @Test
+    public void testConnectionGauges() throws InterruptedException {
+        HttpClient client = poolManager.obtain("selector", new UpstreamPoolConfig(2, 0, 0, 0));
+        UpstreamPool pool = poolManager.getPools().iterator().next();
+        assertEquals("ok", request(client));
+        awaitReleased(pool);
+        assertEquals("ok", request(client));
+        awaitReleased(pool);
+        assertEquals(0, pool.getActive());
+        assertEquals(1, pool.getIdle());
+        assertEquals(0, pool.getPending());
+        List<String> names = GaugeRegistry.getInstance().getGauges().stream()
+                .filter(gauge -> pool.getName().equals(gauge.getLabelValues()[1])).map(SampledGauge::getName).collect(Collectors.toList());
+        assertTrue(names.contains(UpstreamPool.ACTIVE_CONNECTIONS));
+        assertTrue(names.contains(UpstreamPool.IDLE_CONNECTIONS));
+        assertTrue(names.contains(UpstreamPool.PENDING_ACQUIRES));
+        poolManager.close();
+        assertTrue(GaugeRegistry.getInstance().getGauges().stream().noneMatch(gauge -> pool.getName().equals(gauge.getLabelValues()[1])));
+    }
+
+    @Test
+    public void testMaxLifeTime() throws InterruptedException {
+        HttpClient client = poolManager.obtain("selector", new UpstreamPoolConfig(2, 0, 0, 1));
+        UpstreamPool pool = poolManager.getPools().iterator().next();
+        Thread.sleep(5);
+        assertEquals("ok", request(client));
+        // the expired connection is closed once it is released
+        awaitReleased(pool);
+        for (int i = 0; i < 100 && pool.getIdle() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getIdle());
+        assertEquals(1, wireMockServer.getAllServeEvents().size());
+    }
+
+    private void awaitReleased(final UpstreamPool pool) throws InterruptedException {
+        // the connection is released to the pool after the response is consumed
+        for (int i = 0; i < 100 && pool.getActive() > 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private String request(final HttpClient client) {
+        return client.get().uri("http://localhost:" + wireMockServer.port() + "/test")
+                .responseSingle((response, body) -> body.asString()).block();
+    }
+}
@@ -17,82 +17,105 @@
 
 package org.apache.shenyu.plugin.logging;
 
-import org.apache.shenyu.common.utils.ThreadUtils;
+import org.apache.shenyu.disruptor.DisruptorBatchProviderManage;
+import org.apache.shenyu.disruptor.provider.DisruptorProvider;
+import org.apache.shenyu.plugin.api.gauge.GaugeRegistry;
+import org.apache.shenyu.plugin.api.gauge.SampledGauge;
+import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
 import org.apache.shenyu.plugin.logging.entity.ShenyuRequestLog;
 import org.apache.shenyu.plugin.logging.utils.LogCollectConfigUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * abstract log collector,Contains common methods.
+ * The logs are published to a disruptor ring buffer, and consumed in batches by a single thread,
+ * the batch is flushed by the batch size or the linger time. The log is dropped when the ring buffer is full.
+ * The dropped logs and the queue depth are sampled into the metrics while the collector is started.
  */
 public abstract class AbstractLogCollector implements LogCollector {
 
+    /**
+     * the dropped logs gauge name.
+     */
+    public static final String DROPPED_LOGS = "shenyu_log_collector_dropped_logs";
+
+    /**
+     * the queue depth gauge name.
+     */
+    public static final String QUEUE_DEPTH = "shenyu_log_collector_queue_depth";
+
+    private static final String[] LABEL_NAMES = {"collector"};
+
     private static final Logger LOG = LoggerFactory.getLogger(AbstractLogCollector.class);
 
-    private int bufferSize;
+    private final AtomicLong droppedCount = new AtomicLong();
 
-    private BlockingQueue<ShenyuRequestLog> bufferQueue;
+    private final List<SampledGauge> gauges;
 
-    private long lastPushTime;
+    private volatile DisruptorProvider<ShenyuRequestLog> provider;
 
-    private final AtomicBoolean started = new AtomicBoolean(true);
+    protected AbstractLogCollector() {
+        String[] labelValues = {getClass().getSimpleName()};
+        this.gauges = Arrays.asList(
+                new SampledGauge(DROPPED_LOGS, "the logs dropped because the buffer of the log collector is full", LABEL_NAMES, labelValues, this::getDroppedCount),
+                new SampledGauge(QUEUE_DEPTH, "the logs waiting in the buffer of the log collector", LABEL_NAMES, labelValues, this::getQueueDepth));
+    }
 
     @Override
-    public void start() {
-        bufferSize = LogCollectConfigUtils.getGlobalLogConfig().getBufferQueueSize();
-        bufferQueue = new LinkedBlockingDeque<>(bufferSize);
-        ExecutorService threadExecutor = Executors.newSingleThreadExecutor();
-        started.set(true);
-        threadExecutor.execute(this::consume);
+    public synchronized void start() {
+        if (Objects.nonNull(provider)) {
+            provider.shutdown();
+        }
+        LogCollectConfig.GlobalLogConfig globalLogConfig = LogCollectConfigUtils.getGlobalLogConfig();
+        DisruptorBatchProviderManage<ShenyuRequestLog> providerManage = new DisruptorBatchProviderManage<>(this::consume,
+                "log_collector", globalLogConfig.getBufferQueueSize(), globalLogConfig.getBatchSize(), globalLogConfig.getLingerMillis());
+        providerManage.startup();
+        provider = providerManage.getProvider();
+        gauges.forEach(GaugeRegistry.getInstance()::register);
     }
 
     @Override
     public void collect(final ShenyuRequestLog log) {
-        if (Objects.isNull(log) || Objects.isNull(getLogConsumeClient())) {
+        DisruptorProvider<ShenyuRequestLog> current = provider;
+        if (Objects.isNull(log) || Objects.isNull(current) || Objects.isNull(getLogConsumeClient())) {
             return;
         }
-        if (bufferQueue.size() < bufferSize) {
-            bufferQueue.add(log);
+        if (!current.tryOnData(log)) {
+            droppedCount.incrementAndGet();
         }
     }
 
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        DisruptorProvider<ShenyuRequestLog> current = provider;
+        return Objects.isNull(current) ? 0 : current.getQueueDepth();
+    }
+
     /**
      * batch and async consume.
+     *
+     * @param logs the batch of the logs
      */
-    private void consume() {
-        while (started.get()) {
-            int diffTimeMSForPush = 100;
-            try {
-                List<ShenyuRequestLog> logs = new ArrayList<>();
-                int size = bufferQueue.size();
-                long time = System.currentTimeMillis();
-                long timeDiffMs = time - lastPushTime;
-                int batchSize = 100;
-                if (size >= batchSize || timeDiffMs > diffTimeMSForPush) {
-                    bufferQueue.drainTo(logs, batchSize);
-                    LogConsumeClient logCollectClient = getLogConsumeClient();
-                    if (logCollectClient != null) {
-                        logCollectClient.consume(logs);
-                    }
-                    lastPushTime = time;
-                } else {
-                    ThreadUtils.sleep(TimeUnit.MILLISECONDS, diffTimeMSForPush);
-                }
-            } catch (Exception e) {
-                LOG.error("DefaultLogCollector collect log error", e);
-                ThreadUtils.sleep(TimeUnit.MILLISECONDS, diffTimeMSForPush);
-            }
+    private void consume(final List<ShenyuRequestLog> logs) {
+        LogConsumeClient logCollectClient = getLogConsumeClient();
+        if (Objects.isNull(logCollectClient)) {
+            return;
+        }
+        try {
+            logCollectClient.consume(logs);
+        } catch (Exception e) {
+            LOG.error("DefaultLogCollector collect log error", e);
         }
     }
 
@@ -104,8 +127,13 @@ public abstract class AbstractLogCollector implements LogCollector {
     protected abstract LogConsumeClient getLogConsumeClient();
 
     @Override
-    public void close() throws Exception {
-        started.set(false);
+    public synchronized void close() throws Exception {
+        gauges.forEach(GaugeRegistry.getInstance()::unregister);
+        if (Objects.nonNull(provider)) {
+            // the remaining logs are flushed before the client is closed
+            provider.shutdown();
+            provider = null;
+        }
         LogConsumeClient logCollectClient = getLogConsumeClient();
         if (logCollectClient != null) {
             logCollectClient.close();
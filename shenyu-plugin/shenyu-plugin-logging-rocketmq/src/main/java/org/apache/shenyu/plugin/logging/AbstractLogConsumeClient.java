@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.apache.shenyu.common.utils.JsonUtils;
+import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
+import org.apache.shenyu.plugin.logging.entity.ShenyuRequestLog;
+import org.apache.shenyu.plugin.logging.file.LogSpiller;
+import org.apache.shenyu.plugin.logging.utils.LogCollectConfigUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The log consume client of the message queue, the logs are grouped by the topic,
+ * and the logs which can not be sent are spilled to the local disk and replayed later.
+ */
+public abstract class AbstractLogConsumeClient implements LogConsumeClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractLogConsumeClient.class);
+
+    private static final long REPLAY_INTERVAL_SECONDS = 5;
+
+    private String topic;
+
+    private volatile LogSpiller spiller;
+
+    private ScheduledExecutorService replayExecutor;
+
+    @Override
+    public synchronized void initClient(final LogCollectConfig.GlobalLogConfig config) {
+        close();
+        this.topic = config.getTopic();
+        if (StringUtils.isNotBlank(config.getSpillDir())) {
+            try {
+                spiller = new LogSpiller(Paths.get(config.getSpillDir()), config.getSpillMaxBytes());
+                replayExecutor = Executors.newSingleThreadScheduledExecutor(ShenyuThreadFactory.create("shenyu-log-replay", true));
+                replayExecutor.scheduleWithFixedDelay(this::replay, REPLAY_INTERVAL_SECONDS, REPLAY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            } catch (IOException e) {
+                LOG.error("init log spiller error, the logs are dropped when the sink is down", e);
+            }
+        }
+        doInit(config);
+    }
+
+    @Override
+    public void consume(final List<ShenyuRequestLog> logs) {
+        if (CollectionUtils.isEmpty(logs)) {
+            return;
+        }
+        Map<String, List<byte[]>> topicLogs = new HashMap<>();
+        for (ShenyuRequestLog log : logs) {
+            String logTopic = StringUtils.defaultIfBlank(LogCollectConfigUtils.getTopic(log.getPath()), topic);
+            topicLogs.computeIfAbsent(logTopic, key -> new ArrayList<>()).add(JsonUtils.toJson(log).getBytes(StandardCharsets.UTF_8));
+        }
+        final boolean started = isStarted();
+        topicLogs.forEach((logTopic, bodies) -> {
+            if (started) {
+                send(logTopic, bodies);
+            } else {
+                spill(logTopic, bodies);
+            }
+        });
+    }
+
+    /**
+     * Spill the logs which can not be sent, they are dropped when the spill is disabled.
+     *
+     * @param logTopic the topic
+     * @param bodies the serialised logs
+     */
+    protected void spill(final String logTopic, final List<byte[]> bodies) {
+        LogSpiller current = spiller;
+        if (Objects.nonNull(current)) {
+            current.spill(logTopic, bodies);
+        }
+    }
+
+    /**
+     * get the log spiller.
+     *
+     * @return the log spiller, null when the spill is disabled
+     */
+    public LogSpiller getSpiller() {
+        return spiller;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(replayExecutor)) {
+            replayExecutor.shutdownNow();
+            replayExecutor = null;
+        }
+        doClose();
+        if (Objects.nonNull(spiller)) {
+            spiller.close();
+            spiller = null;
+        }
+    }
+
+    private void replay() {
+        LogSpiller current = spiller;
+        if (Objects.nonNull(current) && isStarted()) {
+            int count = current.replay(this::sendSync);
+            if (count > 0) {
+                LOG.info("replay {} spilled logs", count);
+            }
+        }
+    }
+
+    /**
+     * init the client of the sink.
+     *
+     * @param config the global log config
+     */
+    protected abstract void doInit(LogCollectConfig.GlobalLogConfig config);
+
+    /**
+     * whether the client of the sink is started.
+     *
+     * @return true when started
+     */
+    protected abstract boolean isStarted();
+
+    /**
+     * Send the logs of the topic, the logs which fail are passed to {@link #spill(String, List)}.
+     *
+     * @param logTopic the topic
+     * @param bodies the serialised logs
+     */
+    protected abstract void send(String logTopic, List<byte[]> bodies);
+
+    /**
+     * Send the replayed logs of the topic synchronously.
+     *
+     * @param logTopic the topic
+     * @param bodies the serialised logs
+     * @throws Exception the logs are not sent
+     */
+    protected abstract void sendSync(String logTopic, List<byte[]> bodies) throws Exception;
+
+    /**
+     * close the client of the sink.
+     */
+    protected abstract void doClose();
+}
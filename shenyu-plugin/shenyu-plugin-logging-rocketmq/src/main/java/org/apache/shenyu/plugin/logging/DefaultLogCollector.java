@@ -37,6 +37,6 @@ public class DefaultLogCollector extends AbstractLogCollector {
 
     @Override
     protected LogConsumeClient getLogConsumeClient() {
-        return LoggingRocketMQPluginDataHandler.getRocketMqLogCollectClient();
+        return LoggingRocketMQPluginDataHandler.getLogConsumeClient();
     }
 }
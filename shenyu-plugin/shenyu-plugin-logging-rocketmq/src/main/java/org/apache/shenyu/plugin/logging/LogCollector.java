@@ -35,4 +35,18 @@ public interface LogCollector extends AutoCloseable {
      * @param log access log
      */
     void collect(ShenyuRequestLog log);
+
+    /**
+     * the count of the logs dropped because the buffer is full.
+     *
+     * @return dropped count
+     */
+    long getDroppedCount();
+
+    /**
+     * the count of the logs waiting in the buffer.
+     *
+     * @return queue depth
+     */
+    long getQueueDepth();
 }
@@ -17,19 +17,30 @@
 
 package org.apache.shenyu.plugin.logging;
 
+import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
 import org.apache.shenyu.plugin.logging.entity.ShenyuRequestLog;
+import org.apache.shenyu.spi.SPI;
 
 import java.util.List;
 
 /**
  * Used to collect logs, which can be stored in remote or local files or databases, or others.
+ * The client is selected by the {@code sinkType} of the global log config.
  */
+@SPI
 public interface LogConsumeClient extends AutoCloseable {
     
+    /**
+     * init the client, the started client is closed first.
+     *
+     * @param config the global log config
+     */
+    void initClient(LogCollectConfig.GlobalLogConfig config);
+    
     /**
      * collect logs.
      *
-     * @param logs list of log
+     * @param logs list of log, the list is reused by the collector after this method returns
      * @throws Exception produce exception
      */
     void consume(List<ShenyuRequestLog> logs) throws Exception;
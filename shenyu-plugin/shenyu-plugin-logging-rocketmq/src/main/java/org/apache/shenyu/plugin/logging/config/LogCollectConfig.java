@@ -70,6 +70,37 @@ public class LogCollectConfig {
 
         private int bufferQueueSize = 50000;
 
+        private int batchSize = 100;
+
+        private long lingerMillis = 100;
+
+        private String sinkType = "rocketmq";
+
+        private String bootstrapServers;
+
+        private String logDir = "logs/shenyu-logging/access";
+
+        /**
+         * default 64MB.
+         */
+        private long segmentBytes = 67108864;
+
+        /**
+         * default 10 minutes.
+         */
+        private long rollMillis = 600000;
+
+        private String fsyncPolicy = "interval";
+
+        private long fsyncIntervalMillis = 1000;
+
+        private String spillDir = "logs/shenyu-logging/spill";
+
+        /**
+         * default 1GB.
+         */
+        private long spillMaxBytes = 1073741824;
+
         /**
          * get sample rate.
          *
@@ -178,6 +209,204 @@ public class LogCollectConfig {
             this.bufferQueueSize = bufferQueueSize;
         }
 
+        /**
+         * get the max logs of a batch.
+         *
+         * @return batch size
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * set the max logs of a batch.
+         *
+         * @param batchSize batch size
+         */
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * get the max milliseconds a log waits for its batch.
+         *
+         * @return linger millis
+         */
+        public long getLingerMillis() {
+            return lingerMillis;
+        }
+
+        /**
+         * set the max milliseconds a log waits for its batch.
+         *
+         * @param lingerMillis linger millis
+         */
+        public void setLingerMillis(final long lingerMillis) {
+            this.lingerMillis = lingerMillis;
+        }
+
+        /**
+         * get the sink type, rocketmq, kafka or file.
+         *
+         * @return sink type
+         */
+        public String getSinkType() {
+            return sinkType;
+        }
+
+        /**
+         * set the sink type, rocketmq, kafka or file.
+         *
+         * @param sinkType sink type
+         */
+        public void setSinkType(final String sinkType) {
+            this.sinkType = sinkType;
+        }
+
+        /**
+         * get the bootstrap servers of kafka.
+         *
+         * @return bootstrap servers
+         */
+        public String getBootstrapServers() {
+            return bootstrapServers;
+        }
+
+        /**
+         * set the bootstrap servers of kafka.
+         *
+         * @param bootstrapServers bootstrap servers
+         */
+        public void setBootstrapServers(final String bootstrapServers) {
+            this.bootstrapServers = bootstrapServers;
+        }
+
+        /**
+         * get the dir of the segments of the file sink.
+         *
+         * @return log dir
+         */
+        public String getLogDir() {
+            return logDir;
+        }
+
+        /**
+         * set the dir of the segments of the file sink.
+         *
+         * @param logDir log dir
+         */
+        public void setLogDir(final String logDir) {
+            this.logDir = logDir;
+        }
+
+        /**
+         * get the max bytes of a segment of the file sink.
+         *
+         * @return segment bytes
+         */
+        public long getSegmentBytes() {
+            return segmentBytes;
+        }
+
+        /**
+         * set the max bytes of a segment of the file sink.
+         *
+         * @param segmentBytes segment bytes
+         */
+        public void setSegmentBytes(final long segmentBytes) {
+            this.segmentBytes = segmentBytes;
+        }
+
+        /**
+         * get the max milliseconds a segment of the file sink is active.
+         *
+         * @return roll millis
+         */
+        public long getRollMillis() {
+            return rollMillis;
+        }
+
+        /**
+         * set the max milliseconds a segment of the file sink is active.
+         *
+         * @param rollMillis roll millis
+         */
+        public void setRollMillis(final long rollMillis) {
+            this.rollMillis = rollMillis;
+        }
+
+        /**
+         * get the fsync policy of the file sink, none, append or interval.
+         *
+         * @return fsync policy
+         */
+        public String getFsyncPolicy() {
+            return fsyncPolicy;
+        }
+
+        /**
+         * set the fsync policy of the file sink, none, append or interval.
+         *
+         * @param fsyncPolicy fsync policy
+         */
+        public void setFsyncPolicy(final String fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+        }
+
+        /**
+         * get the fsync interval of the file sink.
+         *
+         * @return fsync interval millis
+         */
+        public long getFsyncIntervalMillis() {
+            return fsyncIntervalMillis;
+        }
+
+        /**
+         * set the fsync interval of the file sink.
+         *
+         * @param fsyncIntervalMillis fsync interval millis
+         */
+        public void setFsyncIntervalMillis(final long fsyncIntervalMillis) {
+            this.fsyncIntervalMillis = fsyncIntervalMillis;
+        }
+
+        /**
+         * get the dir of the logs spilled when the message queue is down, blank to disable.
+         *
+         * @return spill dir
+         */
+        public String getSpillDir() {
+            return spillDir;
+        }
+
+        /**
+         * set the dir of the logs spilled when the message queue is down, blank to disable.
+         *
+         * @param spillDir spill dir
+         */
+        public void setSpillDir(final String spillDir) {
+            this.spillDir = spillDir;
+        }
+
+        /**
+         * get the max bytes of the spilled logs.
+         *
+         * @return spill max bytes
+         */
+        public long getSpillMaxBytes() {
+            return spillMaxBytes;
+        }
+
+        /**
+         * set the max bytes of the spilled logs.
+         *
+         * @param spillMaxBytes spill max bytes
+         */
+        public void setSpillMaxBytes(final long spillMaxBytes) {
+            this.spillMaxBytes = spillMaxBytes;
+        }
+
         /**
          * get rocketmq nameserver address.
          * @return rocketmq nameserver address
@@ -29,5 +29,15 @@ public final class LoggingConstant {
     public static final String PRODUCER_GROUP = "producerGroup";
 
     public static final String SHENYU_AGENT_TRACE_ID = "shenyu-agent-trace-id";
+
+    /**
+     * the message property of the compress algorithm, the body of the compressed message is a json array of the logs.
+     */
+    public static final String COMPRESS_ALG = "compressAlg";
+
+    /**
+     * the message property of the body length before compressed.
+     */
+    public static final String SRC_LENGTH = "srcLength";
 }
 
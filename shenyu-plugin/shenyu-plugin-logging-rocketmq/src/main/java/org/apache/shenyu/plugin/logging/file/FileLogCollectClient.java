@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.file;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.apache.shenyu.common.utils.JsonUtils;
+import org.apache.shenyu.plugin.logging.LogConsumeClient;
+import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
+import org.apache.shenyu.plugin.logging.entity.ShenyuRequestLog;
+import org.apache.shenyu.spi.Join;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The local file log collect client, every batch of the logs is appended as a frame of the rolling memory-mapped
+ * segments, the data of the frame is {@code (int length | json) * count}. The closed segments are shipped by a sidecar.
+ */
+@Join
+public class FileLogCollectClient implements LogConsumeClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileLogCollectClient.class);
+
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+
+    private volatile MappedSegmentWriter writer;
+
+    private ScheduledExecutorService rollExecutor;
+
+    @Override
+    public synchronized void initClient(final LogCollectConfig.GlobalLogConfig config) {
+        close();
+        try {
+            writer = new MappedSegmentWriter(Paths.get(config.getLogDir()), "access", config.getSegmentBytes(), config.getRollMillis(),
+                    FsyncPolicyEnum.acquireByName(config.getFsyncPolicy()), config.getFsyncIntervalMillis(),
+                    "LZ4".equalsIgnoreCase(StringUtils.trimToEmpty(config.getCompressAlg())));
+            rollExecutor = Executors.newSingleThreadScheduledExecutor(ShenyuThreadFactory.create("shenyu-log-file-roll", true));
+            rollExecutor.scheduleWithFixedDelay(writer::rollIfExpired, 1, 1, TimeUnit.SECONDS);
+            LOG.info("init FileLogCollectClient success, dir:{}", config.getLogDir());
+        } catch (IOException e) {
+            LOG.error("init FileLogCollectClient error", e);
+        }
+    }
+
+    @Override
+    public void consume(final List<ShenyuRequestLog> logs) throws IOException {
+        MappedSegmentWriter current = writer;
+        if (CollectionUtils.isEmpty(logs) || Objects.isNull(current)) {
+            return;
+        }
+        // the collector consumes on a single thread, so the frame buffer is reused
+        frame.reset();
+        DataOutputStream out = new DataOutputStream(frame);
+        for (ShenyuRequestLog log : logs) {
+            byte[] body = JsonUtils.toJson(log).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(body.length);
+            out.write(body);
+        }
+        current.append(frame.toByteArray());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(rollExecutor)) {
+            rollExecutor.shutdownNow();
+            rollExecutor = null;
+        }
+        if (Objects.nonNull(writer)) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.file;
+
+import java.util.Arrays;
+
+/**
+ * The fsync policy of the segment files.
+ */
+public enum FsyncPolicyEnum {
+
+    /**
+     * the dirty pages are written back by the os, a segment is forced when it is closed.
+     */
+    NONE("none"),
+
+    /**
+     * force after every append.
+     */
+    APPEND("append"),
+
+    /**
+     * force at most once per fsync interval.
+     */
+    INTERVAL("interval");
+
+    private final String name;
+
+    FsyncPolicyEnum(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * get name.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * acquire the policy by name, the default is {@link #INTERVAL}.
+     *
+     * @param name name
+     * @return fsync policy
+     */
+    public static FsyncPolicyEnum acquireByName(final String name) {
+        return Arrays.stream(FsyncPolicyEnum.values()).filter(policy -> policy.name.equalsIgnoreCase(name)).findFirst().orElse(INTERVAL);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spill the logs which can not be sent to the local segments, and replay them when the sink recovers.
+ * A frame is {@code utf topic | int count | (int length | body) * count}. The replay is at least once,
+ * the frames of a segment which fails in the middle are sent again.
+ */
+public final class LogSpiller implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LogSpiller.class);
+
+    private static final long SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    private static final long ROLL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final MappedSegmentWriter writer;
+
+    private final long maxBytes;
+
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Instantiates a new log spiller.
+     *
+     * @param dir the dir of the spilled segments
+     * @param maxBytes the max bytes of the spilled segments, the logs are dropped beyond it
+     * @throws IOException the dir can not be created
+     */
+    public LogSpiller(final Path dir, final long maxBytes) throws IOException {
+        this.writer = new MappedSegmentWriter(dir, "spill", SEGMENT_BYTES, ROLL_MILLIS, FsyncPolicyEnum.NONE, 0, true);
+        this.maxBytes = maxBytes;
+        for (Path path : writer.closedSegments()) {
+            spilledBytes.addAndGet(Files.size(path));
+        }
+    }
+
+    /**
+     * Spill the logs of the topic.
+     *
+     * @param topic the topic
+     * @param bodies the serialised logs
+     */
+    public void spill(final String topic, final List<byte[]> bodies) {
+        if (spilledBytes.get() >= maxBytes) {
+            droppedCount.addAndGet(bodies.size());
+            return;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeUTF(topic);
+            dataOut.writeInt(bodies.size());
+            for (byte[] body : bodies) {
+                dataOut.writeInt(body.length);
+                dataOut.write(body);
+            }
+            spilledBytes.addAndGet(writer.append(out.toByteArray()));
+        } catch (IOException e) {
+            droppedCount.addAndGet(bodies.size());
+            LOG.error("spill logs error", e);
+        }
+    }
+
+    /**
+     * Replay the spilled logs, the segment is deleted after all its frames are sent.
+     *
+     * @param sender the sender of the logs
+     * @return the count of the replayed logs
+     */
+    public int replay(final SpillSender sender) {
+        if (spilledBytes.get() == 0) {
+            return 0;
+        }
+        writer.roll();
+        int count = 0;
+        try {
+            for (Path path : writer.closedSegments()) {
+                for (byte[] frame : SegmentReader.readFrames(path)) {
+                    DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(frame));
+                    String topic = dataIn.readUTF();
+                    int size = dataIn.readInt();
+                    List<byte[]> bodies = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        byte[] body = new byte[dataIn.readInt()];
+                        dataIn.readFully(body);
+                        bodies.add(body);
+                    }
+                    sender.send(topic, bodies);
+                    count += size;
+                }
+                spilledBytes.addAndGet(-Files.size(path));
+                Files.delete(path);
+            }
+        } catch (Exception e) {
+            LOG.warn("replay spilled logs error, retry later", e);
+        }
+        return count;
+    }
+
+    /**
+     * the bytes of the spilled logs.
+     *
+     * @return spilled bytes
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * the count of the logs dropped because the spilled bytes exceed the max bytes.
+     *
+     * @return dropped count
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    /**
+     * The sender of the replayed logs.
+     */
+    @FunctionalInterface
+    public interface SpillSender {
+
+        /**
+         * Send the logs of the topic synchronously.
+         *
+         * @param topic the topic
+         * @param bodies the serialised logs
+         * @throws Exception the logs are not sent
+         */
+        void send(String topic, List<byte[]> bodies) throws Exception;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.file;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append the frames to the rolling memory-mapped segment files.
+ *
+ * <p>A frame is {@code int length | byte codec | int srcLength | data}, the codec is 0 for the raw data
+ * and 1 for the lz4 block of the data, the length is the length of the stored data. The active segment is
+ * named {@code *.log.writing}, it is truncated to the written frames and renamed to {@code *.log} when it is
+ * rolled by the size or the time, so a sidecar only ships the {@code *.log} files. The segment left by a crash
+ * is recovered on the start.
+ */
+public final class MappedSegmentWriter implements Closeable {
+
+    /**
+     * the suffix of the closed segment.
+     */
+    public static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * the header bytes of a frame.
+     */
+    public static final int FRAME_HEADER_BYTES = 9;
+
+    /**
+     * the codec of the raw data.
+     */
+    public static final byte CODEC_NONE = 0;
+
+    /**
+     * the codec of the lz4 block.
+     */
+    public static final byte CODEC_LZ4 = 1;
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedSegmentWriter.class);
+
+    private static final String WRITING_SUFFIX = ".writing";
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+
+    private final Path dir;
+
+    private final String prefix;
+
+    private final long segmentBytes;
+
+    private final long rollNanos;
+
+    private final FsyncPolicyEnum fsyncPolicy;
+
+    private final long fsyncIntervalNanos;
+
+    private final boolean compress;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private Path activePath;
+
+    private long createdNanos;
+
+    private long forcedNanos;
+
+    private int sequence;
+
+    /**
+     * Instantiates a new mapped segment writer.
+     *
+     * @param dir the dir of the segments
+     * @param prefix the prefix of the segment name
+     * @param segmentBytes the max bytes of a segment
+     * @param rollMillis the max milliseconds a segment is active
+     * @param fsyncPolicy the fsync policy
+     * @param fsyncIntervalMillis the fsync interval of {@link FsyncPolicyEnum#INTERVAL}
+     * @param compress whether the frames are compressed by lz4
+     * @throws IOException the dir can not be created
+     */
+    public MappedSegmentWriter(final Path dir, final String prefix, final long segmentBytes, final long rollMillis,
+                               final FsyncPolicyEnum fsyncPolicy, final long fsyncIntervalMillis, final boolean compress) throws IOException {
+        this.dir = dir;
+        this.prefix = prefix;
+        this.segmentBytes = Math.min(Integer.MAX_VALUE, Math.max(FRAME_HEADER_BYTES, segmentBytes));
+        this.rollNanos = TimeUnit.MILLISECONDS.toNanos(rollMillis);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.compress = compress;
+        Files.createDirectories(dir);
+        recover();
+    }
+
+    /**
+     * Append a frame.
+     *
+     * @param data the data of the frame
+     * @return the stored bytes of the frame
+     * @throws IOException the segment can not be written
+     */
+    public synchronized int append(final byte[] data) throws IOException {
+        final byte[] stored = compress ? COMPRESSOR.compress(data) : data;
+        final int frameBytes = FRAME_HEADER_BYTES + stored.length;
+        final long now = System.nanoTime();
+        if (Objects.nonNull(buffer) && (buffer.remaining() < frameBytes || now - createdNanos >= rollNanos)) {
+            closeActive();
+        }
+        if (Objects.isNull(buffer)) {
+            openActive(frameBytes, now);
+        }
+        // the header is written after the data, so a frame cut by a crash is left with the zero header
+        final int position = buffer.position();
+        buffer.position(position + FRAME_HEADER_BYTES);
+        buffer.put(stored);
+        buffer.putInt(position + 5, data.length).put(position + 4, compress ? CODEC_LZ4 : CODEC_NONE).putInt(position, stored.length);
+        if (fsyncPolicy == FsyncPolicyEnum.APPEND || fsyncPolicy == FsyncPolicyEnum.INTERVAL && now - forcedNanos >= fsyncIntervalNanos) {
+            buffer.force();
+            forcedNanos = now;
+        }
+        return frameBytes;
+    }
+
+    /**
+     * Close the active segment when its roll time is elapsed.
+     */
+    public synchronized void rollIfExpired() {
+        if (Objects.nonNull(buffer) && System.nanoTime() - createdNanos >= rollNanos) {
+            roll();
+        }
+    }
+
+    /**
+     * Close the active segment, so its frames can be read.
+     */
+    public synchronized void roll() {
+        if (Objects.nonNull(buffer)) {
+            try {
+                closeActive();
+            } catch (IOException e) {
+                LOG.error("roll segment {} error", activePath, e);
+            }
+        }
+    }
+
+    /**
+     * the closed segments in the order of creation.
+     *
+     * @return the paths of the closed segments
+     * @throws IOException the dir can not be listed
+     */
+    public List<Path> closedSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(dir)) {
+            return paths.filter(path -> isSegment(path, SEGMENT_SUFFIX)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        roll();
+    }
+
+    private void openActive(final int frameBytes, final long now) throws IOException {
+        String name = String.format("%s-%013d-%06d%s", prefix, System.currentTimeMillis(), sequence++ % 1_000_000, SEGMENT_SUFFIX);
+        activePath = dir.resolve(name + WRITING_SUFFIX);
+        channel = FileChannel.open(activePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, frameBytes));
+        createdNanos = now;
+        forcedNanos = now;
+    }
+
+    private void closeActive() throws IOException {
+        final int position = buffer.position();
+        try {
+            if (position > 0) {
+                buffer.force();
+            }
+            channel.truncate(position);
+        } finally {
+            channel.close();
+            buffer = null;
+            channel = null;
+        }
+        publish(activePath, position);
+    }
+
+    private void recover() throws IOException {
+        List<Path> writingPaths;
+        try (Stream<Path> paths = Files.list(dir)) {
+            writingPaths = paths.filter(path -> isSegment(path, SEGMENT_SUFFIX + WRITING_SUFFIX)).collect(Collectors.toList());
+        }
+        for (Path path : writingPaths) {
+            final int length;
+            try (FileChannel recoverChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                length = SegmentReader.validLength(recoverChannel.map(FileChannel.MapMode.READ_ONLY, 0, recoverChannel.size()));
+                recoverChannel.truncate(length);
+            }
+            LOG.info("recover segment {} with {} bytes", path, length);
+            publish(path, length);
+        }
+    }
+
+    private void publish(final Path path, final int length) throws IOException {
+        if (length == 0) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        String name = path.getFileName().toString();
+        Files.move(path, path.resolveSibling(name.substring(0, name.length() - WRITING_SUFFIX.length())), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean isSegment(final Path path, final String suffix) {
+        String name = path.getFileName().toString();
+        return name.startsWith(prefix + "-") && name.endsWith(suffix);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.file;
+
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read the frames of the segment written by {@link MappedSegmentWriter}.
+ */
+public final class SegmentReader {
+
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private SegmentReader() {
+    }
+
+    /**
+     * Read the data of the frames.
+     *
+     * @param path the path of the segment
+     * @return the data of the frames
+     * @throws IOException the segment can not be read
+     */
+    public static List<byte[]> readFrames(final Path path) throws IOException {
+        List<byte[]> frames = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final int length = validLength(buffer.duplicate());
+            while (buffer.position() < length) {
+                final int storedLength = buffer.getInt();
+                final byte codec = buffer.get();
+                final int srcLength = buffer.getInt();
+                byte[] stored = new byte[storedLength];
+                buffer.get(stored);
+                frames.add(codec == MappedSegmentWriter.CODEC_LZ4 ? DECOMPRESSOR.decompress(stored, srcLength) : stored);
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * the length of the complete frames, the zero filled or partially written tail is excluded.
+     *
+     * @param buffer the buffer of the segment
+     * @return the valid length
+     */
+    static int validLength(final ByteBuffer buffer) {
+        int position = 0;
+        while (buffer.limit() - position >= MappedSegmentWriter.FRAME_HEADER_BYTES) {
+            final int storedLength = buffer.getInt(position);
+            final byte codec = buffer.get(position + 4);
+            final int srcLength = buffer.getInt(position + 5);
+            final long end = (long) position + MappedSegmentWriter.FRAME_HEADER_BYTES + storedLength;
+            if (storedLength <= 0 || srcLength <= 0 || codec > MappedSegmentWriter.CODEC_LZ4 || codec < 0 || end > buffer.limit()) {
+                break;
+            }
+            position = (int) end;
+        }
+        return position;
+    }
+}
@@ -27,17 +27,17 @@ import org.apache.shenyu.common.enums.SelectorTypeEnum;
 import org.apache.shenyu.common.utils.GsonUtils;
 import org.apache.shenyu.plugin.base.handler.PluginDataHandler;
 import org.apache.shenyu.plugin.logging.DefaultLogCollector;
+import org.apache.shenyu.plugin.logging.LogConsumeClient;
 import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
-import org.apache.shenyu.plugin.logging.constant.LoggingConstant;
-import org.apache.shenyu.plugin.logging.rocketmq.RocketMQLogCollectClient;
 import org.apache.shenyu.plugin.logging.utils.LogCollectConfigUtils;
+import org.apache.shenyu.spi.ExtensionLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -47,16 +47,16 @@ public class LoggingRocketMQPluginDataHandler implements PluginDataHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoggingRocketMQPluginDataHandler.class);
 
-    private static final RocketMQLogCollectClient ROCKET_MQ_LOG_COLLECT_CLIENT = new RocketMQLogCollectClient();
-
     private static final String EMPTY_JSON = "{}";
 
     private static final Map<String, List<String>> SELECT_ID_URI_LIST_MAP = new ConcurrentHashMap<>();
 
     private static final Map<String, LogCollectConfig.LogApiConfig> SELECT_API_CONFIG_MAP = new ConcurrentHashMap<>();
 
+    private static volatile LogConsumeClient logConsumeClient;
+
     /**
-     * start or close rocketMQ client.
+     * start or close the log consume client of the sink type.
      */
     @Override
     public void handlerPlugin(final PluginData pluginData) {
@@ -66,12 +66,13 @@ public class LoggingRocketMQPluginDataHandler implements PluginDataHandler {
                     LogCollectConfig.GlobalLogConfig.class);
 
             LogCollectConfigUtils.setGlobalConfig(globalLogConfig);
-            // start rocketmq producer
-            Properties properties = new Properties();
-            properties.setProperty(LoggingConstant.TOPIC, globalLogConfig.getTopic());
-            properties.setProperty(LoggingConstant.NAMESERVER_ADDRESS, globalLogConfig.getNamesrvAddr());
-            properties.setProperty(LoggingConstant.PRODUCER_GROUP, globalLogConfig.getProducerGroup());
-            ROCKET_MQ_LOG_COLLECT_CLIENT.initProducer(properties);
+            LogConsumeClient client = ExtensionLoader.getExtensionLoader(LogConsumeClient.class)
+                    .getJoin(StringUtils.defaultIfBlank(globalLogConfig.getSinkType(), "rocketmq"));
+            if (Objects.nonNull(logConsumeClient) && logConsumeClient != client) {
+                closeClient(logConsumeClient);
+            }
+            client.initClient(globalLogConfig);
+            logConsumeClient = client;
             DefaultLogCollector.getInstance().start();
         } else {
             try {
@@ -82,6 +83,14 @@ public class LoggingRocketMQPluginDataHandler implements PluginDataHandler {
         }
     }
 
+    private static void closeClient(final LogConsumeClient client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            LOG.error("close log consume client error", e);
+        }
+    }
+
     @Override
     public void handlerSelector(final SelectorData selectorData) {
         LOG.info("handler loggingRocketMQ selector data:{}", GsonUtils.getGson().toJson(selectorData));
@@ -123,11 +132,11 @@ public class LoggingRocketMQPluginDataHandler implements PluginDataHandler {
     }
 
     /**
-     * get rocketmq log collect client.
-     * @return rocketmq log collect client.
+     * get the log consume client of the sink type.
+     * @return log consume client, null before the plugin is enabled.
      */
-    public static RocketMQLogCollectClient getRocketMqLogCollectClient() {
-        return ROCKET_MQ_LOG_COLLECT_CLIENT;
+    public static LogConsumeClient getLogConsumeClient() {
+        return logConsumeClient;
     }
 
     /**
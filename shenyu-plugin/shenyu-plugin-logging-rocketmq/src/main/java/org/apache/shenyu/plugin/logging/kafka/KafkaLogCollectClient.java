@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.kafka;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.shenyu.plugin.logging.AbstractLogConsumeClient;
+import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
+import org.apache.shenyu.spi.Join;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Future;
+
+/**
+ * The kafka log collect client, the logs are batched and compressed by the kafka producer.
+ */
+@Join
+public class KafkaLogCollectClient extends AbstractLogConsumeClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaLogCollectClient.class);
+
+    private static final int MAX_BLOCK_MILLIS = 1000;
+
+    private volatile Producer<byte[], byte[]> producer;
+
+    @Override
+    protected void doInit(final LogCollectConfig.GlobalLogConfig config) {
+        if (StringUtils.isBlank(config.getTopic()) || StringUtils.isBlank(config.getBootstrapServers())) {
+            LOG.error("init KafkaLogCollectClient error, please check topic or bootstrapServers");
+            return;
+        }
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
+        props.put(ProducerConfig.ACKS_CONFIG, "1");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, String.valueOf(config.getLingerMillis()));
+        // the metadata of a broker which is down must not block the collector thread for long
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, String.valueOf(MAX_BLOCK_MILLIS));
+        if ("LZ4".equalsIgnoreCase(StringUtils.trimToEmpty(config.getCompressAlg()))) {
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        }
+        try {
+            producer = new KafkaProducer<>(props, new ByteArraySerializer(), new ByteArraySerializer());
+            LOG.info("init KafkaLogCollectClient success");
+        } catch (Exception e) {
+            LOG.error("init KafkaLogCollectClient error", e);
+        }
+    }
+
+    @Override
+    protected boolean isStarted() {
+        return Objects.nonNull(producer);
+    }
+
+    @Override
+    protected void send(final String logTopic, final List<byte[]> bodies) {
+        for (byte[] body : bodies) {
+            try {
+                producer.send(new ProducerRecord<>(logTopic, body), (metadata, e) -> {
+                    if (Objects.nonNull(e)) {
+                        spill(logTopic, Collections.singletonList(body));
+                    }
+                });
+            } catch (Exception e) {
+                LOG.error("kafka push logs error", e);
+                spill(logTopic, Collections.singletonList(body));
+            }
+        }
+    }
+
+    @Override
+    protected void sendSync(final String logTopic, final List<byte[]> bodies) throws Exception {
+        List<Future<RecordMetadata>> futures = new ArrayList<>(bodies.size());
+        for (byte[] body : bodies) {
+            futures.add(producer.send(new ProducerRecord<>(logTopic, body)));
+        }
+        for (Future<RecordMetadata> future : futures) {
+            future.get();
+        }
+    }
+
+    @Override
+    protected void doClose() {
+        Producer<byte[], byte[]> current = producer;
+        if (Objects.nonNull(current)) {
+            producer = null;
+            current.close(Duration.ofSeconds(5));
+        }
+    }
+}
@@ -19,40 +19,52 @@ package org.apache.shenyu.plugin.logging.rocketmq;
 
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.rocketmq.client.producer.DefaultMQProducer;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.common.message.Message;
-import org.apache.shenyu.common.utils.JsonUtils;
-import org.apache.shenyu.plugin.logging.LogConsumeClient;
+import org.apache.shenyu.plugin.logging.AbstractLogConsumeClient;
+import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
 import org.apache.shenyu.plugin.logging.constant.LoggingConstant;
-import org.apache.shenyu.plugin.logging.entity.LZ4CompressData;
-import org.apache.shenyu.plugin.logging.entity.ShenyuRequestLog;
 import org.apache.shenyu.plugin.logging.utils.LogCollectConfigUtils;
+import org.apache.shenyu.spi.Join;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * queue-based logging collector.
  */
-public class RocketMQLogCollectClient implements LogConsumeClient {
+@Join
+public class RocketMQLogCollectClient extends AbstractLogConsumeClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(RocketMQLogCollectClient.class);
 
     private static final String DEFAULT_PRODUCER_GROUP = "shenyu-plugin-logging-rocketmq";
 
-    private DefaultMQProducer producer;
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
 
-    private String topic;
+    private DefaultMQProducer producer;
 
     private final AtomicBoolean isStarted = new AtomicBoolean(false);
 
+    @Override
+    protected void doInit(final LogCollectConfig.GlobalLogConfig config) {
+        Properties properties = new Properties();
+        properties.setProperty(LoggingConstant.TOPIC, StringUtils.defaultString(config.getTopic()));
+        properties.setProperty(LoggingConstant.NAMESERVER_ADDRESS, StringUtils.defaultString(config.getNamesrvAddr()));
+        properties.setProperty(LoggingConstant.PRODUCER_GROUP, StringUtils.defaultIfBlank(config.getProducerGroup(), DEFAULT_PRODUCER_GROUP));
+        initProducer(properties);
+    }
+
     /**
      * init producer.
      *
@@ -64,7 +76,7 @@ public class RocketMQLogCollectClient implements LogConsumeClient {
             return;
         }
         if (isStarted.get()) {
-            close();
+            doClose();
         }
         String topic = props.getProperty(LoggingConstant.TOPIC);
         String nameserverAddress = props.getProperty(LoggingConstant.NAMESERVER_ADDRESS);
@@ -73,7 +85,6 @@ public class RocketMQLogCollectClient implements LogConsumeClient {
             LOG.error("init RocketMQLogCollectClient error, please check topic or nameserverAddress");
             return;
         }
-        this.topic = topic;
         producer = new DefaultMQProducer(producerGroup);
         producer.setNamesrvAddr(nameserverAddress);
         producer.setRetryTimesWhenSendAsyncFailed(0);
@@ -88,52 +99,130 @@ public class RocketMQLogCollectClient implements LogConsumeClient {
         }
     }
 
+    @Override
+    protected boolean isStarted() {
+        return isStarted.get();
+    }
+
     /**
-     * store logs.
+     * store logs, the logs of a topic are sent in batches, or compressed into one message.
      *
-     * @param logs list of log
+     * @param logTopic the topic
+     * @param bodies the serialised logs
      */
     @Override
-    public void consume(final List<ShenyuRequestLog> logs) {
-        if (CollectionUtils.isEmpty(logs) || !isStarted.get()) {
-            return;
-        }
-        logs.forEach(log -> {
-            String logTopic = StringUtils.defaultIfBlank(LogCollectConfigUtils.getTopic(log.getPath()), topic);
+    protected void send(final String logTopic, final List<byte[]> bodies) {
+        split(bodies, batch -> {
             try {
-                producer.sendOneway(toMessage(logTopic, log));
+                doSend(logTopic, batch, false);
             } catch (Exception e) {
                 LOG.error("rocketmq push logs error", e);
+                spill(logTopic, batch);
             }
         });
     }
 
-    private Message toMessage(final String logTopic, final ShenyuRequestLog log) {
-        byte[] bytes = JsonUtils.toJson(log).getBytes(StandardCharsets.UTF_8);
+    @Override
+    protected void sendSync(final String logTopic, final List<byte[]> bodies) throws Exception {
+        for (List<byte[]> batch : split(bodies)) {
+            doSend(logTopic, batch, true);
+        }
+    }
+
+    private void doSend(final String logTopic, final List<byte[]> bodies, final boolean sync) throws Exception {
         String compressAlg = StringUtils.defaultIfBlank(LogCollectConfigUtils.getGlobalLogConfig().getCompressAlg(), "");
         if ("LZ4".equalsIgnoreCase(compressAlg.trim())) {
-            LZ4CompressData lz4CompressData = new LZ4CompressData(bytes.length, compressedByte(bytes));
-            return new Message(logTopic, JsonUtils.toJson(lz4CompressData).getBytes(StandardCharsets.UTF_8));
+            Message message = toCompressedMessage(logTopic, bodies);
+            if (sync) {
+                producer.send(message);
+            } else {
+                producer.send(message, new SpillCallback(logTopic, bodies));
+            }
+            return;
+        }
+        List<Message> messages = new ArrayList<>(bodies.size());
+        bodies.forEach(body -> messages.add(new Message(logTopic, body)));
+        if (sync) {
+            producer.send(messages);
         } else {
-            return new Message(logTopic, bytes);
+            producer.send(messages, new SpillCallback(logTopic, bodies));
         }
     }
 
-    private byte[] compressedByte(final byte[] srcByte) {
-        LZ4Factory factory = LZ4Factory.fastestInstance();
-        LZ4Compressor compressor = factory.fastCompressor();
-        return compressor.compress(srcByte);
+    /**
+     * split the logs, so every batch fits in a message.
+     */
+    private List<List<byte[]>> split(final List<byte[]> bodies) {
+        List<List<byte[]>> batches = new ArrayList<>();
+        split(bodies, batches::add);
+        return batches;
+    }
+
+    private void split(final List<byte[]> bodies, final Consumer<List<byte[]>> consumer) {
+        final int maxBatchBytes = producer.getMaxMessageSize() / 4 * 3;
+        int from = 0;
+        int bytes = 0;
+        for (int i = 0; i < bodies.size(); i++) {
+            if (i > from && bytes + bodies.get(i).length > maxBatchBytes) {
+                consumer.accept(bodies.subList(from, i));
+                from = i;
+                bytes = 0;
+            }
+            bytes += bodies.get(i).length + 1;
+        }
+        consumer.accept(bodies.subList(from, bodies.size()));
     }
 
+    private Message toCompressedMessage(final String logTopic, final List<byte[]> bodies) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        for (int i = 0; i < bodies.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(bodies.get(i), 0, bodies.get(i).length);
+        }
+        out.write(']');
+        byte[] json = out.toByteArray();
+        Message message = new Message(logTopic, COMPRESSOR.compress(json));
+        message.putUserProperty(LoggingConstant.COMPRESS_ALG, "LZ4");
+        message.putUserProperty(LoggingConstant.SRC_LENGTH, String.valueOf(json.length));
+        return message;
+    }
 
     /**
      * close producer.
      */
     @Override
-    public void close() {
+    protected void doClose() {
         if (producer != null && isStarted.get()) {
             producer.shutdown();
             isStarted.set(false);
         }
     }
+
+    /**
+     * spill the batch which fails to be sent asynchronously.
+     */
+    private final class SpillCallback implements SendCallback {
+
+        private final String logTopic;
+
+        private final List<byte[]> bodies;
+
+        SpillCallback(final String logTopic, final List<byte[]> bodies) {
+            this.logTopic = logTopic;
+            this.bodies = bodies;
+        }
+
+        @Override
+        public void onSuccess(final SendResult sendResult) {
+        }
+
+        @Override
+        public void onException(final Throwable e) {
+            LOG.error("rocketmq push logs error", e);
+            spill(logTopic, bodies);
+        }
+    }
 }
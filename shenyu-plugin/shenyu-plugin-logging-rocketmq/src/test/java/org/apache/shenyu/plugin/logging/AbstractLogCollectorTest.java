@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging;
+
+import org.apache.shenyu.plugin.api.gauge.GaugeRegistry;
+import org.apache.shenyu.plugin.api.gauge.SampledGauge;
+import org.apache.shenyu.plugin.logging.config.LogCollectConfig;
+import org.apache.shenyu.plugin.logging.entity.ShenyuRequestLog;
+import org.apache.shenyu.plugin.logging.utils.LogCollectConfigUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Test Case For AbstractLogCollector.
+ */
+public final class AbstractLogCollectorTest {
+
+    @Test
+    public void testBatchConsume() throws Exception {
+        config(1024, 10);
+        AtomicInteger consumed = new AtomicInteger();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        TestLogCollector collector = new TestLogCollector(logs -> {
+            batchSizes.add(logs.size());
+            consumed.addAndGet(logs.size());
+        });
+        collector.start();
+        for (int i = 0; i < 25; i++) {
+            collector.collect(new ShenyuRequestLog());
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> consumed.get() == 25);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(0, collector.getDroppedCount());
+        collector.close();
+    }
+
+    @Test
+    public void testDropWhenFull() throws Exception {
+        config(4, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger consumed = new AtomicInteger();
+        TestLogCollector collector = new TestLogCollector(logs -> {
+            latch.await();
+            consumed.addAndGet(logs.size());
+        });
+        collector.start();
+        for (int i = 0; i < 20; i++) {
+            collector.collect(new ShenyuRequestLog());
+        }
+        assertTrue(collector.getDroppedCount() > 0);
+        assertTrue(collector.getQueueDepth() > 0);
+        assertEquals(collector.getDroppedCount(), sample(AbstractLogCollector.DROPPED_LOGS));
+        latch.countDown();
+        collector.close();
+        assertEquals(20, consumed.get() + collector.getDroppedCount());
+        assertEquals(0, collector.getQueueDepth());
+        // the gauges are unregistered with the collector
+        assertEquals(-1, sample(AbstractLogCollector.DROPPED_LOGS));
+        assertEquals(-1, sample(AbstractLogCollector.QUEUE_DEPTH));
+    }
+
+    private long sample(final String name) {
+        return GaugeRegistry.getInstance().getGauges().stream()
+                .filter(gauge -> name.equals(gauge.getName()) && "TestLogCollector".equals(gauge.getLabelValues()[0]))
+                .mapToLong(SampledGauge::sample)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    private void config(final int bufferQueueSize, final int batchSize) {
+        LogCollectConfig.GlobalLogConfig config = new LogCollectConfig.GlobalLogConfig();
+        config.setBufferQueueSize(bufferQueueSize);
+        config.setBatchSize(batchSize);
+        config.setLingerMillis(10);
+        LogCollectConfigUtils.setGlobalConfig(config);
+    }
+
+    @FunctionalInterface
+    private interface BatchConsumer {
+
+        void accept(List<ShenyuRequestLog> logs) throws Exception;
+    }
+
+    private static final class TestLogCollector extends AbstractLogCollector {
+
+        private final LogConsumeClient logConsumeClient;
+
+        TestLogCollector(final BatchConsumer consumer) {
+            this.logConsumeClient = new TestLogConsumeClient(consumer);
+        }
+
+        @Override
+        protected LogConsumeClient getLogConsumeClient() {
+            return logConsumeClient;
+        }
+    }
+
+    private static final class TestLogConsumeClient implements LogConsumeClient {
+
+        private final BatchConsumer consumer;
+
+        TestLogConsumeClient(final BatchConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void initClient(final LogCollectConfig.GlobalLogConfig config) {
+        }
+
+        @Override
+        public void consume(final List<ShenyuRequestLog> logs) throws Exception {
+            consumer.accept(logs);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
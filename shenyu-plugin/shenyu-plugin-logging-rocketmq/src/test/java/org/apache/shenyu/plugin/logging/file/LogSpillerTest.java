@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Test Case For LogSpiller.
+ */
+public final class LogSpillerTest {
+
+    @Test
+    public void testSpillAndReplay(@TempDir final Path dir) throws IOException {
+        LogSpiller spiller = new LogSpiller(dir, Long.MAX_VALUE);
+        spiller.spill("topic-a", Arrays.asList(bytes("a1"), bytes("a2")));
+        spiller.spill("topic-b", Arrays.asList(bytes("b1")));
+        assertTrue(spiller.getSpilledBytes() > 0);
+        assertEquals(0, spiller.replay((topic, bodies) -> {
+            throw new IllegalStateException("sink is down");
+        }));
+        List<String> replayed = new ArrayList<>();
+        assertEquals(3, spiller.replay((topic, bodies) -> bodies.forEach(body -> replayed.add(topic + ":" + new String(body, StandardCharsets.UTF_8)))));
+        assertEquals(Arrays.asList("topic-a:a1", "topic-a:a2", "topic-b:b1"), replayed);
+        assertEquals(0, spiller.getSpilledBytes());
+        assertEquals(0, spiller.replay((topic, bodies) -> replayed.clear()));
+        spiller.close();
+    }
+
+    @Test
+    public void testDropBeyondMaxBytes(@TempDir final Path dir) throws IOException {
+        LogSpiller spiller = new LogSpiller(dir, 1);
+        spiller.spill("topic", Arrays.asList(bytes("1")));
+        spiller.spill("topic", Arrays.asList(bytes("2"), bytes("3")));
+        assertEquals(2, spiller.getDroppedCount());
+        spiller.close();
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.logging.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Test Case For MappedSegmentWriter.
+ */
+public final class MappedSegmentWriterTest {
+
+    @Test
+    public void testAppendAndRoll(@TempDir final Path dir) throws IOException {
+        MappedSegmentWriter writer = new MappedSegmentWriter(dir, "test", 64, TimeUnit.HOURS.toMillis(1), FsyncPolicyEnum.APPEND, 0, false);
+        for (int i = 0; i < 10; i++) {
+            writer.append(("log-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        writer.close();
+        List<Path> segments = writer.closedSegments();
+        assertTrue(segments.size() > 1);
+        int index = 0;
+        for (Path segment : segments) {
+            for (byte[] frame : SegmentReader.readFrames(segment)) {
+                assertArrayEquals(("log-" + index++).getBytes(StandardCharsets.UTF_8), frame);
+            }
+        }
+        assertEquals(10, index);
+    }
+
+    @Test
+    public void testCompressAndRollByTime(@TempDir final Path dir) throws IOException {
+        MappedSegmentWriter writer = new MappedSegmentWriter(dir, "test", 1024 * 1024, 0, FsyncPolicyEnum.NONE, 0, true);
+        byte[] data = new String(new char[1000]).replace('\0', 'a').getBytes(StandardCharsets.UTF_8);
+        writer.append(data);
+        writer.rollIfExpired();
+        List<Path> segments = writer.closedSegments();
+        assertEquals(1, segments.size());
+        assertTrue(Files.size(segments.get(0)) < data.length);
+        assertArrayEquals(data, SegmentReader.readFrames(segments.get(0)).get(0));
+    }
+
+    @Test
+    public void testRecover(@TempDir final Path dir) throws IOException {
+        MappedSegmentWriter writer = new MappedSegmentWriter(dir, "test", 1024, TimeUnit.HOURS.toMillis(1), FsyncPolicyEnum.INTERVAL, 0, false);
+        writer.append("crash".getBytes(StandardCharsets.UTF_8));
+        assertTrue(writer.closedSegments().isEmpty());
+        // the active segment is left as if the process crashed
+        MappedSegmentWriter recovered = new MappedSegmentWriter(dir, "test", 1024, TimeUnit.HOURS.toMillis(1), FsyncPolicyEnum.INTERVAL, 0, false);
+        List<Path> segments = recovered.closedSegments();
+        assertEquals(1, segments.size());
+        assertEquals(MappedSegmentWriter.FRAME_HEADER_BYTES + 5, Files.size(segments.get(0)));
+        assertArrayEquals("crash".getBytes(StandardCharsets.UTF_8), SegmentReader.readFrames(segments.get(0)).get(0));
+    }
+}
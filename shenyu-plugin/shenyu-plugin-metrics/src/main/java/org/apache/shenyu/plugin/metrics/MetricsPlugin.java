@@ -19,35 +19,41 @@ package org.apache.shenyu.plugin.metrics;
 
 import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.enums.PluginEnum;
-import org.apache.shenyu.common.utils.DateUtils;
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.apache.shenyu.plugin.metrics.constant.LabelNames;
 import org.apache.shenyu.plugin.metrics.reporter.MetricsReporter;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * the monitor plugin.
+ *
+ * <p>The route metrics are labeled by the matched selector and rule instead of the request path,
+ * so the series are bounded by the configured routes rather than the urls.
  */
 public class MetricsPlugin implements ShenyuPlugin {
     
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    
     @Override
     public Mono<Void> execute(final ServerWebExchange exchange, final ShenyuPluginChain chain) {
         MetricsReporter.counterIncrement(LabelNames.REQUEST_TOTAL);
         ShenyuContext shenyuContext = exchange.getAttribute(Constants.CONTEXT);
         assert shenyuContext != null;
-        MetricsReporter.counterIncrement(LabelNames.REQUEST_TYPE_TOTAL, new String[]{exchange.getRequest().getURI().getPath(), shenyuContext.getRpcType()});
-        LocalDateTime startDateTime = Optional.of(shenyuContext).map(ShenyuContext::getStartDateTime).orElseGet(LocalDateTime::now);
-        return chain.execute(exchange).doOnSuccess(e -> responseCommitted(exchange, startDateTime))
+        MetricsReporter.counterIncrement(LabelNames.REQUEST_TYPE_TOTAL, new String[]{shenyuContext.getRpcType()});
+        long startNanos = System.nanoTime();
+        return chain.execute(exchange).doOnSuccess(e -> responseCommitted(exchange, startNanos, false))
                 .doOnError(throwable -> {
                     MetricsReporter.counterIncrement(LabelNames.REQUEST_THROW_TOTAL);
-                    responseCommitted(exchange, startDateTime);
+                    responseCommitted(exchange, startNanos, true);
                 });
     }
 
@@ -61,20 +67,32 @@ public class MetricsPlugin implements ShenyuPlugin {
         return PluginEnum.METRICS.getName();
     }
     
-    private void responseCommitted(final ServerWebExchange exchange, final LocalDateTime startDateTime) {
+    private void responseCommitted(final ServerWebExchange exchange, final long startNanos, final boolean error) {
         ServerHttpResponse response = exchange.getResponse();
         if (response.isCommitted()) {
-            recordTime(startDateTime);
+            recordTime(exchange, startNanos, error);
         } else {
             response.beforeCommit(() -> {
-                recordTime(startDateTime);
+                recordTime(exchange, startNanos, error);
                 return Mono.empty();
             });
         }
     }
     
-    private void recordTime(final LocalDateTime startDateTime) {
-        long millisBetween = DateUtils.acquireMillisBetween(startDateTime, LocalDateTime.now());
-        MetricsReporter.recordTime(LabelNames.EXECUTE_LATENCY_NAME, millisBetween);
+    private void recordTime(final ServerWebExchange exchange, final long startNanos, final boolean error) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        MetricsReporter.recordTime(LabelNames.EXECUTE_LATENCY_NAME, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        String selectorId = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.MATCHED_SELECTOR_ID);
+        String ruleId = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.MATCHED_RULE_ID);
+        if (Objects.isNull(selectorId) || Objects.isNull(ruleId)) {
+            return;
+        }
+        String upstream = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.HTTP_DOMAIN);
+        String[] labelValues = MetricsReporter.obtainRouteLabels(selectorId, ruleId, Objects.toString(upstream, ""));
+        String traceId = exchange.getAttribute(Constants.SHENYU_AGENT_TRACE_ID);
+        MetricsReporter.observe(LabelNames.ROUTE_LATENCY_NAME, labelValues, elapsedNanos / NANOS_PER_SECOND, traceId);
+        if (error) {
+            MetricsReporter.counterIncrement(LabelNames.ROUTE_THROW_TOTAL, labelValues);
+        }
     }
 }
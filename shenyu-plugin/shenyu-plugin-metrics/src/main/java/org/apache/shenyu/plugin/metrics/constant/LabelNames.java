@@ -41,4 +41,24 @@ public final class LabelNames {
      * The constant EXECUTE_LATENCY_NAME.
      */
     public static final String EXECUTE_LATENCY_NAME = "shenyu_execute_latency_millis";
+    
+    /**
+     * The constant ROUTE_LATENCY_NAME.
+     */
+    public static final String ROUTE_LATENCY_NAME = "shenyu_route_latency_seconds";
+    
+    /**
+     * The constant ROUTE_THROW_TOTAL.
+     */
+    public static final String ROUTE_THROW_TOTAL = "shenyu_route_throw_total";
+    
+    /**
+     * The constant PROFILE_LATENCY_NAME.
+     */
+    public static final String PROFILE_LATENCY_NAME = "shenyu_profile_seconds";
+    
+    /**
+     * The constant PROFILE_ALLOCATED_BYTES_TOTAL.
+     */
+    public static final String PROFILE_ALLOCATED_BYTES_TOTAL = "shenyu_profile_allocated_bytes_total";
 }
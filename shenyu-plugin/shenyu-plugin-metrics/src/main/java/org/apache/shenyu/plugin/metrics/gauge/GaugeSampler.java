@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.gauge;
+
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.apache.shenyu.plugin.api.gauge.GaugeRegistry;
+import org.apache.shenyu.plugin.api.gauge.SampledGauge;
+import org.apache.shenyu.plugin.metrics.reporter.MetricsReporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sample the gauges of the {@link GaugeRegistry} into the metrics periodically,
+ * the series of the unregistered gauges are set to zero once.
+ */
+public final class GaugeSampler {
+    
+    /**
+     * the default sample interval millis.
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 5000L;
+    
+    private static final Logger LOG = LoggerFactory.getLogger(GaugeSampler.class);
+    
+    private final Set<String> registeredNames = new HashSet<>();
+    
+    private Map<String, SampledGauge> lastSampled = new HashMap<>();
+    
+    private ScheduledExecutorService executor;
+    
+    /**
+     * Start sampling.
+     *
+     * @param intervalMillis the sample interval millis
+     */
+    public synchronized void start(final long intervalMillis) {
+        if (Objects.nonNull(executor)) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(ShenyuThreadFactory.create("shenyu-metrics-gauge", true));
+        executor.scheduleWithFixedDelay(this::sampleQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stop sampling.
+     */
+    public synchronized void stop() {
+        if (Objects.nonNull(executor)) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        registeredNames.clear();
+        lastSampled = new HashMap<>();
+    }
+    
+    /**
+     * Sample the registered gauges once.
+     */
+    public synchronized void sample() {
+        Map<String, SampledGauge> sampled = new HashMap<>();
+        for (SampledGauge gauge : GaugeRegistry.getInstance().getGauges()) {
+            if (registeredNames.add(gauge.getName())) {
+                MetricsReporter.registerGauge(gauge.getName(), gauge.getLabelNames(), gauge.getDocument());
+            }
+            MetricsReporter.gaugeSet(gauge.getName(), gauge.getLabelValues(), gauge.sample());
+            sampled.put(gauge.getKey(), gauge);
+        }
+        for (Map.Entry<String, SampledGauge> entry : lastSampled.entrySet()) {
+            if (!sampled.containsKey(entry.getKey())) {
+                MetricsReporter.gaugeSet(entry.getValue().getName(), entry.getValue().getLabelValues(), 0);
+            }
+        }
+        lastSampled = sampled;
+    }
+    
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            LOG.warn("sample the gauges failed", e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.apache.shenyu.plugin.metrics.spi.MetricsRegister;
+import org.apache.shenyu.spi.Join;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer metric register, bridges the shenyu metrics to a micrometer registry, the global registry by default.
+ *
+ * <p>The histograms registered with buckets are observed in seconds, so they are bridged to timers with the buckets
+ * as the service level objectives, the others are bridged to distribution summaries.
+ */
+@Join
+public final class MicrometerMetricsRegister implements MetricsRegister {
+    
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, Definition> definitionMap = new ConcurrentHashMap<>();
+    
+    private final Map<String, Map<List<String>, Meter>> meterMap = new ConcurrentHashMap<>();
+    
+    private final Map<String, Map<List<String>, AtomicLong>> gaugeValueMap = new ConcurrentHashMap<>();
+    
+    /**
+     * Instantiates a new micrometer metrics register on the global registry.
+     */
+    public MicrometerMetricsRegister() {
+        this(Metrics.globalRegistry);
+    }
+    
+    /**
+     * Instantiates a new micrometer metrics register.
+     *
+     * @param meterRegistry the meter registry
+     */
+    public MicrometerMetricsRegister(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Gets meter registry.
+     *
+     * @return the meter registry
+     */
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+    
+    @Override
+    public void registerGauge(final String name, final String[] labelNames, final String document) {
+        define(name, labelNames, document, null);
+    }
+    
+    @Override
+    public void registerCounter(final String name, final String[] labelNames, final String document) {
+        define(name, labelNames, document, null);
+    }
+    
+    @Override
+    public void registerHistogram(final String name, final String[] labelNames, final String document) {
+        registerHistogram(name, labelNames, document, null);
+    }
+    
+    @Override
+    public void registerHistogram(final String name, final String[] labelNames, final String document, final double[] buckets) {
+        define(name, labelNames, document, buckets);
+    }
+    
+    @Override
+    public void counterIncrement(final String name, final String[] labelValues, final long count) {
+        Counter counter = (Counter) obtainMeter(name, labelValues, (definition, tags) -> Counter.builder(name)
+                .description(definition.document).tags(tags).register(meterRegistry));
+        if (Objects.nonNull(counter)) {
+            counter.increment(count);
+        }
+    }
+    
+    @Override
+    public void gaugeIncrement(final String name, final String[] labelValues) {
+        AtomicLong value = obtainGaugeValue(name, labelValues);
+        if (Objects.nonNull(value)) {
+            value.incrementAndGet();
+        }
+    }
+    
+    @Override
+    public void gaugeDecrement(final String name, final String[] labelValues) {
+        AtomicLong value = obtainGaugeValue(name, labelValues);
+        if (Objects.nonNull(value)) {
+            value.decrementAndGet();
+        }
+    }
+    
+    @Override
+    public void gaugeSet(final String name, final String[] labelValues, final long value) {
+        AtomicLong gaugeValue = obtainGaugeValue(name, labelValues);
+        if (Objects.nonNull(gaugeValue)) {
+            gaugeValue.set(value);
+        }
+    }
+    
+    @Override
+    public void recordTime(final String name, final String[] labelValues, final long duration) {
+        observe(name, labelValues, duration);
+    }
+    
+    @Override
+    public void observe(final String name, final String[] labelValues, final double value) {
+        Meter meter = obtainMeter(name, labelValues, this::buildHistogram);
+        if (meter instanceof Timer) {
+            ((Timer) meter).record((long) (value * TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+        } else if (meter instanceof DistributionSummary) {
+            ((DistributionSummary) meter).record(value);
+        }
+    }
+    
+    @Override
+    public void clean() {
+        meterMap.values().forEach(meters -> meters.values().forEach(meterRegistry::remove));
+        meterMap.clear();
+        gaugeValueMap.clear();
+        definitionMap.clear();
+    }
+    
+    private void define(final String name, final String[] labelNames, final String document, final double[] buckets) {
+        meterMap.putIfAbsent(name, new ConcurrentHashMap<>());
+        gaugeValueMap.putIfAbsent(name, new ConcurrentHashMap<>());
+        definitionMap.putIfAbsent(name, new Definition(name, labelNames, document, buckets));
+    }
+    
+    private Meter buildHistogram(final Definition definition, final List<Tag> tags) {
+        String name = definition.name;
+        if (Objects.isNull(definition.buckets)) {
+            return DistributionSummary.builder(name).description(definition.document).tags(tags)
+                    .publishPercentileHistogram().register(meterRegistry);
+        }
+        Duration[] slas = Arrays.stream(definition.buckets).mapToObj(bucket -> Duration.ofNanos((long) (bucket * TimeUnit.SECONDS.toNanos(1))))
+                .toArray(Duration[]::new);
+        return Timer.builder(name).description(definition.document).tags(tags).sla(slas).register(meterRegistry);
+    }
+    
+    private AtomicLong obtainGaugeValue(final String name, final String[] labelValues) {
+        Definition definition = definitionMap.get(name);
+        if (Objects.isNull(definition)) {
+            return null;
+        }
+        Map<List<String>, AtomicLong> values = gaugeValueMap.get(name);
+        List<String> valueKey = toKey(labelValues);
+        AtomicLong current = values.get(valueKey);
+        if (Objects.nonNull(current)) {
+            return current;
+        }
+        return values.computeIfAbsent(valueKey, key -> {
+            AtomicLong value = new AtomicLong();
+            Gauge gauge = Gauge.builder(name, value, AtomicLong::get).description(definition.document)
+                    .tags(toTags(definition, labelValues)).strongReference(true).register(meterRegistry);
+            meterMap.get(name).put(key, gauge);
+            return value;
+        });
+    }
+    
+    private Meter obtainMeter(final String name, final String[] labelValues, final MeterBuilder builder) {
+        Definition definition = definitionMap.get(name);
+        if (Objects.isNull(definition)) {
+            return null;
+        }
+        Map<List<String>, Meter> meters = meterMap.get(name);
+        List<String> meterKey = toKey(labelValues);
+        Meter meter = meters.get(meterKey);
+        if (Objects.nonNull(meter)) {
+            return meter;
+        }
+        return meters.computeIfAbsent(meterKey, key -> builder.build(definition, toTags(definition, labelValues)));
+    }
+    
+    private static List<String> toKey(final String[] labelValues) {
+        return Objects.isNull(labelValues) ? Collections.emptyList() : Arrays.asList(labelValues);
+    }
+    
+    private static List<Tag> toTags(final Definition definition, final String[] labelValues) {
+        if (Objects.isNull(definition.labelNames) || Objects.isNull(labelValues)) {
+            return Collections.emptyList();
+        }
+        List<Tag> tags = new ArrayList<>(labelValues.length);
+        for (int i = 0; i < definition.labelNames.length && i < labelValues.length; i++) {
+            tags.add(Tag.of(definition.labelNames[i], labelValues[i]));
+        }
+        return tags;
+    }
+    
+    @FunctionalInterface
+    private interface MeterBuilder {
+        
+        Meter build(Definition definition, List<Tag> tags);
+    }
+    
+    private static final class Definition {
+        
+        private final String name;
+        
+        private final String[] labelNames;
+        
+        private final String document;
+        
+        private final double[] buckets;
+        
+        Definition(final String name, final String[] labelNames, final String document, final double[] buckets) {
+            this.name = name;
+            this.labelNames = labelNames;
+            this.document = document;
+            this.buckets = buckets;
+        }
+    }
+}
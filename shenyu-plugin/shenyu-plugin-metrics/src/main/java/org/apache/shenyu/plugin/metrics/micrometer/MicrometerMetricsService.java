@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import org.apache.shenyu.common.config.ShenyuConfig.MetricsConfig;
+import org.apache.shenyu.plugin.metrics.spi.MetricsRegister;
+import org.apache.shenyu.plugin.metrics.spi.MetricsService;
+import org.apache.shenyu.spi.Join;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Micrometer metric service, the meters are exported by the registries bound to the micrometer registry,
+ * such as the prometheus or otlp registries of the spring boot actuator, so no server is started here.
+ */
+@Join
+public final class MicrometerMetricsService implements MetricsService {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(MicrometerMetricsService.class);
+    
+    private MicrometerMetricsRegister metricsRegister;
+    
+    private JvmGcMetrics jvmGcMetrics;
+    
+    @Override
+    public void start(final MetricsConfig metricsConfig, final MetricsRegister metricsRegister) {
+        if (!(metricsRegister instanceof MicrometerMetricsRegister)) {
+            LOG.error("micrometer metrics service needs the micrometer metrics register, but is {}", metricsRegister);
+            return;
+        }
+        this.metricsRegister = (MicrometerMetricsRegister) metricsRegister;
+        String jvmEnabled = Optional.ofNullable(metricsConfig.getProps()).map(props -> props.getProperty("jvm_enabled")).orElse(null);
+        if (Boolean.parseBoolean(jvmEnabled)) {
+            MeterRegistry meterRegistry = this.metricsRegister.getMeterRegistry();
+            jvmGcMetrics = new JvmGcMetrics();
+            List<MeterBinder> binders = Arrays.asList(new ClassLoaderMetrics(), new JvmMemoryMetrics(), jvmGcMetrics,
+                    new JvmThreadMetrics(), new ProcessorMetrics());
+            binders.forEach(binder -> binder.bindTo(meterRegistry));
+        }
+        LOG.info("Micrometer metrics service start success.");
+    }
+    
+    @Override
+    public void stop() {
+        Optional.ofNullable(jvmGcMetrics).ifPresent(JvmGcMetrics::close);
+        jvmGcMetrics = null;
+        // only the shenyu meters are removed, the other meters of the shared registry are kept
+        if (Objects.nonNull(metricsRegister)) {
+            metricsRegister.clean();
+        }
+    }
+}
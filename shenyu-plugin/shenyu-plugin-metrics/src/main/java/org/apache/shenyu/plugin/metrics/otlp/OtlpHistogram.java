@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.otlp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * The delta histogram of one series, the buckets are reset when they are collected.
+ *
+ * <p>The exemplar is the slowest observation with a trace id in the interval, it is replaced only by a larger one,
+ * so the request path does not allocate it every time.
+ */
+final class OtlpHistogram {
+    
+    private static final Pattern TRACE_ID_PATTERN = Pattern.compile("[0-9a-fA-F]{32}");
+    
+    private final double[] bounds;
+    
+    private final LongAdder[] buckets;
+    
+    private final DoubleAdder sum = new DoubleAdder();
+    
+    private volatile Exemplar exemplar;
+    
+    OtlpHistogram(final double[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Observe the value, the bucket i counts the values in (bounds[i - 1], bounds[i]].
+     *
+     * @param value the value
+     * @param traceId the trace id, nullable
+     */
+    void observe(final double value, final String traceId) {
+        int index = Arrays.binarySearch(bounds, value);
+        buckets[index >= 0 ? index : -index - 1].increment();
+        sum.add(value);
+        if (Objects.nonNull(traceId)) {
+            Exemplar current = exemplar;
+            if (Objects.isNull(current) || value > current.value) {
+                exemplar = new Exemplar(value, traceId, OtlpMetricsRegister.epochNanos());
+            }
+        }
+    }
+    
+    /**
+     * Collect the data point of the interval and reset it.
+     *
+     * @param dataPoint the data point with the attributes and times
+     * @return false if nothing is observed in the interval
+     */
+    boolean collect(final JsonObject dataPoint) {
+        long count = 0;
+        JsonArray bucketCounts = new JsonArray();
+        for (LongAdder bucket : buckets) {
+            long bucketCount = bucket.sumThenReset();
+            count += bucketCount;
+            bucketCounts.add(String.valueOf(bucketCount));
+        }
+        final double intervalSum = sum.sumThenReset();
+        final Exemplar intervalExemplar = exemplar;
+        exemplar = null;
+        if (count == 0) {
+            return false;
+        }
+        dataPoint.addProperty("count", String.valueOf(count));
+        dataPoint.addProperty("sum", intervalSum);
+        dataPoint.add("bucketCounts", bucketCounts);
+        JsonArray explicitBounds = new JsonArray();
+        Arrays.stream(bounds).forEach(explicitBounds::add);
+        dataPoint.add("explicitBounds", explicitBounds);
+        if (Objects.nonNull(intervalExemplar)) {
+            JsonArray exemplars = new JsonArray();
+            exemplars.add(intervalExemplar.toJson());
+            dataPoint.add("exemplars", exemplars);
+        }
+        return true;
+    }
+    
+    private static final class Exemplar {
+        
+        private final double value;
+        
+        private final String traceId;
+        
+        private final long timeUnixNano;
+        
+        Exemplar(final double value, final String traceId, final long timeUnixNano) {
+            this.value = value;
+            this.traceId = traceId;
+            this.timeUnixNano = timeUnixNano;
+        }
+        
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("timeUnixNano", String.valueOf(timeUnixNano));
+            json.addProperty("asDouble", value);
+            // the otlp trace id is 16 bytes in hex, the other trace ids are kept as an attribute
+            if (TRACE_ID_PATTERN.matcher(traceId).matches()) {
+                json.addProperty("traceId", traceId.toLowerCase());
+            } else {
+                JsonArray attributes = new JsonArray();
+                attributes.add(OtlpMetricsRegister.attribute("trace_id", traceId));
+                json.add("filteredAttributes", attributes);
+            }
+            return json;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.otlp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.apache.shenyu.plugin.metrics.enums.MetricType;
+import org.apache.shenyu.plugin.metrics.spi.MetricsRegister;
+import org.apache.shenyu.spi.Join;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * OTLP metric register, keeps the counters and histograms as deltas of the export interval.
+ *
+ * <p>The series without any increment in the interval are not exported, so the idle routes cost nothing.
+ */
+@Join
+public final class OtlpMetricsRegister implements MetricsRegister {
+    
+    /**
+     * AGGREGATION_TEMPORALITY_DELTA of the otlp protocol.
+     */
+    private static final int AGGREGATION_TEMPORALITY_DELTA = 1;
+    
+    /**
+     * the default bounds of the histograms registered without buckets, the same as the opentelemetry sdk.
+     */
+    private static final double[] DEFAULT_BOUNDS = {0, 5, 10, 25, 50, 75, 100, 250, 500, 750, 1000, 2500, 5000, 7500, 10000};
+    
+    private final Map<String, Definition> definitionMap = new ConcurrentHashMap<>();
+    
+    private final Map<String, Map<List<String>, LongAdder>> counterMap = new ConcurrentHashMap<>();
+    
+    private final Map<String, Map<List<String>, AtomicLong>> gaugeMap = new ConcurrentHashMap<>();
+    
+    private final Map<String, Map<List<String>, OtlpHistogram>> histogramMap = new ConcurrentHashMap<>();
+    
+    private long lastCollectNanos = epochNanos();
+    
+    @Override
+    public void registerGauge(final String name, final String[] labelNames, final String document) {
+        gaugeMap.putIfAbsent(name, new ConcurrentHashMap<>());
+        definitionMap.putIfAbsent(name, new Definition(MetricType.GAUGE, labelNames, document, null));
+    }
+    
+    @Override
+    public void registerCounter(final String name, final String[] labelNames, final String document) {
+        counterMap.putIfAbsent(name, new ConcurrentHashMap<>());
+        definitionMap.putIfAbsent(name, new Definition(MetricType.COUNTER, labelNames, document, null));
+    }
+    
+    @Override
+    public void registerHistogram(final String name, final String[] labelNames, final String document) {
+        registerHistogram(name, labelNames, document, null);
+    }
+    
+    @Override
+    public void registerHistogram(final String name, final String[] labelNames, final String document, final double[] buckets) {
+        histogramMap.putIfAbsent(name, new ConcurrentHashMap<>());
+        definitionMap.putIfAbsent(name, new Definition(MetricType.HISTOGRAM, labelNames, document, Objects.isNull(buckets) ? DEFAULT_BOUNDS : buckets));
+    }
+    
+    @Override
+    public void counterIncrement(final String name, final String[] labelValues, final long count) {
+        LongAdder counter = obtain(counterMap.get(name), labelValues, key -> new LongAdder());
+        if (Objects.nonNull(counter)) {
+            counter.add(count);
+        }
+    }
+    
+    @Override
+    public void gaugeIncrement(final String name, final String[] labelValues) {
+        AtomicLong gauge = obtain(gaugeMap.get(name), labelValues, key -> new AtomicLong());
+        if (Objects.nonNull(gauge)) {
+            gauge.incrementAndGet();
+        }
+    }
+    
+    @Override
+    public void gaugeDecrement(final String name, final String[] labelValues) {
+        AtomicLong gauge = obtain(gaugeMap.get(name), labelValues, key -> new AtomicLong());
+        if (Objects.nonNull(gauge)) {
+            gauge.decrementAndGet();
+        }
+    }
+    
+    @Override
+    public void gaugeSet(final String name, final String[] labelValues, final long value) {
+        AtomicLong gauge = obtain(gaugeMap.get(name), labelValues, key -> new AtomicLong());
+        if (Objects.nonNull(gauge)) {
+            gauge.set(value);
+        }
+    }
+    
+    @Override
+    public void recordTime(final String name, final String[] labelValues, final long duration) {
+        observe(name, labelValues, duration, null);
+    }
+    
+    @Override
+    public void observe(final String name, final String[] labelValues, final double value) {
+        observe(name, labelValues, value, null);
+    }
+    
+    @Override
+    public void observe(final String name, final String[] labelValues, final double value, final String traceId) {
+        Definition definition = definitionMap.get(name);
+        if (Objects.isNull(definition)) {
+            return;
+        }
+        OtlpHistogram histogram = obtain(histogramMap.get(name), labelValues, key -> new OtlpHistogram(definition.buckets));
+        if (Objects.nonNull(histogram)) {
+            histogram.observe(value, traceId);
+        }
+    }
+    
+    @Override
+    public void clean() {
+        counterMap.clear();
+        gaugeMap.clear();
+        histogramMap.clear();
+        definitionMap.clear();
+    }
+    
+    /**
+     * Collect the otlp metrics of the interval since the last collection, the deltas are reset.
+     *
+     * @return the otlp metrics in json
+     */
+    public synchronized List<JsonObject> collect() {
+        long startNanos = lastCollectNanos;
+        long nowNanos = epochNanos();
+        lastCollectNanos = nowNanos;
+        List<JsonObject> metrics = new ArrayList<>();
+        definitionMap.forEach((name, definition) -> {
+            JsonArray dataPoints = new JsonArray();
+            switch (definition.type) {
+                case COUNTER:
+                    collectSeries(counterMap.get(name), definition, (counter, dataPoint) -> {
+                        long delta = counter.sumThenReset();
+                        dataPoint.addProperty("asInt", String.valueOf(delta));
+                        return delta > 0;
+                    }, startNanos, nowNanos, dataPoints);
+                    break;
+                case GAUGE:
+                    collectSeries(gaugeMap.get(name), definition, (gauge, dataPoint) -> {
+                        dataPoint.addProperty("asInt", String.valueOf(gauge.get()));
+                        return true;
+                    }, startNanos, nowNanos, dataPoints);
+                    break;
+                default:
+                    collectSeries(histogramMap.get(name), definition, OtlpHistogram::collect, startNanos, nowNanos, dataPoints);
+                    break;
+            }
+            if (dataPoints.size() > 0) {
+                metrics.add(toMetric(name, definition, dataPoints));
+            }
+        });
+        return metrics;
+    }
+    
+    /**
+     * The current epoch time in nanos.
+     *
+     * @return the epoch nanos
+     */
+    static long epochNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+    
+    /**
+     * Build the otlp string attribute.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the attribute in json
+     */
+    static JsonObject attribute(final String key, final String value) {
+        JsonObject anyValue = new JsonObject();
+        anyValue.addProperty("stringValue", value);
+        JsonObject attribute = new JsonObject();
+        attribute.addProperty("key", key);
+        attribute.add("value", anyValue);
+        return attribute;
+    }
+    
+    private static JsonObject toMetric(final String name, final Definition definition, final JsonArray dataPoints) {
+        JsonObject data = new JsonObject();
+        data.add("dataPoints", dataPoints);
+        JsonObject metric = new JsonObject();
+        metric.addProperty("name", name);
+        metric.addProperty("description", definition.document);
+        switch (definition.type) {
+            case COUNTER:
+                data.addProperty("aggregationTemporality", AGGREGATION_TEMPORALITY_DELTA);
+                data.addProperty("isMonotonic", true);
+                metric.add("sum", data);
+                break;
+            case GAUGE:
+                metric.add("gauge", data);
+                break;
+            default:
+                data.addProperty("aggregationTemporality", AGGREGATION_TEMPORALITY_DELTA);
+                metric.add("histogram", data);
+                break;
+        }
+        return metric;
+    }
+    
+    private static <T> void collectSeries(final Map<List<String>, T> seriesMap, final Definition definition, final DataPointWriter<T> writer,
+                                          final long startNanos, final long nowNanos, final JsonArray dataPoints) {
+        if (Objects.isNull(seriesMap)) {
+            return;
+        }
+        seriesMap.forEach((labelValues, series) -> {
+            JsonObject dataPoint = new JsonObject();
+            if (writer.write(series, dataPoint)) {
+                JsonArray attributes = new JsonArray();
+                for (int i = 0; Objects.nonNull(definition.labelNames) && i < definition.labelNames.length && i < labelValues.size(); i++) {
+                    attributes.add(attribute(definition.labelNames[i], labelValues.get(i)));
+                }
+                dataPoint.add("attributes", attributes);
+                dataPoint.addProperty("startTimeUnixNano", String.valueOf(startNanos));
+                dataPoint.addProperty("timeUnixNano", String.valueOf(nowNanos));
+                dataPoints.add(dataPoint);
+            }
+        });
+    }
+    
+    private static <T> T obtain(final Map<List<String>, T> seriesMap, final String[] labelValues, final Function<List<String>, T> creator) {
+        if (Objects.isNull(seriesMap)) {
+            return null;
+        }
+        List<String> key = Objects.isNull(labelValues) ? Collections.emptyList() : Arrays.asList(labelValues);
+        T series = seriesMap.get(key);
+        return Objects.nonNull(series) ? series : seriesMap.computeIfAbsent(key, creator);
+    }
+    
+    @FunctionalInterface
+    private interface DataPointWriter<T> {
+        
+        boolean write(T series, JsonObject dataPoint);
+    }
+    
+    private static final class Definition {
+        
+        private final MetricType type;
+        
+        private final String[] labelNames;
+        
+        private final String document;
+        
+        private final double[] buckets;
+        
+        Definition(final MetricType type, final String[] labelNames, final String document, final double[] buckets) {
+            this.type = type;
+            this.labelNames = labelNames;
+            this.document = document;
+            this.buckets = buckets;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.otlp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.apache.shenyu.common.config.ShenyuConfig.MetricsConfig;
+import org.apache.shenyu.plugin.metrics.spi.MetricsRegister;
+import org.apache.shenyu.plugin.metrics.spi.MetricsService;
+import org.apache.shenyu.spi.Join;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * OTLP metric service, pushes the deltas of the otlp register to an otlp/http collector in json, at a fixed interval.
+ *
+ * <p>The metrics of one interval are sent in batches of {@code batch_size} metrics per request. The metrics that
+ * are not sent, because the collector is unreachable or asks to retry, are sent again with the next interval, at
+ * most {@code max_unsent_size} of them are kept and the oldest are dropped.
+ */
+@Join
+public final class OtlpMetricsService implements MetricsService {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(OtlpMetricsService.class);
+    
+    private static final int TIMEOUT_MILLIS = 5000;
+    
+    private static final Set<Integer> RETRYABLE_STATUS = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+    
+    private final List<JsonObject> unsent = new ArrayList<>();
+    
+    private OtlpMetricsRegister metricsRegister;
+    
+    private ScheduledExecutorService executor;
+    
+    private URL endpoint;
+    
+    private int batchSize;
+    
+    private int maxUnsentSize;
+    
+    private JsonObject resource;
+    
+    @Override
+    public void start(final MetricsConfig metricsConfig, final MetricsRegister metricsRegister) {
+        if (!(metricsRegister instanceof OtlpMetricsRegister)) {
+            LOG.error("otlp metrics service needs the otlp metrics register, but is {}", metricsRegister);
+            return;
+        }
+        this.metricsRegister = (OtlpMetricsRegister) metricsRegister;
+        Properties props = Optional.ofNullable(metricsConfig.getProps()).orElseGet(Properties::new);
+        String host = StringUtils.defaultIfEmpty(metricsConfig.getHost(), "localhost");
+        int port = Optional.ofNullable(metricsConfig.getPort()).orElse(4318);
+        String url = props.getProperty("endpoint", String.format("http://%s:%s/v1/metrics", host, port));
+        try {
+            this.endpoint = new URL(url);
+        } catch (IOException e) {
+            LOG.error("otlp metrics endpoint {} is invalid", url, e);
+            return;
+        }
+        this.batchSize = Integer.parseInt(props.getProperty("batch_size", "500"));
+        this.maxUnsentSize = Integer.parseInt(props.getProperty("max_unsent_size", "5000"));
+        this.resource = buildResource(props.getProperty("service_name", "shenyu-gateway"));
+        long interval = Long.parseLong(props.getProperty("export_interval_millis", "10000"));
+        executor = Executors.newSingleThreadScheduledExecutor(ShenyuThreadFactory.create("shenyu-metrics-otlp", true));
+        executor.scheduleWithFixedDelay(this::export, interval, interval, TimeUnit.MILLISECONDS);
+        LOG.info("Otlp metrics push to `{}` every {} millis start success.", url, interval);
+    }
+    
+    @Override
+    public void stop() {
+        Optional.ofNullable(executor).ifPresent(ScheduledExecutorService::shutdown);
+        executor = null;
+        // flush the last interval
+        if (Objects.nonNull(metricsRegister) && Objects.nonNull(endpoint)) {
+            export();
+            dropUnsent();
+        }
+    }
+    
+    /**
+     * Export the metrics of the interval, with the metrics not sent by the last export.
+     */
+    public synchronized void export() {
+        List<JsonObject> metrics = new ArrayList<>(unsent);
+        unsent.clear();
+        int from = 0;
+        try {
+            metrics.addAll(metricsRegister.collect());
+            for (; from < metrics.size(); from += batchSize) {
+                List<JsonObject> batch = metrics.subList(from, Math.min(from + batchSize, metrics.size()));
+                post(buildPayload(batch), batch.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("otlp metrics export to {} failed, {} metrics are sent with the next export", endpoint, metrics.size() - from, e);
+            keepUnsent(metrics.subList(from, metrics.size()));
+        }
+    }
+    
+    private void keepUnsent(final List<JsonObject> metrics) {
+        int dropped = metrics.size() - maxUnsentSize;
+        if (dropped > 0) {
+            LOG.warn("otlp metrics export keeps at most {} unsent metrics, {} oldest metrics are dropped", maxUnsentSize, dropped);
+        }
+        unsent.addAll(metrics.subList(Math.max(dropped, 0), metrics.size()));
+    }
+    
+    private synchronized void dropUnsent() {
+        if (!unsent.isEmpty()) {
+            LOG.warn("otlp metrics export is stopped, {} unsent metrics are dropped", unsent.size());
+            unsent.clear();
+        }
+    }
+    
+    private JsonObject buildPayload(final List<JsonObject> metrics) {
+        JsonObject scope = new JsonObject();
+        scope.addProperty("name", "org.apache.shenyu");
+        JsonArray metricArray = new JsonArray();
+        metrics.forEach(metricArray::add);
+        JsonObject scopeMetrics = new JsonObject();
+        scopeMetrics.add("scope", scope);
+        scopeMetrics.add("metrics", metricArray);
+        JsonArray scopeMetricsArray = new JsonArray();
+        scopeMetricsArray.add(scopeMetrics);
+        JsonObject resourceMetrics = new JsonObject();
+        resourceMetrics.add("resource", resource);
+        resourceMetrics.add("scopeMetrics", scopeMetricsArray);
+        JsonArray resourceMetricsArray = new JsonArray();
+        resourceMetricsArray.add(resourceMetrics);
+        JsonObject payload = new JsonObject();
+        payload.add("resourceMetrics", resourceMetricsArray);
+        return payload;
+    }
+    
+    private void post(final JsonObject payload, final int size) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            try (OutputStream outputStream = new GZIPOutputStream(connection.getOutputStream())) {
+                outputStream.write(payload.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            int status = connection.getResponseCode();
+            if (RETRYABLE_STATUS.contains(status)) {
+                throw new IOException("otlp collector asks to retry, status:" + status);
+            }
+            if (status >= HttpURLConnection.HTTP_MULT_CHOICE) {
+                LOG.warn("otlp metrics export to {} failed, status:{}, {} metrics are dropped", endpoint, status, size);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    private static JsonObject buildResource(final String serviceName) {
+        JsonArray attributes = new JsonArray();
+        attributes.add(OtlpMetricsRegister.attribute("service.name", serviceName));
+        JsonObject resource = new JsonObject();
+        resource.add("attributes", attributes);
+        return resource;
+    }
+}
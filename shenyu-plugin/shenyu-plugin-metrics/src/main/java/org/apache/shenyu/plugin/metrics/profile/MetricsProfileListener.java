@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.profile;
+
+import org.apache.shenyu.plugin.api.profile.ProfileListener;
+import org.apache.shenyu.plugin.api.profile.ProfileType;
+import org.apache.shenyu.plugin.metrics.constant.LabelNames;
+import org.apache.shenyu.plugin.metrics.reporter.MetricsReporter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Export the profiled plugins to the metrics, the routes are left to the route metrics of the metrics plugin.
+ */
+public final class MetricsProfileListener implements ProfileListener {
+    
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    
+    private final Map<ProfileType, Map<String, String[]>> labelMap = new EnumMap<>(ProfileType.class);
+    
+    /**
+     * Instantiates a new metrics profile listener.
+     */
+    public MetricsProfileListener() {
+        for (ProfileType type : ProfileType.values()) {
+            labelMap.put(type, new ConcurrentHashMap<>());
+        }
+    }
+    
+    @Override
+    public void onProfile(final ProfileType type, final String name, final long nanos, final long allocatedBytes) {
+        if (type == ProfileType.ROUTE) {
+            return;
+        }
+        String[] labelValues = labelMap.get(type).computeIfAbsent(name, key -> new String[]{type.name().toLowerCase(), key});
+        MetricsReporter.observe(LabelNames.PROFILE_LATENCY_NAME, labelValues, nanos / NANOS_PER_SECOND);
+        if (allocatedBytes > 0) {
+            MetricsReporter.counterIncrement(LabelNames.PROFILE_ALLOCATED_BYTES_TOTAL, labelValues, allocatedBytes);
+        }
+    }
+}
@@ -63,11 +63,19 @@ public final class PrometheusMetricsRegister implements MetricsRegister {
     
     @Override
     public void registerHistogram(final String name, final String[] labelNames, final String document) {
+        registerHistogram(name, labelNames, document, null);
+    }
+    
+    @Override
+    public void registerHistogram(final String name, final String[] labelNames, final String document, final double[] buckets) {
         if (!HISTOGRAM_MAP.containsKey(name)) {
             Histogram.Builder builder = Histogram.build().name(name).help(document);
             if (null != labelNames) {
                 builder.labelNames(labelNames);
             }
+            if (null != buckets) {
+                builder.buckets(buckets);
+            }
             HISTOGRAM_MAP.putIfAbsent(name, builder.register());
         }
     }
@@ -111,6 +119,19 @@ public final class PrometheusMetricsRegister implements MetricsRegister {
         }
     }
     
+    @Override
+    public void gaugeSet(final String name, final String[] labelValues, final long value) {
+        Gauge gauge = GAUGE_MAP.get(name);
+        if (Objects.isNull(gauge)) {
+            return;
+        }
+        if (null != labelValues) {
+            gauge.labels(labelValues).set(value);
+        } else {
+            gauge.set(value);
+        }
+    }
+    
     @Override
     public void recordTime(final String name, final String[] labelValues, final long duration) {
         Histogram histogram = HISTOGRAM_MAP.get(name);
@@ -124,6 +145,19 @@ public final class PrometheusMetricsRegister implements MetricsRegister {
         }
     }
     
+    @Override
+    public void observe(final String name, final String[] labelValues, final double value) {
+        Histogram histogram = HISTOGRAM_MAP.get(name);
+        if (Objects.isNull(histogram)) {
+            return;
+        }
+        if (null != labelValues) {
+            histogram.labels(labelValues).observe(value);
+        } else {
+            histogram.observe(value);
+        }
+    }
+    
     /**
      * Clean.
      */
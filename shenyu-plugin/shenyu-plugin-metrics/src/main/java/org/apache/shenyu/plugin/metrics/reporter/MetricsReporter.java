@@ -19,6 +19,7 @@ package org.apache.shenyu.plugin.metrics.reporter;
 
 import org.apache.shenyu.plugin.metrics.config.Metric;
 import org.apache.shenyu.plugin.metrics.constant.LabelNames;
+import org.apache.shenyu.plugin.metrics.route.RouteLabelCache;
 import org.apache.shenyu.plugin.metrics.spi.MetricsRegister;
 
 import java.util.Collection;
@@ -30,8 +31,18 @@ import java.util.Optional;
  */
 public final class MetricsReporter {
     
+    private static final String[] ROUTE_LABEL_NAMES = {"selector", "rule", "upstream"};
+    
+    private static final double[] ROUTE_LATENCY_BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    
+    private static final String[] PROFILE_LABEL_NAMES = {"type", "name"};
+    
+    private static final double[] PROFILE_LATENCY_BUCKETS = {0.00001, 0.000025, 0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.1, 1};
+    
     private static MetricsRegister metricsRegister;
     
+    private static RouteLabelCache routeLabelCache = new RouteLabelCache(RouteLabelCache.DEFAULT_MAX_SERIES);
+    
     /**
      * Register.
      *
@@ -40,9 +51,34 @@ public final class MetricsReporter {
     public static void register(final MetricsRegister metricsRegister) {
         MetricsReporter.metricsRegister = metricsRegister;
         MetricsReporter.registerCounter(LabelNames.REQUEST_TOTAL, "shenyu request total count");
-        MetricsReporter.registerCounter(LabelNames.REQUEST_TYPE_TOTAL, new String[]{"path", "type"}, "shenyu http request type total count");
+        MetricsReporter.registerCounter(LabelNames.REQUEST_TYPE_TOTAL, new String[]{"type"}, "shenyu http request type total count");
         MetricsReporter.registerCounter(LabelNames.REQUEST_THROW_TOTAL, "shenyu request error total count");
         MetricsReporter.registerHistogram(LabelNames.EXECUTE_LATENCY_NAME, "the shenyu executor latency millis");
+        MetricsReporter.registerHistogram(LabelNames.ROUTE_LATENCY_NAME, ROUTE_LABEL_NAMES, "the shenyu route latency seconds", ROUTE_LATENCY_BUCKETS);
+        MetricsReporter.registerCounter(LabelNames.ROUTE_THROW_TOTAL, ROUTE_LABEL_NAMES, "shenyu route error total count");
+        MetricsReporter.registerHistogram(LabelNames.PROFILE_LATENCY_NAME, PROFILE_LABEL_NAMES, "the shenyu profiled plugin and match seconds", PROFILE_LATENCY_BUCKETS);
+        MetricsReporter.registerCounter(LabelNames.PROFILE_ALLOCATED_BYTES_TOTAL, PROFILE_LABEL_NAMES, "the shenyu profiled plugin allocated bytes");
+    }
+    
+    /**
+     * Set the max series of the route metrics, the routes beyond it share the {@code other} labels.
+     *
+     * @param maxSeries the max series
+     */
+    public static void setRouteMaxSeries(final int maxSeries) {
+        routeLabelCache = new RouteLabelCache(maxSeries);
+    }
+    
+    /**
+     * Obtain the label values of the route metrics.
+     *
+     * @param selectorId the matched selector id
+     * @param ruleId the matched rule id
+     * @param upstream the upstream
+     * @return the label values
+     */
+    public static String[] obtainRouteLabels(final String selectorId, final String ruleId, final String upstream) {
+        return routeLabelCache.obtain(selectorId, ruleId, upstream);
     }
     
     /**
@@ -110,6 +146,18 @@ public final class MetricsReporter {
         registerGauge(name, null, document);
     }
     
+    /**
+     * Register histogram by label names and bucket upper bounds.
+     *
+     * @param name name
+     * @param labelNames label names
+     * @param document document for histogram
+     * @param buckets the bucket upper bounds
+     */
+    public static void registerHistogram(final String name, final String[] labelNames, final String document, final double[] buckets) {
+        Optional.ofNullable(metricsRegister).ifPresent(register -> register.registerHistogram(name, labelNames, document, buckets));
+    }
+    
     /**
      * Register histogram by label names.
      *
@@ -199,6 +247,17 @@ public final class MetricsReporter {
         gaugeDecrement(name, null);
     }
     
+    /**
+     * Gauge set to the sampled value.
+     *
+     * @param name name
+     * @param labelValues label values
+     * @param value value
+     */
+    public static void gaugeSet(final String name, final String[] labelValues, final long value) {
+        Optional.ofNullable(metricsRegister).ifPresent(register -> register.gaugeSet(name, labelValues, value));
+    }
+    
     /**
      * Record time by duration.
      *
@@ -220,6 +279,29 @@ public final class MetricsReporter {
         recordTime(name, null, duration);
     }
     
+    /**
+     * Observe the value into histogram.
+     *
+     * @param name name
+     * @param labelValues label values
+     * @param value value
+     */
+    public static void observe(final String name, final String[] labelValues, final double value) {
+        Optional.ofNullable(metricsRegister).ifPresent(register -> register.observe(name, labelValues, value));
+    }
+    
+    /**
+     * Observe the value into histogram with the trace id as the exemplar.
+     *
+     * @param name name
+     * @param labelValues label values
+     * @param value value
+     * @param traceId the trace id, nullable
+     */
+    public static void observe(final String name, final String[] labelValues, final double value, final String traceId) {
+        Optional.ofNullable(metricsRegister).ifPresent(register -> register.observe(name, labelValues, value, traceId));
+    }
+    
     /**
      * Clean.
      */
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.route;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The label values of the route metrics, keyed by the matched selector, rule and upstream.
+ *
+ * <p>The label arrays are cached, so the request path does not allocate them. The number of series is bounded,
+ * the routes beyond the bound share the {@link #OTHER} labels.
+ */
+public final class RouteLabelCache {
+    
+    /**
+     * The label value of the routes beyond the bound.
+     */
+    public static final String OTHER = "other";
+    
+    /**
+     * The default max series.
+     */
+    public static final int DEFAULT_MAX_SERIES = 1000;
+    
+    private static final String[] OVERFLOW = {OTHER, OTHER, OTHER};
+    
+    /**
+     * ruleId -> upstream -> label values, the rule id is unique among the selectors.
+     */
+    private final Map<String, Map<String, String[]>> labelMap = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger series = new AtomicInteger();
+    
+    private final int maxSeries;
+    
+    /**
+     * Instantiates a new route label cache.
+     *
+     * @param maxSeries the max series
+     */
+    public RouteLabelCache(final int maxSeries) {
+        this.maxSeries = maxSeries;
+    }
+    
+    /**
+     * Obtain the label values of the route.
+     *
+     * @param selectorId the selector id
+     * @param ruleId the rule id
+     * @param upstream the upstream
+     * @return the label values, selector, rule and upstream
+     */
+    public String[] obtain(final String selectorId, final String ruleId, final String upstream) {
+        Map<String, String[]> upstreamMap = labelMap.get(ruleId);
+        String[] labelValues = Objects.isNull(upstreamMap) ? null : upstreamMap.get(upstream);
+        if (Objects.nonNull(labelValues)) {
+            return labelValues;
+        }
+        if (series.incrementAndGet() > maxSeries) {
+            series.decrementAndGet();
+            return OVERFLOW;
+        }
+        upstreamMap = labelMap.computeIfAbsent(ruleId, key -> new ConcurrentHashMap<>());
+        String[] created = {selectorId, ruleId, upstream};
+        labelValues = upstreamMap.putIfAbsent(upstream, created);
+        if (Objects.nonNull(labelValues)) {
+            series.decrementAndGet();
+            return labelValues;
+        }
+        return created;
+    }
+    
+    /**
+     * Gets the number of series.
+     *
+     * @return the series
+     */
+    public int getSeries() {
+        return series.get();
+    }
+}
@@ -52,6 +52,18 @@ public interface MetricsRegister {
      */
     void registerHistogram(String name, String[] labelNames, String document);
     
+    /**
+     * Register histogram with the bucket upper bounds.
+     *
+     * @param name name
+     * @param labelNames label names
+     * @param document document for histogram
+     * @param buckets the bucket upper bounds, in ascending order
+     */
+    default void registerHistogram(String name, String[] labelNames, String document, double[] buckets) {
+        registerHistogram(name, labelNames, document);
+    }
+    
     /**
      * Counter increment by count.
      *
@@ -77,6 +89,16 @@ public interface MetricsRegister {
      */
     void gaugeDecrement(String name, String[] labelValues);
     
+    /**
+     * Gauge set to the sampled value.
+     *
+     * @param name name
+     * @param labelValues label values
+     * @param value value
+     */
+    default void gaugeSet(String name, String[] labelValues, long value) {
+    }
+    
     /**
      * Record time by duration.
      *
@@ -86,6 +108,29 @@ public interface MetricsRegister {
      */
     void recordTime(String name, String[] labelValues, long duration);
     
+    /**
+     * Observe the value into histogram, such as a latency in seconds.
+     *
+     * @param name name
+     * @param labelValues label values
+     * @param value value
+     */
+    default void observe(String name, String[] labelValues, double value) {
+        recordTime(name, labelValues, (long) value);
+    }
+    
+    /**
+     * Observe the value into histogram with the trace id as the exemplar, the registers without exemplars ignore it.
+     *
+     * @param name name
+     * @param labelValues label values
+     * @param value value
+     * @param traceId the trace id, nullable
+     */
+    default void observe(String name, String[] labelValues, double value, String traceId) {
+        observe(name, labelValues, value);
+    }
+    
     /**
      * Clean.
      */
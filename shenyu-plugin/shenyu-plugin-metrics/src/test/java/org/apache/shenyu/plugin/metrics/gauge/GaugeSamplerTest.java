@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.gauge;
+
+import com.google.gson.JsonObject;
+import org.apache.shenyu.plugin.api.gauge.GaugeRegistry;
+import org.apache.shenyu.plugin.api.gauge.SampledGauge;
+import org.apache.shenyu.plugin.metrics.otlp.OtlpMetricsRegister;
+import org.apache.shenyu.plugin.metrics.reporter.MetricsReporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test cases for GaugeSampler.
+ */
+public final class GaugeSamplerTest {
+    
+    private static final String NAME = "test_pool_active_connections";
+    
+    private final OtlpMetricsRegister metricsRegister = new OtlpMetricsRegister();
+    
+    private final GaugeSampler gaugeSampler = new GaugeSampler();
+    
+    @AfterEach
+    public void tearDown() {
+        gaugeSampler.stop();
+        MetricsReporter.clean();
+    }
+    
+    @Test
+    public void testSample() {
+        MetricsReporter.register(metricsRegister);
+        AtomicLong value = new AtomicLong(3);
+        SampledGauge gauge = new SampledGauge(NAME, "active connections", new String[]{"pool"}, new String[]{"p1"}, value::get);
+        GaugeRegistry.getInstance().register(gauge);
+        gaugeSampler.sample();
+        assertThat(sampledValue(), is("3"));
+        value.set(5);
+        gaugeSampler.sample();
+        assertThat(sampledValue(), is("5"));
+        GaugeRegistry.getInstance().unregister(gauge);
+        gaugeSampler.sample();
+        assertThat(sampledValue(), is("0"));
+    }
+    
+    private String sampledValue() {
+        return metricsRegister.collect().stream().filter(metric -> NAME.equals(metric.get("name").getAsString()))
+                .map(metric -> metric.getAsJsonObject("gauge").getAsJsonArray("dataPoints").get(0).getAsJsonObject())
+                .map((JsonObject dataPoint) -> dataPoint.get("asInt").getAsString()).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test cases for MicrometerMetricsRegister.
+ */
+public final class MicrometerMetricsRegisterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MicrometerMetricsRegister metricsRegister = new MicrometerMetricsRegister(meterRegistry);
+
+    @Test
+    public void testCounter() {
+        metricsRegister.registerCounter("request_total", new String[]{"type"}, "request total");
+        metricsRegister.counterIncrement("request_total", new String[]{"http"}, 1);
+        metricsRegister.counterIncrement("request_total", new String[]{"http"}, 2);
+        Counter counter = meterRegistry.get("request_total").tag("type", "http").counter();
+        assertThat(counter.count(), is(3.0d));
+    }
+
+    @Test
+    public void testGauge() {
+        metricsRegister.registerGauge("connections", null, "connections");
+        metricsRegister.gaugeIncrement("connections", null);
+        metricsRegister.gaugeIncrement("connections", null);
+        metricsRegister.gaugeDecrement("connections", null);
+        Gauge gauge = meterRegistry.get("connections").gauge();
+        assertThat(gauge.value(), is(1.0d));
+    }
+
+    @Test
+    public void testHistogram() {
+        metricsRegister.registerHistogram("latency_millis", null, "latency millis");
+        metricsRegister.recordTime("latency_millis", null, 20);
+        DistributionSummary summary = meterRegistry.get("latency_millis").summary();
+        assertThat(summary.totalAmount(), is(20.0d));
+        metricsRegister.registerHistogram("latency_seconds", new String[]{"route"}, "latency seconds", new double[]{0.01, 0.1});
+        metricsRegister.observe("latency_seconds", new String[]{"1"}, 0.05, "trace");
+        Timer timer = meterRegistry.get("latency_seconds").tag("route", "1").timer();
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS), is(50.0d));
+    }
+
+    @Test
+    public void testClean() {
+        metricsRegister.registerCounter("clean_total", null, "clean total");
+        metricsRegister.counterIncrement("clean_total", null, 1);
+        metricsRegister.clean();
+        assertThat(meterRegistry.find("clean_total").counter(), is(nullValue()));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.otlp;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test cases for OtlpMetricsRegister.
+ */
+public final class OtlpMetricsRegisterTest {
+
+    private final OtlpMetricsRegister metricsRegister = new OtlpMetricsRegister();
+
+    @Test
+    public void testCounterDelta() {
+        metricsRegister.registerCounter("request_total", new String[]{"type"}, "request total");
+        metricsRegister.counterIncrement("request_total", new String[]{"http"}, 2);
+        List<JsonObject> metrics = metricsRegister.collect();
+        assertThat(metrics.size(), is(1));
+        JsonObject sum = metrics.get(0).getAsJsonObject("sum");
+        assertThat(sum.get("aggregationTemporality").getAsInt(), is(1));
+        JsonObject dataPoint = sum.getAsJsonArray("dataPoints").get(0).getAsJsonObject();
+        assertThat(dataPoint.get("asInt").getAsString(), is("2"));
+        assertThat(dataPoint.getAsJsonArray("attributes").get(0).getAsJsonObject().get("key").getAsString(), is("type"));
+        assertThat(metricsRegister.collect().size(), is(0));
+    }
+
+    @Test
+    public void testHistogramWithExemplar() {
+        metricsRegister.registerHistogram("latency_seconds", new String[]{"route"}, "latency seconds", new double[]{0.01, 0.1});
+        String[] labelValues = {"1"};
+        metricsRegister.observe("latency_seconds", labelValues, 0.01, "0af7651916cd43dd8448eb211c80319c");
+        metricsRegister.observe("latency_seconds", labelValues, 0.05, "4bf92f3577b34da6a3ce929d0e0e4736");
+        metricsRegister.observe("latency_seconds", labelValues, 0.5, null);
+        List<JsonObject> metrics = metricsRegister.collect();
+        JsonObject dataPoint = metrics.get(0).getAsJsonObject("histogram").getAsJsonArray("dataPoints").get(0).getAsJsonObject();
+        assertThat(dataPoint.get("count").getAsString(), is("3"));
+        assertThat(dataPoint.getAsJsonArray("bucketCounts").toString(), is("[\"1\",\"1\",\"1\"]"));
+        JsonObject exemplar = dataPoint.getAsJsonArray("exemplars").get(0).getAsJsonObject();
+        assertThat(exemplar.get("traceId").getAsString(), is("4bf92f3577b34da6a3ce929d0e0e4736"));
+        assertThat(metricsRegister.collect().size(), is(0));
+    }
+
+    @Test
+    public void testGauge() {
+        metricsRegister.registerGauge("connections", null, "connections");
+        metricsRegister.gaugeIncrement("connections", null);
+        assertThat(metricsRegister.collect().size(), is(1));
+        assertThat(metricsRegister.collect().size(), is(1));
+    }
+}
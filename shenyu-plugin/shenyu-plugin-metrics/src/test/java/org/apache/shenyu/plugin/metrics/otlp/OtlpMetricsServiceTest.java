@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.otlp;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.shenyu.common.config.ShenyuConfig.MetricsConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test cases for OtlpMetricsService.
+ */
+public final class OtlpMetricsServiceTest {
+
+    private final List<String> payloads = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger unavailable = new AtomicInteger();
+
+    private HttpServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/metrics", exchange -> {
+            try (InputStream inputStream = new GZIPInputStream(exchange.getRequestBody())) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = inputStream.read(buffer)) > 0) {
+                    outputStream.write(buffer, 0, read);
+                }
+                payloads.add(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(unavailable.getAndDecrement() > 0 ? 503 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testExportInBatches() {
+        OtlpMetricsRegister metricsRegister = new OtlpMetricsRegister();
+        metricsRegister.registerCounter("request_total", null, "request total");
+        metricsRegister.registerCounter("request_throw_total", null, "request throw total");
+        metricsRegister.counterIncrement("request_total", null, 1);
+        metricsRegister.counterIncrement("request_throw_total", null, 1);
+        Properties props = new Properties();
+        props.setProperty("batch_size", "1");
+        props.setProperty("export_interval_millis", "60000");
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setHost("127.0.0.1");
+        metricsConfig.setPort(server.getAddress().getPort());
+        metricsConfig.setProps(props);
+        OtlpMetricsService metricsService = new OtlpMetricsService();
+        metricsService.start(metricsConfig, metricsRegister);
+        metricsService.stop();
+        assertThat(payloads.size(), is(2));
+        assertThat(payloads.get(0), containsString("\"resourceMetrics\""));
+        assertThat(payloads.get(0), containsString("shenyu-gateway"));
+    }
+
+    @Test
+    public void testExportKeepsUnsentMetrics() {
+        OtlpMetricsRegister metricsRegister = new OtlpMetricsRegister();
+        metricsRegister.registerCounter("request_total", null, "request total");
+        metricsRegister.registerCounter("request_throw_total", null, "request throw total");
+        metricsRegister.counterIncrement("request_total", null, 1);
+        Properties props = new Properties();
+        props.setProperty("export_interval_millis", "60000");
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setHost("127.0.0.1");
+        metricsConfig.setPort(server.getAddress().getPort());
+        metricsConfig.setProps(props);
+        OtlpMetricsService metricsService = new OtlpMetricsService();
+        metricsService.start(metricsConfig, metricsRegister);
+        unavailable.set(1);
+        metricsService.export();
+        metricsRegister.counterIncrement("request_throw_total", null, 1);
+        metricsService.stop();
+        assertThat(payloads.size(), is(2));
+        assertThat(payloads.get(1), containsString("\"request_total\""));
+        assertThat(payloads.get(1), containsString("\"request_throw_total\""));
+    }
+
+    @Test
+    public void testExportDropsOldestUnsentMetrics() {
+        OtlpMetricsRegister metricsRegister = new OtlpMetricsRegister();
+        metricsRegister.registerCounter("request_total", null, "request total");
+        metricsRegister.registerCounter("request_throw_total", null, "request throw total");
+        metricsRegister.counterIncrement("request_total", null, 1);
+        Properties props = new Properties();
+        props.setProperty("export_interval_millis", "60000");
+        props.setProperty("max_unsent_size", "1");
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setHost("127.0.0.1");
+        metricsConfig.setPort(server.getAddress().getPort());
+        metricsConfig.setProps(props);
+        OtlpMetricsService metricsService = new OtlpMetricsService();
+        metricsService.start(metricsConfig, metricsRegister);
+        unavailable.set(2);
+        metricsService.export();
+        metricsRegister.counterIncrement("request_throw_total", null, 1);
+        metricsService.export();
+        metricsService.stop();
+        assertThat(payloads.size(), is(3));
+        assertThat(payloads.get(2), not(containsString("\"request_total\"")));
+        assertThat(payloads.get(2), containsString("\"request_throw_total\""));
+    }
+}
@@ -63,4 +63,23 @@ public final class PrometheusMetricsRegisterTest {
         Histogram histogram = histogramMap.get(name);
         assertThat(histogram.labels(labelNames).get().sum, is(1000.0));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void assertHistogramWithBuckets() {
+        String name = "route_latency_seconds";
+        String[] labelNames = new String[] {"selector", "rule", "upstream"};
+        prometheusMetricsRegister.registerHistogram(name, labelNames, "the shenyu route latency seconds", new double[] {0.01, 0.1, 1});
+        String[] labelValues = new String[] {"1", "1", "http://127.0.0.1:8080"};
+        prometheusMetricsRegister.observe(name, labelValues, 0.05);
+        prometheusMetricsRegister.observe(name, labelValues, 0.5);
+        Map<String, Histogram> histogramMap = (Map<String, Histogram>) ReflectUtils.getFieldValue(prometheusMetricsRegister, "HISTOGRAM_MAP");
+        assertNotNull(histogramMap);
+        double[] buckets = histogramMap.get(name).labels(labelValues).get().buckets;
+        assertThat(buckets.length, is(4));
+        assertThat(buckets[0], is(0.0d));
+        assertThat(buckets[1], is(1.0d));
+        assertThat(buckets[2], is(2.0d));
+        histogramMap.remove(name);
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.metrics.route;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Test cases for RouteLabelCache.
+ */
+public final class RouteLabelCacheTest {
+
+    @Test
+    public void testObtain() {
+        RouteLabelCache routeLabelCache = new RouteLabelCache(10);
+        String[] labelValues = routeLabelCache.obtain("selector", "rule", "http://127.0.0.1:8080");
+        assertThat(labelValues, is(new String[]{"selector", "rule", "http://127.0.0.1:8080"}));
+        assertThat(routeLabelCache.obtain("selector", "rule", "http://127.0.0.1:8080"), sameInstance(labelValues));
+        assertThat(routeLabelCache.getSeries(), is(1));
+    }
+
+    @Test
+    public void testOverflow() {
+        RouteLabelCache routeLabelCache = new RouteLabelCache(2);
+        routeLabelCache.obtain("selector", "rule1", "");
+        routeLabelCache.obtain("selector", "rule2", "");
+        String[] overflow = routeLabelCache.obtain("selector", "rule3", "");
+        assertThat(overflow, is(new String[]{RouteLabelCache.OTHER, RouteLabelCache.OTHER, RouteLabelCache.OTHER}));
+        assertThat(routeLabelCache.obtain("selector", "rule1", "")[1], is("rule1"));
+        assertThat(routeLabelCache.getSeries(), is(2));
+    }
+}
@@ -21,19 +21,27 @@ import org.apache.shenyu.common.dto.RuleData;
 import org.apache.shenyu.common.dto.SelectorData;
 import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
 import org.apache.shenyu.common.enums.PluginEnum;
+import org.apache.shenyu.common.enums.RateLimiterEngineEnum;
+import org.apache.shenyu.common.utils.Singleton;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
 import org.apache.shenyu.plugin.api.result.ShenyuResultEnum;
 import org.apache.shenyu.plugin.api.result.ShenyuResultWrap;
 import org.apache.shenyu.plugin.api.utils.WebFluxResultUtils;
 import org.apache.shenyu.plugin.base.AbstractShenyuPlugin;
 import org.apache.shenyu.plugin.base.utils.CacheKeyUtils;
+import org.apache.shenyu.plugin.ratelimiter.cluster.ClusterRateLimiter;
+import org.apache.shenyu.plugin.ratelimiter.executor.HybridRateLimiter;
+import org.apache.shenyu.plugin.ratelimiter.executor.LocalRateLimiter;
 import org.apache.shenyu.plugin.ratelimiter.executor.RedisRateLimiter;
 import org.apache.shenyu.plugin.ratelimiter.handler.RateLimiterPluginDataHandler;
 import org.apache.shenyu.plugin.ratelimiter.resolver.RateLimiterKeyResolverFactory;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.plugin.ratelimiter.state.HeavyHitterFilter;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -41,8 +49,16 @@ import java.util.Optional;
  */
 public class RateLimiterPlugin extends AbstractShenyuPlugin {
 
+    private static final String CONCURRENT_ALGORITHM = "concurrent";
+
     private final RedisRateLimiter redisRateLimiter;
 
+    private final LocalRateLimiter localRateLimiter;
+
+    private final HybridRateLimiter hybridRateLimiter;
+
+    private final HeavyHitterFilter heavyHitterFilter = new HeavyHitterFilter();
+
     /**
      * Instantiates a new Rate limiter plugin.
      *
@@ -50,6 +66,8 @@ public class RateLimiterPlugin extends AbstractShenyuPlugin {
      */
     public RateLimiterPlugin(final RedisRateLimiter redisRateLimiter) {
         this.redisRateLimiter = redisRateLimiter;
+        this.localRateLimiter = new LocalRateLimiter();
+        this.hybridRateLimiter = new HybridRateLimiter(redisRateLimiter, localRateLimiter);
     }
 
     @Override
@@ -67,16 +85,60 @@ public class RateLimiterPlugin extends AbstractShenyuPlugin {
         RateLimiterHandle limiterHandle = RateLimiterPluginDataHandler.CACHED_HANDLE.get()
                 .obtainHandle(CacheKeyUtils.INST.getKey(rule));
         String resolverKey = Optional.ofNullable(limiterHandle.getKeyResolverName())
-                .flatMap(name -> Optional.of("-" + RateLimiterKeyResolverFactory.newInstance(name).resolve(exchange)))
+                .flatMap(name -> Optional.of("-" + RateLimiterKeyResolverFactory.newInstance(name).resolve(exchange, limiterHandle.getKeyName())))
                 .orElse("");
-        return redisRateLimiter.isAllowed(rule.getId() + resolverKey, limiterHandle)
+        String id = rule.getId() + resolverKey;
+        // the light keys are allowed without the per key state, only the heavy hitters are limited precisely
+        if (limiterHandle.getHeavyHitterPercent() > 0 && !CONCURRENT_ALGORITHM.equals(limiterHandle.getAlgorithmName())
+                && heavyHitterFilter.isLight(rule.getId(), resolverKey, limiterHandle)) {
+            return chain.execute(exchange);
+        }
+        RateLimiterEngineEnum engine = RateLimiterEngineEnum.acquireByName(limiterHandle.getEngine());
+        ClusterRateLimiter clusterRateLimiter = engine == RateLimiterEngineEnum.CLUSTER ? obtainClusterRateLimiter(limiterHandle) : null;
+        // only the permits acquired from the local rate limiter are released
+        boolean local = engine == RateLimiterEngineEnum.LOCAL || engine == RateLimiterEngineEnum.CLUSTER && Objects.isNull(clusterRateLimiter);
+        return isAllowed(engine, clusterRateLimiter, id, limiterHandle)
                 .flatMap(response -> {
                     if (!response.isAllowed()) {
                         exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
                         Object error = ShenyuResultWrap.error(exchange, ShenyuResultEnum.TOO_MANY_REQUESTS, null);
                         return WebFluxResultUtils.result(exchange, error);
                     }
+                    if (local) {
+                        return chain.execute(exchange).doFinally(signalType -> localRateLimiter.release(id, limiterHandle));
+                    }
                     return chain.execute(exchange);
                 });
     }
+
+    private Mono<RateLimiterResponse> isAllowed(final RateLimiterEngineEnum engine, final ClusterRateLimiter clusterRateLimiter,
+                                                final String id, final RateLimiterHandle limiterHandle) {
+        switch (engine) {
+            case LOCAL:
+                return localRateLimiter.isAllowed(id, limiterHandle);
+            case HYBRID:
+                return hybridRateLimiter.isAllowed(id, limiterHandle);
+            case CLUSTER:
+                return Objects.nonNull(clusterRateLimiter)
+                        ? clusterRateLimiter.isAllowed(id, limiterHandle) : localRateLimiter.isAllowed(id, limiterHandle);
+            default:
+                return redisRateLimiter.isAllowed(id, limiterHandle);
+        }
+    }
+
+    /**
+     * obtain the running cluster rate limiter, the local rate limiter is used until the cluster port is configured.
+     * The cluster counters are the requests of a window, so the concurrent algorithm, which limits the requests in
+     * flight, is always limited by the local rate limiter of every node.
+     *
+     * @param limiterHandle the limiter handle
+     * @return the cluster rate limiter, null to use the local rate limiter
+     */
+    private ClusterRateLimiter obtainClusterRateLimiter(final RateLimiterHandle limiterHandle) {
+        if (CONCURRENT_ALGORITHM.equals(limiterHandle.getAlgorithmName())) {
+            return null;
+        }
+        ClusterRateLimiter clusterRateLimiter = Singleton.INST.get(ClusterRateLimiter.class);
+        return Objects.nonNull(clusterRateLimiter) && clusterRateLimiter.isRunning() ? clusterRateLimiter : null;
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.cluster;
+
+import java.util.Objects;
+
+/**
+ * The config of the cluster rate limiter, read from the same plugin config as the redis connection.
+ */
+public class ClusterConfigProperties {
+
+    /**
+     * the udp port to exchange the counters, the cluster rate limiter is started when it is positive.
+     */
+    private int clusterPort;
+
+    /**
+     * the host to bind.
+     */
+    private String clusterHost = "0.0.0.0";
+
+    /**
+     * the static peers, split by comma, such as {@code 10.0.0.1:9196,10.0.0.2:9196}.
+     */
+    private String clusterPeers;
+
+    /**
+     * the register type of shenyu-register-instance to discover the gateway instances, such as zookeeper.
+     */
+    private String clusterRegisterType;
+
+    /**
+     * the interval to exchange the counters.
+     */
+    private long gossipIntervalMillis = 100;
+
+    /**
+     * Gets cluster port.
+     *
+     * @return the cluster port
+     */
+    public int getClusterPort() {
+        return clusterPort;
+    }
+
+    /**
+     * Sets cluster port.
+     *
+     * @param clusterPort the cluster port
+     */
+    public void setClusterPort(final int clusterPort) {
+        this.clusterPort = clusterPort;
+    }
+
+    /**
+     * Gets cluster host.
+     *
+     * @return the cluster host
+     */
+    public String getClusterHost() {
+        return clusterHost;
+    }
+
+    /**
+     * Sets cluster host.
+     *
+     * @param clusterHost the cluster host
+     */
+    public void setClusterHost(final String clusterHost) {
+        this.clusterHost = clusterHost;
+    }
+
+    /**
+     * Gets cluster peers.
+     *
+     * @return the cluster peers
+     */
+    public String getClusterPeers() {
+        return clusterPeers;
+    }
+
+    /**
+     * Sets cluster peers.
+     *
+     * @param clusterPeers the cluster peers
+     */
+    public void setClusterPeers(final String clusterPeers) {
+        this.clusterPeers = clusterPeers;
+    }
+
+    /**
+     * Gets cluster register type.
+     *
+     * @return the cluster register type
+     */
+    public String getClusterRegisterType() {
+        return clusterRegisterType;
+    }
+
+    /**
+     * Sets cluster register type.
+     *
+     * @param clusterRegisterType the cluster register type
+     */
+    public void setClusterRegisterType(final String clusterRegisterType) {
+        this.clusterRegisterType = clusterRegisterType;
+    }
+
+    /**
+     * Gets gossip interval millis.
+     *
+     * @return the gossip interval millis
+     */
+    public long getGossipIntervalMillis() {
+        return gossipIntervalMillis;
+    }
+
+    /**
+     * Sets gossip interval millis.
+     *
+     * @param gossipIntervalMillis the gossip interval millis
+     */
+    public void setGossipIntervalMillis(final long gossipIntervalMillis) {
+        this.gossipIntervalMillis = gossipIntervalMillis;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ClusterConfigProperties that = (ClusterConfigProperties) o;
+        return clusterPort == that.clusterPort && gossipIntervalMillis == that.gossipIntervalMillis
+                && Objects.equals(clusterHost, that.clusterHost) && Objects.equals(clusterPeers, that.clusterPeers)
+                && Objects.equals(clusterRegisterType, that.clusterRegisterType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(clusterPort, clusterHost, clusterPeers, clusterRegisterType, gossipIntervalMillis);
+    }
+}
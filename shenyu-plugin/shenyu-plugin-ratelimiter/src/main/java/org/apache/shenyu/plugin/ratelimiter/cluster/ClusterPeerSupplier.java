@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.cluster;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.utils.IpUtils;
+import org.apache.shenyu.register.instance.api.ShenyuInstanceRegisterRepository;
+import org.apache.shenyu.spi.ExtensionLoader;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The peers of the cluster rate limiter, the static peers and the gateway instances registered by
+ * shenyu-register-instance, which listen the same cluster port.
+ */
+public class ClusterPeerSupplier implements Supplier<List<InetSocketAddress>> {
+
+    private final ClusterConfigProperties config;
+
+    /**
+     * Instantiates a new Cluster peer supplier.
+     *
+     * @param config the cluster config
+     */
+    public ClusterPeerSupplier(final ClusterConfigProperties config) {
+        this.config = config;
+    }
+
+    @Override
+    public List<InetSocketAddress> get() {
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (String peer : StringUtils.split(StringUtils.defaultString(config.getClusterPeers()), ',')) {
+            String address = peer.trim();
+            int index = address.lastIndexOf(':');
+            if (index > 0) {
+                peers.add(new InetSocketAddress(address.substring(0, index), Integer.parseInt(address.substring(index + 1))));
+            }
+        }
+        if (StringUtils.isNotBlank(config.getClusterRegisterType())) {
+            // the repository is the one initialized by the instance register of the gateway
+            ExtensionLoader.getExtensionLoader(ShenyuInstanceRegisterRepository.class).getJoin(config.getClusterRegisterType())
+                    .selectInstances().forEach(instance -> peers.add(new InetSocketAddress(instance.getHost(), config.getClusterPort())));
+        }
+        String localHost = IpUtils.getHost();
+        return peers.stream()
+                .filter(peer -> !(peer.getPort() == config.getClusterPort() && localHost.equals(peer.getHostString())))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
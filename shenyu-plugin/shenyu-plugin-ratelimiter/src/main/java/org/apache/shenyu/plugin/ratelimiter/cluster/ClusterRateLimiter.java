@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.cluster;
+
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.common.utils.UUIDUtils;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.plugin.ratelimiter.state.BoundedKeyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The rate limiter shared by the gateway cluster without redis.
+ *
+ * <p>Every key is limited to the burst capacity in a window of {@code burstCapacity / replenishRate} seconds.
+ * The nodes gossip their counters of the current window over udp, the counters of a node only grow in a window,
+ * so they are merged by the max value like a G-Counter. Between two rounds, a node spends at most its share,
+ * {@code 1 / nodes}, of the remaining limit it knows, so the request path never leaves the node. The limit is
+ * approximate: a lost datagram or an unknown peer lets the cluster allow a little more than the limit.
+ * The datagrams are only accepted from the current peers, so a host outside the cluster can not forge the counters.
+ *
+ * <p>The counters are the requests of a window, the requests in flight of the concurrent algorithm can not be
+ * counted by them, the plugin limits the concurrent algorithm by the local rate limiter of every node.
+ */
+public class ClusterRateLimiter implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterRateLimiter.class);
+
+    private static final byte MAGIC = (byte) 0xC7;
+
+    /**
+     * keep the datagram under a common mtu so it is not fragmented.
+     */
+    private static final int MAX_DATAGRAM = 1400;
+
+    private static final long PEER_REFRESH_MILLIS = 5000;
+
+    private static final long MAX_WINDOW_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final String nodeId = UUIDUtils.getInstance().generateShortUuid();
+
+    private final byte[] nodeIdBytes = nodeId.getBytes(StandardCharsets.UTF_8);
+
+    private final BoundedKeyStore<AtomicReference<Window>> windows = new BoundedKeyStore<>();
+
+    private final Supplier<List<InetSocketAddress>> peerSupplier;
+
+    private final GossipTransport transport;
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile List<InetSocketAddress> peers = Collections.emptyList();
+
+    private volatile Set<InetSocketAddress> peerSet = Collections.emptySet();
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Cluster rate limiter, the udp port is bound and the gossip is started.
+     *
+     * @param config the cluster config
+     * @param peerSupplier the supplier of the other gateway nodes
+     * @throws IOException when the port can not be bound
+     */
+    public ClusterRateLimiter(final ClusterConfigProperties config, final Supplier<List<InetSocketAddress>> peerSupplier) throws IOException {
+        this.peerSupplier = peerSupplier;
+        this.transport = new GossipTransport(new InetSocketAddress(config.getClusterHost(), config.getClusterPort()), this::receive);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(ShenyuThreadFactory.create("shenyu-ratelimiter-gossip", true));
+        long interval = Math.max(1, config.getGossipIntervalMillis());
+        scheduler.scheduleWithFixedDelay(this::refreshPeers, 0, PEER_REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::gossip, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * the bound udp port.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return transport.getPort();
+    }
+
+    /**
+     * whether the rate limiter is running.
+     *
+     * @return false when it is closed
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Verify by the counters of the cluster.
+     *
+     * @param id is rule id
+     * @param limiterHandle the limiter handle
+     * @return {@code Mono<RateLimiterResponse>} to indicate when request processing is complete
+     */
+    public Mono<RateLimiterResponse> isAllowed(final String id, final RateLimiterHandle limiterHandle) {
+        return Mono.just(tryAcquire(id, limiterHandle));
+    }
+
+    private RateLimiterResponse tryAcquire(final String id, final RateLimiterHandle limiterHandle) {
+        final double capacity = limiterHandle.getBurstCapacity();
+        final long windowMillis = (long) Math.max(1, Math.min(MAX_WINDOW_MILLIS, capacity / limiterHandle.getReplenishRate() * 1000));
+        final Window window = currentWindow(id, System.currentTimeMillis() / windowMillis);
+        final long limit = (long) capacity;
+        final long requested = (long) Math.ceil(limiterHandle.getRequestCount());
+        final long nodes = peers.size() + 1;
+        while (true) {
+            final long local = window.local.get();
+            final long remote = window.remoteSum;
+            final long remaining = limit - window.localAtSync - remote;
+            final long share = remaining <= 0 ? 0 : (remaining + nodes - 1) / nodes;
+            final long budget = Math.min(window.localAtSync + share, limit - remote);
+            if (local + requested > budget) {
+                return new RateLimiterResponse(false, Math.max(0, budget - local));
+            }
+            if (window.local.compareAndSet(local, local + requested)) {
+                return new RateLimiterResponse(true, budget - local - requested);
+            }
+        }
+    }
+
+    private Window currentWindow(final String id, final long windowId) {
+        final AtomicReference<Window> reference = windows.get(id, key -> new AtomicReference<>(new Window(windowId)));
+        while (true) {
+            final Window window = reference.get();
+            // a newer window of a peer with a faster clock is kept
+            if (window.id >= windowId) {
+                return window;
+            }
+            final Window next = new Window(windowId);
+            if (reference.compareAndSet(window, next)) {
+                return next;
+            }
+        }
+    }
+
+    private void refreshPeers() {
+        try {
+            final List<InetSocketAddress> current = peerSupplier.get();
+            peerSet = new HashSet<>(current);
+            peers = current;
+        } catch (RuntimeException e) {
+            LOG.warn("refresh the peers of the cluster rate limiter failed: {}", e.getMessage());
+        }
+    }
+
+    private void gossip() {
+        try {
+            final List<InetSocketAddress> targets = peers;
+            final ByteBuffer datagram = ByteBuffer.allocate(MAX_DATAGRAM);
+            int entries = 0;
+            for (Map.Entry<String, AtomicReference<Window>> entry : windows.asMap().entrySet()) {
+                final Window window = entry.getValue().get();
+                final long local = window.local.get();
+                window.localAtSync = local;
+                if (local == 0 || targets.isEmpty()) {
+                    continue;
+                }
+                final byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                final int size = Short.BYTES + key.length + Long.BYTES * 2;
+                if (size > MAX_DATAGRAM - headerSize()) {
+                    continue;
+                }
+                if (entries == Short.MAX_VALUE || datagram.position() + size > MAX_DATAGRAM) {
+                    send(targets, datagram, entries);
+                    entries = 0;
+                }
+                if (entries == 0) {
+                    datagram.clear();
+                    datagram.put(MAGIC).putShort((short) nodeIdBytes.length).put(nodeIdBytes).putShort((short) 0);
+                }
+                datagram.putShort((short) key.length).put(key).putLong(window.id).putLong(local);
+                entries++;
+            }
+            if (entries > 0) {
+                send(targets, datagram, entries);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("gossip the counters of the cluster rate limiter failed: {}", e.getMessage());
+        }
+    }
+
+    private int headerSize() {
+        return 1 + Short.BYTES + nodeIdBytes.length + Short.BYTES;
+    }
+
+    private void send(final List<InetSocketAddress> targets, final ByteBuffer datagram, final int entries) {
+        datagram.putShort(headerSize() - Short.BYTES, (short) entries);
+        datagram.flip();
+        for (InetSocketAddress target : targets) {
+            transport.send(target, datagram);
+        }
+    }
+
+    private void receive(final InetSocketAddress source, final ByteBuffer datagram) {
+        if (!peerSet.contains(source)) {
+            LOG.debug("drop the counters of the cluster rate limiter from the unknown address {}", source);
+            return;
+        }
+        try {
+            if (datagram.get() != MAGIC) {
+                return;
+            }
+            final String from = readString(datagram);
+            if (nodeId.equals(from)) {
+                return;
+            }
+            final int entries = datagram.getShort();
+            for (int i = 0; i < entries; i++) {
+                final String key = readString(datagram);
+                final long windowId = datagram.getLong();
+                final long count = datagram.getLong();
+                final Window window = currentWindow(key, windowId);
+                if (window.id == windowId) {
+                    window.merge(from, count);
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            LOG.debug("drop the malformed counters of the cluster rate limiter: {}", e.getMessage());
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        scheduler.shutdownNow();
+        transport.close();
+    }
+
+    private static final class Window {
+
+        private final long id;
+
+        private final AtomicLong local = new AtomicLong();
+
+        private final Map<String, Long> remote = new ConcurrentHashMap<>();
+
+        /**
+         * the local count when the counters are gossiped last time.
+         */
+        private volatile long localAtSync;
+
+        private volatile long remoteSum;
+
+        Window(final long id) {
+            this.id = id;
+        }
+
+        void merge(final String node, final long count) {
+            remote.merge(node, count, Math::max);
+            remoteSum = remote.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
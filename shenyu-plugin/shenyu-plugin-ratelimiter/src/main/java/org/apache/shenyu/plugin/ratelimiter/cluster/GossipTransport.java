@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.cluster;
+
+import org.apache.shenyu.common.concurrent.ShenyuThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.function.BiConsumer;
+
+/**
+ * The udp transport of the gossip, the received datagrams are handled with their source address by a daemon thread.
+ */
+final class GossipTransport implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GossipTransport.class);
+
+    private static final int MAX_DATAGRAM = 65507;
+
+    private final DatagramChannel channel;
+
+    GossipTransport(final InetSocketAddress address, final BiConsumer<InetSocketAddress, ByteBuffer> handler) throws IOException {
+        this.channel = DatagramChannel.open();
+        channel.bind(address);
+        ShenyuThreadFactory.create("shenyu-ratelimiter-gossip-receiver", true).newThread(() -> receive(handler)).start();
+    }
+
+    /**
+     * the bound port.
+     *
+     * @return the port
+     */
+    int getPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * send the datagram, the failure is only logged as the counters are sent again in the next round.
+     *
+     * @param peer the peer
+     * @param datagram the datagram
+     */
+    void send(final InetSocketAddress peer, final ByteBuffer datagram) {
+        try {
+            channel.send(datagram.duplicate(), peer);
+        } catch (IOException e) {
+            LOG.debug("send the rate limiter counters to {} failed: {}", peer, e.getMessage());
+        }
+    }
+
+    private void receive(final BiConsumer<InetSocketAddress, ByteBuffer> handler) {
+        final ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                final InetSocketAddress source = (InetSocketAddress) channel.receive(buffer);
+                buffer.flip();
+                handler.accept(source, buffer);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("receive the rate limiter counters failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warn("close the gossip channel failed: {}", e.getMessage());
+        }
+    }
+}
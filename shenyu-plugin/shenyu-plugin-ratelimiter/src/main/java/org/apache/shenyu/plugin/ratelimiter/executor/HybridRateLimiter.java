@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.executor;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.plugin.ratelimiter.state.BoundedKeyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HybridRateLimiter, the tokens are leased from redis in batches and spent in the memory of the gateway node,
+ * so most requests do not call redis. The leased tokens expire in a second, the unspent ones are not returned,
+ * which may reject a little more than redis but never allows more.
+ *
+ * <p>Only the token bucket and leaky bucket scripts take the request count, the other algorithms call redis
+ * for every request. When redis is unavailable, the local rate limiter is used.
+ */
+public class HybridRateLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HybridRateLimiter.class);
+
+    private static final List<String> LEASABLE_ALGORITHMS = Arrays.asList("tokenBucket", "leakyBucket");
+
+    private static final long LEASE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Lease EMPTY = new Lease(0, 0);
+
+    private final RedisRateLimiter redisRateLimiter;
+
+    private final LocalRateLimiter localRateLimiter;
+
+    private final BoundedKeyStore<AtomicReference<Lease>> leases = new BoundedKeyStore<>();
+
+    /**
+     * Instantiates a new Hybrid rate limiter.
+     *
+     * @param redisRateLimiter the redis rate limiter
+     * @param localRateLimiter the local rate limiter, used when redis is unavailable
+     */
+    public HybridRateLimiter(final RedisRateLimiter redisRateLimiter, final LocalRateLimiter localRateLimiter) {
+        this.redisRateLimiter = redisRateLimiter;
+        this.localRateLimiter = localRateLimiter;
+    }
+
+    /**
+     * Verify by the leased tokens, a new batch is leased from redis when they are spent.
+     *
+     * @param id is rule id
+     * @param limiterHandle the limiter handle
+     * @return {@code Mono<RateLimiterResponse>} to indicate when request processing is complete
+     */
+    public Mono<RateLimiterResponse> isAllowed(final String id, final RateLimiterHandle limiterHandle) {
+        if (!LEASABLE_ALGORITHMS.contains(limiterHandle.getAlgorithmName())) {
+            return redisRateLimiter.isAllowed(id, limiterHandle);
+        }
+        final double requested = limiterHandle.getRequestCount();
+        final AtomicReference<Lease> lease = leases.get(id, key -> new AtomicReference<>(EMPTY));
+        while (true) {
+            final long now = System.nanoTime();
+            final Lease current = lease.get();
+            if (!current.isValid(now) || current.tokens < requested) {
+                break;
+            }
+            final Lease next = new Lease(current.tokens - requested, current.expireAt);
+            if (lease.compareAndSet(current, next)) {
+                return Mono.just(new RateLimiterResponse(true, (long) next.tokens));
+            }
+        }
+        final double batch = Math.max(requested, limiterHandle.getBurstCapacity() * limiterHandle.getLeasePercent() / 100);
+        return redisRateLimiter.isAllowed(id, limiterHandle, batch)
+                .flatMap(response -> {
+                    if (response.isAllowed()) {
+                        final Lease next = lease.accumulateAndGet(new Lease(batch - requested, System.nanoTime() + LEASE_NANOS),
+                            (current, leased) -> current.isValid(leased.expireAt - LEASE_NANOS) ? new Lease(current.tokens + leased.tokens, leased.expireAt) : leased);
+                        return Mono.just(new RateLimiterResponse(true, (long) next.tokens));
+                    }
+                    // the bucket may still hold fewer tokens than the batch
+                    return batch > requested ? redisRateLimiter.isAllowed(id, limiterHandle, requested) : Mono.just(response);
+                })
+                .onErrorResume(throwable -> {
+                    LOG.error("Error occurred while leasing tokens from redis, fall back to local rate limiter:{}", throwable.getMessage());
+                    return localRateLimiter.isAllowed(id, limiterHandle);
+                });
+    }
+
+    private static final class Lease {
+
+        private final double tokens;
+
+        private final long expireAt;
+
+        Lease(final double tokens, final long expireAt) {
+            this.tokens = tokens;
+            this.expireAt = expireAt;
+        }
+
+        boolean isValid(final long now) {
+            return this != EMPTY && expireAt - now > 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.executor;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.local.LocalRateLimiterAlgorithmFactory;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * LocalRateLimiter, the limit is judged in the memory of every gateway node.
+ */
+public class LocalRateLimiter {
+
+    /**
+     * Verify using different local current limiting algorithms.
+     *
+     * @param id is rule id
+     * @param limiterHandle the limiter handle
+     * @return {@code Mono<RateLimiterResponse>} to indicate when request processing is complete
+     */
+    public Mono<RateLimiterResponse> isAllowed(final String id, final RateLimiterHandle limiterHandle) {
+        return Mono.just(LocalRateLimiterAlgorithmFactory.newInstance(limiterHandle.getAlgorithmName()).isAllowed(id, limiterHandle));
+    }
+
+    /**
+     * Release the allowed request when it is completed.
+     *
+     * @param id is rule id
+     * @param limiterHandle the limiter handle
+     */
+    public void release(final String id, final RateLimiterHandle limiterHandle) {
+        LocalRateLimiterAlgorithmFactory.newInstance(limiterHandle.getAlgorithmName()).release(id);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.executor;
+
+import java.util.Objects;
+
+/**
+ * The batch config of the rate limiter scripts, read from the same plugin config as the redis connection.
+ */
+public class RedisBatchConfigProperties {
+
+    /**
+     * the micros to collect the scripts into one batch, the batching is disabled when it is not positive.
+     */
+    private long batchWindowMicros;
+
+    /**
+     * the max scripts in one batch, the batch is sent at once when it is full.
+     */
+    private int maxBatchSize = 128;
+
+    /**
+     * Gets batch window micros.
+     *
+     * @return the batch window micros
+     */
+    public long getBatchWindowMicros() {
+        return batchWindowMicros;
+    }
+
+    /**
+     * Sets batch window micros.
+     *
+     * @param batchWindowMicros the batch window micros
+     */
+    public void setBatchWindowMicros(final long batchWindowMicros) {
+        this.batchWindowMicros = batchWindowMicros;
+    }
+
+    /**
+     * Gets max batch size.
+     *
+     * @return the max batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets max batch size.
+     *
+     * @param maxBatchSize the max batch size
+     */
+    public void setMaxBatchSize(final int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RedisBatchConfigProperties that = (RedisBatchConfigProperties) o;
+        return batchWindowMicros == that.batchWindowMicros && maxBatchSize == that.maxBatchSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(batchWindowMicros, maxBatchSize);
+    }
+}
@@ -26,13 +26,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * RedisRateLimiter.
@@ -40,6 +41,13 @@ import java.util.List;
 public class RedisRateLimiter {
 
     private static final Logger LOG = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    /**
+     * algorithm name -> the algorithm, so the extension is not looked up per request.
+     */
+    private static final Map<String, RateLimiterAlgorithm<?>> ALGORITHMS = new ConcurrentHashMap<>();
+
+    private static volatile EpochSecond epochSecond = new EpochSecond(-1);
     
     /**
      * Verify using different current limiting algorithm scripts. 
@@ -48,30 +56,67 @@ public class RedisRateLimiter {
      * @param limiterHandle the limiter handle
      * @return {@code Mono<RateLimiterResponse>} to indicate when request processing is complete
      */
-    @SuppressWarnings("unchecked")
     public Mono<RateLimiterResponse> isAllowed(final String id, final RateLimiterHandle limiterHandle) {
-        double replenishRate = limiterHandle.getReplenishRate();
-        double burstCapacity = limiterHandle.getBurstCapacity();
-        double requestCount = limiterHandle.getRequestCount();
-        RateLimiterAlgorithm<?> rateLimiterAlgorithm = RateLimiterAlgorithmFactory.newInstance(limiterHandle.getAlgorithmName());
+        return isAllowed(id, limiterHandle, limiterHandle.getRequestCount())
+                .onErrorResume(throwable -> {
+                    LOG.error("Error occurred while judging if user is allowed by RedisRateLimiter:{}", throwable.getMessage());
+                    return Mono.just(new RateLimiterResponse(true, -1L));
+                });
+    }
+
+    /**
+     * Verify the request count using different current limiting algorithm scripts, the error of redis is propagated.
+     *
+     * @param id is rule id
+     * @param limiterHandle the limiter handle
+     * @param requestCount the request count
+     * @return {@code Mono<RateLimiterResponse>} to indicate when request processing is complete
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<RateLimiterResponse> isAllowed(final String id, final RateLimiterHandle limiterHandle, final double requestCount) {
+        RateLimiterAlgorithm<?> rateLimiterAlgorithm = ALGORITHMS.computeIfAbsent(limiterHandle.getAlgorithmName(), RateLimiterAlgorithmFactory::newInstance);
         RedisScript<?> script = rateLimiterAlgorithm.getScript();
         List<String> keys = rateLimiterAlgorithm.getKeys(id);
-        List<String> scriptArgs = Arrays.asList(doubleToString(replenishRate), doubleToString(burstCapacity), doubleToString(Instant.now().getEpochSecond()), doubleToString(requestCount));
-        Flux<List<Long>> resultFlux = Singleton.INST.get(ReactiveRedisTemplate.class).execute(script, keys, scriptArgs);
-        return resultFlux.onErrorResume(throwable -> Flux.just(Arrays.asList(1L, -1L)))
-                .reduce(new ArrayList<Long>(), (longs, l) -> {
-                    longs.addAll(l);
-                    return longs;
-                }).map(results -> {
-                    boolean allowed = results.get(0) == 1L;
-                    Long tokensLeft = results.get(1);
-                    return new RateLimiterResponse(allowed, tokensLeft);
-                })
-                .doOnError(throwable -> LOG.error("Error occurred while judging if user is allowed by RedisRateLimiter:{}", throwable.getMessage()))
-                .doFinally(signalType -> rateLimiterAlgorithm.callback(script, keys, scriptArgs));
+        // the rates are formatted once per rule handle, only the timestamp is built per call
+        List<String> rateArgs = limiterHandle.getRateArgs();
+        String count = Double.compare(requestCount, limiterHandle.getRequestCount()) == 0 ? rateArgs.get(2) : doubleToString(requestCount);
+        List<String> scriptArgs = Arrays.asList(rateArgs.get(0), rateArgs.get(1), epochSecond(), count);
+        RedisScriptBatcher batcher = Singleton.INST.get(RedisScriptBatcher.class);
+        Mono<List<Long>> resultMono = Objects.nonNull(batcher) && batcher.isEnabled() ? batcher.execute(script, keys, scriptArgs)
+                : Singleton.INST.get(ReactiveRedisTemplate.class).execute(script, keys, scriptArgs).next();
+        return resultMono.map(results -> {
+            boolean allowed = results.get(0) == 1L;
+            Long tokensLeft = results.get(1);
+            return new RateLimiterResponse(allowed, tokensLeft);
+        }).doFinally(signalType -> rateLimiterAlgorithm.callback(script, keys, scriptArgs));
     }
     
     private String doubleToString(final double param) {
         return String.valueOf(param);
     }
+
+    private static String epochSecond() {
+        final long now = Instant.now().getEpochSecond();
+        EpochSecond current = epochSecond;
+        if (current.second != now) {
+            current = new EpochSecond(now);
+            epochSecond = current;
+        }
+        return current.text;
+    }
+
+    /**
+     * the epoch second formatted as a script arg, it is shared by the calls in the same second.
+     */
+    private static final class EpochSecond {
+
+        private final long second;
+
+        private final String text;
+
+        EpochSecond(final long second) {
+            this.second = second;
+            this.text = String.valueOf((double) second);
+        }
+    }
 }
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The scripts of the concurrent requests are collected in a short window and sent on one connection without
+ * waiting for each other, so a batch costs one round trip of redis. Only {@code EVALSHA} is sent, the script
+ * is loaded once when redis answers {@code NOSCRIPT}. A batch not answered in the timeout fails its pending scripts.
+ */
+public class RedisScriptBatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisScriptBatcher.class);
+
+    private static final String NO_SCRIPT = "NOSCRIPT";
+
+    private static final Duration BATCH_TIMEOUT = Duration.ofSeconds(3);
+
+    private final ReactiveRedisTemplate<?, ?> redisTemplate;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final Queue<Command> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Instantiates a new Redis script batcher.
+     *
+     * @param redisTemplate the redis template
+     * @param config the batch config
+     */
+    public RedisScriptBatcher(final ReactiveRedisTemplate<?, ?> redisTemplate, final RedisBatchConfigProperties config) {
+        this.redisTemplate = redisTemplate;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(config.getBatchWindowMicros());
+        this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+    }
+
+    /**
+     * whether the scripts are batched.
+     *
+     * @return true when the batch window is positive
+     */
+    public boolean isEnabled() {
+        return windowNanos > 0;
+    }
+
+    /**
+     * Execute the script in the next batch.
+     *
+     * @param script the script returning a list of longs
+     * @param keys the keys
+     * @param args the args
+     * @return the result of the script
+     */
+    public Mono<List<Long>> execute(final RedisScript<?> script, final List<String> keys, final List<String> args) {
+        return Mono.defer(() -> {
+            final Command command = new Command(script, keys, args);
+            queue.offer(command);
+            if (size.incrementAndGet() >= maxBatchSize) {
+                flush();
+            } else if (scheduled.compareAndSet(false, true)) {
+                Schedulers.parallel().schedule(this::scheduledFlush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+            return command.processor;
+        });
+    }
+
+    private void scheduledFlush() {
+        // reset before draining, a command offered after the drain schedules the next flush
+        scheduled.set(false);
+        flush();
+    }
+
+    private void flush() {
+        List<Command> batch = new ArrayList<>(maxBatchSize);
+        Command command;
+        while (Objects.nonNull(command = queue.poll())) {
+            size.decrementAndGet();
+            batch.add(command);
+            if (batch.size() == maxBatchSize) {
+                send(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(final List<Command> batch) {
+        redisTemplate.execute(connection -> Flux.fromIterable(batch)
+                .flatMap(command -> evalSha(connection, command)
+                        .switchIfEmpty(Mono.defer(() -> Mono.error(new IllegalStateException("no result of the rate limiter script"))))
+                        .doOnNext(command::complete)
+                        .doOnError(command::fail)
+                        .onErrorResume(throwable -> Mono.empty()), batch.size()))
+                .then()
+                .timeout(BATCH_TIMEOUT)
+                .subscribe(null, throwable -> {
+                    LOG.error("Error occurred while sending the batch of rate limiter scripts:{}", throwable.getMessage());
+                    // the scripts answered before the error keep their results
+                    batch.forEach(command -> command.fail(throwable));
+                });
+    }
+
+    private Mono<List<Long>> evalSha(final ReactiveRedisConnection connection, final Command command) {
+        final RedisScript<?> script = command.script;
+        return connection.scriptingCommands().evalSha(script.getSha1(), ReturnType.MULTI, command.keySize, command.keysAndArgs)
+                .next()
+                .onErrorResume(RedisScriptBatcher::isNoScript, throwable -> connection.scriptingCommands()
+                        .scriptLoad(toByteBuffer(script.getScriptAsString()))
+                        .flatMap(sha -> connection.scriptingCommands().evalSha(sha, ReturnType.MULTI, command.keySize, command.keysAndArgs).next()))
+                .map(RedisScriptBatcher::toLongs);
+    }
+
+    private static boolean isNoScript(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (Objects.nonNull(cause)) {
+            if (Objects.nonNull(cause.getMessage()) && cause.getMessage().contains(NO_SCRIPT)) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    private static List<Long> toLongs(final Object result) {
+        final List<?> values = (List<?>) result;
+        final List<Long> longs = new ArrayList<>(values.size());
+        for (Object value : values) {
+            longs.add(((Number) value).longValue());
+        }
+        return longs;
+    }
+
+    private static ByteBuffer toByteBuffer(final String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Command {
+
+        private final RedisScript<?> script;
+
+        private final int keySize;
+
+        private final ByteBuffer[] keysAndArgs;
+
+        private final MonoProcessor<List<Long>> processor = MonoProcessor.create();
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Command(final RedisScript<?> script, final List<String> keys, final List<String> args) {
+            this.script = script;
+            this.keySize = keys.size();
+            this.keysAndArgs = new ByteBuffer[keys.size() + args.size()];
+            int index = 0;
+            for (String key : keys) {
+                keysAndArgs[index++] = toByteBuffer(key);
+            }
+            for (String arg : args) {
+                keysAndArgs[index++] = toByteBuffer(arg);
+            }
+        }
+
+        void complete(final List<Long> result) {
+            if (done.compareAndSet(false, true)) {
+                processor.onNext(result);
+            }
+        }
+
+        void fail(final Throwable throwable) {
+            if (done.compareAndSet(false, true)) {
+                processor.onError(throwable);
+            }
+        }
+    }
+}
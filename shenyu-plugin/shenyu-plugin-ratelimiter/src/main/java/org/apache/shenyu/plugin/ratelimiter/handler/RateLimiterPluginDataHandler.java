@@ -30,8 +30,16 @@ import org.apache.shenyu.plugin.base.utils.CacheKeyUtils;
 import org.apache.shenyu.plugin.cache.redis.RedisConfigProperties;
 import org.apache.shenyu.plugin.cache.redis.RedisConnectionFactory;
 import org.apache.shenyu.plugin.cache.redis.serializer.ShenyuRedisSerializationContext;
+import org.apache.shenyu.plugin.ratelimiter.cluster.ClusterConfigProperties;
+import org.apache.shenyu.plugin.ratelimiter.cluster.ClusterPeerSupplier;
+import org.apache.shenyu.plugin.ratelimiter.cluster.ClusterRateLimiter;
+import org.apache.shenyu.plugin.ratelimiter.executor.RedisBatchConfigProperties;
+import org.apache.shenyu.plugin.ratelimiter.executor.RedisScriptBatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -43,12 +51,15 @@ public class RateLimiterPluginDataHandler implements PluginDataHandler {
 
     public static final Supplier<CommonHandleCache<String, RateLimiterHandle>> CACHED_HANDLE = new BeanHolder<>(CommonHandleCache::new);
 
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimiterPluginDataHandler.class);
+
     @Override
     public void handlerPlugin(final PluginData pluginData) {
         if (Objects.nonNull(pluginData) && Boolean.TRUE.equals(pluginData.getEnabled())) {
             //init redis
             RedisConfigProperties redisConfigProperties = GsonUtils.getInstance().fromJson(pluginData.getConfig(), RedisConfigProperties.class);
             //spring data redisTemplate
+            boolean templateChanged = false;
             if (Objects.isNull(Singleton.INST.get(ReactiveRedisTemplate.class))
                     || Objects.isNull(Singleton.INST.get(RedisConfigProperties.class))
                     || !redisConfigProperties.equals(Singleton.INST.get(RedisConfigProperties.class))) {
@@ -58,7 +69,47 @@ public class RateLimiterPluginDataHandler implements PluginDataHandler {
                         ShenyuRedisSerializationContext.stringSerializationContext());
                 Singleton.INST.single(ReactiveRedisTemplate.class, reactiveRedisTemplate);
                 Singleton.INST.single(RedisConfigProperties.class, redisConfigProperties);
+                templateChanged = true;
+            }
+            //the scripts of the concurrent requests are sent in batches
+            RedisBatchConfigProperties batchConfig = GsonUtils.getInstance().fromJson(pluginData.getConfig(), RedisBatchConfigProperties.class);
+            if (templateChanged || !batchConfig.equals(Singleton.INST.get(RedisBatchConfigProperties.class))) {
+                Singleton.INST.single(RedisScriptBatcher.class, new RedisScriptBatcher(Singleton.INST.get(ReactiveRedisTemplate.class), batchConfig));
+                Singleton.INST.single(RedisBatchConfigProperties.class, batchConfig);
+            }
+            //the counters of the cluster engine are gossiped between the gateway nodes
+            ClusterConfigProperties clusterConfig = GsonUtils.getInstance().fromJson(pluginData.getConfig(), ClusterConfigProperties.class);
+            if (!clusterConfig.equals(Singleton.INST.get(ClusterConfigProperties.class))) {
+                stopClusterRateLimiter();
+                Singleton.INST.single(ClusterConfigProperties.class, clusterConfig);
+                startClusterRateLimiter(clusterConfig);
             }
+        } else {
+            stopClusterRateLimiter();
+        }
+    }
+
+    @Override
+    public void removePlugin(final PluginData pluginData) {
+        stopClusterRateLimiter();
+    }
+
+    /**
+     * stop the cluster rate limiter, its socket and threads are released, it is started again when the plugin is enabled.
+     */
+    private void stopClusterRateLimiter() {
+        Optional.ofNullable(Singleton.INST.remove(ClusterRateLimiter.class)).ifPresent(ClusterRateLimiter::close);
+        Singleton.INST.remove(ClusterConfigProperties.class);
+    }
+
+    private void startClusterRateLimiter(final ClusterConfigProperties clusterConfig) {
+        if (clusterConfig.getClusterPort() <= 0) {
+            return;
+        }
+        try {
+            Singleton.INST.single(ClusterRateLimiter.class, new ClusterRateLimiter(clusterConfig, new ClusterPeerSupplier(clusterConfig)));
+        } catch (IOException e) {
+            LOG.error("start the cluster rate limiter on port {} failed", clusterConfig.getClusterPort(), e);
         }
     }
 
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.plugin.ratelimiter.state.BoundedKeyStore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The local rate limiter algorithm with the state of every key, the idle state is removed and the keys are bounded.
+ *
+ * @param <S> the type of the state
+ */
+public abstract class AbstractLocalRateLimiterAlgorithm<S> implements LocalRateLimiterAlgorithm {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final BoundedKeyStore<S> states = new BoundedKeyStore<>();
+
+    /**
+     * Create the state of a new key.
+     *
+     * @return the state
+     */
+    protected abstract S newState();
+
+    /**
+     * Get the state of the key, it is created when absent.
+     *
+     * @param id the key
+     * @return the state
+     */
+    protected S getState(final String id) {
+        return states.get(id, key -> newState());
+    }
+
+    /**
+     * Get the state of the key.
+     *
+     * @param id the key
+     * @return the state, null when absent
+     */
+    protected S getStateIfPresent(final String id) {
+        return states.getIfPresent(id);
+    }
+
+    /**
+     * the seconds between two nano times.
+     *
+     * @param from the start nano time
+     * @param to the end nano time
+     * @return the seconds
+     */
+    protected static double elapsedSeconds(final long from, final long to) {
+        return Math.max(0, to - from) / NANOS_PER_SECOND;
+    }
+}
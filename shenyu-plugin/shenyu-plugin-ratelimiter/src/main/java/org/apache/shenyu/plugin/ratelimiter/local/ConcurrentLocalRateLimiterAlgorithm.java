@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.spi.Join;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The local concurrent limiter, at most the burst capacity requests are in flight.
+ */
+@Join
+public class ConcurrentLocalRateLimiterAlgorithm extends AbstractLocalRateLimiterAlgorithm<AtomicLong> {
+
+    @Override
+    protected AtomicLong newState() {
+        return new AtomicLong();
+    }
+
+    @Override
+    public RateLimiterResponse isAllowed(final String id, final RateLimiterHandle limiterHandle) {
+        final AtomicLong inFlight = getState(id);
+        while (true) {
+            final long current = inFlight.get();
+            if (current >= limiterHandle.getBurstCapacity()) {
+                return new RateLimiterResponse(false, current);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new RateLimiterResponse(true, current + 1);
+            }
+        }
+    }
+
+    @Override
+    public void release(final String id) {
+        final AtomicLong inFlight = getStateIfPresent(id);
+        if (Objects.nonNull(inFlight)) {
+            inFlight.getAndUpdate(current -> Math.max(0, current - 1));
+        }
+    }
+}
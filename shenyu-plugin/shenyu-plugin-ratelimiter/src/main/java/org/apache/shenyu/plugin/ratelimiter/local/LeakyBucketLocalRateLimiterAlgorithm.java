@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.spi.Join;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The local leaky bucket, the water leaks by the replenish rate and the request is allowed when the water
+ * in the bucket is not over the burst capacity.
+ */
+@Join
+public class LeakyBucketLocalRateLimiterAlgorithm extends AbstractLocalRateLimiterAlgorithm<AtomicReference<LeakyBucketLocalRateLimiterAlgorithm.Bucket>> {
+
+    /**
+     * the bucket of a new key, which is empty.
+     */
+    private static final Bucket EMPTY = new Bucket(0, 0);
+
+    @Override
+    protected AtomicReference<Bucket> newState() {
+        return new AtomicReference<>(EMPTY);
+    }
+
+    @Override
+    public RateLimiterResponse isAllowed(final String id, final RateLimiterHandle limiterHandle) {
+        final AtomicReference<Bucket> state = getState(id);
+        while (true) {
+            final long now = System.nanoTime();
+            final Bucket current = state.get();
+            final double water = current == EMPTY ? 0
+                    : Math.max(0, current.water - elapsedSeconds(current.timestamp, now) * limiterHandle.getReplenishRate());
+            final double next = water + limiterHandle.getRequestCount();
+            if (next > limiterHandle.getBurstCapacity()) {
+                return new RateLimiterResponse(false, (long) next);
+            }
+            if (state.compareAndSet(current, new Bucket(next, now))) {
+                return new RateLimiterResponse(true, (long) next);
+            }
+        }
+    }
+
+    static final class Bucket {
+
+        private final double water;
+
+        private final long timestamp;
+
+        Bucket(final double water, final long timestamp) {
+            this.water = water;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.spi.SPI;
+
+/**
+ * The rate limiter algorithm judged in the memory of the gateway node, the state of a key is updated by
+ * compare-and-set without a lock. The algorithms have the same names as the redis scripts.
+ */
+@SPI
+public interface LocalRateLimiterAlgorithm {
+
+    /**
+     * Judge whether the request is allowed.
+     *
+     * @param id the key of the rate limiter
+     * @param limiterHandle the limiter handle
+     * @return the rate limiter response
+     */
+    RateLimiterResponse isAllowed(String id, RateLimiterHandle limiterHandle);
+
+    /**
+     * Release the allowed request when it is completed.
+     *
+     * @param id the key of the rate limiter
+     */
+    default void release(final String id) {
+    }
+}
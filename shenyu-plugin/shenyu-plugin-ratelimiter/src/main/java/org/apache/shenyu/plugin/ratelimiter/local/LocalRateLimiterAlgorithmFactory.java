@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.spi.ExtensionLoader;
+
+import java.util.Optional;
+
+/**
+ * The type Local rate limiter algorithm factory.
+ */
+public final class LocalRateLimiterAlgorithmFactory {
+
+    private LocalRateLimiterAlgorithmFactory() {
+    }
+
+    /**
+     * New instance local rate limiter algorithm.
+     *
+     * @param name the name
+     * @return the local rate limiter algorithm
+     */
+    public static LocalRateLimiterAlgorithm newInstance(final String name) {
+        return Optional.ofNullable(ExtensionLoader.getExtensionLoader(LocalRateLimiterAlgorithm.class).getJoin(name))
+                .orElseGet(TokenBucketLocalRateLimiterAlgorithm::new);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.spi.Join;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The local sliding window, at most the burst capacity requests are allowed in the window of
+ * {@code burstCapacity / replenishRate} seconds. The count of the window is estimated by the counts of
+ * the current and the previous fixed windows, so the memory does not grow with the requests.
+ */
+@Join
+public class SlidingWindowLocalRateLimiterAlgorithm extends AbstractLocalRateLimiterAlgorithm<AtomicReference<SlidingWindowLocalRateLimiterAlgorithm.Window>> {
+
+    private static final Window INITIAL = new Window(0, 0, 0);
+
+    private static final long MAX_WINDOW_NANOS = TimeUnit.DAYS.toNanos(1);
+
+    @Override
+    protected AtomicReference<Window> newState() {
+        return new AtomicReference<>(INITIAL);
+    }
+
+    @Override
+    public RateLimiterResponse isAllowed(final String id, final RateLimiterHandle limiterHandle) {
+        final AtomicReference<Window> state = getState(id);
+        final double capacity = limiterHandle.getBurstCapacity();
+        final long windowNanos = (long) Math.max(1, Math.min(MAX_WINDOW_NANOS, capacity / limiterHandle.getReplenishRate() * TimeUnit.SECONDS.toNanos(1)));
+        while (true) {
+            final long now = System.nanoTime();
+            final Window current = state.get();
+            final Window window = current.slide(now, windowNanos);
+            final double weight = 1 - (double) (now - window.start) / windowNanos;
+            final double count = window.previous * weight + window.current;
+            final long remaining = (long) (capacity - count);
+            if (count >= capacity) {
+                return new RateLimiterResponse(false, remaining);
+            }
+            if (state.compareAndSet(current, new Window(window.start, window.previous, window.current + 1))) {
+                return new RateLimiterResponse(true, remaining);
+            }
+        }
+    }
+
+    static final class Window {
+
+        private final long start;
+
+        private final long previous;
+
+        private final long current;
+
+        Window(final long start, final long previous, final long current) {
+            this.start = start;
+            this.previous = previous;
+            this.current = current;
+        }
+
+        /**
+         * slide the window to the time.
+         *
+         * @param now the nano time
+         * @param windowNanos the nanos of the window
+         * @return the window containing the time
+         */
+        Window slide(final long now, final long windowNanos) {
+            if (this == INITIAL || now - start >= 2 * windowNanos) {
+                return new Window(now, 0, 0);
+            }
+            if (now - start >= windowNanos) {
+                return new Window(start + windowNanos, current, 0);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.apache.shenyu.spi.Join;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The local token bucket, the tokens are refilled by the replenish rate up to the burst capacity.
+ */
+@Join
+public class TokenBucketLocalRateLimiterAlgorithm extends AbstractLocalRateLimiterAlgorithm<AtomicReference<TokenBucketLocalRateLimiterAlgorithm.Bucket>> {
+
+    /**
+     * the bucket of a new key, which is full.
+     */
+    private static final Bucket FULL = new Bucket(0, 0);
+
+    @Override
+    protected AtomicReference<Bucket> newState() {
+        return new AtomicReference<>(FULL);
+    }
+
+    @Override
+    public RateLimiterResponse isAllowed(final String id, final RateLimiterHandle limiterHandle) {
+        final AtomicReference<Bucket> state = getState(id);
+        final double capacity = limiterHandle.getBurstCapacity();
+        final double requested = limiterHandle.getRequestCount();
+        while (true) {
+            final long now = System.nanoTime();
+            final Bucket current = state.get();
+            final double filled = current == FULL ? capacity
+                    : Math.min(capacity, current.tokens + elapsedSeconds(current.timestamp, now) * limiterHandle.getReplenishRate());
+            // the tokens are refilled by the time, so the state is not changed when it is not allowed
+            if (filled < requested) {
+                return new RateLimiterResponse(false, (long) filled);
+            }
+            final Bucket next = new Bucket(filled - requested, now);
+            if (state.compareAndSet(current, next)) {
+                return new RateLimiterResponse(true, (long) next.tokens);
+            }
+        }
+    }
+
+    static final class Bucket {
+
+        private final double tokens;
+
+        private final long timestamp;
+
+        Bucket(final double tokens, final long timestamp) {
+            this.tokens = tokens;
+            this.timestamp = timestamp;
+        }
+    }
+}
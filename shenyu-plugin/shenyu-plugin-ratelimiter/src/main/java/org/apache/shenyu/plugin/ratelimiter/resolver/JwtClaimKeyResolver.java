@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.resolver;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shenyu.common.utils.GsonUtils;
+import org.apache.shenyu.spi.Join;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resolve the claim named by the key name of the rule from the jwt of the request, the claim is {@code sub} by default.
+ * The signature is not verified here, it is verified by the jwt plugin which is executed before the rate limiter.
+ */
+@Join
+public class JwtClaimKeyResolver implements RateLimiterKeyResolver {
+
+    private static final String TOKEN = "token";
+
+    private static final String BEARER = "Bearer ";
+
+    private static final String DEFAULT_CLAIM = "sub";
+
+    @Override
+    public String getKeyResolverName() {
+        return "JWT_CLAIM_KEY_RESOLVER";
+    }
+
+    @Override
+    public String resolve(final ServerWebExchange exchange) {
+        return resolve(exchange, DEFAULT_CLAIM);
+    }
+
+    @Override
+    public String resolve(final ServerWebExchange exchange, final String keyName) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        String token = StringUtils.defaultIfEmpty(headers.getFirst(TOKEN), headers.getFirst(HttpHeaders.AUTHORIZATION));
+        if (StringUtils.isEmpty(token)) {
+            return "";
+        }
+        if (token.startsWith(BEARER)) {
+            token = token.substring(BEARER.length());
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return "";
+        }
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            Map<String, Object> claims = GsonUtils.getInstance().toObjectMap(payload);
+            Object claim = claims.get(StringUtils.defaultIfBlank(keyName, DEFAULT_CLAIM));
+            return Objects.isNull(claim) ? "" : String.valueOf(claim);
+        } catch (RuntimeException e) {
+            return "";
+        }
+    }
+}
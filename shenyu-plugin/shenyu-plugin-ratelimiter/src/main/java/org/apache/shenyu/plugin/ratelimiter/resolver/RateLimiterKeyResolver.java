@@ -40,4 +40,15 @@ public interface RateLimiterKeyResolver {
      * @return rate limiter key
      */
     String resolve(ServerWebExchange exchange);
+
+    /**
+     * resolve by the key name of the rule, such as the name of the header.
+     *
+     * @param exchange exchange the current server exchange {@linkplain ServerWebExchange}
+     * @param keyName the key name of the rule
+     * @return rate limiter key
+     */
+    default String resolve(final ServerWebExchange exchange, final String keyName) {
+        return resolve(exchange);
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.state;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The limiter state of every key, bounded by the maximum size and decayed by the idle time,
+ * so the high cardinality keys such as user id or ip can not exhaust the memory.
+ *
+ * @param <V> the type of the state
+ */
+public final class BoundedKeyStore<V> {
+
+    /**
+     * the default maximum keys.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    /**
+     * the default idle minutes.
+     */
+    public static final long DEFAULT_IDLE_MINUTES = 5;
+
+    private final Cache<String, V> cache;
+
+    /**
+     * Instantiates a new bounded key store with the default maximum size and idle time.
+     */
+    public BoundedKeyStore() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_IDLE_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Instantiates a new bounded key store.
+     *
+     * @param maximumSize the maximum keys, the least recently used key is evicted first
+     * @param idle the idle time after which the key is removed
+     * @param unit the unit of the idle time
+     */
+    public BoundedKeyStore(final long maximumSize, final long idle, final TimeUnit unit) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterAccess(idle, unit).build();
+    }
+
+    /**
+     * Get the state of the key, it is created by the loader when absent.
+     *
+     * @param key the key
+     * @param loader the loader of the state
+     * @return the state
+     */
+    public V get(final String key, final Function<String, V> loader) {
+        return cache.asMap().computeIfAbsent(key, loader);
+    }
+
+    /**
+     * Get the state of the key.
+     *
+     * @param key the key
+     * @return the state, null when absent
+     */
+    public V getIfPresent(final String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * the live view of the states.
+     *
+     * @return the states
+     */
+    public Map<String, V> asMap() {
+        return cache.asMap();
+    }
+
+    /**
+     * the approximate number of the keys.
+     *
+     * @return the size
+     */
+    public long size() {
+        return cache.size();
+    }
+}
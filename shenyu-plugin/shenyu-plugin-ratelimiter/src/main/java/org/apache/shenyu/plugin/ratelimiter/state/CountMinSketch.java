@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.state;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The count-min sketch of the request counts of the keys, the counters are halved once per window,
+ * so the estimate decays with the time. The estimate never underestimates the decayed count of a key.
+ * The rows are indexed by the two halves of a 64-bit hash of the key, so the keys with the same
+ * {@link String#hashCode()} do not collide in every row.
+ */
+public final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final int width;
+
+    private final int mask;
+
+    private final long windowNanos;
+
+    private final AtomicIntegerArray counters;
+
+    private final AtomicLong windowStart;
+
+    /**
+     * Instantiates a new count min sketch.
+     *
+     * @param width the counters of every row, rounded up to the power of 2
+     * @param windowNanos the nanos after which the counters are halved
+     */
+    public CountMinSketch(final int width, final long windowNanos) {
+        int size = Integer.highestOneBit(Math.max(2, width) - 1) << 1;
+        this.width = size;
+        this.mask = size - 1;
+        this.windowNanos = windowNanos;
+        this.counters = new AtomicIntegerArray(DEPTH * size);
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Add the count of the key and estimate the count.
+     *
+     * @param key the key
+     * @param count the count to add
+     * @return the estimated count after adding
+     */
+    public int add(final String key, final int count) {
+        decay();
+        long hash = hash64(key);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = i * width + index(hash, i);
+            min = Math.min(min, counters.addAndGet(index, count));
+        }
+        return min;
+    }
+
+    /**
+     * Estimate the count of the key.
+     *
+     * @param key the key
+     * @return the estimated count
+     */
+    public int estimate(final String key) {
+        decay();
+        long hash = hash64(key);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, counters.get(i * width + index(hash, i)));
+        }
+        return min;
+    }
+
+    /**
+     * the nanos after which the counters are halved.
+     *
+     * @return the window nanos
+     */
+    public long getWindowNanos() {
+        return windowNanos;
+    }
+
+    /**
+     * the index of the row by the double hashing of the two halves, the odd step keeps the rows apart.
+     */
+    private int index(final long hash, final int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & mask;
+    }
+
+    private void decay() {
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            int value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >>> 1));
+        }
+    }
+
+    /**
+     * the fnv-1a hash of the chars finished by the 64-bit mix of murmur3.
+     */
+    private static long hash64(final String key) {
+        long h = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.state;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The heavy hitter filter of the keys of every rule.
+ *
+ * <p>The requests of every key are counted by the {@link CountMinSketch} of the rule, the key is light
+ * while its estimated count is below {@code heavyHitterPercent} of the burst capacity. The sketch never
+ * underestimates, so the light keys are allowed without the per key state of the limiter, and only the
+ * heavy keys are limited precisely. The sketch is halved once per {@code burstCapacity / replenishRate} seconds.
+ */
+public final class HeavyHitterFilter {
+
+    private static final int SKETCH_WIDTH = 8192;
+
+    private static final long MIN_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long MAX_WINDOW_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final BoundedKeyStore<CountMinSketch> sketches = new BoundedKeyStore<>(10_000, BoundedKeyStore.DEFAULT_IDLE_MINUTES, TimeUnit.MINUTES);
+
+    /**
+     * Count the request of the key and test whether the key is light.
+     *
+     * @param ruleId the rule id
+     * @param key the resolved key
+     * @param limiterHandle the limiter handle
+     * @return true when the key is light and the request can be allowed without the limiter
+     */
+    public boolean isLight(final String ruleId, final String key, final RateLimiterHandle limiterHandle) {
+        final double threshold = limiterHandle.getBurstCapacity() * limiterHandle.getHeavyHitterPercent() / 100;
+        if (threshold < 1) {
+            return false;
+        }
+        final long windowNanos = windowNanos(limiterHandle);
+        CountMinSketch sketch = sketches.get(ruleId, id -> new CountMinSketch(SKETCH_WIDTH, windowNanos));
+        if (sketch.getWindowNanos() != windowNanos) {
+            // the handle of the rule is changed
+            sketch = new CountMinSketch(SKETCH_WIDTH, windowNanos);
+            sketches.asMap().put(ruleId, sketch);
+        }
+        return sketch.add(key, (int) Math.ceil(limiterHandle.getRequestCount())) <= threshold;
+    }
+
+    private static long windowNanos(final RateLimiterHandle limiterHandle) {
+        if (limiterHandle.getReplenishRate() <= 0) {
+            return MAX_WINDOW_NANOS;
+        }
+        final double nanos = limiterHandle.getBurstCapacity() / limiterHandle.getReplenishRate() * TimeUnit.SECONDS.toNanos(1);
+        return (long) Math.max(MIN_WINDOW_NANOS, Math.min(MAX_WINDOW_NANOS, nanos));
+    }
+}
@@ -21,11 +21,13 @@ import org.apache.shenyu.common.dto.RuleData;
 import org.apache.shenyu.common.dto.SelectorData;
 import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
 import org.apache.shenyu.common.enums.PluginEnum;
+import org.apache.shenyu.common.utils.Singleton;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
 import org.apache.shenyu.plugin.api.result.DefaultShenyuResult;
 import org.apache.shenyu.plugin.api.result.ShenyuResult;
 import org.apache.shenyu.plugin.api.utils.SpringBeanUtils;
 import org.apache.shenyu.plugin.base.utils.CacheKeyUtils;
+import org.apache.shenyu.plugin.ratelimiter.cluster.ClusterRateLimiter;
 import org.apache.shenyu.plugin.ratelimiter.executor.RedisRateLimiter;
 import org.apache.shenyu.plugin.ratelimiter.handler.RateLimiterPluginDataHandler;
 import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
@@ -43,10 +45,15 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Objects;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -106,6 +113,51 @@ public final class RateLimiterPluginTest {
         assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
     }
 
+    /**
+     * rateLimiterPlugin doExecute , local engine releases the concurrent request when it is completed.
+     */
+    @Test
+    public void doExecuteLocalEngineTest() {
+        RateLimiterHandle rateLimiterHandle = mockRateLimiterHandler();
+        rateLimiterHandle.setEngine("local");
+        rateLimiterHandle.setAlgorithmName("concurrent");
+        rateLimiterHandle.setBurstCapacity(1);
+        when(chain.execute(any())).thenReturn(Mono.empty());
+        RateLimiterPluginDataHandler.CACHED_HANDLE.get().cachedHandle(CacheKeyUtils.INST.getKey(ruleData), rateLimiterHandle);
+        StepVerifier.create(rateLimiterPlugin.doExecute(exchange, chain, selectorData, ruleData)).expectSubscription().verifyComplete();
+        StepVerifier.create(rateLimiterPlugin.doExecute(exchange, chain, selectorData, ruleData)).expectSubscription().verifyComplete();
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    /**
+     * rateLimiterPlugin doExecute , cluster engine limits the concurrent request by the local rate limiter.
+     */
+    @Test
+    public void doExecuteClusterEngineConcurrentTest() {
+        ClusterRateLimiter clusterRateLimiter = mock(ClusterRateLimiter.class);
+        when(clusterRateLimiter.isRunning()).thenReturn(true);
+        ClusterRateLimiter previous = Singleton.INST.get(ClusterRateLimiter.class);
+        Singleton.INST.single(ClusterRateLimiter.class, clusterRateLimiter);
+        try {
+            RateLimiterHandle rateLimiterHandle = mockRateLimiterHandler();
+            rateLimiterHandle.setEngine("cluster");
+            rateLimiterHandle.setAlgorithmName("concurrent");
+            rateLimiterHandle.setBurstCapacity(1);
+            when(chain.execute(any())).thenReturn(Mono.empty());
+            RateLimiterPluginDataHandler.CACHED_HANDLE.get().cachedHandle(CacheKeyUtils.INST.getKey(ruleData), rateLimiterHandle);
+            StepVerifier.create(rateLimiterPlugin.doExecute(exchange, chain, selectorData, ruleData)).expectSubscription().verifyComplete();
+            StepVerifier.create(rateLimiterPlugin.doExecute(exchange, chain, selectorData, ruleData)).expectSubscription().verifyComplete();
+            assertNull(exchange.getResponse().getStatusCode());
+            verify(clusterRateLimiter, never()).isAllowed(anyString(), any(RateLimiterHandle.class));
+        } finally {
+            if (Objects.nonNull(previous)) {
+                Singleton.INST.single(ClusterRateLimiter.class, previous);
+            } else {
+                Singleton.INST.remove(ClusterRateLimiter.class);
+            }
+        }
+    }
+
     /**
      * named default value test case.
      */
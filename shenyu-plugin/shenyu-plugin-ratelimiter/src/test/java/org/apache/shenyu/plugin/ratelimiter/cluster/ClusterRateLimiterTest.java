@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.cluster;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the cluster rate limiter with several gateway nodes in process.
+ */
+public final class ClusterRateLimiterTest {
+
+    private final List<ClusterRateLimiter> nodes = new ArrayList<>();
+
+    private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        nodes.forEach(ClusterRateLimiter::close);
+    }
+
+    @Test
+    public void shareTest() throws IOException, InterruptedException {
+        startNodes(3, TimeUnit.MINUTES.toMillis(1));
+        // wait for the peers, the counters are not gossiped in the test
+        TimeUnit.MILLISECONDS.sleep(200);
+        RateLimiterHandle handle = buildHandle();
+        int total = 0;
+        for (ClusterRateLimiter node : nodes) {
+            int allowed = 0;
+            for (int i = 0; i < 30; i++) {
+                if (node.isAllowed("share", handle).block().isAllowed()) {
+                    allowed++;
+                }
+            }
+            assertEquals(10, allowed);
+            total += allowed;
+        }
+        assertEquals(30, total);
+    }
+
+    @Test
+    public void gossipTest() throws IOException {
+        startNodes(3, 20);
+        RateLimiterHandle handle = buildHandle();
+        AtomicInteger allowed = new AtomicInteger();
+        await().atMost(5, TimeUnit.SECONDS).pollInterval(10, TimeUnit.MILLISECONDS).until(() -> {
+            if (nodes.get(0).isAllowed("gossip", handle).block().isAllowed()) {
+                allowed.incrementAndGet();
+            }
+            assertTrue(allowed.get() <= 30);
+            return allowed.get() == 30;
+        });
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !nodes.get(1).isAllowed("gossip", handle).block().isAllowed());
+        assertFalse(nodes.get(2).isAllowed("gossip", handle).block().isAllowed());
+    }
+
+    @Test
+    public void unknownSenderTest() throws IOException, InterruptedException {
+        startNodes(2, TimeUnit.MINUTES.toMillis(1));
+        // the outsider gossips its counters to the first node, which is not a peer of it
+        ClusterConfigProperties config = new ClusterConfigProperties();
+        config.setClusterHost("127.0.0.1");
+        config.setClusterPort(freePort());
+        config.setGossipIntervalMillis(20);
+        ClusterRateLimiter outsider = new ClusterRateLimiter(config, () -> Collections.singletonList(addresses.get(0)));
+        nodes.add(outsider);
+        TimeUnit.MILLISECONDS.sleep(200);
+        RateLimiterHandle handle = buildHandle();
+        int forged = 0;
+        while (outsider.isAllowed("unknown", handle).block().isAllowed()) {
+            forged++;
+        }
+        assertEquals(15, forged);
+        TimeUnit.MILLISECONDS.sleep(200);
+        int allowed = 0;
+        for (int i = 0; i < 30; i++) {
+            if (nodes.get(0).isAllowed("unknown", handle).block().isAllowed()) {
+                allowed++;
+            }
+        }
+        assertEquals(15, allowed);
+    }
+
+    private void startNodes(final int count, final long gossipIntervalMillis) throws IOException {
+        for (int i = 0; i < count; i++) {
+            addresses.add(new InetSocketAddress("127.0.0.1", freePort()));
+        }
+        for (InetSocketAddress address : addresses) {
+            ClusterConfigProperties config = new ClusterConfigProperties();
+            config.setClusterHost(address.getHostString());
+            config.setClusterPort(address.getPort());
+            config.setGossipIntervalMillis(gossipIntervalMillis);
+            nodes.add(new ClusterRateLimiter(config, () -> addresses.stream().filter(peer -> !peer.equals(address)).collect(Collectors.toList())));
+        }
+    }
+
+    private RateLimiterHandle buildHandle() {
+        RateLimiterHandle handle = new RateLimiterHandle();
+        handle.setEngine("cluster");
+        handle.setReplenishRate(0.01);
+        handle.setBurstCapacity(30);
+        return handle;
+    }
+
+    private static int freePort() throws IOException {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
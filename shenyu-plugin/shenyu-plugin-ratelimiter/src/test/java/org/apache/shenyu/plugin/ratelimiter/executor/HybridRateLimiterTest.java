@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.executor;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * HybridRateLimiter test.
+ */
+public final class HybridRateLimiterTest {
+
+    private RedisRateLimiter redisRateLimiter;
+
+    private HybridRateLimiter hybridRateLimiter;
+
+    private RateLimiterHandle handle;
+
+    @BeforeEach
+    public void setUp() {
+        redisRateLimiter = mock(RedisRateLimiter.class);
+        hybridRateLimiter = new HybridRateLimiter(redisRateLimiter, new LocalRateLimiter());
+        handle = new RateLimiterHandle();
+        handle.setAlgorithmName("tokenBucket");
+        handle.setReplenishRate(0.001);
+        handle.setBurstCapacity(100);
+        handle.setLeasePercent(10);
+    }
+
+    @Test
+    public void leaseTest() {
+        when(redisRateLimiter.isAllowed(eq("lease"), eq(handle), eq(10.0))).thenReturn(Mono.just(new RateLimiterResponse(true, 90)));
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(hybridRateLimiter.isAllowed("lease", handle))
+                    .expectNextMatches(RateLimiterResponse::isAllowed).verifyComplete();
+        }
+        verify(redisRateLimiter, times(1)).isAllowed(eq("lease"), eq(handle), anyDouble());
+        StepVerifier.create(hybridRateLimiter.isAllowed("lease", handle))
+                .expectNextMatches(RateLimiterResponse::isAllowed).verifyComplete();
+        verify(redisRateLimiter, times(2)).isAllowed(eq("lease"), eq(handle), anyDouble());
+    }
+
+    @Test
+    public void leaseDeniedTest() {
+        when(redisRateLimiter.isAllowed(eq("denied"), eq(handle), eq(10.0))).thenReturn(Mono.just(new RateLimiterResponse(false, 3)));
+        when(redisRateLimiter.isAllowed(eq("denied"), eq(handle), eq(1.0))).thenReturn(Mono.just(new RateLimiterResponse(true, 2)));
+        StepVerifier.create(hybridRateLimiter.isAllowed("denied", handle))
+                .expectNextMatches(RateLimiterResponse::isAllowed).verifyComplete();
+    }
+
+    @Test
+    public void redisErrorTest() {
+        handle.setBurstCapacity(1);
+        when(redisRateLimiter.isAllowed(eq("error"), eq(handle), anyDouble())).thenReturn(Mono.error(new IllegalStateException("redis down")));
+        StepVerifier.create(hybridRateLimiter.isAllowed("error", handle))
+                .expectNextMatches(RateLimiterResponse::isAllowed).verifyComplete();
+        StepVerifier.create(hybridRateLimiter.isAllowed("error", handle))
+                .expectNextMatches(response -> !response.isAllowed()).verifyComplete();
+    }
+
+    @Test
+    public void notLeasableTest() {
+        handle.setAlgorithmName("slidingWindow");
+        when(redisRateLimiter.isAllowed("window", handle)).thenReturn(Mono.just(new RateLimiterResponse(false, 0)));
+        StepVerifier.create(hybridRateLimiter.isAllowed("window", handle))
+                .expectNextMatches(response -> !response.isAllowed()).verifyComplete();
+    }
+}
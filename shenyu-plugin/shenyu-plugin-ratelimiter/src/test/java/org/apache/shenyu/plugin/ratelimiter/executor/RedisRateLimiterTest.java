@@ -24,6 +24,7 @@ import org.apache.shenyu.plugin.ratelimiter.response.RateLimiterResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
@@ -31,6 +32,10 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -39,6 +44,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -163,6 +170,27 @@ public final class RedisRateLimiterTest {
         }).verifyComplete();
     }
 
+    /**
+     * the script args of the rates follow the changes of the handle.
+     */
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void scriptArgsTest() {
+        isAllowedPreInit(1L, 1L, false);
+        rateLimiterHandle.setAlgorithmName("tokenBucket");
+        StepVerifier.create(redisRateLimiter.isAllowed(DEFAULT_TEST_ID, rateLimiterHandle)).expectNextCount(1).verifyComplete();
+        rateLimiterHandle.setBurstCapacity(100.0);
+        StepVerifier.create(redisRateLimiter.isAllowed(DEFAULT_TEST_ID, rateLimiterHandle, 5.0)).expectNextCount(1).verifyComplete();
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        verify(Singleton.INST.get(ReactiveRedisTemplate.class), times(2)).execute(any(RedisScript.class), anyList(), captor.capture());
+        List<String> first = captor.getAllValues().get(0);
+        assertEquals(Arrays.asList("1.0", "300.0"), first.subList(0, 2));
+        assertTrue(Math.abs(Double.parseDouble(first.get(2)) - Instant.now().getEpochSecond()) <= 1);
+        assertEquals("1.0", first.get(3));
+        assertEquals(Arrays.asList("1.0", "100.0"), captor.getAllValues().get(1).subList(0, 2));
+        assertEquals("5.0", captor.getAllValues().get(1).get(3));
+    }
+
     /**
      * redisRateLimiter.isAllowed test pre init.
      *
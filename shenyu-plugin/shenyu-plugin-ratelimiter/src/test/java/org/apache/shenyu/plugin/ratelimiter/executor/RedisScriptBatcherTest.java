@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.executor;
+
+import org.apache.shenyu.plugin.cache.redis.RedisConfigProperties;
+import org.apache.shenyu.plugin.cache.redis.RedisConnectionFactory;
+import org.apache.shenyu.plugin.cache.redis.serializer.ShenyuRedisSerializationContext;
+import org.apache.shenyu.plugin.ratelimiter.algorithm.RateLimiterAlgorithm;
+import org.apache.shenyu.plugin.ratelimiter.algorithm.RateLimiterAlgorithmFactory;
+import org.apache.shenyu.plugin.ratelimiter.handler.ShenyuReactiveRedisTemplate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisCallback;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import redis.embedded.RedisServer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test of the batch of rate limiter scripts.
+ */
+public final class RedisScriptBatcherTest {
+
+    private static RedisServer redisServer;
+
+    private static ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @BeforeAll
+    public static void startup() {
+        redisServer = RedisServer.builder()
+                .port(63795)
+                .setting("maxmemory 64m")
+                .build();
+        redisServer.start();
+        RedisConfigProperties config = new RedisConfigProperties();
+        config.setUrl("127.0.0.1:63795");
+        redisTemplate = new ShenyuReactiveRedisTemplate<>(new RedisConnectionFactory(config).getLettuceConnectionFactory(),
+                ShenyuRedisSerializationContext.stringSerializationContext());
+        // connect before the tests, so the first batch is not timed out by the connecting
+        redisTemplate.execute(connection -> connection.ping()).blockLast();
+    }
+
+    @AfterAll
+    public static void end() {
+        redisServer.stop();
+    }
+
+    @Test
+    public void batchTest() {
+        RedisScriptBatcher batcher = newBatcher(16);
+        RateLimiterAlgorithm<?> algorithm = RateLimiterAlgorithmFactory.newInstance("tokenBucket");
+        RedisScript<?> script = algorithm.getScript();
+        List<String> keys = algorithm.getKeys("test-batch");
+        List<String> scriptArgs = Arrays.asList("0.001", "10", Instant.now().getEpochSecond() + "", "1");
+        StepVerifier.create(Flux.range(0, 50)
+                .flatMap(i -> batcher.execute(script, keys, scriptArgs))
+                .filter(results -> results.get(0) == 1L)
+                .count())
+                .expectNext(10L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void noScriptTest() {
+        RedisScriptBatcher batcher = newBatcher(128);
+        RedisScript<?> script = RateLimiterAlgorithmFactory.newInstance("leakyBucket").getScript();
+        List<String> scriptArgs = Arrays.asList("10", "100", Instant.now().getEpochSecond() + "", "1");
+        StepVerifier.create(redisTemplate.execute(connection -> connection.scriptingCommands().scriptFlush())
+                .then(batcher.execute(script, Collections.singletonList("test-no-script"), scriptArgs)))
+                .expectNext(Arrays.asList(1L, 1L))
+                .verifyComplete();
+    }
+
+    @Test
+    public void emptyResultTest() {
+        ReactiveRedisConnection connection = mockConnection(Flux.empty());
+        RedisScriptBatcher batcher = newBatcher(mockTemplate(connection, false), 200, 1);
+        StepVerifier.create(batcher.execute(tokenBucketScript(), Collections.singletonList("test-empty"), Collections.emptyList()))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void partialFailureTest() {
+        ReactiveRedisConnection connection = mockConnection(Flux.just(Arrays.asList(1L, 1L)), Flux.never());
+        // the long window keeps both scripts in one batch, which is sent when it is full
+        RedisScriptBatcher batcher = newBatcher(mockTemplate(connection, true), 1000000, 2);
+        RedisScript<?> script = tokenBucketScript();
+        Mono<List<Long>> answered = batcher.execute(script, Collections.singletonList("test-answered"), Collections.emptyList());
+        Mono<String> pending = batcher.execute(script, Collections.singletonList("test-pending"), Collections.emptyList())
+                .map(Object::toString)
+                .onErrorResume(IllegalStateException.class, throwable -> Mono.just(throwable.getMessage()));
+        StepVerifier.create(Mono.zip(answered, pending))
+                .assertNext(results -> {
+                    assertEquals(Arrays.asList(1L, 1L), results.getT1());
+                    assertEquals("connection closed", results.getT2());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void timeoutTest() {
+        ReactiveRedisConnection connection = mockConnection(Flux.never());
+        RedisScriptBatcher batcher = newBatcher(mockTemplate(connection, false), 200, 1);
+        StepVerifier.create(batcher.execute(tokenBucketScript(), Collections.singletonList("test-timeout"), Collections.emptyList()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(10));
+    }
+
+    private RedisScript<?> tokenBucketScript() {
+        return RateLimiterAlgorithmFactory.newInstance("tokenBucket").getScript();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReactiveRedisConnection mockConnection(final Flux<Object> first, final Flux<?>... others) {
+        ReactiveScriptingCommands scriptingCommands = mock(ReactiveScriptingCommands.class);
+        when(scriptingCommands.evalSha(anyString(), any(ReturnType.class), anyInt(), any())).thenReturn(first, (Flux<Object>[]) others);
+        ReactiveRedisConnection connection = mock(ReactiveRedisConnection.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        return connection;
+    }
+
+    /**
+     * the template running the callback on the connection, the connection fails after the first result when it is broken.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ReactiveRedisTemplate<?, ?> mockTemplate(final ReactiveRedisConnection connection, final boolean broken) {
+        ReactiveRedisTemplate template = mock(ReactiveRedisTemplate.class);
+        when(template.execute(any(ReactiveRedisCallback.class))).thenAnswer(invocation -> {
+            Flux<?> results = Flux.from(invocation.<ReactiveRedisCallback<?>>getArgument(0).doInRedis(connection));
+            return broken ? results.take(1).concatWith(Flux.error(new IllegalStateException("connection closed"))) : results;
+        });
+        return template;
+    }
+
+    private RedisScriptBatcher newBatcher(final int maxBatchSize) {
+        return newBatcher(redisTemplate, 200, maxBatchSize);
+    }
+
+    private RedisScriptBatcher newBatcher(final ReactiveRedisTemplate<?, ?> template, final long batchWindowMicros, final int maxBatchSize) {
+        RedisBatchConfigProperties config = new RedisBatchConfigProperties();
+        config.setBatchWindowMicros(batchWindowMicros);
+        config.setMaxBatchSize(maxBatchSize);
+        return new RedisScriptBatcher(template, config);
+    }
+}
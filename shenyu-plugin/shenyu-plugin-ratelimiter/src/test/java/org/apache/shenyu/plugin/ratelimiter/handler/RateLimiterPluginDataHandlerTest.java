@@ -18,6 +18,7 @@
 package org.apache.shenyu.plugin.ratelimiter.handler;
 
 import com.google.common.collect.Sets;
+import com.google.gson.JsonObject;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.shenyu.common.dto.PluginData;
 import org.apache.shenyu.common.enums.PluginEnum;
@@ -25,6 +26,7 @@ import org.apache.shenyu.common.utils.GsonUtils;
 import org.apache.shenyu.common.utils.Singleton;
 import org.apache.shenyu.plugin.cache.redis.RedisConfigProperties;
 import org.apache.shenyu.plugin.cache.redis.RedisConnectionFactory;
+import org.apache.shenyu.plugin.ratelimiter.cluster.ClusterRateLimiter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,11 +41,16 @@ import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.net.DatagramSocket;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * RateLimiterPluginDataHandler test.
@@ -91,6 +98,36 @@ public final class RateLimiterPluginDataHandlerTest {
         assertNotNull(Singleton.INST.get(ReactiveRedisTemplate.class));
     }
 
+    /**
+     * the cluster rate limiter is closed when the plugin is disabled.
+     */
+    @Test
+    public void handlerPluginDisabledTest() throws IOException {
+        RedisConfigProperties redisConfigProperties = generateRedisConfig(generateDefaultUrl());
+        JsonObject config = GsonUtils.getInstance().fromJson(GsonUtils.getInstance().toJson(redisConfigProperties), JsonObject.class);
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            config.addProperty("clusterPort", socket.getLocalPort());
+        }
+        PluginData pluginData = new PluginData();
+        pluginData.setEnabled(true);
+        pluginData.setConfig(config.toString());
+        RateLimiterPluginDataHandler handler = new RateLimiterPluginDataHandler();
+        handler.handlerPlugin(pluginData);
+        ClusterRateLimiter clusterRateLimiter = Singleton.INST.get(ClusterRateLimiter.class);
+        assertNotNull(clusterRateLimiter);
+        assertTrue(clusterRateLimiter.isRunning());
+        pluginData.setEnabled(false);
+        handler.handlerPlugin(pluginData);
+        assertFalse(clusterRateLimiter.isRunning());
+        assertNull(Singleton.INST.get(ClusterRateLimiter.class));
+        // it is started again when the plugin is enabled
+        pluginData.setEnabled(true);
+        handler.handlerPlugin(pluginData);
+        assertTrue(Singleton.INST.get(ClusterRateLimiter.class).isRunning());
+        handler.removePlugin(pluginData);
+        assertNull(Singleton.INST.get(ClusterRateLimiter.class));
+    }
+
     /**
      * parts parse result null test case.
      */
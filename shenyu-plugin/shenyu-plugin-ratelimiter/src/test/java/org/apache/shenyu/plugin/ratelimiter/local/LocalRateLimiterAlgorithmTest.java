@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.local;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Test cases for LocalRateLimiterAlgorithm.
+ */
+public final class LocalRateLimiterAlgorithmTest {
+
+    @Test
+    public void factoryTest() {
+        assertThat(LocalRateLimiterAlgorithmFactory.newInstance("tokenBucket"), instanceOf(TokenBucketLocalRateLimiterAlgorithm.class));
+        assertThat(LocalRateLimiterAlgorithmFactory.newInstance("leakyBucket"), instanceOf(LeakyBucketLocalRateLimiterAlgorithm.class));
+        assertThat(LocalRateLimiterAlgorithmFactory.newInstance("slidingWindow"), instanceOf(SlidingWindowLocalRateLimiterAlgorithm.class));
+        assertThat(LocalRateLimiterAlgorithmFactory.newInstance("concurrent"), instanceOf(ConcurrentLocalRateLimiterAlgorithm.class));
+    }
+
+    @Test
+    public void tokenBucketTest() {
+        assertBurst(new TokenBucketLocalRateLimiterAlgorithm(), "tokenBucket");
+    }
+
+    @Test
+    public void leakyBucketTest() {
+        assertBurst(new LeakyBucketLocalRateLimiterAlgorithm(), "leakyBucket");
+    }
+
+    @Test
+    public void slidingWindowTest() {
+        assertBurst(new SlidingWindowLocalRateLimiterAlgorithm(), "slidingWindow");
+    }
+
+    @Test
+    public void concurrentTest() {
+        ConcurrentLocalRateLimiterAlgorithm algorithm = new ConcurrentLocalRateLimiterAlgorithm();
+        RateLimiterHandle handle = buildHandle("concurrent", 2);
+        assertThat(algorithm.isAllowed("concurrent", handle).isAllowed(), is(true));
+        assertThat(algorithm.isAllowed("concurrent", handle).isAllowed(), is(true));
+        assertThat(algorithm.isAllowed("concurrent", handle).isAllowed(), is(false));
+        algorithm.release("concurrent");
+        assertThat(algorithm.isAllowed("concurrent", handle).isAllowed(), is(true));
+    }
+
+    @Test
+    public void concurrentAcquireTest() throws InterruptedException {
+        TokenBucketLocalRateLimiterAlgorithm algorithm = new TokenBucketLocalRateLimiterAlgorithm();
+        RateLimiterHandle handle = buildHandle("tokenBucket", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(400);
+        AtomicInteger allowed = new AtomicInteger();
+        for (int i = 0; i < 400; i++) {
+            executor.execute(() -> {
+                if (algorithm.isAllowed("concurrentAcquire", handle).isAllowed()) {
+                    allowed.incrementAndGet();
+                }
+                latch.countDown();
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertThat(allowed.get(), is(100));
+    }
+
+    private void assertBurst(final LocalRateLimiterAlgorithm algorithm, final String id) {
+        RateLimiterHandle handle = buildHandle(id, 10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(algorithm.isAllowed(id, handle).isAllowed(), is(true));
+        }
+        assertThat(algorithm.isAllowed(id, handle).isAllowed(), is(false));
+        assertThat(algorithm.isAllowed(id + "-other", handle).isAllowed(), is(true));
+    }
+
+    private RateLimiterHandle buildHandle(final String algorithmName, final double burstCapacity) {
+        RateLimiterHandle handle = new RateLimiterHandle();
+        handle.setAlgorithmName(algorithmName);
+        handle.setReplenishRate(0.001);
+        handle.setBurstCapacity(burstCapacity);
+        return handle;
+    }
+}
@@ -31,6 +31,8 @@ import org.springframework.web.server.ServerWebExchange;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -84,4 +86,47 @@ public class RateLimiterKeyResolverTest {
         String keyResolverName = new RemoteAddrKeyResolver().getKeyResolverName();
         assertEquals("REMOTE_ADDRESS_KEY_RESOLVER", keyResolverName);
     }
+
+    @Test
+    public void headerResolveTest() {
+        RateLimiterKeyResolver keyResolver = new HeaderKeyResolver();
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").header("tenant", "t1").build());
+        assertEquals("t1", keyResolver.resolve(exchange, "tenant"));
+        assertEquals("", keyResolver.resolve(exchange, "user"));
+        assertEquals("", keyResolver.resolve(exchange, null));
+        assertEquals("HEADER_KEY_RESOLVER", keyResolver.getKeyResolverName());
+    }
+
+    @Test
+    public void queryParamResolveTest() {
+        RateLimiterKeyResolver keyResolver = new QueryParamKeyResolver();
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost?user=u1").build());
+        assertEquals("u1", keyResolver.resolve(exchange, "user"));
+        assertEquals("", keyResolver.resolve(exchange, "tenant"));
+        assertEquals("QUERY_PARAM_KEY_RESOLVER", keyResolver.getKeyResolverName());
+    }
+
+    @Test
+    public void jwtClaimResolveTest() {
+        RateLimiterKeyResolver keyResolver = new JwtClaimKeyResolver();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString("{\"sub\":\"u1\",\"tenant\":\"t1\"}".getBytes(StandardCharsets.UTF_8)) + ".signature";
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").header("Authorization", "Bearer " + token).build());
+        assertEquals("u1", keyResolver.resolve(exchange));
+        assertEquals("t1", keyResolver.resolve(exchange, "tenant"));
+        assertEquals("", keyResolver.resolve(exchange, "user"));
+        ServerWebExchange invalidExchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").header("token", "invalid").build());
+        assertEquals("", keyResolver.resolve(invalidExchange, "tenant"));
+        assertEquals("JWT_CLAIM_KEY_RESOLVER", keyResolver.getKeyResolverName());
+    }
+
+    @Test
+    public void appKeyResolveTest() {
+        RateLimiterKeyResolver keyResolver = new AppKeyResolver();
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").header("appKey", "app").build());
+        assertEquals("app", keyResolver.resolve(exchange, "ignored"));
+        assertEquals("", keyResolver.resolve(firstExchange));
+        assertEquals("APP_KEY_RESOLVER", keyResolver.getKeyResolverName());
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link BoundedKeyStore}.
+ */
+public final class BoundedKeyStoreTest {
+
+    @Test
+    public void getTest() {
+        BoundedKeyStore<AtomicInteger> store = new BoundedKeyStore<>();
+        AtomicInteger state = store.get("key", key -> new AtomicInteger());
+        assertSame(state, store.get("key", key -> new AtomicInteger()));
+        assertSame(state, store.getIfPresent("key"));
+        assertNull(store.getIfPresent("absent"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void boundedTest() {
+        BoundedKeyStore<AtomicInteger> store = new BoundedKeyStore<>(100, 5, TimeUnit.MINUTES);
+        for (int i = 0; i < 10_000; i++) {
+            store.get(String.valueOf(i), key -> new AtomicInteger());
+        }
+        assertTrue(store.size() <= 100);
+    }
+}
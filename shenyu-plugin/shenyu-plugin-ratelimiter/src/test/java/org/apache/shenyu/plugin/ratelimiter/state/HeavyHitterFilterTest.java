@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.plugin.ratelimiter.state;
+
+import org.apache.shenyu.common.dto.convert.rule.RateLimiterHandle;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link HeavyHitterFilter} and {@link CountMinSketch}.
+ */
+public final class HeavyHitterFilterTest {
+
+    @Test
+    public void sketchTest() {
+        CountMinSketch sketch = new CountMinSketch(1024, TimeUnit.HOURS.toNanos(1));
+        for (int i = 0; i < 5000; i++) {
+            sketch.add("light-" + i, 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            sketch.add("heavy", 1);
+        }
+        assertTrue(sketch.estimate("heavy") >= 100);
+        assertTrue(sketch.estimate("light-1") >= 1);
+    }
+
+    @Test
+    public void sameHashCodeTest() {
+        CountMinSketch sketch = new CountMinSketch(1024, TimeUnit.HOURS.toNanos(1));
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        sketch.add("Aa", 100);
+        assertEquals(0, sketch.estimate("BB"));
+    }
+
+    @Test
+    public void decayTest() throws InterruptedException {
+        CountMinSketch sketch = new CountMinSketch(1024, TimeUnit.MILLISECONDS.toNanos(10));
+        sketch.add("key", 100);
+        Thread.sleep(20);
+        assertEquals(50, sketch.estimate("key"));
+    }
+
+    @Test
+    public void isLightTest() {
+        RateLimiterHandle limiterHandle = new RateLimiterHandle();
+        limiterHandle.setReplenishRate(1);
+        limiterHandle.setBurstCapacity(100);
+        limiterHandle.setHeavyHitterPercent(10);
+        HeavyHitterFilter filter = new HeavyHitterFilter();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(filter.isLight("rule", "heavy", limiterHandle));
+        }
+        assertFalse(filter.isLight("rule", "heavy", limiterHandle));
+        assertTrue(filter.isLight("rule", "light", limiterHandle));
+        assertTrue(filter.isLight("other", "heavy", limiterHandle));
+        limiterHandle.setHeavyHitterPercent(0.5);
+        assertFalse(filter.isLight("rule", "light", limiterHandle));
+    }
+}
@@ -26,7 +26,9 @@ import org.apache.shenyu.common.dto.convert.selector.SpringCloudSelectorHandle;
 import org.apache.shenyu.common.enums.PluginEnum;
 import org.apache.shenyu.common.enums.RpcTypeEnum;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.apache.shenyu.plugin.api.result.ShenyuResultEnum;
 import org.apache.shenyu.plugin.api.result.ShenyuResultWrap;
 import org.apache.shenyu.plugin.api.utils.WebFluxResultUtils;
@@ -105,8 +107,13 @@ public class SpringCloudPlugin extends AbstractShenyuPlugin {
         URI uri = loadBalancer.reconstructURI(serviceInstance, URI.create(shenyuContext.getRealUrl()));
         // 构建真正的请求地址，最后请求会通过httpclient插件来发起远程调用
         setDomain(uri, exchange);
+        // the upstream selected by the gray load balancer is tracked by the http client
+        if (Objects.nonNull(loadBalanceKey.getUpstream())) {
+            ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.UPSTREAM, loadBalanceKey.getUpstream());
+            ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.UPSTREAM_SELECTOR_ID, selector.getId());
+        }
         //set time out.
-        exchange.getAttributes().put(Constants.HTTP_TIME_OUT, ruleHandle.getTimeout());
+        ShenyuExchangeAttributes.putTimeout(exchange, ruleHandle.getTimeout());
         /*
            总体思路：
            1、请求匹配到规则
@@ -149,6 +156,6 @@ public class SpringCloudPlugin extends AbstractShenyuPlugin {
 
     private void setDomain(final URI uri, final ServerWebExchange exchange) {
         String domain = uri.getScheme() + "://" + uri.getAuthority();
-        exchange.getAttributes().put(Constants.HTTP_DOMAIN, domain);
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.HTTP_DOMAIN, domain);
     }
 }
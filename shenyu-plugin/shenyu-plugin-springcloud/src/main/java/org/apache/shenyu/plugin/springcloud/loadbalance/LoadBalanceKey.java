@@ -18,6 +18,7 @@
 package org.apache.shenyu.plugin.springcloud.loadbalance;
 
 import org.apache.shenyu.common.enums.LoadBalanceEnum;
+import org.apache.shenyu.loadbalancer.entity.Upstream;
 
 /**
  * The load balance key.
@@ -40,6 +41,11 @@ public class LoadBalanceKey {
      */
     private String loadBalance;
 
+    /**
+     * the upstream selected by the gray load balancer, null when the ribbon rule chooses.
+     */
+    private Upstream upstream;
+
     public LoadBalanceKey() {
     }
 
@@ -105,4 +111,22 @@ public class LoadBalanceKey {
         this.selectorId = selectorId;
     }
 
+    /**
+     * get the upstream selected by the gray load balancer.
+     *
+     * @return upstream
+     */
+    public Upstream getUpstream() {
+        return upstream;
+    }
+
+    /**
+     * set the upstream selected by the gray load balancer.
+     *
+     * @param upstream upstream
+     */
+    public void setUpstream(final Upstream upstream) {
+        this.upstream = upstream;
+    }
+
 }
@@ -61,6 +61,8 @@ public class LoadBalanceRule extends ZoneAvoidanceRule {
             return super.choose(key);
         }
         Upstream upstream = LoadBalancerFactory.selector(choose, loadBalanceKey.getLoadBalance(), loadBalanceKey.getIp());
+        // the http client tracks the call of the selected upstream for the load balancers
+        loadBalanceKey.setUpstream(upstream);
         return available.stream().filter(server -> server.getHostPort().equals(upstream.getUrl())).findFirst().orElse(null);
     }
 }
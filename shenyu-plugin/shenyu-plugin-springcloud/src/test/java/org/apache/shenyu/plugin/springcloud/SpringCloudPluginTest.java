@@ -27,13 +27,17 @@ import org.apache.shenyu.common.dto.convert.selector.SpringCloudSelectorHandle;
 import org.apache.shenyu.common.enums.PluginEnum;
 import org.apache.shenyu.common.enums.RpcTypeEnum;
 import org.apache.shenyu.common.utils.GsonUtils;
+import org.apache.shenyu.loadbalancer.entity.Upstream;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.apache.shenyu.plugin.api.result.DefaultShenyuResult;
 import org.apache.shenyu.plugin.api.result.ShenyuResult;
 import org.apache.shenyu.plugin.api.utils.SpringBeanUtils;
 import org.apache.shenyu.plugin.base.utils.CacheKeyUtils;
 import org.apache.shenyu.plugin.springcloud.handler.SpringCloudPluginDataHandler;
+import org.apache.shenyu.plugin.springcloud.loadbalance.LoadBalanceKeyHolder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,6 +45,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.netflix.ribbon.RibbonLoadBalancerClient;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.http.HttpMethod;
@@ -53,6 +58,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.net.InetSocketAddress;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -60,7 +66,9 @@ import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -220,4 +228,32 @@ public class SpringCloudPluginTest {
         Mono<Void> execute = springCloudPlugin.doExecute(exchange, chain, selectorData, rule);
         StepVerifier.create(execute).expectSubscription().verifyComplete();
     }
+
+    @Test
+    public void testSpringCloudPluginGrayUpstream() {
+        final SelectorData selectorData = SelectorData.builder()
+                .id("springcloud-gray")
+                .handle("{\"serviceId\":\"service1\"}")
+                .build();
+        final RuleData rule = RuleData.builder()
+                .id("springcloud-gray")
+                .selectorId("springcloud-gray")
+                .handle("{\"path\":\"service1/\"}")
+                .build();
+        SpringCloudPluginDataHandler.SELECTOR_CACHED.get().cachedHandle(selectorData.getId(), GsonUtils.getGson()
+                .fromJson(selectorData.getHandle(), SpringCloudSelectorHandle.class));
+        SpringCloudPluginDataHandler.RULE_CACHED.get().cachedHandle(CacheKeyUtils.INST.getKey(rule), GsonUtils.getGson()
+                .fromJson(rule.getHandle(), SpringCloudRuleHandle.class));
+        Upstream upstream = Upstream.builder().url("localhost:8080").build();
+        when(loadBalancerClient.choose("service1")).thenAnswer(invocation -> {
+            LoadBalanceKeyHolder.getLoadBalanceKey().setUpstream(upstream);
+            return mock(ServiceInstance.class);
+        });
+        when(loadBalancerClient.reconstructURI(any(), any())).thenReturn(URI.create("http://localhost:8080/test"));
+        when(shenyuContext.getRealUrl()).thenReturn("/test");
+        when(chain.execute(exchange)).thenReturn(Mono.empty());
+        StepVerifier.create(springCloudPlugin.doExecute(exchange, chain, selectorData, rule)).expectSubscription().verifyComplete();
+        assertSame(upstream, ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.UPSTREAM));
+        assertEquals("springcloud-gray", ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.UPSTREAM_SELECTOR_ID));
+    }
 }
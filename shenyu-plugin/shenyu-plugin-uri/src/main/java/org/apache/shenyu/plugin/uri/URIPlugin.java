@@ -18,10 +18,11 @@
 package org.apache.shenyu.plugin.uri;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.shenyu.common.constant.Constants;
 import org.apache.shenyu.common.enums.PluginEnum;
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
 import org.apache.shenyu.plugin.api.utils.RequestUrlUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -35,12 +36,12 @@ public class URIPlugin implements ShenyuPlugin {
 
     @Override
     public Mono<Void> execute(final ServerWebExchange exchange, final ShenyuPluginChain chain) {
-        String domain = exchange.getAttribute(Constants.HTTP_DOMAIN);
+        String domain = ShenyuExchangeAttributes.getAttribute(exchange, ShenyuAttributeKey.HTTP_DOMAIN);
         if (StringUtils.isBlank(domain)) {
             return chain.execute(exchange);
         }
         final URI uri = RequestUrlUtils.buildRequestUri(exchange, domain);
-        exchange.getAttributes().put(Constants.HTTP_URI, uri);
+        ShenyuExchangeAttributes.putAttribute(exchange, ShenyuAttributeKey.HTTP_URI, uri);
         return chain.execute(exchange);
     }
 
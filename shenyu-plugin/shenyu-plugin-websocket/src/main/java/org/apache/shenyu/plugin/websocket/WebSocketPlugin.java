@@ -55,6 +55,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -100,8 +102,9 @@ public class WebSocketPlugin extends AbstractShenyuPlugin {
         URI wsRequestUrl = UriComponentsBuilder.fromUri(URI.create(buildWsRealPath(exchange, upstream, shenyuContext))).build().toUri();
         LOG.info("you websocket urlPath is :{}", wsRequestUrl.toASCIIString());
         HttpHeaders headers = exchange.getRequest().getHeaders();
+        Consumer<Boolean> handshakeListener = success -> UpstreamCacheManager.getInstance().reportResult(selector.getId(), upstream, success);
         return this.webSocketService.handleRequest(exchange, new ShenyuWebSocketHandler(
-                wsRequestUrl, this.webSocketClient, filterHeaders(headers), buildWsProtocols(headers)));
+                wsRequestUrl, this.webSocketClient, filterHeaders(headers), buildWsProtocols(headers), handshakeListener));
     }
     
     private String buildWsRealPath(final ServerWebExchange exchange, final Upstream upstream, final ShenyuContext shenyuContext) {
@@ -167,6 +170,8 @@ public class WebSocketPlugin extends AbstractShenyuPlugin {
         
         private final List<String> subProtocols;
         
+        private final Consumer<Boolean> handshakeListener;
+        
         /**
          * Instantiates a new shenyu web socket handler.
          *
@@ -174,14 +179,17 @@ public class WebSocketPlugin extends AbstractShenyuPlugin {
          * @param client    the client
          * @param headers   the headers
          * @param protocols the protocols
+         * @param handshakeListener the listener of the upstream handshake result
          */
         ShenyuWebSocketHandler(final URI url, final WebSocketClient client,
                                final HttpHeaders headers,
-                               final List<String> protocols) {
+                               final List<String> protocols,
+                               final Consumer<Boolean> handshakeListener) {
             this.client = client;
             this.url = url;
             this.headers = headers;
             this.subProtocols = ObjectUtils.defaultIfNull(protocols, Collections.emptyList());
+            this.handshakeListener = handshakeListener;
         }
         
         @NonNull
@@ -193,12 +201,14 @@ public class WebSocketPlugin extends AbstractShenyuPlugin {
         @NonNull
         @Override
         public Mono<Void> handle(@NonNull final WebSocketSession session) {
+            final AtomicBoolean connected = new AtomicBoolean();
             // pass headers along so custom headers can be sent through
             return client.execute(url, this.headers, new WebSocketHandler() {
                 
                 @NonNull
                 @Override
                 public Mono<Void> handle(@NonNull final WebSocketSession webSocketSession) {
+                    connected(connected);
                     // Use retain() for Reactor Netty
                     Mono<Void> sessionSend = webSocketSession
                             .send(session.receive().doOnNext(WebSocketMessage::retain));
@@ -212,7 +222,17 @@ public class WebSocketPlugin extends AbstractShenyuPlugin {
                 public List<String> getSubProtocols() {
                     return ShenyuWebSocketHandler.this.subProtocols;
                 }
+            }).doOnError(e -> {
+                // only the failed handshake is reported, the session errors are not the upstream failures
+                if (!connected.get()) {
+                    handshakeListener.accept(false);
+                }
             });
         }
+        
+        private void connected(final AtomicBoolean connected) {
+            connected.set(true);
+            handshakeListener.accept(true);
+        }
     }
 }
@@ -21,6 +21,9 @@ import org.apache.shenyu.common.config.ShenyuConfig.InstanceConfig;
 import org.apache.shenyu.register.common.dto.InstanceRegisterDTO;
 import org.apache.shenyu.spi.SPI;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Shenyu instance register repository.
  */
@@ -41,6 +44,15 @@ public interface ShenyuInstanceRegisterRepository {
      * @param instance instance
      */
     void persistInstance(InstanceRegisterDTO instance);
+
+    /**
+     * Select the registered instances.
+     *
+     * @return the instances
+     */
+    default List<InstanceRegisterDTO> selectInstances() {
+        return Collections.emptyList();
+    }
     
     /**
      * Close.
@@ -21,6 +21,7 @@ import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.KV;
 import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
+import io.etcd.jetcd.options.GetOption;
 import io.etcd.jetcd.options.PutOption;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
@@ -28,9 +29,12 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * etcd client.
@@ -100,4 +104,23 @@ public class EtcdClient {
             LOGGER.error("putEphemeral(key:{},value:{}) error.", key, value, e);
         }
     }
+
+    /**
+     * get the data of the children of the parent path.
+     * @param parent the parent path
+     * @return the data of the children
+     */
+    public List<String> getChildrenData(final String parent) {
+        try {
+            ByteSequence prefix = ByteSequence.from(parent + "/", UTF_8);
+            return client.getKVClient().get(prefix, GetOption.newBuilder().withPrefix(prefix).build())
+                    .get(timeout, TimeUnit.MILLISECONDS)
+                    .getKvs().stream()
+                    .map(keyValue -> keyValue.getValue().toString(UTF_8))
+                    .collect(Collectors.toList());
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            LOGGER.error("getChildrenData(parent:{}) error.", parent, e);
+            return Collections.emptyList();
+        }
+    }
 }
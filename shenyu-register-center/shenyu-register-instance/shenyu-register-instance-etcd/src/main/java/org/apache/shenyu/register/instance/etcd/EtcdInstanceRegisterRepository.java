@@ -27,7 +27,9 @@ import org.apache.shenyu.spi.Join;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 /**
  * The type Etcd instance register repository.
@@ -57,6 +59,14 @@ public class EtcdInstanceRegisterRepository implements ShenyuInstanceRegisterRep
         LOGGER.info("etcd client register success: {}", nodeData);
     }
 
+    @Override
+    public List<InstanceRegisterDTO> selectInstances() {
+        String instancePath = RegisterPathConstants.buildInstanceParentPath();
+        return client.getChildrenData(instancePath).stream()
+                .map(data -> GsonUtils.getInstance().fromJson(data, InstanceRegisterDTO.class))
+                .collect(Collectors.toList());
+    }
+
     private String buildInstanceNodeName(final InstanceRegisterDTO instance) {
         String host = instance.getHost();
         int port = instance.getPort();
@@ -24,7 +24,9 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -61,6 +63,14 @@ public final class EtcdInstanceRegisterRepositoryTest {
             return null;
         }).when(etcdClient).putEphemeral(anyString(), anyString());
 
+        doAnswer(invocationOnMock -> {
+            String parent = invocationOnMock.getArgument(0);
+            return etcdBroker.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(parent + "/"))
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.toList());
+        }).when(etcdClient).getChildrenData(anyString());
+
         doAnswer(invocationOnMock -> {
             etcdBroker.clear();
             return null;
@@ -82,4 +92,18 @@ public final class EtcdInstanceRegisterRepositoryTest {
         assertEquals(GsonUtils.getInstance().toJson(data), etcdBroker.get(realNode));
         repository.close();
     }
+
+    @Test
+    public void testSelectInstances() {
+        InstanceRegisterDTO data = InstanceRegisterDTO.builder()
+                .appName("shenyu-test")
+                .host("shenyu-host")
+                .port(9195)
+                .build();
+        repository.persistInstance(data);
+        List<InstanceRegisterDTO> instances = repository.selectInstances();
+        assertEquals(1, instances.size());
+        assertEquals(data.getHost(), instances.get(0).getHost());
+        assertEquals(data.getPort(), instances.get(0).getPort());
+    }
 }
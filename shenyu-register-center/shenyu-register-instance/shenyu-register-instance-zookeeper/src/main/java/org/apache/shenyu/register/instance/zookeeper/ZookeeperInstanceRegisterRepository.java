@@ -30,9 +30,13 @@ import org.apache.zookeeper.Watcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 /**
  * The type Zookeeper instance register repository.
@@ -70,6 +74,19 @@ public class ZookeeperInstanceRegisterRepository implements ShenyuInstanceRegist
         }
     }
     
+    @Override
+    public List<InstanceRegisterDTO> selectInstances() {
+        String instancePath = RegisterPathConstants.buildInstanceParentPath();
+        if (!zkClient.exists(instancePath)) {
+            return Collections.emptyList();
+        }
+        return zkClient.getChildren(instancePath).stream()
+                .map(child -> zkClient.<String>readData(RegisterPathConstants.buildRealNode(instancePath, child), true))
+                .filter(Objects::nonNull)
+                .map(data -> GsonUtils.getInstance().fromJson(data, InstanceRegisterDTO.class))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void close() {
         zkClient.close();
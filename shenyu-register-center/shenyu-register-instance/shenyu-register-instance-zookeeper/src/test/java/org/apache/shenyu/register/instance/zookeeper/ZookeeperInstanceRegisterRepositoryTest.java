@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -65,6 +66,20 @@ public class ZookeeperInstanceRegisterRepositoryTest {
         assertEquals(registerInstanceMap.get("/shenyu/register/instance/shenyu-host:9195"), "{\"appName\":\"shenyu-test\",\"host\":\"shenyu-host\",\"port\":9195}");
     }
 
+    @Test
+    public void testSelectInstances() {
+        InstanceRegisterDTO data = InstanceRegisterDTO.builder()
+                .appName("shenyu-test")
+                .host("shenyu-host")
+                .port(9195)
+                .build();
+        repository.persistInstance(data);
+        List<InstanceRegisterDTO> instances = repository.selectInstances();
+        assertEquals(1, instances.size());
+        assertEquals("shenyu-host", instances.get(0).getHost());
+        assertEquals(9195, instances.get(0).getPort().intValue());
+    }
+
     private ZkClient mockZkClient() {
         final ZkClient zkClient = mock(ZkClient.class);
         doAnswer(invocation -> {
@@ -78,6 +93,12 @@ public class ZookeeperInstanceRegisterRepositoryTest {
             registerInstanceMap.put(path, nodeValue);
             return null;
         }).when(zkClient).createEphemeral(anyString(), anyString());
+        doAnswer(invocation -> registerPath.contains(invocation.<String>getArgument(0))
+                || registerInstanceMap.containsKey(invocation.<String>getArgument(0))).when(zkClient).exists(anyString());
+        doAnswer(invocation -> registerInstanceMap.keySet().stream()
+                .map(path -> path.substring(path.lastIndexOf('/') + 1))
+                .collect(Collectors.toList())).when(zkClient).getChildren(anyString());
+        doAnswer(invocation -> registerInstanceMap.get(invocation.<String>getArgument(0))).when(zkClient).readData(anyString(), anyBoolean());
         return zkClient;
     }
 }
@@ -29,6 +29,9 @@ import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.httpclient.NettyHttpClientPlugin;
 import org.apache.shenyu.plugin.httpclient.WebClientPlugin;
 import org.apache.shenyu.plugin.httpclient.config.HttpClientProperties;
+import org.apache.shenyu.plugin.httpclient.http2.Http2ClientHttpConnector;
+import org.apache.shenyu.plugin.httpclient.http2.Http2ConnectionManager;
+import org.apache.shenyu.plugin.httpclient.pool.UpstreamPoolManager;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -83,6 +86,18 @@ public class HttpClientPluginConfiguration {
         } else {
             connectionProvider = ConnectionProvider.elastic(pool.getName(), pool.getMaxIdleTime());
         }
+        return buildHttpClient(properties, connectionProvider);
+    }
+
+    /**
+     * Build the http client on the connection provider, the shared client and the dedicated upstream pools
+     * are configured the same way.
+     *
+     * @param properties the properties
+     * @param connectionProvider the connection provider
+     * @return the http client
+     */
+    private static HttpClient buildHttpClient(final HttpClientProperties properties, final ConnectionProvider connectionProvider) {
         HttpClient httpClient = HttpClient.create(connectionProvider)
                 .tcpConfiguration(tcpClient -> {
                     if (Objects.nonNull(properties.getConnectTimeout())) {
@@ -148,6 +163,17 @@ public class HttpClientPluginConfiguration {
         return httpClient.keepAlive(properties.isKeepAlive());
     }
 
+    /**
+     * Http/2 connection manager, the rules choosing h2, h2c or auto multiplex the requests over its connections.
+     *
+     * @param properties the properties
+     * @return the http/2 connection manager
+     */
+    @Bean
+    public Http2ConnectionManager http2ConnectionManager(final HttpClientProperties properties) {
+        return new Http2ConnectionManager(properties);
+    }
+
     /**
      * The type Web client configuration.
      */
@@ -159,12 +185,14 @@ public class HttpClientPluginConfiguration {
          * Web client plugin shenyu plugin.
          *
          * @param httpClient the http client
+         * @param http2ConnectionManager the http/2 connection manager
          * @return the shenyu plugin
          */
         @Bean
-        public ShenyuPlugin webClientPlugin(final ObjectProvider<HttpClient> httpClient) {
+        public ShenyuPlugin webClientPlugin(final ObjectProvider<HttpClient> httpClient, final Http2ConnectionManager http2ConnectionManager) {
+            ReactorClientHttpConnector connector = new ReactorClientHttpConnector(Objects.requireNonNull(httpClient.getIfAvailable()));
             WebClient webClient = WebClient.builder()
-                    .clientConnector(new ReactorClientHttpConnector(Objects.requireNonNull(httpClient.getIfAvailable())))
+                    .clientConnector(new Http2ClientHttpConnector(connector, http2ConnectionManager))
                     .build();
             return new WebClientPlugin(webClient);
         }
@@ -177,15 +205,30 @@ public class HttpClientPluginConfiguration {
     @ConditionalOnProperty(name = "shenyu.httpclient.strategy", havingValue = "netty")
     static class NettyHttpClientConfiguration {
 
+        /**
+         * Upstream pool manager, the dedicated pools are configured as the shared http client.
+         *
+         * @param properties the properties
+         * @return the upstream pool manager
+         */
+        @Bean
+        public UpstreamPoolManager upstreamPoolManager(final HttpClientProperties properties) {
+            return new UpstreamPoolManager(connectionProvider -> buildHttpClient(properties, connectionProvider),
+                    properties.getPool().getAcquireTimeout());
+        }
+
         /**
          * Netty http client plugin shenyu plugin.
          *
          * @param httpClient the http client
+         * @param upstreamPoolManager the upstream pool manager
+         * @param http2ConnectionManager the http/2 connection manager
          * @return the shenyu plugin
          */
         @Bean
-        public ShenyuPlugin nettyHttpClientPlugin(final ObjectProvider<HttpClient> httpClient) {
-            return new NettyHttpClientPlugin(httpClient.getIfAvailable());
+        public ShenyuPlugin nettyHttpClientPlugin(final ObjectProvider<HttpClient> httpClient, final UpstreamPoolManager upstreamPoolManager,
+                                                  final Http2ConnectionManager http2ConnectionManager) {
+            return new NettyHttpClientPlugin(httpClient.getIfAvailable(), upstreamPoolManager, http2ConnectionManager);
         }
     }
 }
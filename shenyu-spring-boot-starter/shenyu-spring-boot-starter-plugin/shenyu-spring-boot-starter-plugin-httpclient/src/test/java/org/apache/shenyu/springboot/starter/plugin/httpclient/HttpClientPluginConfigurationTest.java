@@ -25,6 +25,8 @@ import java.time.Duration;
 
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.httpclient.config.HttpClientProperties;
+import org.apache.shenyu.plugin.httpclient.http2.Http2ConnectionManager;
+import org.apache.shenyu.plugin.httpclient.pool.UpstreamPoolManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -129,6 +131,8 @@ public class HttpClientPluginConfigurationTest {
                 .run(context -> {
                     ShenyuPlugin plugin = context.getBean("nettyHttpClientPlugin", ShenyuPlugin.class);
                     assertNotNull(plugin);
+                    assertNotNull(context.getBean("upstreamPoolManager", UpstreamPoolManager.class));
+                    assertNotNull(context.getBean("http2ConnectionManager", Http2ConnectionManager.class));
                 });
     }
 }
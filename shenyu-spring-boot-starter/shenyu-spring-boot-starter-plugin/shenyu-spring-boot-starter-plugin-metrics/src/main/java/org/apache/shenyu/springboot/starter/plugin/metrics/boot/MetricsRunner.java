@@ -19,6 +19,10 @@ package org.apache.shenyu.springboot.starter.plugin.metrics.boot;
 
 import com.google.common.base.Preconditions;
 import org.apache.shenyu.common.config.ShenyuConfig.MetricsConfig;
+import org.apache.shenyu.plugin.api.profile.PluginProfiler;
+import org.apache.shenyu.plugin.api.profile.ProfileListener;
+import org.apache.shenyu.plugin.metrics.gauge.GaugeSampler;
+import org.apache.shenyu.plugin.metrics.profile.MetricsProfileListener;
 import org.apache.shenyu.plugin.metrics.reporter.MetricsReporter;
 import org.apache.shenyu.plugin.metrics.spi.MetricsRegister;
 import org.apache.shenyu.plugin.metrics.spi.MetricsService;
@@ -42,6 +46,10 @@ public class MetricsRunner implements CommandLineRunner, DisposableBean {
     
     private final MetricsConfig config;
     
+    private final ProfileListener profileListener = new MetricsProfileListener();
+    
+    private final GaugeSampler gaugeSampler = new GaugeSampler();
+    
     private MetricsService metricsService;
     
     /**
@@ -62,8 +70,13 @@ public class MetricsRunner implements CommandLineRunner, DisposableBean {
             MetricsRegister metricsRegister = ExtensionLoader.getExtensionLoader(MetricsRegister.class).getJoin(config.getName());
             Preconditions.checkNotNull(metricsRegister,
                     "Can not find metrics register with metrics name : %s in metrics configuration.", config.getName());
+            Optional.ofNullable(config.getProps()).map(props -> props.getProperty("route_max_series"))
+                    .ifPresent(maxSeries -> MetricsReporter.setRouteMaxSeries(Integer.parseInt(maxSeries)));
             MetricsReporter.register(metricsRegister);
+            PluginProfiler.getInstance().addListener(profileListener);
             metricsService.start(config, metricsRegister);
+            gaugeSampler.start(Optional.ofNullable(config.getProps()).map(props -> props.getProperty("gauge_interval_millis"))
+                    .map(Long::parseLong).orElse(GaugeSampler.DEFAULT_INTERVAL_MILLIS));
         } else {
             LOG.info("metrics service has started!");
         }
@@ -72,6 +85,8 @@ public class MetricsRunner implements CommandLineRunner, DisposableBean {
     @Override
     public void destroy() {
         this.isStarted.compareAndSet(true, false);
+        PluginProfiler.getInstance().removeListener(profileListener);
+        gaugeSampler.stop();
         Optional.ofNullable(metricsService).ifPresent(MetricsService::stop);
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.shenyu.web.controller;
+
+import org.apache.shenyu.common.constant.Constants;
+import org.apache.shenyu.plugin.api.profile.PluginProfiler;
+import org.apache.shenyu.plugin.api.profile.ProfileType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The type Local profile controller, shows the slowest plugins and routes of the plugin chain profiler.
+ */
+@RestController
+@RequestMapping(value = "/shenyu", produces = MediaType.APPLICATION_JSON_VALUE)
+public class LocalProfileController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalProfileController.class);
+
+    /**
+     * The profile stats, sorted by the total time.
+     *
+     * @param limit the limit of each profile type
+     * @return the mono
+     */
+    @GetMapping("/profile")
+    public Mono<Map<String, Object>> profile(@RequestParam(value = "limit", defaultValue = "10") final int limit) {
+        PluginProfiler profiler = PluginProfiler.getInstance();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", profiler.isEnabled());
+        result.put("allocation", profiler.isAllocation());
+        for (ProfileType type : ProfileType.values()) {
+            result.put(type.name().toLowerCase(), profiler.top(type, limit));
+        }
+        return Mono.just(result);
+    }
+
+    /**
+     * Toggle the profiler.
+     *
+     * @param enabled the enabled
+     * @param allocation whether the allocated bytes are profiled
+     * @return the mono
+     */
+    @GetMapping("/profile/enable")
+    public Mono<String> enable(@RequestParam("enabled") final boolean enabled,
+                               @RequestParam(value = "allocation", defaultValue = "false") final boolean allocation) {
+        LOG.info("apache shenyu plugin profiler enabled:{}, allocation:{}", enabled, allocation);
+        PluginProfiler profiler = PluginProfiler.getInstance();
+        profiler.setAllocation(allocation);
+        profiler.setEnabled(enabled);
+        return Mono.just(Constants.SUCCESS);
+    }
+
+    /**
+     * Reset the profile stats.
+     *
+     * @return the mono
+     */
+    @GetMapping("/profile/reset")
+    public Mono<String> reset() {
+        PluginProfiler.getInstance().reset();
+        return Mono.just(Constants.SUCCESS);
+    }
+}
@@ -22,6 +22,11 @@ import org.apache.shenyu.common.config.ShenyuConfig;
 import org.apache.shenyu.common.dto.PluginData;
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
 import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
+import org.apache.shenyu.plugin.api.context.ShenyuServerWebExchange;
+import org.apache.shenyu.plugin.api.profile.PluginProfiler;
+import org.apache.shenyu.plugin.api.profile.ProfileType;
+import org.apache.shenyu.plugin.base.AbstractShenyuPlugin;
 import org.apache.shenyu.plugin.base.cache.BaseDataCache;
 import org.apache.shenyu.plugin.base.cache.SortPluginEvent;
 import org.slf4j.Logger;
@@ -54,6 +59,11 @@ public final class ShenyuWebHandler implements WebHandler, ApplicationListener<S
      */
     private List<ShenyuPlugin> plugins;
 
+    /**
+     * the immutable execution plan, rebuilt when the plugins are sorted or any plugin data changes.
+     */
+    private volatile ExecutionPlan plan;
+
     private final boolean scheduled;
 
     private Scheduler scheduler;
@@ -66,6 +76,8 @@ public final class ShenyuWebHandler implements WebHandler, ApplicationListener<S
      */
     public ShenyuWebHandler(final List<ShenyuPlugin> plugins, final ShenyuConfig shenyuConfig) {
         this.plugins = plugins;
+        this.plan = buildPlan(plugins);
+        PluginProfiler.getInstance().config(shenyuConfig.getProfile());
         ShenyuConfig.Scheduler config = shenyuConfig.getScheduler();
         this.scheduled = config.getEnabled();
         if (scheduled) {
@@ -85,7 +97,15 @@ public final class ShenyuWebHandler implements WebHandler, ApplicationListener<S
      */
     @Override
     public Mono<Void> handle(@NonNull final ServerWebExchange exchange) {
-        Mono<Void> execute = new DefaultShenyuPluginChain(plugins).execute(exchange);
+        ServerWebExchange shenyuExchange = ShenyuServerWebExchange.wrap(exchange);
+        ShenyuExchangeAttributes attributes = (ShenyuExchangeAttributes) shenyuExchange.getAttributes();
+        // the error handlers and filters see the original exchange, sync the attributes before the signal reaches them
+        Mono<Void> execute = new DefaultShenyuPluginChain(obtainPlan().plugins).execute(shenyuExchange).doOnTerminate(attributes::sync);
+        PluginProfiler profiler = PluginProfiler.getInstance();
+        if (profiler.isEnabled()) {
+            long start = profiler.start();
+            execute = execute.doFinally(signal -> profiler.stopRoute(shenyuExchange, start));
+        }
         if (scheduled) {
             return execute.subscribeOn(scheduler);
         }
@@ -108,6 +128,7 @@ public final class ShenyuWebHandler implements WebHandler, ApplicationListener<S
             shenyuPlugins.forEach(plugin -> LOG.info("shenyu auto add extends plugins:{}", plugin.named()));
             shenyuPlugins.addAll(plugins);
             this.plugins = sortPlugins(shenyuPlugins);
+            this.plan = buildPlan(this.plugins);
         }
     }
     
@@ -120,6 +141,36 @@ public final class ShenyuWebHandler implements WebHandler, ApplicationListener<S
     public void onApplicationEvent(final SortPluginEvent event) {
         // copy a new one, or there will be concurrency problems
         this.plugins = sortPlugins(new ArrayList<>(plugins));
+        this.plan = buildPlan(this.plugins);
+    }
+
+    private ExecutionPlan obtainPlan() {
+        ExecutionPlan current = this.plan;
+        if (current.version != BaseDataCache.getInstance().obtainPluginDataVersion()) {
+            current = buildPlan(this.plugins);
+            this.plan = current;
+        }
+        return current;
+    }
+
+    /**
+     * build the execution plan, the {@link AbstractShenyuPlugin} without enabled plugin data only delegates
+     * to the next plugin, so it is left out of the plan.
+     *
+     * @param list the sorted plugins
+     * @return the execution plan
+     */
+    private ExecutionPlan buildPlan(final List<ShenyuPlugin> list) {
+        // read the version first, a change during the build makes the next request rebuild again
+        long version = BaseDataCache.getInstance().obtainPluginDataVersion();
+        ShenyuPlugin[] enabledPlugins = list.stream().filter(plugin -> {
+            if (plugin instanceof AbstractShenyuPlugin) {
+                PluginData pluginData = BaseDataCache.getInstance().obtainPluginData(plugin.named());
+                return Objects.nonNull(pluginData) && Boolean.TRUE.equals(pluginData.getEnabled());
+            }
+            return true;
+        }).toArray(ShenyuPlugin[]::new);
+        return new ExecutionPlan(version, enabledPlugins);
     }
 
     /**
@@ -137,18 +188,30 @@ public final class ShenyuWebHandler implements WebHandler, ApplicationListener<S
         return list;
     }
 
+    private static final class ExecutionPlan {
+
+        private final long version;
+
+        private final ShenyuPlugin[] plugins;
+
+        ExecutionPlan(final long version, final ShenyuPlugin[] plugins) {
+            this.version = version;
+            this.plugins = plugins;
+        }
+    }
+
     private static class DefaultShenyuPluginChain implements ShenyuPluginChain {
 
         private int index;
 
-        private final List<ShenyuPlugin> plugins;
+        private final ShenyuPlugin[] plugins;
 
         /**
          * Instantiates a new Default shenyu plugin chain.
          *
          * @param plugins the plugins
          */
-        DefaultShenyuPluginChain(final List<ShenyuPlugin> plugins) {
+        DefaultShenyuPluginChain(final ShenyuPlugin[] plugins) {
             this.plugins = plugins;
         }
 
@@ -161,16 +224,30 @@ public final class ShenyuWebHandler implements WebHandler, ApplicationListener<S
         @Override
         public Mono<Void> execute(final ServerWebExchange exchange) {
             return Mono.defer(() -> {
-                if (this.index < plugins.size()) {
-                    ShenyuPlugin plugin = plugins.get(this.index++);
-                    boolean skip = plugin.skip(exchange);
-                    if (skip) {
-                        return this.execute(exchange);
+                // skipped plugins are passed in place, without a deferred mono per hop
+                while (this.index < plugins.length) {
+                    ShenyuPlugin plugin = plugins[this.index++];
+                    if (!plugin.skip(exchange)) {
+                        return executePlugin(plugin, exchange);
                     }
-                    return plugin.execute(exchange, this);
                 }
                 return Mono.empty();
             });
         }
+
+        private Mono<Void> executePlugin(final ShenyuPlugin plugin, final ServerWebExchange exchange) {
+            PluginProfiler profiler = PluginProfiler.getInstance();
+            if (!profiler.isEnabled()) {
+                return plugin.execute(exchange, this);
+            }
+            // the next plugin is deferred, so this is the self time of the plugin
+            long startBytes = profiler.allocatedBytes();
+            long start = profiler.start();
+            try {
+                return plugin.execute(exchange, this);
+            } finally {
+                profiler.stop(ProfileType.PLUGIN, plugin.named(), start, startBytes);
+            }
+        }
     }
 }
@@ -19,20 +19,37 @@ package org.apache.shenyu.web.handler;
 
 import org.apache.shenyu.common.config.ShenyuConfig;
 import org.apache.shenyu.common.constant.Constants;
+import org.apache.shenyu.common.dto.PluginData;
+import org.apache.shenyu.common.dto.RuleData;
+import org.apache.shenyu.common.dto.SelectorData;
 import org.apache.shenyu.plugin.api.ShenyuPlugin;
+import org.apache.shenyu.plugin.api.ShenyuPluginChain;
+import org.apache.shenyu.plugin.api.context.ShenyuAttributeKey;
 import org.apache.shenyu.plugin.api.context.ShenyuContext;
+import org.apache.shenyu.plugin.api.context.ShenyuExchangeAttributes;
+import org.apache.shenyu.plugin.base.AbstractShenyuPlugin;
+import org.apache.shenyu.plugin.base.cache.BaseDataCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 /**
@@ -62,4 +79,65 @@ public final class ShenyuWebHandlerTest {
         Mono<Void> handle = shenyuWebHandler.handle(exchange);
         assertNotNull(handle);
     }
+
+    @Test
+    public void handleWithPluginData() {
+        TestShenyuPlugin testShenyuPlugin = new TestShenyuPlugin();
+        ShenyuPlugin skipPlugin = mock(ShenyuPlugin.class);
+        when(skipPlugin.skip(any())).thenReturn(true);
+        ShenyuWebHandler handler = new ShenyuWebHandler(Arrays.asList(skipPlugin, testShenyuPlugin), new ShenyuConfig());
+        final ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").build());
+        StepVerifier.create(handler.handle(exchange)).expectSubscription().verifyComplete();
+        assertEquals(0, testShenyuPlugin.count.get());
+
+        BaseDataCache.getInstance().cachePluginData(PluginData.builder().name(testShenyuPlugin.named()).enabled(true).build());
+        StepVerifier.create(handler.handle(exchange)).expectSubscription().verifyComplete();
+        assertEquals(1, testShenyuPlugin.count.get());
+        verify(skipPlugin, never()).execute(any(), any());
+
+        BaseDataCache.getInstance().removePluginDataByPluginName(testShenyuPlugin.named());
+        StepVerifier.create(handler.handle(exchange)).expectSubscription().verifyComplete();
+        assertEquals(1, testShenyuPlugin.count.get());
+    }
+
+    @Test
+    public void handleSyncsAttributes() {
+        ShenyuPlugin plugin = mock(ShenyuPlugin.class);
+        when(plugin.execute(any(), any())).thenAnswer(invocation -> {
+            ServerWebExchange shenyuExchange = invocation.getArgument(0);
+            ShenyuExchangeAttributes.putAttribute(shenyuExchange, ShenyuAttributeKey.LOAD_BALANCE, "hash");
+            return Mono.error(new IllegalStateException("test"));
+        });
+        ShenyuWebHandler handler = new ShenyuWebHandler(Collections.singletonList(plugin), new ShenyuConfig());
+        final ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("localhost").build());
+        StepVerifier.create(handler.handle(exchange).doOnError(throwable -> assertEquals("hash", exchange.getAttribute(Constants.LOAD_BALANCE))))
+                .expectError(IllegalStateException.class).verify();
+        assertEquals("hash", exchange.getAttribute(Constants.LOAD_BALANCE));
+    }
+
+    static class TestShenyuPlugin extends AbstractShenyuPlugin {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Mono<Void> execute(final ServerWebExchange exchange, final ShenyuPluginChain chain) {
+            count.incrementAndGet();
+            return super.execute(exchange, chain);
+        }
+
+        @Override
+        protected Mono<Void> doExecute(final ServerWebExchange exchange, final ShenyuPluginChain chain, final SelectorData selector, final RuleData rule) {
+            return chain.execute(exchange);
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+
+        @Override
+        public String named() {
+            return "shenyuWebHandlerTest";
+        }
+    }
 }